@@ -91,7 +91,8 @@ public class ServerlessWorkloadExample {
                 "/home/mha/serverless/azurefunctions-dataset2019/invocations_per_function_md.anon.d01.csv", 
                 1000,
                 500,
-                50 // MIPS rating
+                50, // MIPS rating
+                true // memory-map the multi-GB trace
             );
             
             cloudletList = workloadReader.generateWorkload();
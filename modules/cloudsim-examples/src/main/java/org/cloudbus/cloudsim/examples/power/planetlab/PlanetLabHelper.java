@@ -2,13 +2,14 @@ package org.cloudbus.cloudsim.examples.power.planetlab;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelNull;
-import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
+import org.cloudbus.cloudsim.UtilizationTraceStore;
 import org.cloudbus.cloudsim.examples.power.Constants;
 
 /**
@@ -45,6 +46,13 @@ public class PlanetLabHelper {
 
 		File inputFolder = new File(inputFolderName);
 		File[] files = inputFolder.listFiles();
+		UtilizationTraceStore traceStore = null;
+		try {
+			traceStore = UtilizationTraceStore.open(inputFolder, getTraceStoreFile(inputFolder));
+		} catch (IOException e) {
+			e.printStackTrace();
+			System.exit(0);
+		}
 
 		for (int i = 0; i < files.length; i++) {
 			Cloudlet cloudlet = null;
@@ -55,8 +63,8 @@ public class PlanetLabHelper {
 						Constants.CLOUDLET_PES,
 						fileSize,
 						outputSize,
-						new UtilizationModelPlanetLabInMemory(
-								files[i].getAbsolutePath(),
+						traceStore.getUtilizationModel(
+								files[i].getName(),
 								Constants.SCHEDULING_INTERVAL), utilizationModelNull, utilizationModelNull);
 			} catch (Exception e) {
 				e.printStackTrace();
@@ -70,4 +78,16 @@ public class PlanetLabHelper {
 		return list;
 	}
 
+	/**
+	 * Gets the file the traces of a workload folder are stored in, in the temporary directory so
+	 * that the following runs reuse it.
+	 * 
+	 * @param inputFolder the input folder
+	 * @return the trace store file
+	 */
+	private static File getTraceStoreFile(File inputFolder) {
+		return new File(System.getProperty("java.io.tmpdir"), "cloudsim-planetlab-" + inputFolder.getName() + "-"
+				+ Integer.toHexString(inputFolder.getAbsolutePath().hashCode()) + ".store");
+	}
+
 }
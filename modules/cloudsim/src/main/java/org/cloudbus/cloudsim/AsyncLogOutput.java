@@ -0,0 +1,181 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * An output stream that hands the bytes written to it to a background thread, which writes them
+ * to another stream. The threads logging with {@link Log} then neither wait for the disk nor for
+ * the lock of the standard output. The bytes are written in the order they were given, and are
+ * all written when the stream is closed. Writes arriving once the stream is closing are rejected.
+ *
+ * <pre>
+ * Log.setOutput(new AsyncLogOutput("simulation.log"));
+ * ...
+ * Log.getOutput().close();
+ * </pre>
+ */
+public class AsyncLogOutput extends OutputStream {
+
+	/** The default number of writes that can wait for the background thread. */
+	public static final int DEFAULT_CAPACITY = 8192;
+
+	/** The marker asking the background thread to flush the stream. */
+	private static final byte[] FLUSH = new byte[0];
+
+	/** The marker asking the background thread to close the stream. */
+	private static final byte[] CLOSE = new byte[0];
+
+	/** The writes waiting for the background thread. */
+	private final BlockingQueue<byte[]> queue;
+
+	/** The stream the bytes are written to. */
+	private final OutputStream target;
+
+	/** The background thread. */
+	private final Thread writer;
+
+	/** The first error of the background thread. */
+	private volatile IOException failure;
+
+	/** Whether the stream is closing or closed. */
+	private boolean closed;
+
+	/**
+	 * Creates a stream writing to a file, which is overwritten.
+	 *
+	 * @param fileName the name of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public AsyncLogOutput(String fileName) throws IOException {
+		this(new BufferedOutputStream(new FileOutputStream(fileName)), DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a stream writing to another stream.
+	 *
+	 * @param target the stream the bytes are written to, closed with this stream
+	 * @param capacity the number of writes that can wait for the background thread, before the
+	 *            writing threads wait
+	 */
+	public AsyncLogOutput(OutputStream target, int capacity) {
+		this.target = target;
+		queue = new ArrayBlockingQueue<byte[]>(capacity);
+		writer = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				writeQueue();
+			}
+		}, "AsyncLogOutput");
+		writer.setDaemon(true);
+		writer.start();
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		enqueue(new byte[] { (byte) b });
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		// the caller may reuse its array
+		enqueue(Arrays.copyOfRange(b, off, off + len));
+	}
+
+	/**
+	 * Asks the background thread to flush the stream, without waiting for it.
+	 */
+	@Override
+	public void flush() throws IOException {
+		enqueue(FLUSH);
+	}
+
+	/**
+	 * Waits for the background thread to write all the bytes, then closes the stream. The writes
+	 * waiting for the lock of this stream are rejected afterwards.
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			queue.put(CLOSE);
+			writer.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while closing the log.", e);
+		}
+		if (failure != null) {
+			throw failure;
+		}
+	}
+
+	/**
+	 * Gives bytes to the background thread, waiting if too many writes are already waiting. The
+	 * lock is shared with {@link #close()}, so that no bytes are queued after the close marker.
+	 *
+	 * @param bytes the bytes or a marker
+	 * @throws IOException if the stream is closed or the background thread failed
+	 */
+	private synchronized void enqueue(byte[] bytes) throws IOException {
+		if (closed) {
+			throw new IOException("The log is closed.");
+		}
+		if (failure != null) {
+			throw failure;
+		}
+		try {
+			queue.put(bytes);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while writing the log.", e);
+		}
+	}
+
+	/**
+	 * Writes the bytes of the queue until the stream is closed.
+	 */
+	private void writeQueue() {
+		try {
+			while (true) {
+				byte[] bytes = queue.take();
+				if (bytes == CLOSE) {
+					break;
+				}
+				try {
+					if (bytes == FLUSH) {
+						target.flush();
+					} else if (failure == null) {
+						target.write(bytes);
+					}
+				} catch (IOException e) {
+					failure = e;
+				}
+			}
+			target.close();
+		} catch (IOException e) {
+			if (failure == null) {
+				failure = e;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+}
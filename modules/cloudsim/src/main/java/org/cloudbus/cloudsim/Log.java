@@ -10,10 +10,17 @@ package org.cloudbus.cloudsim;
 
 import java.io.IOException;
 import java.io.OutputStream;
+import java.util.function.Supplier;
 
 /**
  * Logger used for performing logging of the simulation process. It provides the ability to
- * substitute the output stream by any OutputStream subclass.
+ * substitute the output stream by any OutputStream subclass, e.g., an {@link AsyncLogOutput} to
+ * write the log to a file in a background thread.
+ * <p>
+ * The messages have a {@link Level}, INFO for the methods without a level, and only the messages
+ * at or above the level of the logger are printed. The message of the methods taking a
+ * {@link Supplier} is only built if it is printed. In hot paths, checking
+ * {@link #isLoggable(Level)} first also saves the allocation of the supplier or of the arguments.
  * 
  * @author Anton Beloglazov
  * @since CloudSim Toolkit 2.0
@@ -22,6 +29,20 @@ import java.io.OutputStream;
  */
 public class Log {
 
+	/**
+	 * The levels of the messages, from the most to the least important.
+	 */
+	public enum Level {
+		/** Errors that prevent the simulation to go on as expected. */
+		ERROR,
+		/** Unexpected situations the simulation recovers from. */
+		WARN,
+		/** The progress of the simulation. */
+		INFO,
+		/** Details of the decisions of the policies, to debug them. */
+		DEBUG
+	}
+
 	/** The Constant LINE_SEPARATOR. */
 	private static final String LINE_SEPARATOR = System.getProperty("line.separator");
 
@@ -32,8 +53,11 @@ public class Log {
          the call for any print method has no effect. */
 	private static boolean disabled;
 	
-	/** Buffer to avoid creating new string builder upon every print. */
-	private static StringBuilder buffer = new StringBuilder();		    
+	/** The level of the least important messages that are printed. */
+	private static Level level = Level.INFO;
+
+	/** Buffer to avoid creating new string builder upon every print, one per thread. */
+	private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(StringBuilder::new);
 
 	/**
 	 * Prints a message.
@@ -41,12 +65,8 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(String message) {
-		if (!isDisabled()) {
-			try {
-				getOutput().write(message.getBytes());
-			} catch (IOException e) {
-				e.printStackTrace();
-			}
+		if (isLoggable(Level.INFO)) {
+			write(message);
 		}
 	}
 
@@ -56,7 +76,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void print(Object message) {
-		if (!isDisabled()) {
+		if (isLoggable(Level.INFO)) {
 			print(String.valueOf(message));
 		}
 	}
@@ -67,7 +87,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(String message) {
-		if (!isDisabled()) {
+		if (isLoggable(Level.INFO)) {
 			print(message + LINE_SEPARATOR);
 		}
 	}
@@ -76,7 +96,7 @@ public class Log {
 	 * Prints an empty line.
 	 */
 	public static void printLine() {
-		if (!isDisabled()) {
+		if (isLoggable(Level.INFO)) {
 			print(LINE_SEPARATOR);
 		}
 	}
@@ -88,12 +108,8 @@ public class Log {
 	 * @param messages the messages to print
 	 */
 	public static void printConcat(Object... messages) {
-		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
-			for(int i = 0 ; i < messages.length ; i ++) {
-				buffer.append(String.valueOf(messages[i]));
-			}
-			print(buffer);
+		if (isLoggable(Level.INFO)) {
+			print(concat(messages));
 		}
 	}
 	
@@ -103,12 +119,8 @@ public class Log {
 	 * @param messages the messages to print
 	 */
 	public static void printConcatLine(Object... messages) {
-		if (!isDisabled()) {
-			buffer.setLength(0); // Clear the buffer		    
-			for(int i = 0 ; i < messages.length ; i ++) {
-				buffer.append(String.valueOf(messages[i]));
-			}
-			printLine(buffer);
+		if (isLoggable(Level.INFO)) {
+			printLine(concat(messages));
 		}
 	}
 
@@ -120,7 +132,7 @@ public class Log {
 	 * @param message the message
 	 */
 	public static void printLine(Object message) {
-	    if (!isDisabled()) {
+	    if (isLoggable(Level.INFO)) {
 		printLine(String.valueOf(message));
 	    }
 	}
@@ -134,7 +146,7 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void format(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isLoggable(Level.INFO)) {
 			print(String.format(format, args));
 		}
 	}
@@ -146,11 +158,120 @@ public class Log {
 	 * @param args the args
 	 */
 	public static void formatLine(String format, Object... args) {
-		if (!isDisabled()) {
+		if (isLoggable(Level.INFO)) {
 			printLine(String.format(format, args));
 		}
 	}
 
+	/**
+	 * Prints a message and a new line, if the logger prints the messages of its level.
+	 * 
+	 * @param messageLevel the level of the message
+	 * @param message the message
+	 */
+	public static void printLine(Level messageLevel, String message) {
+		if (isLoggable(messageLevel)) {
+			write(message + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Builds a message and prints it with a new line, if the logger prints the messages of its
+	 * level. Otherwise, the message is not built.
+	 * 
+	 * @param messageLevel the level of the message
+	 * @param message the supplier of the message
+	 */
+	public static void printLine(Level messageLevel, Supplier<?> message) {
+		if (isLoggable(messageLevel)) {
+			write(String.valueOf(message.get()) + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Prints the concatenated text representation of the arguments and a new line, if the logger
+	 * prints the messages of its level.
+	 * 
+	 * @param messageLevel the level of the message
+	 * @param messages the messages to print
+	 */
+	public static void printConcatLine(Level messageLevel, Object... messages) {
+		if (isLoggable(messageLevel)) {
+			write(concat(messages) + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Prints a string formated as in String.format(), followed by a new line, if the logger prints
+	 * the messages of its level. Otherwise, the string is not formatted.
+	 * 
+	 * @param messageLevel the level of the message
+	 * @param format the format
+	 * @param args the args
+	 */
+	public static void formatLine(Level messageLevel, String format, Object... args) {
+		if (isLoggable(messageLevel)) {
+			write(String.format(format, args) + LINE_SEPARATOR);
+		}
+	}
+
+	/**
+	 * Checks if the messages of a level are printed.
+	 * 
+	 * @param messageLevel the level
+	 * @return true if the output is enabled and the level is at least as important as the level
+	 *         of the logger
+	 */
+	public static boolean isLoggable(Level messageLevel) {
+		return !disabled && messageLevel.compareTo(level) <= 0;
+	}
+
+	/**
+	 * Sets the level of the least important messages that are printed.
+	 * 
+	 * @param _level the level, INFO by default
+	 */
+	public static void setLevel(Level _level) {
+		level = _level;
+	}
+
+	/**
+	 * Gets the level of the least important messages that are printed.
+	 * 
+	 * @return the level
+	 */
+	public static Level getLevel() {
+		return level;
+	}
+
+	/**
+	 * Writes a message to the output.
+	 * 
+	 * @param message the message
+	 */
+	private static void write(String message) {
+		try {
+			getOutput().write(message.getBytes());
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	/**
+	 * Concatenates the text representation of objects.
+	 * 
+	 * @param messages the objects
+	 * @return the text
+	 */
+	private static String concat(Object... messages) {
+		StringBuilder buffer = BUFFER.get();
+		buffer.setLength(0); // Clear the buffer
+		for(int i = 0 ; i < messages.length ; i ++) {
+			buffer.append(String.valueOf(messages[i]));
+		}
+		return buffer.toString();
+	}
+
 	/**
 	 * Sets the output stream.
 	 * 
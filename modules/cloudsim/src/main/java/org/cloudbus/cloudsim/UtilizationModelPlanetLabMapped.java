@@ -0,0 +1,109 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Defines the resource utilization model based on a
+ * <a href="https://www.planet-lab.org">PlanetLab</a> datacenter trace of a
+ * {@link UtilizationTraceStore}. The model is a view of the samples of the store, and gives the
+ * same utilization as a {@link UtilizationModelPlanetLabInMemory} reading the trace file.
+ *
+ * @see UtilizationTraceStore#getUtilizationModel(String, double)
+ */
+public class UtilizationModelPlanetLabMapped implements UtilizationModel {
+
+	/** The scheduling interval. */
+	private double schedulingInterval;
+
+	/** The samples of the store, as unsigned byte percentages. */
+	private final ByteBuffer data;
+
+	/** The index of the first sample of the trace in {@link #data}. */
+	private final int offset;
+
+	/** The number of samples of the trace. */
+	private final int length;
+
+	/**
+	 * Instantiates a new model of a trace of a store.
+	 *
+	 * @param data the samples of the store
+	 * @param offset the index of the first sample of the trace
+	 * @param length the number of samples of the trace
+	 * @param schedulingInterval the scheduling interval
+	 */
+	protected UtilizationModelPlanetLabMapped(ByteBuffer data, int offset, int length, double schedulingInterval) {
+		this.data = data;
+		this.offset = offset;
+		this.length = length;
+		setSchedulingInterval(schedulingInterval);
+	}
+
+	@Override
+	public double getUtilization(double time) {
+		if (time % getSchedulingInterval() == 0) {
+			return getSample((int) time / (int) getSchedulingInterval());
+		}
+		int time1 = (int) Math.floor(time / getSchedulingInterval());
+		int time2 = (int) Math.ceil(time / getSchedulingInterval());
+		double utilization1 = getSample(time1);
+		double utilization2 = getSample(time2);
+		double delta = (utilization2 - utilization1) / ((time2 - time1) * getSchedulingInterval());
+		double utilization = utilization1 + delta * (time - time1 * getSchedulingInterval());
+		return utilization;
+	}
+
+	/**
+	 * Gets a sample of the trace. The samples are read with absolute gets, so the views of a
+	 * store can be read from several threads.
+	 *
+	 * @param index the index of the sample
+	 * @return the utilization percentage, from 0 to 1
+	 */
+	private double getSample(int index) {
+		if (index < 0 || index >= length) {
+			throw new ArrayIndexOutOfBoundsException(index);
+		}
+		return (data.get(offset + index) & 0xFF) / 100.0;
+	}
+
+	/**
+	 * Sets the scheduling interval.
+	 *
+	 * @param schedulingInterval the new scheduling interval
+	 */
+	public void setSchedulingInterval(double schedulingInterval) {
+		this.schedulingInterval = schedulingInterval;
+	}
+
+	/**
+	 * Gets the scheduling interval.
+	 *
+	 * @return the scheduling interval
+	 */
+	public double getSchedulingInterval() {
+		return schedulingInterval;
+	}
+
+	/**
+	 * Gets a copy of the samples of the trace.
+	 *
+	 * @return the utilization percentages, from 0 to 1
+	 */
+	public double[] getData() {
+		double[] samples = new double[length];
+		for (int i = 0; i < length; i++) {
+			samples[i] = getSample(i);
+		}
+		return samples;
+	}
+
+}
@@ -0,0 +1,307 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A read-only store of <a href="https://www.planet-lab.org">PlanetLab</a> datacenter traces. A
+ * directory of trace files is converted once into a single store file, which keeps each
+ * utilization percentage in a byte, and the store file is then memory-mapped. The traces are
+ * handed out as {@link UtilizationModelPlanetLabMapped} views of the mapped file, so the traces
+ * are not parsed again for each run and all the cloudlets share the same pages of memory.
+ * <p>
+ * The store file starts with a header giving the number of samples per trace, a digest of the
+ * names, sizes and modification times of the trace files, and the names of the trace files,
+ * followed by the samples of each trace in the order of the names. As in
+ * {@link UtilizationModelPlanetLabInMemory}, the last sample of a trace repeats the one before
+ * it.
+ *
+ * @see UtilizationModelPlanetLabInMemory
+ */
+public class UtilizationTraceStore {
+
+	/** The number of samples of a trace (5 min * 288 = 24 hours, plus the repeated last one). */
+	public static final int DEFAULT_DATA_SAMPLES = 289;
+
+	/** The value the store files start with. */
+	private static final int MAGIC = 0x504c5453;
+
+	/** The version of the store file format. */
+	private static final int VERSION = 2;
+
+	/** The size of the header before the trace names. */
+	private static final int HEADER_SIZE = 28;
+
+	/** The number of samples of each trace. */
+	private final int dataSamples;
+
+	/** The digest of the trace files the store was converted from. */
+	private final long traceDigest;
+
+	/** The names of the traces, in the order of their samples in the store. */
+	private final List<String> traceNames;
+
+	/** The index of each trace by name. */
+	private final Map<String, Integer> traceIndexes;
+
+	/** The samples of the traces, as unsigned byte percentages. */
+	private final ByteBuffer data;
+
+	/**
+	 * Instantiates a new store from a store file.
+	 *
+	 * @param storeFile the store file
+	 * @throws IOException if the store file cannot be read or is not a store file
+	 */
+	protected UtilizationTraceStore(File storeFile) throws IOException {
+		DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(storeFile)));
+		long dataOffset;
+		try {
+			if (input.readInt() != MAGIC || input.readInt() != VERSION) {
+				throw new IOException(storeFile + " is not a utilization trace store");
+			}
+			dataSamples = input.readInt();
+			String[] names = new String[input.readInt()];
+			traceDigest = input.readLong();
+			dataOffset = HEADER_SIZE + input.readInt();
+			for (int i = 0; i < names.length; i++) {
+				names[i] = input.readUTF();
+			}
+			traceNames = Collections.unmodifiableList(Arrays.asList(names));
+		} finally {
+			input.close();
+		}
+
+		traceIndexes = new HashMap<String, Integer>();
+		for (int i = 0; i < traceNames.size(); i++) {
+			traceIndexes.put(traceNames.get(i), i);
+		}
+
+		RandomAccessFile file = new RandomAccessFile(storeFile, "r");
+		try {
+			long size = (long) traceNames.size() * dataSamples;
+			if (file.length() != dataOffset + size) {
+				throw new IOException(storeFile + " is truncated");
+			}
+			// the mapping stays valid after the channel is closed
+			data = file.getChannel().map(FileChannel.MapMode.READ_ONLY, dataOffset, size);
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Opens the store of the traces of a directory, with the default number of samples per trace.
+	 *
+	 * @param inputFolder the directory of the trace files
+	 * @param storeFile the store file, created if it does not exist or the trace files changed
+	 * @return the store
+	 * @throws NumberFormatException if a trace file has too few samples or a sample is not an
+	 *             integer
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 * @see #open(File, File, int)
+	 */
+	public static UtilizationTraceStore open(File inputFolder, File storeFile) throws IOException {
+		return open(inputFolder, storeFile, DEFAULT_DATA_SAMPLES);
+	}
+
+	/**
+	 * Opens the store of the traces of a directory. The store file is converted from the trace
+	 * files only if it does not exist, has another number of samples per trace or was converted
+	 * from other trace files, so that the following runs only map it. The trace files are compared
+	 * by their names, sizes and modification times, so a trace file edited in place is noticed even
+	 * though the modification time of the directory does not change.
+	 *
+	 * @param inputFolder the directory of the trace files
+	 * @param storeFile the store file
+	 * @param dataSamples the number of samples per trace
+	 * @return the store
+	 * @throws NumberFormatException if a trace file has too few samples or a sample is not an
+	 *             integer
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static UtilizationTraceStore open(File inputFolder, File storeFile, int dataSamples)
+			throws IOException {
+		if (storeFile.isFile()) {
+			try {
+				UtilizationTraceStore store = new UtilizationTraceStore(storeFile);
+				if (store.getDataSamples() == dataSamples
+						&& store.traceDigest == getTraceDigest(listTraceFiles(inputFolder))) {
+					return store;
+				}
+			} catch (IOException e) {
+				// converted again below
+			}
+		}
+		convert(inputFolder, storeFile, dataSamples);
+		return new UtilizationTraceStore(storeFile);
+	}
+
+	/**
+	 * Converts the trace files of a directory into a store file. The store file is first written
+	 * next to its final path, then moved, so that a store file being converted is never read.
+	 *
+	 * @param inputFolder the directory of the trace files
+	 * @param storeFile the store file
+	 * @param dataSamples the number of samples per trace
+	 * @throws NumberFormatException if a trace file has too few samples or a sample is not an
+	 *             integer
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	public static void convert(File inputFolder, File storeFile, int dataSamples) throws IOException {
+		if (dataSamples < 2) {
+			throw new IllegalArgumentException("A trace has to have at least 2 samples.");
+		}
+		File[] files = listTraceFiles(inputFolder);
+
+		File absoluteStoreFile = storeFile.getAbsoluteFile();
+		File tempFile = File.createTempFile(storeFile.getName(), ".tmp", absoluteStoreFile.getParentFile());
+		DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)));
+		try {
+			output.writeInt(MAGIC);
+			output.writeInt(VERSION);
+			output.writeInt(dataSamples);
+			output.writeInt(files.length);
+			output.writeLong(getTraceDigest(files));
+			ByteArrayOutputStream names = new ByteArrayOutputStream();
+			DataOutputStream namesOutput = new DataOutputStream(names);
+			for (File file : files) {
+				namesOutput.writeUTF(file.getName());
+			}
+			output.writeInt(names.size());
+			names.writeTo(output);
+			byte[] samples = new byte[dataSamples];
+			for (File file : files) {
+				readTrace(file, samples);
+				output.write(samples);
+			}
+			output.close();
+			Files.move(tempFile.toPath(), absoluteStoreFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		} finally {
+			output.close();
+			tempFile.delete();
+		}
+	}
+
+	/**
+	 * Lists the trace files of a directory, in alphabetical order.
+	 *
+	 * @param inputFolder the directory of the trace files
+	 * @return the trace files
+	 * @throws IOException if the directory cannot be listed
+	 */
+	private static File[] listTraceFiles(File inputFolder) throws IOException {
+		File[] files = inputFolder.listFiles();
+		if (files == null) {
+			throw new IOException(inputFolder + " is not a directory");
+		}
+		Arrays.sort(files);
+		return files;
+	}
+
+	/**
+	 * Computes a digest of the names, sizes and modification times of trace files.
+	 *
+	 * @param files the trace files, in alphabetical order
+	 * @return the digest
+	 */
+	private static long getTraceDigest(File[] files) {
+		long digest = files.length;
+		for (File file : files) {
+			digest = 31 * digest + file.getName().hashCode();
+			digest = 31 * digest + file.length();
+			digest = 31 * digest + file.lastModified();
+		}
+		return digest;
+	}
+
+	/**
+	 * Reads the samples of a trace file, repeating the last one read.
+	 *
+	 * @param file the trace file
+	 * @param samples the samples read
+	 * @throws NumberFormatException if the trace file has too few samples or a sample is not an
+	 *             integer
+	 * @throws IOException Signals that an I/O exception has occurred.
+	 */
+	private static void readTrace(File file, byte[] samples) throws IOException {
+		BufferedReader input = new BufferedReader(new FileReader(file));
+		try {
+			int n = samples.length;
+			for (int i = 0; i < n - 1; i++) {
+				int percentage = Integer.parseInt(input.readLine());
+				if (percentage < 0 || percentage > 255) {
+					throw new NumberFormatException(file + ": the utilization percentage " + percentage
+							+ " does not fit in the store");
+				}
+				samples[i] = (byte) percentage;
+			}
+			samples[n - 1] = samples[n - 2];
+		} finally {
+			input.close();
+		}
+	}
+
+	/**
+	 * Gets the number of samples of each trace.
+	 *
+	 * @return the number of samples
+	 */
+	public int getDataSamples() {
+		return dataSamples;
+	}
+
+	/**
+	 * Gets the names of the trace files, in alphabetical order.
+	 *
+	 * @return the trace names
+	 */
+	public List<String> getTraceNames() {
+		return traceNames;
+	}
+
+	/**
+	 * Gets the utilization model of a trace. The model reads the samples from the store, so it
+	 * does not copy them.
+	 *
+	 * @param traceName the name of the trace file
+	 * @param schedulingInterval the scheduling interval
+	 * @return the utilization model of the trace
+	 * @throws IllegalArgumentException if the store has no such trace
+	 */
+	public UtilizationModelPlanetLabMapped getUtilizationModel(String traceName, double schedulingInterval) {
+		Integer index = traceIndexes.get(traceName);
+		if (index == null) {
+			throw new IllegalArgumentException("No utilization trace " + traceName + " in the store");
+		}
+		return new UtilizationModelPlanetLabMapped(data, index * dataSamples, dataSamples, schedulingInterval);
+	}
+
+}
@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.container.core;
 
 
+import org.cloudbus.cloudsim.container.lists.IdIndexedList;
 import org.cloudbus.cloudsim.container.resourceAllocators.ContainerAllocationPolicy;
 import org.cloudbus.cloudsim.container.resourceAllocators.ContainerVmAllocationPolicy;
 import org.cloudbus.cloudsim.*;
@@ -98,8 +99,8 @@ public class ContainerDatacenter extends SimEntity {
         setContainerAllocationPolicy(containerAllocationPolicy);
         setLastProcessTime(0.0);
         setStorageList(storageList);
-        setContainerVmList(new ArrayList<ContainerVm>());
-        setContainerList(new ArrayList<Container>());
+        setContainerVmList(new IdIndexedList<ContainerVm>(ContainerVm::getId));
+        setContainerList(new IdIndexedList<Container>(Container::getId));
         setSchedulingInterval(schedulingInterval);
         setExperimentName(experimentName);
         setLogAddress(logAddress);
@@ -118,10 +119,6 @@ public class ContainerDatacenter extends SimEntity {
         getCharacteristics().setId(super.getId());
     }
 
-    public ServerlessDatacenter() {
-        //TODO Auto-generated constructor stub
-    }
-
     /**
      * Overrides this method when making a new and different type of resource. <br>
      * <b>NOTE:</b> You do not need to override {} method, if you use this method.
@@ -2,6 +2,7 @@ package org.cloudbus.cloudsim.container.core;
 
 import org.cloudbus.cloudsim.container.lists.ContainerList;
 import org.cloudbus.cloudsim.container.lists.ContainerVmList;
+import org.cloudbus.cloudsim.container.lists.IdIndexedList;
 import org.apache.commons.math3.stat.descriptive.rank.Percentile;
 import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.UtilizationModelPlanetLabInMemory;
@@ -130,10 +131,10 @@ public class ContainerDatacenterBroker extends SimEntity {
     public ContainerDatacenterBroker(String name, double overBookingfactor) throws Exception {
         super(name);
 
-        setVmList(new ArrayList<ContainerVm>());
-        setContainerList(new ArrayList<Container>());
-        setVmsCreatedList(new ArrayList<ContainerVm>());
-        setContainersCreatedList(new ArrayList<Container>());
+        setVmList(new IdIndexedList<ContainerVm>(ContainerVm::getId));
+        setContainerList(new IdIndexedList<Container>(Container::getId));
+        setVmsCreatedList(new IdIndexedList<ContainerVm>(ContainerVm::getId));
+        setContainersCreatedList(new IdIndexedList<Container>(Container::getId));
         setCloudletList(new ArrayList<ContainerCloudlet>());
         setCloudletSubmittedList(new ArrayList<ContainerCloudlet>());
         setCloudletReceivedList(new ArrayList<ContainerCloudlet>());
@@ -303,7 +304,7 @@ public class ContainerDatacenterBroker extends SimEntity {
      * @post $none
      */
     protected void processResourceCharacteristicsRequest(SimEvent ev) {
-        setDatacenterIdsList(CloudSim.getCloudResourceList());
+        setDatacenterIdsList(CloudSim.getCloudResourceList(getId()));
         setDatacenterCharacteristicsList(new HashMap<Integer, ContainerDatacenterCharacteristics>());
 
         //Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": Cloud Resource List received with ",
@@ -9,6 +9,9 @@ import java.util.List;
  */
 public class ContainerList {
     public static <T extends Container> T getById(List<T> containerList, int id) {
+        if (containerList instanceof IdIndexedList) {
+            return ((IdIndexedList<T>) containerList).getById(id);
+        }
         for (T container : containerList) {
             if (container.getId() == id) {
                 return container;
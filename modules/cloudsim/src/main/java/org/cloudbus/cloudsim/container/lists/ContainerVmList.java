@@ -10,6 +10,9 @@ import java.util.List;
 public class ContainerVmList {
 
     public static <T extends ContainerVm> T getById(List<T> vmList, int id) {
+        if (vmList instanceof IdIndexedList) {
+            return ((IdIndexedList<T>) vmList).getById(id);
+        }
         for (T vm : vmList) {
             if (vm.getId() == id) {
                 return vm;
@@ -0,0 +1,135 @@
+package org.cloudbus.cloudsim.container.lists;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.ToIntFunction;
+
+/**
+ * A list of VMs or containers that also keeps an index of its elements by id, so that
+ * {@link ContainerVmList#getById(List, int)} and {@link ContainerList#getById(List, int)} find them
+ * without going through the whole list. The index is maintained as the elements are added and removed,
+ * and the ids of the elements are not expected to change while they are in the list.
+ *
+ * Like the linear search, {@link #getById(int)} returns the first element with the id, in list order,
+ * when several elements share the same id.
+ *
+ * @param <E> the type of the elements
+ */
+public class IdIndexedList<E> extends AbstractList<E> implements RandomAccess {
+
+    private final List<E> elements;
+    private final Map<Integer, Entry<E>> index;
+    private final ToIntFunction<? super E> idFunction;
+
+    public IdIndexedList(ToIntFunction<? super E> idFunction) {
+        this.elements = new ArrayList<>();
+        this.index = new HashMap<>();
+        this.idFunction = idFunction;
+    }
+
+    /**
+     * Gets the element with the given id.
+     *
+     * @param id the id
+     * @return the first element with the id or null if there is none
+     */
+    public E getById(int id) {
+        Entry<E> entry = index.get(id);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.element == null) {
+            // the element with the id is only known when the id is unique
+            for (E element : elements) {
+                if (idFunction.applyAsInt(element) == id) {
+                    if (entry.count == 1) {
+                        entry.element = element;
+                    }
+                    return element;
+                }
+            }
+        }
+        return entry.element;
+    }
+
+    @Override
+    public E get(int index) {
+        return elements.get(index);
+    }
+
+    @Override
+    public int size() {
+        return elements.size();
+    }
+
+    @Override
+    public E set(int index, E element) {
+        E previous = elements.set(index, element);
+        unindex(previous);
+        index(element);
+        return previous;
+    }
+
+    @Override
+    public void add(int index, E element) {
+        elements.add(index, element);
+        index(element);
+        modCount++;
+    }
+
+    @Override
+    public E remove(int index) {
+        E previous = elements.remove(index);
+        unindex(previous);
+        modCount++;
+        return previous;
+    }
+
+    @Override
+    public void clear() {
+        elements.clear();
+        index.clear();
+        modCount++;
+    }
+
+    private void index(E element) {
+        int id = idFunction.applyAsInt(element);
+        Entry<E> entry = index.get(id);
+        if (entry == null) {
+            index.put(id, new Entry<>(element));
+        } else {
+            entry.count++;
+            entry.element = null;
+        }
+    }
+
+    private void unindex(E element) {
+        int id = idFunction.applyAsInt(element);
+        Entry<E> entry = index.get(id);
+        if (entry == null) {
+            return;
+        }
+        if (--entry.count == 0) {
+            index.remove(id);
+        } else {
+            entry.element = null;
+        }
+    }
+
+    private static final class Entry<E> {
+
+        /**
+         * The element with the id, or null if it is not unique or has to be looked up again
+         */
+        private E element;
+        private int count = 1;
+
+        private Entry(E element) {
+            this.element = element;
+        }
+    }
+}
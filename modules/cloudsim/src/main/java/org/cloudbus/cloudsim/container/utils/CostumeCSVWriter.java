@@ -19,7 +19,8 @@ public class CostumeCSVWriter {
     public CostumeCSVWriter(String fileAddress) throws IOException {
         File f = new File(fileAddress);
         File parent3 = f.getParentFile();
-        if(!parent3.exists() && !parent3.mkdirs()){
+        // another simulation running in parallel may create the directory at the same time
+        if(!parent3.mkdirs() && !parent3.isDirectory()){
             throw new IllegalStateException("Couldn't create dir: " + parent3);
         }
         if(!f.exists())
@@ -7,11 +7,14 @@ package org.cloudbus.cloudsim.container.utils;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
 import org.cloudbus.cloudsim.container.containerVmProvisioners.ContainerVmPe;
 import org.cloudbus.cloudsim.container.core.*;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
 
 import java.util.LinkedHashMap;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.Map;
+import java.util.WeakHashMap;
 
 /**
  * A factory for CloudSim entities' ids. CloudSim requires a lot of ids, that
@@ -25,63 +28,75 @@ import java.util.Map;
 public final class IDs {
 
 
-    private static final Map<Class<?>, Integer> COUNTERS = new LinkedHashMap<>();
-    private static final Set<Class<?>> NO_COUNTERS = new HashSet<>();
-    private static int globalCounter = 1;
-
-    static {
-        COUNTERS.put(ContainerCloudlet.class, 1);
-        COUNTERS.put(ContainerVm.class, 1);
-        COUNTERS.put(Container.class, 1);
-        COUNTERS.put(ContainerHost.class, 1);
-        COUNTERS.put(ContainerDatacenterBroker.class, 1);
-        COUNTERS.put(ContainerPe.class, 1);
-        COUNTERS.put(ContainerVmPe.class, 1);
-    }
+    /**
+     * The counters of each simulation, so that the simulations running in parallel in the same JVM
+     * get the same ids as if they were running alone.
+     */
+    private static final Map<Simulation, Counters> SIMULATION_COUNTERS = new WeakHashMap<>();
 
     private IDs() {
     }
 
     /**
-     * Returns a valid id for the specified class.
+     * Returns a valid id for the specified class, in the simulation of the current thread.
      *
      * @param clazz - the class of the object to get an id for. Must not be null.
      * @return a valid id for the specified class.
      */
     public static synchronized int pollId(final Class<?> clazz) {
-        Class<?> matchClass = null;
-        if (COUNTERS.containsKey(clazz)) {
-            matchClass = clazz;
-        } else if (!NO_COUNTERS.contains(clazz)) {
-            for (Class<?> key : COUNTERS.keySet()) {
-                if (key.isAssignableFrom(clazz)) {
-                    matchClass = key;
-                    break;
-                }
-            }
+        Counters counters = SIMULATION_COUNTERS.get(CloudSim.getSimulation());
+        if (counters == null) {
+            counters = new Counters();
+            SIMULATION_COUNTERS.put(CloudSim.getSimulation(), counters);
         }
+        return counters.pollId(clazz);
+    }
 
-        int result = -1;
-        if (matchClass == null) {
-            NO_COUNTERS.add(clazz);
-            result = pollGlobalId();
-        } else {
-            result = COUNTERS.get(matchClass);
-            COUNTERS.put(matchClass, result + 1);
-        }
+    private static final class Counters {
 
-        if (result < 0) {
-            throw new IllegalStateException("The generated id for class:" + clazz.getName()
-                    + " is negative. Possible integer overflow.");
+        private final Map<Class<?>, Integer> counters = new LinkedHashMap<>();
+        private final Set<Class<?>> noCounters = new HashSet<>();
+        private int globalCounter = 1;
+
+        private Counters() {
+            counters.put(ContainerCloudlet.class, 1);
+            counters.put(ContainerVm.class, 1);
+            counters.put(Container.class, 1);
+            counters.put(ContainerHost.class, 1);
+            counters.put(ContainerDatacenterBroker.class, 1);
+            counters.put(ContainerPe.class, 1);
+            counters.put(ContainerVmPe.class, 1);
         }
 
-        return result;
-    }
+        private int pollId(final Class<?> clazz) {
+            Class<?> matchClass = null;
+            if (counters.containsKey(clazz)) {
+                matchClass = clazz;
+            } else if (!noCounters.contains(clazz)) {
+                for (Class<?> key : counters.keySet()) {
+                    if (key.isAssignableFrom(clazz)) {
+                        matchClass = key;
+                        break;
+                    }
+                }
+            }
 
-    private static synchronized int pollGlobalId() {
-        return globalCounter++;
-    }
+            int result = -1;
+            if (matchClass == null) {
+                noCounters.add(clazz);
+                result = globalCounter++;
+            } else {
+                result = counters.get(matchClass);
+                counters.put(matchClass, result + 1);
+            }
 
-}
+            if (result < 0) {
+                throw new IllegalStateException("The generated id for class:" + clazz.getName()
+                        + " is negative. Possible integer overflow.");
+            }
 
+            return result;
+        }
+    }
 
+}
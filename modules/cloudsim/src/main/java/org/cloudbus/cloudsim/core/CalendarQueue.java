@@ -0,0 +1,594 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a calendar queue to be used as the future event queue of {@link CloudSim}.
+ * The time line is split into "days" of a fixed width, which are mapped to a circular array of
+ * buckets like the days of a year in a desk calendar. Each bucket keeps its events sorted by
+ * time and serial in an array, so the events of the current day are taken from the head of a
+ * bucket and new events are usually appended to its tail. When the number of events grows or
+ * shrinks too much in relation to the number of buckets, the calendar is resized and the day
+ * width is estimated again from a sample of the pending events, which gives amortized O(1)
+ * enqueue and dequeue operations for the event distributions usually found in simulations.
+ *
+ * <p>Events are delivered in the same order as in {@link FutureQueue}, as defined by
+ * {@link SimEvent#compareTo(SimEvent)}.</p>
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see <a href="https://doi.org/10.1145/63039.63045">R. Brown, Calendar queues: a fast O(1)
+ *      priority queue implementation for the simulation event set problem, Communications of the
+ *      ACM, 31(10), 1988.</a>
+ */
+public class CalendarQueue implements EventQueue {
+
+	/** The minimum (and initial) number of buckets. It has to be a power of two. */
+	private static final int MIN_BUCKETS = 16;
+
+	/** The maximum number of buckets. */
+	private static final int MAX_BUCKETS = 1 << 28;
+
+	/** The maximum number of events sampled to estimate the bucket width. */
+	private static final int WIDTH_SAMPLE_SIZE = 64;
+
+	/** The initial bucket width, in simulation time units. */
+	private static final double INITIAL_WIDTH = 1.0;
+
+	/** The buckets of the calendar. */
+	private Bucket[] buckets;
+
+	/** The mask used to map a day number to a bucket index (the number of buckets minus one). */
+	private int mask;
+
+	/** The width of each bucket (a day of the calendar), in simulation time units. */
+	private double width = INITIAL_WIDTH;
+
+	/** The number of the day where the search for the first event starts. */
+	private long currentDay;
+
+	/** The number of events in the queue. */
+	private int size;
+
+	/** Counts the structural modifications, so that iterators can fail fast. */
+	private int modCount;
+
+	/** A incremental number used for {@link SimEvent#serial} event attribute. */
+	private long serial = 0;
+
+	/**
+	 * Creates an empty calendar queue.
+	 */
+	public CalendarQueue() {
+		buckets = newBuckets(MIN_BUCKETS);
+		mask = MIN_BUCKETS - 1;
+	}
+
+	@Override
+	public void addEvent(SimEvent newEvent) {
+		newEvent.setSerial(serial++);
+		insert(newEvent);
+	}
+
+	@Override
+	public void addEventFirst(SimEvent newEvent) {
+		newEvent.setSerial(0);
+		insert(newEvent);
+	}
+
+	@Override
+	public SimEvent peek() {
+		int index = findFirstBucket();
+		if (index < 0) {
+			return null;
+		}
+		Bucket bucket = buckets[index];
+		return bucket.events[bucket.head];
+	}
+
+	@Override
+	public SimEvent poll() {
+		int index = findFirstBucket();
+		if (index < 0) {
+			return null;
+		}
+		SimEvent first = buckets[index].removeAt(buckets[index].head);
+		size--;
+		modCount++;
+		shrinkIfNeeded();
+		return first;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * All the events happening at the same time are in the same bucket, right at its head, so
+	 * they are moved out of the bucket at once and the calendar is resized at most once.
+	 */
+	@Override
+	public int drainFirstTime(List<SimEvent> batch) {
+		int index = findFirstBucket();
+		if (index < 0) {
+			return 0;
+		}
+		int count = buckets[index].drainHead(batch);
+		size -= count;
+		modCount++;
+		shrinkIfNeeded();
+		return count;
+	}
+
+	@Override
+	public Iterator<SimEvent> iterator() {
+		return new CalendarIterator();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean remove(SimEvent event) {
+		if (event == null || size == 0) {
+			return false;
+		}
+		Bucket bucket = buckets[bucketIndex(event.eventTime())];
+		for (int i = bucket.lowerBound(event); i < bucket.tail && compare(bucket.events[i], event) == 0; i++) {
+			if (bucket.events[i] == event) {
+				bucket.removeAt(i);
+				size--;
+				modCount++;
+				shrinkIfNeeded();
+				return true;
+			}
+		}
+		return false;
+	}
+
+	@Override
+	public boolean removeAll(Collection<SimEvent> events) {
+		boolean removed = false;
+		for (SimEvent event : events) {
+			removed |= remove(event);
+		}
+		return removed;
+	}
+
+	@Override
+	public void clear() {
+		buckets = newBuckets(MIN_BUCKETS);
+		mask = MIN_BUCKETS - 1;
+		width = INITIAL_WIDTH;
+		currentDay = 0;
+		size = 0;
+		modCount++;
+	}
+
+	/**
+	 * Gets the current width of each bucket of the calendar.
+	 *
+	 * @return the bucket width, in simulation time units
+	 */
+	public double getBucketWidth() {
+		return width;
+	}
+
+	/**
+	 * Gets the current number of buckets of the calendar.
+	 *
+	 * @return the number of buckets
+	 */
+	public int getNumberOfBuckets() {
+		return buckets.length;
+	}
+
+	/**
+	 * Puts an event, whose serial was already set, in its bucket.
+	 *
+	 * @param newEvent the event
+	 */
+	private void insert(SimEvent newEvent) {
+		long day = day(newEvent.eventTime());
+		if (size == 0 || day < currentDay) {
+			currentDay = day;
+		}
+		buckets[(int) (day & mask)].insert(newEvent);
+		size++;
+		modCount++;
+		if (size > 2 * buckets.length && buckets.length < MAX_BUCKETS) {
+			resize(buckets.length * 2);
+		}
+	}
+
+	/**
+	 * Finds the bucket holding the first event of the queue, advancing the current day up to it.
+	 *
+	 * @return the index of the bucket or -1 if the queue is empty
+	 */
+	private int findFirstBucket() {
+		if (size == 0) {
+			return -1;
+		}
+
+		// looks for the first event of each day during a whole "year"
+		long day = currentDay;
+		for (int i = 0; i < buckets.length; i++, day++) {
+			int index = (int) (day & mask);
+			Bucket bucket = buckets[index];
+			if (bucket.head < bucket.tail && day(bucket.events[bucket.head].eventTime()) == day) {
+				currentDay = day;
+				return index;
+			}
+		}
+
+		// no event in the coming year, so directly searches for the smallest head
+		int first = -1;
+		for (int i = 0; i < buckets.length; i++) {
+			Bucket bucket = buckets[i];
+			if (bucket.head < bucket.tail
+					&& (first < 0 || compare(bucket.events[bucket.head], buckets[first].events[buckets[first].head]) < 0)) {
+				first = i;
+			}
+		}
+		currentDay = day(buckets[first].events[buckets[first].head].eventTime());
+		return first;
+	}
+
+	/**
+	 * Halves the number of buckets if the queue became too sparse.
+	 */
+	private void shrinkIfNeeded() {
+		if (buckets.length > MIN_BUCKETS && size < buckets.length / 2) {
+			resize(buckets.length / 2);
+		}
+	}
+
+	/**
+	 * Changes the number of buckets, estimating a new width for them from the pending events and
+	 * distributing the events again.
+	 *
+	 * @param newLength the new number of buckets
+	 */
+	private void resize(int newLength) {
+		Bucket[] oldBuckets = buckets;
+		width = estimateWidth();
+		buckets = newBuckets(newLength);
+		mask = newLength - 1;
+
+		boolean first = true;
+		for (Bucket bucket : oldBuckets) {
+			for (int i = bucket.head; i < bucket.tail; i++) {
+				SimEvent event = bucket.events[i];
+				long day = day(event.eventTime());
+				if (first || day < currentDay) {
+					currentDay = day;
+					first = false;
+				}
+				buckets[(int) (day & mask)].insert(event);
+			}
+		}
+		modCount++;
+	}
+
+	/**
+	 * Estimates the bucket width as about three times the average separation between the
+	 * pending events. The separation is taken from a sample that leaves out the last events,
+	 * which usually are far in the future (e.g., the end of the simulation), and the current
+	 * width is kept if all the sampled events happen at the same time.
+	 *
+	 * @return the new bucket width
+	 */
+	private double estimateWidth() {
+		int samples = Math.min(size, WIDTH_SAMPLE_SIZE);
+		if (samples < 2) {
+			return width;
+		}
+
+		double[] times = new double[samples];
+		int step = size / samples;
+		int count = 0;
+		int taken = 0;
+		for (Bucket bucket : buckets) {
+			for (int i = bucket.head; i < bucket.tail && taken < samples; i++, count++) {
+				if (count % step == 0) {
+					times[taken++] = bucket.events[i].eventTime();
+				}
+			}
+		}
+		Arrays.sort(times, 0, taken);
+
+		int last = Math.max(1, (int) ((taken - 1) * 0.9));
+		double eventsInRange = (double) size * last / (taken - 1);
+		double newWidth = 3 * (times[last] - times[0]) / eventsInRange;
+		if (newWidth > 0 && !Double.isInfinite(newWidth)) {
+			return newWidth;
+		}
+		return width;
+	}
+
+	/**
+	 * Gets the number of the day of the calendar a time belongs to.
+	 *
+	 * @param time the time
+	 * @return the day number
+	 */
+	private long day(double time) {
+		return (long) (time / width);
+	}
+
+	/**
+	 * Gets the index of the bucket a time belongs to.
+	 *
+	 * @param time the time
+	 * @return the bucket index
+	 */
+	private int bucketIndex(double time) {
+		return (int) (day(time) & mask);
+	}
+
+	/**
+	 * Compares two events by time and serial. Different events with the same time and serial
+	 * are considered equal, and are kept in the order they were added.
+	 *
+	 * @param a the first event
+	 * @param b the second event
+	 * @return a negative number, zero or a positive number if the first event happens before, at
+	 *         the same moment of or after the second one
+	 */
+	private static int compare(SimEvent a, SimEvent b) {
+		int result = Double.compare(a.eventTime(), b.eventTime());
+		if (result == 0) {
+			result = Long.compare(a.getSerial(), b.getSerial());
+		}
+		return result;
+	}
+
+	/**
+	 * Creates an array of empty buckets.
+	 *
+	 * @param length the number of buckets
+	 * @return the buckets
+	 */
+	private static Bucket[] newBuckets(int length) {
+		Bucket[] newBuckets = new Bucket[length];
+		for (int i = 0; i < length; i++) {
+			newBuckets[i] = new Bucket();
+		}
+		return newBuckets;
+	}
+
+	/**
+	 * A bucket of the calendar, which keeps its events sorted in the range
+	 * <tt>[head, tail)</tt> of an array.
+	 */
+	private static final class Bucket {
+
+		/** The events of the bucket. */
+		private SimEvent[] events = new SimEvent[4];
+
+		/** The index of the first event of the bucket. */
+		private int head;
+
+		/** The index after the last event of the bucket. */
+		private int tail;
+
+		/**
+		 * Inserts an event after all the events that are not greater than it.
+		 *
+		 * @param event the event
+		 */
+		private void insert(SimEvent event) {
+			int position = upperBound(event);
+			if (position == head && head > 0) {
+				events[--head] = event;
+				return;
+			}
+			if (tail == events.length) {
+				int count = tail - head;
+				SimEvent[] target = count + 1 > events.length / 2 ? new SimEvent[events.length * 2] : events;
+				System.arraycopy(events, head, target, 0, count);
+				if (target == events) {
+					Arrays.fill(events, count, tail, null);
+				}
+				events = target;
+				position -= head;
+				head = 0;
+				tail = count;
+			}
+			System.arraycopy(events, position, events, position + 1, tail - position);
+			events[position] = event;
+			tail++;
+		}
+
+		/**
+		 * Removes the event at a given position of the array.
+		 *
+		 * @param position the position
+		 * @return the removed event
+		 */
+		private SimEvent removeAt(int position) {
+			SimEvent event = events[position];
+			if (position == head) {
+				events[head++] = null;
+			} else {
+				System.arraycopy(events, position + 1, events, position, tail - position - 1);
+				events[--tail] = null;
+			}
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return event;
+		}
+
+		/**
+		 * Removes the events at the head of the bucket that happen at the same time as the first
+		 * one, appending them to a list.
+		 *
+		 * @param batch the list where the removed events are appended
+		 * @return the number of removed events
+		 */
+		private int drainHead(List<SimEvent> batch) {
+			double time = events[head].eventTime();
+			int end = head + 1;
+			while (end < tail && events[end].eventTime() == time) {
+				end++;
+			}
+			for (int i = head; i < end; i++) {
+				batch.add(events[i]);
+				events[i] = null;
+			}
+			int count = end - head;
+			head = end;
+			if (head == tail) {
+				head = 0;
+				tail = 0;
+			}
+			return count;
+		}
+
+		/**
+		 * Gets the position of the first event that is not smaller than a given one.
+		 *
+		 * @param event the event
+		 * @return the position
+		 */
+		private int lowerBound(SimEvent event) {
+			int low = head;
+			int high = tail;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare(events[middle], event) < 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+		/**
+		 * Gets the position of the first event that is greater than a given one. As new events
+		 * usually have the greatest serial, the tail is checked before the binary search.
+		 *
+		 * @param event the event
+		 * @return the position
+		 */
+		private int upperBound(SimEvent event) {
+			if (head == tail || compare(events[tail - 1], event) <= 0) {
+				return tail;
+			}
+			int low = head;
+			int high = tail - 1;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (compare(events[middle], event) <= 0) {
+					low = middle + 1;
+				} else {
+					high = middle;
+				}
+			}
+			return low;
+		}
+
+	}
+
+	/**
+	 * An iterator over the events of the calendar, bucket by bucket. The events are not returned
+	 * in temporal order.
+	 */
+	private final class CalendarIterator implements Iterator<SimEvent> {
+
+		/** The index of the bucket of the next event. */
+		private int bucketIndex;
+
+		/** The position of the next event in its bucket. */
+		private int position;
+
+		/** The bucket of the last returned event, or -1 if it cannot be removed. */
+		private int lastBucket = -1;
+
+		/** The position of the last returned event. */
+		private int lastPosition;
+
+		/** The modification count the iterator expects. */
+		private int expectedModCount = modCount;
+
+		/** The bucket array being iterated. */
+		private final Bucket[] iterated = buckets;
+
+		private CalendarIterator() {
+			position = iterated[0].head;
+			advance();
+		}
+
+		/**
+		 * Moves to the next non-empty position, if the current one has no event.
+		 */
+		private void advance() {
+			while (bucketIndex < iterated.length && position >= iterated[bucketIndex].tail) {
+				bucketIndex++;
+				if (bucketIndex < iterated.length) {
+					position = iterated[bucketIndex].head;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return bucketIndex < iterated.length;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			lastBucket = bucketIndex;
+			lastPosition = position;
+			SimEvent event = iterated[bucketIndex].events[position++];
+			advance();
+			return event;
+		}
+
+		@Override
+		public void remove() {
+			if (lastBucket < 0) {
+				throw new IllegalStateException();
+			}
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+			Bucket bucket = iterated[lastBucket];
+			boolean removedHead = lastPosition == bucket.head;
+			bucket.removeAt(lastPosition);
+			if (lastBucket == bucketIndex) {
+				// the events after the removed one were shifted to the left, unless the head was
+				// removed, which may also have reset an emptied bucket
+				position = removedHead ? bucket.head : position - 1;
+				advance();
+			}
+			size--;
+			modCount++;
+			expectedModCount = modCount;
+			lastBucket = -1;
+		}
+
+	}
+
+}
@@ -8,15 +8,25 @@
 
 package org.cloudbus.cloudsim.core;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateAny;
+import org.cloudbus.cloudsim.core.predicates.PredicateNone;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
 
 /**
- * This class implements the deferred event queue used by {@link CloudSim}. 
- * The event queue uses a linked list to store the events.
- * 
+ * This class implements the deferred event queue used by {@link CloudSim}.
+ * The events are stored in a separate linked list for each destination entity,
+ * which keeps them in temporal order, and each event is also linked to the other events
+ * of the same entity with the same tag. This way, looking for the events of an entity
+ * with {@link PredicateAny} or {@link PredicateType} does not depend on the events
+ * waiting for the other entities, and other predicates only check the events of the entity.
+ *
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
  * @see CloudSim
@@ -24,65 +34,401 @@ import java.util.ListIterator;
  */
 public class DeferredQueue {
 
-	/** The list of events. */
-	private final List<SimEvent> list = new LinkedList<SimEvent>();
+	/** The events waiting for each entity, indexed by the entity id. */
+	private EntityEvents[] entityEvents = new EntityEvents[16];
 
-	/** The max time that an added event is scheduled. */
-	private double maxTime = -1;
+	/** The number of events in the queue. */
+	private int size;
+
+	/** An incremental number that keeps the arrival order of events with the same time. */
+	private long serial;
 
 	/**
 	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order
 	 * of the events.
-	 * 
+	 *
 	 * @param newEvent The event to be added to the queue.
 	 */
 	public void addEvent(SimEvent newEvent) {
+		int destination = newEvent.getDestination();
+		if (destination >= entityEvents.length) {
+			entityEvents = Arrays.copyOf(entityEvents, Math.max(destination + 1, entityEvents.length * 2));
+		}
+		if (entityEvents[destination] == null) {
+			entityEvents[destination] = new EntityEvents();
+		}
 		// The event has to be inserted as the last of all events
 		// with the same event_time(). Yes, this matters.
-		double eventTime = newEvent.eventTime();
-		if (eventTime >= maxTime) {
-			list.add(newEvent);
-			maxTime = eventTime;
-			return;
+		entityEvents[destination].add(new Node(newEvent, serial++));
+		size++;
+	}
+
+	/**
+	 * Counts the events waiting for an entity that match a predicate.
+	 *
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the number of matching events
+	 */
+	public int count(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination);
+		if (events == null || p.getClass() == PredicateNone.class) {
+			return 0;
+		}
+		if (p.getClass() == PredicateAny.class) {
+			return events.size;
+		}
+		if (p.getClass() == PredicateType.class) {
+			int count = 0;
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				if (!isRepeated(predicate, i)) {
+					TagEvents tagEvents = events.tags.get(predicate.getTag(i));
+					count += tagEvents == null ? 0 : tagEvents.size;
+				}
+			}
+			return count;
 		}
 
-		ListIterator<SimEvent> iterator = list.listIterator();
-		SimEvent event;
-		while (iterator.hasNext()) {
-			event = iterator.next();
-			if (event.eventTime() > eventTime) {
-				iterator.previous();
-				iterator.add(newEvent);
-				return;
+		int count = 0;
+		for (Node node = events.head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				count++;
 			}
 		}
+		return count;
+	}
+
+	/**
+	 * Gets the first event waiting for an entity that matches a predicate.
+	 *
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent findFirst(int destination, Predicate p) {
+		Node node = findFirstNode(getEntityEvents(destination), p);
+		return node == null ? null : node.event;
+	}
 
-		list.add(newEvent);
+	/**
+	 * Removes the first event waiting for an entity that matches a predicate.
+	 *
+	 * @param destination the id of the entity
+	 * @param p the predicate
+	 * @return the removed event or <tt>null</tt> if no event matches
+	 */
+	public SimEvent removeFirst(int destination, Predicate p) {
+		EntityEvents events = getEntityEvents(destination);
+		Node node = findFirstNode(events, p);
+		if (node == null) {
+			return null;
+		}
+		events.unlink(node);
+		size--;
+		return node.event;
 	}
 
 	/**
-	 * Returns an iterator to the events in the queue.
-	 * 
+	 * Returns an iterator to the events in the queue. The events of each entity are
+	 * returned in temporal order, one entity after the other.
+	 *
 	 * @return the iterator
 	 */
 	public Iterator<SimEvent> iterator() {
-		return list.iterator();
+		return new DeferredIterator();
 	}
 
 	/**
 	 * Returns the size of this event queue.
-	 * 
+	 *
 	 * @return the number of events in the queue.
 	 */
 	public int size() {
-		return list.size();
+		return size;
 	}
 
 	/**
 	 * Clears the queue.
 	 */
 	public void clear() {
-		list.clear();
+		Arrays.fill(entityEvents, null);
+		size = 0;
+	}
+
+	/**
+	 * Gets the events waiting for an entity.
+	 *
+	 * @param destination the id of the entity
+	 * @return the events or <tt>null</tt> if no event was ever sent to the entity
+	 */
+	private EntityEvents getEntityEvents(int destination) {
+		if (destination < 0 || destination >= entityEvents.length) {
+			return null;
+		}
+		return entityEvents[destination];
+	}
+
+	/**
+	 * Finds the first event of an entity that matches a predicate.
+	 *
+	 * @param events the events of the entity
+	 * @param p the predicate
+	 * @return the node of the event or <tt>null</tt> if no event matches
+	 */
+	private static Node findFirstNode(EntityEvents events, Predicate p) {
+		if (events == null || events.size == 0 || p.getClass() == PredicateNone.class) {
+			return null;
+		}
+		if (p.getClass() == PredicateAny.class) {
+			return events.head;
+		}
+		if (p.getClass() == PredicateType.class) {
+			// the first event of each tag is a candidate
+			Node first = null;
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				TagEvents tagEvents = events.tags.get(predicate.getTag(i));
+				if (tagEvents != null && tagEvents.head != null
+						&& (first == null || tagEvents.head.isBefore(first))) {
+					first = tagEvents.head;
+				}
+			}
+			return first;
+		}
+
+		for (Node node = events.head; node != null; node = node.next) {
+			if (p.match(node.event)) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Checks if a tag of a predicate appears before a given position among its tags.
+	 *
+	 * @param predicate the predicate
+	 * @param index the position of the tag
+	 * @return true, if the tag is repeated
+	 */
+	private static boolean isRepeated(PredicateType predicate, int index) {
+		for (int i = 0; i < index; i++) {
+			if (predicate.getTag(i) == predicate.getTag(index)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * An event in the queue, linked to the events of the same entity and to the
+	 * events of the same entity with the same tag.
+	 */
+	private static final class Node {
+
+		/** The event. */
+		private final SimEvent event;
+
+		/** The arrival order of the event. */
+		private final long serial;
+
+		/** The previous and next events of the entity. */
+		private Node prev, next;
+
+		/** The previous and next events of the entity with the same tag. */
+		private Node prevTag, nextTag;
+
+		private Node(SimEvent event, long serial) {
+			this.event = event;
+			this.serial = serial;
+		}
+
+		/**
+		 * Checks if the event of this node has to be delivered before the event of another node.
+		 *
+		 * @param other the other node
+		 * @return true, if this event happens first or at the same time but arrived first
+		 */
+		private boolean isBefore(Node other) {
+			double time = event.eventTime();
+			double otherTime = other.event.eventTime();
+			return time < otherTime || (time == otherTime && serial < other.serial);
+		}
+
+	}
+
+	/**
+	 * The events of an entity with the same tag.
+	 */
+	private static final class TagEvents {
+
+		/** The first and last events. */
+		private Node head, tail;
+
+		/** The number of events. */
+		private int size;
+
+	}
+
+	/**
+	 * The events waiting for an entity.
+	 */
+	private static final class EntityEvents {
+
+		/** The first and last events. */
+		private Node head, tail;
+
+		/** The number of events. */
+		private int size;
+
+		/** The events of the entity, by tag. */
+		private final Map<Integer, TagEvents> tags = new HashMap<Integer, TagEvents>();
+
+		/**
+		 * Inserts an event after all the events that do not happen after it. Events usually arrive
+		 * in temporal order, so the position is searched from the last event backwards.
+		 *
+		 * @param node the node of the event
+		 */
+		private void add(Node node) {
+			double time = node.event.eventTime();
+
+			Node prev = tail;
+			while (prev != null && prev.event.eventTime() > time) {
+				prev = prev.prev;
+			}
+			node.prev = prev;
+			node.next = prev == null ? head : prev.next;
+			if (node.prev == null) {
+				head = node;
+			} else {
+				node.prev.next = node;
+			}
+			if (node.next == null) {
+				tail = node;
+			} else {
+				node.next.prev = node;
+			}
+			size++;
+
+			TagEvents tagEvents = tags.get(node.event.getTag());
+			if (tagEvents == null) {
+				tagEvents = new TagEvents();
+				tags.put(node.event.getTag(), tagEvents);
+			}
+			Node prevTag = tagEvents.tail;
+			while (prevTag != null && prevTag.event.eventTime() > time) {
+				prevTag = prevTag.prevTag;
+			}
+			node.prevTag = prevTag;
+			node.nextTag = prevTag == null ? tagEvents.head : prevTag.nextTag;
+			if (node.prevTag == null) {
+				tagEvents.head = node;
+			} else {
+				node.prevTag.nextTag = node;
+			}
+			if (node.nextTag == null) {
+				tagEvents.tail = node;
+			} else {
+				node.nextTag.prevTag = node;
+			}
+			tagEvents.size++;
+		}
+
+		/**
+		 * Removes an event from the lists it belongs to.
+		 *
+		 * @param node the node of the event
+		 */
+		private void unlink(Node node) {
+			if (node.prev == null) {
+				head = node.next;
+			} else {
+				node.prev.next = node.next;
+			}
+			if (node.next == null) {
+				tail = node.prev;
+			} else {
+				node.next.prev = node.prev;
+			}
+			size--;
+
+			TagEvents tagEvents = tags.get(node.event.getTag());
+			if (node.prevTag == null) {
+				tagEvents.head = node.nextTag;
+			} else {
+				node.prevTag.nextTag = node.nextTag;
+			}
+			if (node.nextTag == null) {
+				tagEvents.tail = node.prevTag;
+			} else {
+				node.nextTag.prevTag = node.prevTag;
+			}
+			tagEvents.size--;
+		}
+
+	}
+
+	/**
+	 * An iterator over the events of the queue, entity by entity.
+	 */
+	private final class DeferredIterator implements Iterator<SimEvent> {
+
+		/** The id of the entity of the next event. */
+		private int entity = -1;
+
+		/** The node of the next event. */
+		private Node next;
+
+		/** The node of the last returned event, or <tt>null</tt> if it cannot be removed. */
+		private Node last;
+
+		/** The entity of the last returned event. */
+		private int lastEntity;
+
+		private DeferredIterator() {
+			advance();
+		}
+
+		/**
+		 * Moves to the first event of the next entity with events.
+		 */
+		private void advance() {
+			while (next == null && ++entity < entityEvents.length) {
+				if (entityEvents[entity] != null) {
+					next = entityEvents[entity].head;
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		@Override
+		public SimEvent next() {
+			if (next == null) {
+				throw new NoSuchElementException();
+			}
+			last = next;
+			lastEntity = entity;
+			next = next.next;
+			advance();
+			return last.event;
+		}
+
+		@Override
+		public void remove() {
+			if (last == null) {
+				throw new IllegalStateException();
+			}
+			entityEvents[lastEntity].unlink(last);
+			size--;
+			last = null;
+		}
+
 	}
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * An interface to be implemented by the future event queues used by {@link CloudSim}.
+ * Implementations have to deliver events in the order defined by
+ * {@link SimEvent#compareTo(SimEvent)}, that is, by event time and, for events
+ * happening at the same time, by the serial number given to the event when it was added.
+ * Events with the same time and serial are delivered in the order they were added.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see FutureQueue
+ * @see CalendarQueue
+ */
+public interface EventQueue extends Iterable<SimEvent> {
+
+	/**
+	 * Adds a new event to the queue. Adding a new event to the queue preserves the temporal order of
+	 * the events in the queue.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEvent(SimEvent newEvent);
+
+	/**
+	 * Adds a new event to the head of the queue, i.e., ahead of all the events
+	 * previously added with the same time.
+	 *
+	 * @param newEvent The event to be put in the queue.
+	 */
+	void addEventFirst(SimEvent newEvent);
+
+	/**
+	 * Gets the first event of the queue, without removing it.
+	 *
+	 * @return the first event or <tt>null</tt> if the queue is empty
+	 */
+	SimEvent peek();
+
+	/**
+	 * Removes and returns the first event of the queue.
+	 *
+	 * @return the first event or <tt>null</tt> if the queue is empty
+	 */
+	SimEvent poll();
+
+	/**
+	 * Removes all the events happening at the time of the first event of the queue, appending
+	 * them in order to a given list. It has the same effect of calling {@link #poll()} while the
+	 * first event has that time, but the events are taken in a single pass.
+	 *
+	 * @param batch the list where the removed events are appended
+	 * @return the number of removed events, which is zero if the queue is empty
+	 */
+	int drainFirstTime(List<SimEvent> batch);
+
+	/**
+	 * Returns an iterator to the queue. The iteration order is implementation dependent, so
+	 * callers that need the events in temporal order have to use {@link #peek()} and {@link #poll()}.
+	 *
+	 * @return the iterator
+	 */
+	@Override
+	Iterator<SimEvent> iterator();
+
+	/**
+	 * Returns the size of this event queue.
+	 *
+	 * @return the size
+	 */
+	int size();
+
+	/**
+	 * Removes the event from the queue.
+	 *
+	 * @param event the event
+	 * @return true, if successful
+	 */
+	boolean remove(SimEvent event);
+
+	/**
+	 * Removes all the events from the queue.
+	 *
+	 * @param events the events
+	 * @return true, if successful
+	 */
+	boolean removeAll(Collection<SimEvent> events);
+
+	/**
+	 * Clears the queue.
+	 */
+	void clear();
+
+}
@@ -0,0 +1,94 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * An index of the events in the future event queue of {@link CloudSim}, by source entity and tag.
+ * It allows the pending events sent by an entity with a given tag to be found, and then cancelled,
+ * without going through the whole future event queue.
+ *
+ * @since CloudSim Toolkit 4.0
+ * @see CloudSim#cancel(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ * @see CloudSim#cancelAll(int, org.cloudbus.cloudsim.core.predicates.Predicate)
+ */
+final class FutureEventIndex {
+
+	/** The events of each source entity by tag, indexed by the entity id. */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	private Map<Integer, Set<SimEvent>>[] eventsBySource = new Map[16];
+
+	/**
+	 * Adds an event that was put in the future event queue.
+	 *
+	 * @param event the event
+	 */
+	void add(SimEvent event) {
+		int source = event.getSource();
+		if (source < 0) {
+			return;
+		}
+		if (source >= eventsBySource.length) {
+			eventsBySource = Arrays.copyOf(eventsBySource, Math.max(source + 1, eventsBySource.length * 2));
+		}
+		Map<Integer, Set<SimEvent>> eventsByTag = eventsBySource[source];
+		if (eventsByTag == null) {
+			eventsByTag = new HashMap<Integer, Set<SimEvent>>();
+			eventsBySource[source] = eventsByTag;
+		}
+		Set<SimEvent> events = eventsByTag.get(event.getTag());
+		if (events == null) {
+			events = new HashSet<SimEvent>();
+			eventsByTag.put(event.getTag(), events);
+		}
+		events.add(event);
+	}
+
+	/**
+	 * Removes an event that left the future event queue.
+	 *
+	 * @param event the event
+	 */
+	void remove(SimEvent event) {
+		int source = event.getSource();
+		if (source < 0 || source >= eventsBySource.length || eventsBySource[source] == null) {
+			return;
+		}
+		Set<SimEvent> events = eventsBySource[source].get(event.getTag());
+		if (events != null) {
+			events.remove(event);
+		}
+	}
+
+	/**
+	 * Gets the pending events sent by an entity with a given tag. The returned set is backed by
+	 * the index, so events removed from it are no longer indexed.
+	 *
+	 * @param source the id of the source entity
+	 * @param tag the tag
+	 * @return the events, in no particular order
+	 */
+	Set<SimEvent> get(int source, int tag) {
+		if (source < 0 || source >= eventsBySource.length || eventsBySource[source] == null) {
+			return Collections.emptySet();
+		}
+		Set<SimEvent> events = eventsBySource[source].get(tag);
+		if (events == null) {
+			return Collections.emptySet();
+		}
+		return events;
+	}
+
+}
@@ -10,12 +10,15 @@ package org.cloudbus.cloudsim.core;
 
 import java.util.Collection;
 import java.util.Iterator;
-import java.util.SortedSet;
+import java.util.List;
 import java.util.TreeSet;
 
 /**
  * This class implements the future event queue used by {@link CloudSim}. 
  * The event queue uses a {@link TreeSet} in order to store the events.
+ * Each operation costs O(log n), so {@link CalendarQueue} is used by default
+ * and this queue is kept as a fallback that can be given to
+ * {@link CloudSim#init(int, java.util.Calendar, boolean, EventQueue)}.
  * 
  * @author Marcos Dias de Assuncao
  * @since CloudSim Toolkit 1.0
@@ -25,10 +28,10 @@ import java.util.TreeSet;
  * @todo It would be used a common interface for queues
  * such as this one and {@link DeferredQueue}
  */
-public class FutureQueue {
+public class FutureQueue implements EventQueue {
 
 	/** The sorted set of events. */
-	private final SortedSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
+	private final TreeSet<SimEvent> sortedSet = new TreeSet<SimEvent>();
 
 	/** A incremental number used for {@link SimEvent#serial} event attribute.
          */
@@ -40,6 +43,7 @@ public class FutureQueue {
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEvent(SimEvent newEvent) {
 		newEvent.setSerial(serial++);
 		sortedSet.add(newEvent);
@@ -50,16 +54,52 @@ public class FutureQueue {
 	 * 
 	 * @param newEvent The event to be put in the queue.
 	 */
+	@Override
 	public void addEventFirst(SimEvent newEvent) {
 		newEvent.setSerial(0);
 		sortedSet.add(newEvent);
 	}
 
+	@Override
+	public SimEvent peek() {
+		return sortedSet.isEmpty() ? null : sortedSet.first();
+	}
+
+	@Override
+	public SimEvent poll() {
+		return sortedSet.pollFirst();
+	}
+
+	@Override
+	public int drainFirstTime(List<SimEvent> batch) {
+		Iterator<SimEvent> it = sortedSet.iterator();
+		if (!it.hasNext()) {
+			return 0;
+		}
+		SimEvent event = it.next();
+		double time = event.eventTime();
+		int count = 0;
+		while (true) {
+			batch.add(event);
+			it.remove();
+			count++;
+			if (!it.hasNext()) {
+				break;
+			}
+			event = it.next();
+			if (event.eventTime() != time) {
+				break;
+			}
+		}
+		return count;
+	}
+
 	/**
 	 * Returns an iterator to the queue.
 	 * 
 	 * @return the iterator
 	 */
+	@Override
 	public Iterator<SimEvent> iterator() {
 		return sortedSet.iterator();
 	}
@@ -69,6 +109,7 @@ public class FutureQueue {
 	 * 
 	 * @return the size
 	 */
+	@Override
 	public int size() {
 		return sortedSet.size();
 	}
@@ -79,6 +120,7 @@ public class FutureQueue {
 	 * @param event the event
 	 * @return true, if successful
 	 */
+	@Override
 	public boolean remove(SimEvent event) {
 		return sortedSet.remove(event);
 	}
@@ -89,6 +131,7 @@ public class FutureQueue {
 	 * @param events the events
 	 * @return true, if successful
 	 */
+	@Override
 	public boolean removeAll(Collection<SimEvent> events) {
 		return sortedSet.removeAll(events);
 	}
@@ -96,6 +139,7 @@ public class FutureQueue {
 	/**
 	 * Clears the queue.
 	 */
+	@Override
 	public void clear() {
 		sortedSet.clear();
 	}
@@ -0,0 +1,210 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+
+/**
+ * The event processing state of a partition of the entities of a {@link Simulation}: its clock and its future and
+ * deferred event queues. A sequential simulation has a single logical process holding all the entities. In parallel
+ * mode, each partition has its own logical process, which only processes the events sent to its entities and is
+ * run by one thread at a time.
+ *
+ * @see Simulation#setWorkers(int)
+ */
+final class LogicalProcess {
+
+	/** The maximum number of events kept in the {@link #eventPool}. */
+	private static final int EVENT_POOL_CAPACITY = 1024;
+
+	/** The future event queue. */
+	EventQueue future;
+
+	/** The index of the events in the future event queue, by source entity and tag. */
+	final FutureEventIndex futureIndex = new FutureEventIndex();
+
+	/** The deferred event queue. */
+	final DeferredQueue deferred = new DeferredQueue();
+
+	/** The current clock of the logical process. */
+	double clock;
+
+	/** The predicates used in entity wait methods. */
+	final Map<Integer, Predicate> waitPredicates = new HashMap<Integer, Predicate>();
+
+	/** The buffer reused by each clock tick to take the events happening at the same time. */
+	final List<SimEvent> eventBatch = new ArrayList<SimEvent>();
+
+	/** The number of events below which batch sizes are counted in a dense array. */
+	static final int DENSE_EVENT_BATCH_SIZES = 64;
+
+	/**
+	 * The number of clock ticks that processed a given number of events, indexed by that number
+	 * of events, for the batches smaller than {@link #DENSE_EVENT_BATCH_SIZES}.
+	 */
+	final long[] eventBatchSizeCounts = new long[DENSE_EVENT_BATCH_SIZES];
+
+	/**
+	 * The number of clock ticks that processed a given number of events, for the larger batches,
+	 * which are rare and may be very large, so they are counted sparsely.
+	 */
+	final Map<Integer, long[]> largeEventBatchSizeCounts = new HashMap<Integer, long[]>();
+
+	/** The entities of the partition, in the order of their ids. Only used in parallel mode. */
+	final List<SimEntity> entities = new ArrayList<SimEntity>();
+
+	/**
+	 * The events sent to the entities of other partitions during the current time window, to be delivered when
+	 * the window is over. Only used in parallel mode.
+	 */
+	final List<SimEvent> outbox = new ArrayList<SimEvent>();
+
+	/** Whether each event of the {@link #outbox} has to be put ahead of the events with the same time. */
+	final List<Boolean> outboxFirst = new ArrayList<Boolean>();
+
+	/** The processed events kept to be reused by the next events, when event pooling is enabled. */
+	final ArrayDeque<SimEvent> eventPool = new ArrayDeque<SimEvent>();
+
+	/**
+	 * Creates a logical process.
+	 *
+	 * @param future an empty future event queue
+	 */
+	LogicalProcess(EventQueue future) {
+		this.future = future;
+	}
+
+	/**
+	 * Puts an event in the future event queue.
+	 *
+	 * @param e the event
+	 * @param first whether the event has to be put ahead of the events with the same time
+	 */
+	void schedule(SimEvent e, boolean first) {
+		if (first) {
+			future.addEventFirst(e);
+		} else {
+			future.addEvent(e);
+		}
+		futureIndex.add(e);
+	}
+
+	/**
+	 * Creates an event, reusing a processed event if the pool has one.
+	 *
+	 * @param evtype the internal type of the event
+	 * @param time the time of the event
+	 * @param src the id of the source entity
+	 * @param dest the id of the destination entity
+	 * @param tag the user defined type of the event
+	 * @param data the data of the event
+	 * @return the event
+	 */
+	SimEvent newEvent(int evtype, double time, int src, int dest, int tag, Object data) {
+		SimEvent e = eventPool.pollLast();
+		if (e == null) {
+			return new SimEvent(evtype, time, src, dest, tag, data);
+		}
+		e.reset(evtype, time, src, dest, tag, data);
+		return e;
+	}
+
+	/**
+	 * Puts a processed event in the pool, unless the pool is full.
+	 *
+	 * @param e the event, which nobody references anymore
+	 */
+	void recycle(SimEvent e) {
+		if (eventPool.size() < EVENT_POOL_CAPACITY) {
+			// doesn't keep the data of the event alive
+			e.reset(SimEvent.ENULL, -1, -1, -1, -1, null);
+			eventPool.addLast(e);
+		}
+	}
+
+	/**
+	 * Gets the time of the next future event.
+	 *
+	 * @return the time or {@link Double#MAX_VALUE} if there is no future event
+	 */
+	double nextEventTime() {
+		return future.size() > 0 ? future.peek().eventTime() : Double.MAX_VALUE;
+	}
+
+	/**
+	 * Counts a clock tick that processed a given number of events.
+	 *
+	 * @param batchSize the number of events processed by the tick
+	 */
+	void countEventBatch(int batchSize) {
+		countEventBatches(batchSize, 1);
+	}
+
+	/**
+	 * Counts clock ticks that processed a given number of events.
+	 *
+	 * @param batchSize the number of events processed by each tick
+	 * @param ticks the number of ticks
+	 */
+	void countEventBatches(int batchSize, long ticks) {
+		if (batchSize < DENSE_EVENT_BATCH_SIZES) {
+			eventBatchSizeCounts[batchSize] += ticks;
+			return;
+		}
+		long[] count = largeEventBatchSizeCounts.get(batchSize);
+		if (count == null) {
+			count = new long[1];
+			largeEventBatchSizeCounts.put(batchSize, count);
+		}
+		count[0] += ticks;
+	}
+
+	/**
+	 * Adds the counted clock ticks to a histogram.
+	 *
+	 * @param histogram the map from each number of events processed by a tick to the number of
+	 *            ticks that processed that many events
+	 */
+	void addEventBatchSizes(Map<Integer, Long> histogram) {
+		for (int i = 0; i < eventBatchSizeCounts.length; i++) {
+			if (eventBatchSizeCounts[i] > 0) {
+				addEventBatchSize(histogram, i, eventBatchSizeCounts[i]);
+			}
+		}
+		for (Map.Entry<Integer, long[]> entry : largeEventBatchSizeCounts.entrySet()) {
+			addEventBatchSize(histogram, entry.getKey(), entry.getValue()[0]);
+		}
+	}
+
+	private static void addEventBatchSize(Map<Integer, Long> histogram, int batchSize, long ticks) {
+		Long count = histogram.get(batchSize);
+		histogram.put(batchSize, count == null ? ticks : count + ticks);
+	}
+
+	/**
+	 * Adds the clock ticks counted by another process to the ones of this process.
+	 *
+	 * @param other the other process
+	 */
+	void addEventBatchSizes(LogicalProcess other) {
+		for (int i = 0; i < other.eventBatchSizeCounts.length; i++) {
+			eventBatchSizeCounts[i] += other.eventBatchSizeCounts[i];
+		}
+		for (Map.Entry<Integer, long[]> entry : other.largeEventBatchSizeCounts.entrySet()) {
+			countEventBatches(entry.getKey(), entry.getValue()[0]);
+		}
+	}
+
+}
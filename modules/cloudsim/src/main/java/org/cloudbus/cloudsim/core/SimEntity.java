@@ -356,10 +356,8 @@ public abstract class SimEntity implements Cloneable {
 		if (!CloudSim.running()) {
 			return null;
 		}
-		if (numEventsWaiting(p) > 0) {
-			return selectEvent(p);
-		}
-		return null;
+		// the deferred queue returns null if no event matches, so there is no need to count them first
+		return CloudSim.select(id, p);
 	}
 
 	/**
@@ -424,6 +422,7 @@ public abstract class SimEntity implements Cloneable {
 
 		while (ev != null) {
 			processEvent(ev);
+			CloudSim.getSimulation().recycle(ev);
 			if (state != RUNNABLE) {
 				break;
 			}
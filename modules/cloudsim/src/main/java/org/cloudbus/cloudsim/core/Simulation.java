@@ -0,0 +1,1353 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.NetworkTopology;
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+
+/**
+ * The context of a simulation: its clock, its future and deferred event queues and its entities.
+ * The static methods of {@link CloudSim} delegate to the simulation of the current thread, given by
+ * {@link CloudSim#getSimulation()}, so that independent simulations can run in parallel in the same
+ * JVM, each one in its own thread.
+ * <p>
+ * The entities register themselves with the simulation of the thread that creates them, and the
+ * simulation processes the events in the thread that runs it. A simulation is therefore set up and
+ * run in a single thread, and is not thread-safe.
+ * <p>
+ * Optionally, a simulation whose entities are split into partitions, e.g., one per datacenter with
+ * its brokers, runs them in parallel with a conservative time window synchronisation. Each
+ * partition has its own {@link LogicalProcess}, and the partitions process the events of a time
+ * window as long as the lookahead, the minimum delay of the events sent from one partition to
+ * another, in parallel. The events sent to other partitions are delivered at the end of the
+ * window, in the order of the partitions and then of their sending, so a parallel run gives the
+ * same results whatever the number of threads. The entities of different partitions must
+ * therefore only interact through events delayed by at least the lookahead, and must not share
+ * any other mutable state. See {@link #setWorkers(int)}.
+ * <p>
+ * The CloudInformationService and CloudSimShutdown entities stay in the partition 0. The events
+ * happening when a parallel run starts, e.g., the registration of the datacenters with the CIS and
+ * the first requests of the brokers, are processed sequentially, so the entities of any partition
+ * can exchange them without delay. The CIS is only read afterwards: the brokers get the resources
+ * of their own partition with {@link #getCloudResourceList(int)}, so a broker has to be put in the
+ * partition of the datacenters it uses. The entities also share the static state of CloudSim, which
+ * must not change during a parallel run: the {@link NetworkTopology} is only read, and the
+ * {@link Log} lines of the partitions are interleaved.
+ *
+ * @see CloudSim
+ */
+public class Simulation {
+
+	/** The Constant NOT_FOUND. */
+	private static final int NOT_FOUND = -1;
+
+	/** The id of CIS entity. */
+	private int cisId = -1;
+
+	/** The id of CloudSimShutdown entity. */
+	private int shutdownId = -1;
+
+	/** The CIS object. */
+	private CloudInformationService cis = null;
+
+	/** The trace flag. */
+	@SuppressWarnings("unused")
+	private boolean traceFlag = false;
+
+	/** The calendar. */
+	private Calendar calendar = null;
+
+	/** The termination time. */
+	private double terminateAt = -1;
+
+	/** The minimal time between events. Events within shorter periods after the last event are discarded. */
+	private double minTimeBetweenEvents = 0.01;
+
+	/** The entities. */
+	private List<SimEntity> entities;
+
+	/** The logical process of the sequential mode, which is the first partition in parallel mode. */
+	private LogicalProcess process;
+
+	/** The logical process of each partition while a parallel run is going on, null otherwise. */
+	private LogicalProcess[] processes;
+
+	/** The index in {@link #processes} of the logical process of each entity, by entity id. */
+	private int[] entityProcesses;
+
+	/** The logical process run by each worker thread during a time window. */
+	private final ThreadLocal<LogicalProcess> currentProcess = new ThreadLocal<LogicalProcess>();
+
+	/** The end of the current time window in parallel mode, exclusive. */
+	private double windowEnd;
+
+	/** The length of the time windows of the current parallel run. */
+	private double windowLookahead;
+
+	/** The partition of each entity, by entity id. The entities without a partition are in the partition 0. */
+	private Map<Integer, Integer> partitions;
+
+	/** The maximum number of threads running partitions at the same time. */
+	private int workers = 1;
+
+	/**
+	 * The minimum delay of the events sent from one partition to another, or 0 to derive it from
+	 * the network topology.
+	 */
+	private double lookahead = 0;
+
+	/** Whether the processed events are reused by the next events. */
+	private boolean eventPooling = false;
+
+	/** Flag for checking if the simulation is running. */
+	private volatile boolean running;
+
+	/** The entities by name. */
+	private Map<String, SimEntity> entitiesByName;
+
+	/** The paused. */
+	private boolean paused = false;
+
+	/** The pause at. */
+	private long pauseAt = -1;
+
+	/** The abrupt terminate. */
+	private volatile boolean abruptTerminate = false;
+
+	/**
+	 * Initialises the simulation and creates its CloudInformationService and CloudSimShutdown
+	 * entities. The simulation has to be the simulation of the current thread, for the entities to
+	 * register with it.
+	 *
+	 * @param numUser the number of User Entities created
+	 * @param cal starting time for this simulation. If it is <tt>null</tt>, then the time will be
+	 *            taken from <tt>Calendar.getInstance()</tt>
+	 * @param traceFlag <tt>true</tt> if CloudSim trace need to be written
+	 * @throws Exception when the entities cannot be created
+	 * @see CloudSim#init(int, Calendar, boolean)
+	 */
+	void init(int numUser, Calendar cal, boolean traceFlag) throws Exception {
+		initialize();
+		// NOTE: the order for the below 3 lines are important
+		this.traceFlag = traceFlag;
+
+		// Set the current Wall clock time as the starting time of
+		// simulation
+		if (cal == null) {
+			calendar = Calendar.getInstance();
+		} else {
+			calendar = cal;
+		}
+
+		// creates a CloudSimShutdown object
+		CloudSimShutdown shutdown = new CloudSimShutdown("CloudSimShutdown", numUser);
+		shutdownId = shutdown.getId();
+
+		// create a GIS object
+		cis = new CloudInformationService("CloudInformationService");
+
+		// set all the above entity IDs
+		cisId = cis.getId();
+	}
+
+	/**
+	 * Initialise the simulation for stand alone simulations. This function should be called at the
+	 * start of the simulation.
+	 */
+	void initialize() {
+		Log.printLine("Initialising...");
+		entities = new ArrayList<SimEntity>();
+		entitiesByName = new LinkedHashMap<String, SimEntity>();
+		process = new LogicalProcess(new CalendarQueue());
+		processes = null;
+		partitions = new HashMap<Integer, Integer>();
+		running = false;
+	}
+
+	/**
+	 * Runs the simulation, then resets the entities created by {@link #init(int, Calendar, boolean)}.
+	 *
+	 * @return the last clock time
+	 */
+	double start() {
+		double clock = run();
+
+		// reset the initial state
+		cisId = -1;
+		shutdownId = -1;
+		cis = null;
+		calendar = null;
+		traceFlag = false;
+
+		return clock;
+	}
+
+	/**
+	 * Sets the minimal time between events. Events within shorter periods after the last event are
+	 * discarded.
+	 *
+	 * @param minTimeBetweenEvents the minimal time between events
+	 */
+	void setMinTimeBetweenEvents(double minTimeBetweenEvents) {
+		this.minTimeBetweenEvents = minTimeBetweenEvents;
+	}
+
+	/**
+	 * Returns the minimum time between events. Events within shorter periods after the last event are discarded.
+	 * @return the minimum time between events.
+	 */
+	public double getMinTimeBetweenEvents() {
+		return minTimeBetweenEvents;
+	}
+
+	/**
+	 * Gets the future event queue.
+	 *
+	 * @return the future event queue
+	 */
+	EventQueue getFutureQueue() {
+		return process == null ? null : process.future;
+	}
+
+	/**
+	 * Sets the future event queue. It has to be set before any event is scheduled.
+	 *
+	 * @param future the future event queue
+	 */
+	void setFutureQueue(EventQueue future) {
+		process.future = future;
+	}
+
+	/**
+	 * Gets the deferred event queue.
+	 *
+	 * @return the deferred event queue
+	 */
+	DeferredQueue getDeferredQueue() {
+		return process == null ? null : process.deferred;
+	}
+
+	/**
+	 * Puts an entity in a partition. The entities of different partitions are run in parallel
+	 * when the simulation has more than one worker. The entities without a partition are in the
+	 * partition 0, with the CloudInformationService and CloudSimShutdown entities, which can't be
+	 * moved to another partition. A broker has to be in the partition of its datacenters.
+	 *
+	 * @param entity the entity, which has to be added to the simulation
+	 * @param partition the partition, a positive number or 0
+	 * @see #setWorkers(int)
+	 */
+	public void setPartition(SimEntity entity, int partition) {
+		if (partition < 0) {
+			throw new IllegalArgumentException("The partition can't be negative.");
+		}
+		if (partition != 0 && (entity.getId() == cisId || entity.getId() == shutdownId)) {
+			throw new IllegalArgumentException("The " + entity.getName() + " entity has to be in the partition 0.");
+		}
+		if (processes != null) {
+			throw new IllegalStateException("The partitions can't be changed during a parallel run.");
+		}
+		partitions.put(entity.getId(), partition);
+	}
+
+	/**
+	 * Gets the partition of an entity.
+	 *
+	 * @param id the id of the entity
+	 * @return the partition
+	 */
+	public int getPartition(int id) {
+		Integer partition = partitions.get(id);
+		return partition == null ? 0 : partition;
+	}
+
+	/**
+	 * Sets the maximum number of threads running partitions at the same time. With more than one
+	 * worker, the simulation runs its partitions in parallel if it has more than one partition and a
+	 * positive lookahead, and sequentially otherwise.
+	 *
+	 * @param workers the number of workers, 1 by default
+	 * @see #setPartition(SimEntity, int)
+	 * @see #setLookahead(double)
+	 */
+	public void setWorkers(int workers) {
+		if (workers < 1) {
+			throw new IllegalArgumentException("The number of workers has to be positive.");
+		}
+		this.workers = workers;
+	}
+
+	/**
+	 * Sets the lookahead of a parallel run, the minimum delay of the events sent from an entity to
+	 * an entity of another partition. Sending an event with a shorter delay to another partition
+	 * during a parallel run throws an {@link IllegalStateException}.
+	 *
+	 * @param lookahead the lookahead, or 0 to use the minimum {@link NetworkTopology} delay between
+	 *            the entities of different partitions
+	 */
+	public void setLookahead(double lookahead) {
+		if (lookahead < 0) {
+			throw new IllegalArgumentException("The lookahead can't be negative.");
+		}
+		this.lookahead = lookahead;
+	}
+
+	/**
+	 * Sets whether the events are reused once processed, instead of allocating a new event for
+	 * each send. An event delivered to an entity is reused once its
+	 * {@link SimEntity#processEvent(SimEvent)} returns, so the entities must not keep a reference
+	 * to it, e.g., to compare it with the next events. The events returned by
+	 * {@link #cancel(int, Predicate)} aren't reused.
+	 *
+	 * @param eventPooling true to reuse the events, false by default
+	 */
+	public void setEventPooling(boolean eventPooling) {
+		this.eventPooling = eventPooling;
+	}
+
+	/**
+	 * Checks whether the events are reused once processed.
+	 *
+	 * @return true if the events are reused
+	 * @see #setEventPooling(boolean)
+	 */
+	public boolean isEventPooling() {
+		return eventPooling;
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation.
+	 *
+	 * @return true, if successful; false otherwise.
+	 */
+	public boolean terminateSimulation() {
+		running = false;
+		printMessage("Simulation: Reached termination time.");
+		return true;
+	}
+
+	/**
+	 * This method is called if one wants to terminate the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be terminated
+	 * @return true, if successful otherwise.
+	 */
+	public boolean terminateSimulation(double time) {
+		if (time <= clock()) {
+			return false;
+		} else {
+			terminateAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a new copy of initial simulation Calendar.
+	 *
+	 * @return a new copy of Calendar object or if the simulation hasn't been initialized
+	 */
+	public Calendar getSimulationCalendar() {
+		// make a new copy
+		Calendar clone = calendar;
+		if (calendar != null) {
+			clone = (Calendar) calendar.clone();
+		}
+
+		return clone;
+	}
+
+	/**
+	 * Gets the entity ID of <tt>CloudInformationService</tt>.
+	 *
+	 * @return the Entity ID or if it is not found
+	 */
+	public int getCloudInfoServiceEntityId() {
+		return cisId;
+	}
+
+	/**
+	 * Gets the list of all Cloud hostList registered with the Cloud Information Service (CIS)
+	 * entity.
+	 *
+	 * @return A List containing CloudResource ID (as an Integer object) or if a CIS entity hasn't
+	 *         been created before
+	 */
+	public List<Integer> getCloudResourceList() {
+		if (cis == null) {
+			return null;
+		}
+
+		return cis.getList();
+	}
+
+	/**
+	 * Gets the list of the Cloud resources registered with the CIS that are in the partition of an
+	 * entity, i.e., all of them unless the simulation is partitioned.
+	 *
+	 * @param id the id of the entity, e.g., a broker
+	 * @return A List containing CloudResource ID (as an Integer object) or if a CIS entity hasn't
+	 *         been created before
+	 * @see #setPartition(SimEntity, int)
+	 */
+	public List<Integer> getCloudResourceList(int id) {
+		List<Integer> resources = getCloudResourceList();
+		if (resources == null || partitions.isEmpty()) {
+			return resources;
+		}
+		List<Integer> partitionResources = new ArrayList<Integer>();
+		for (Integer resource : resources) {
+			if (getPartition(resource) == getPartition(id)) {
+				partitionResources.add(resource);
+			}
+		}
+		return partitionResources;
+	}
+
+	/**
+	 * Get the current simulation time. During a parallel run, it is the time of the partition of
+	 * the calling entity.
+	 *
+	 * @return the simulation time
+	 */
+	public double clock() {
+		LogicalProcess lp = lp();
+		return lp == null ? 0 : lp.clock;
+	}
+
+	/**
+	 * Get the current number of entities in the simulation.
+	 *
+	 * @return The number of entities
+	 */
+	public int getNumEntities() {
+		return entities.size();
+	}
+
+	/**
+	 * Get the entity with a given id.
+	 *
+	 * @param id the entity's unique id number
+	 * @return The entity, or if it could not be found
+	 */
+	public SimEntity getEntity(int id) {
+		return entities.get(id);
+	}
+
+	/**
+	 * Get the entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity
+	 */
+	public SimEntity getEntity(String name) {
+		return entitiesByName.get(name);
+	}
+
+	/**
+	 * Get the id of an entity with a given name.
+	 *
+	 * @param name The entity's name
+	 * @return The entity's unique id number
+	 */
+	public int getEntityId(String name) {
+		SimEntity obj = entitiesByName.get(name);
+		if (obj == null) {
+			return NOT_FOUND;
+		} else {
+			return obj.getId();
+		}
+	}
+
+	/**
+	 * Returns a list of entities created for the simulation.
+	 *
+	 * @return the entity iterator
+	 */
+	public List<SimEntity> getEntityList() {
+		// create a new list to prevent the user from changing
+		// the list of entities used by Simulation
+		List<SimEntity> list = new LinkedList<SimEntity>();
+		list.addAll(entities);
+		return list;
+	}
+
+	/**
+	 * Add a new entity to the simulation.
+	 *
+	 * @param e The new entity
+	 */
+	public void addEntity(SimEntity e) {
+		if (processes != null) {
+			throw new IllegalStateException("Entities can't be added during a parallel run.");
+		}
+		SimEvent evt;
+		if (running) {
+			// Post an event to make this entity
+			evt = new SimEvent(SimEvent.CREATE, clock(), 1, 0, 0, e);
+			schedule(evt, false);
+		}
+		if (e.getId() == -1) { // Only add once!
+			int id = entities.size();
+			e.setId(id);
+			entities.add(e);
+			entitiesByName.put(e.getName(), e);
+		}
+	}
+
+	/**
+	 * Internal method used to add a new entity to the simulation when the simulation is running.
+	 *
+	 * @param e The new entity
+	 */
+	void addEntityDynamically(SimEntity e) {
+		if (e == null) {
+			throw new IllegalArgumentException("Adding null entity.");
+		} else {
+			printMessage("Adding: " + e.getName());
+		}
+		e.startEntity();
+	}
+
+	/**
+	 * Internal method used to run one tick of the simulation.
+	 *
+	 * @return true, if there are no more future events
+	 */
+	public boolean runClockTick() {
+		SimEntity ent;
+		boolean queue_empty;
+
+		int entities_size = entities.size();
+
+		for (int i = 0; i < entities_size; i++) {
+			ent = entities.get(i);
+			if (ent.getState() == SimEntity.RUNNABLE) {
+				ent.run();
+			}
+		}
+
+		// If there are more future events then deal with them
+		if (process.future.size() > 0) {
+			queue_empty = false;
+			processBatch(process);
+		} else {
+			queue_empty = true;
+			running = false;
+			printMessage(process.clock + ": Simulation: No more future events");
+		}
+
+		return queue_empty;
+	}
+
+	/**
+	 * Processes the first event of the future event queue of a logical process and all the next
+	 * events happening at the same time.
+	 *
+	 * @param lp the logical process, whose future event queue isn't empty
+	 */
+	private void processBatch(LogicalProcess lp) {
+		int batchSize = lp.future.drainFirstTime(lp.eventBatch);
+		for (int i = 0; i < batchSize; i++) {
+			lp.futureIndex.remove(lp.eventBatch.get(i));
+			processEvent(lp, lp.eventBatch.get(i));
+		}
+		lp.eventBatch.clear();
+		lp.countEventBatch(batchSize);
+	}
+
+	/**
+	 * Gets the histogram of the number of events processed at each clock tick of the simulation.
+	 * After a parallel run, a tick is a tick of one partition.
+	 *
+	 * @return a map from each number of events processed by a tick to the number of ticks that
+	 *         processed that many events, sorted by the number of events
+	 * @see CloudSim#getEventBatchSizeHistogram()
+	 */
+	public SortedMap<Integer, Long> getEventBatchSizeHistogram() {
+		SortedMap<Integer, Long> histogram = new TreeMap<Integer, Long>();
+		if (process != null) {
+			process.addEventBatchSizes(histogram);
+		}
+		return histogram;
+	}
+
+	/**
+	 * Internal method used to stop the simulation.
+	 */
+	public void runStop() {
+		printMessage("Simulation completed.");
+	}
+
+	/**
+	 * Used to pause an entity for some time.
+	 *
+	 * @param src the src
+	 * @param delay the delay
+	 */
+	public void pause(int src, double delay) {
+		SimEvent e = newEvent(SimEvent.HOLD_DONE, clock() + delay, src, -1, -1, null);
+		schedule(e, false);
+		entities.get(src).setState(SimEntity.HOLDING);
+	}
+
+	/**
+	 * Used to send an event from one entity to another.
+	 *
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void send(int src, int dest, double delay, int tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+		if(delay >= Double.MAX_VALUE) {
+			throw new RuntimeException("Send delay can't be infinite.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, src, dest, tag, data);
+		schedule(e, false);
+	}
+
+	/**
+	 * Used to send an event from one entity to another, with priority in the queue.
+	 *
+	 * @param src the src
+	 * @param dest the dest
+	 * @param delay the delay
+	 * @param tag the tag
+	 * @param data the data
+	 */
+	public void sendFirst(int src, int dest, double delay, int tag, Object data) {
+		if (delay < 0) {
+			throw new IllegalArgumentException("Send delay can't be negative.");
+		}
+
+		SimEvent e = newEvent(SimEvent.SEND, clock() + delay, src, dest, tag, data);
+		schedule(e, true);
+	}
+
+	/**
+	 * Sets an entity's state to be waiting. Only events that satisfy the predicate will be passed
+	 * to the entity.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 */
+	public void wait(int src, Predicate p) {
+		entities.get(src).setState(SimEntity.WAITING);
+		if (p != CloudSim.SIM_ANY) {
+			// If a predicate has been used store it in order to check it
+			lp().waitPredicates.put(src, p);
+		}
+	}
+
+	/**
+	 * Checks if events for a specific entity are present in the deferred event queue.
+	 *
+	 * @param d the d
+	 * @param p the p
+	 * @return the int
+	 */
+	public int waiting(int d, Predicate p) {
+		return lp().deferred.count(d, p);
+	}
+
+	/**
+	 * Selects an event matching a predicate.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event
+	 */
+	public SimEvent select(int src, Predicate p) {
+		return lp().deferred.removeFirst(src, p);
+	}
+
+	/**
+	 * Find first deferred event matching a predicate.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event
+	 */
+	public SimEvent findFirstDeferred(int src, Predicate p) {
+		return lp().deferred.findFirst(src, p);
+	}
+
+	/**
+	 * Removes an event from the event queue. During a parallel run, only the events sent to the
+	 * entities of the partition of the calling entity can be cancelled.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return the sim event
+	 * @see CloudSim#cancel(int, Predicate)
+	 */
+	public SimEvent cancel(int src, Predicate p) {
+		LogicalProcess lp = lp();
+		SimEvent ev = null;
+		if (src >= 0 && p.getClass() == PredicateType.class) {
+			// the first pending event among the ones sent with each of the tags
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				for (SimEvent next : lp.futureIndex.get(src, predicate.getTag(i))) {
+					if (ev == null || next.compareTo(ev) < 0) {
+						ev = next;
+					}
+				}
+			}
+		} else {
+			// the queue may not be iterated in temporal order, so looks for the first matching event
+			Iterator<SimEvent> iter = lp.future.iterator();
+			while (iter.hasNext()) {
+				SimEvent next = iter.next();
+				if (next.getSource() == src && p.match(next) && (ev == null || next.compareTo(ev) < 0)) {
+					ev = next;
+				}
+			}
+		}
+		if (ev != null) {
+			lp.future.remove(ev);
+			lp.futureIndex.remove(ev);
+		}
+
+		return ev;
+	}
+
+	/**
+	 * Removes all events that match a given predicate from the future event queue. During a
+	 * parallel run, only the events sent to the entities of the partition of the calling entity
+	 * are cancelled.
+	 *
+	 * @param src the src
+	 * @param p the p
+	 * @return true, if at least one event has been cancelled
+	 * @see CloudSim#cancelAll(int, Predicate)
+	 */
+	public boolean cancelAll(int src, Predicate p) {
+		LogicalProcess lp = lp();
+		int previousSize = lp.future.size();
+		if (src >= 0 && p.getClass() == PredicateType.class) {
+			PredicateType predicate = (PredicateType) p;
+			for (int i = 0; i < predicate.getTagCount(); i++) {
+				Set<SimEvent> events = lp.futureIndex.get(src, predicate.getTag(i));
+				for (SimEvent ev : events) {
+					lp.future.remove(ev);
+				}
+				events.clear();
+			}
+		} else {
+			SimEvent ev = null;
+			Iterator<SimEvent> iter = lp.future.iterator();
+			while (iter.hasNext()) {
+				ev = iter.next();
+				if (ev.getSource() == src && p.match(ev)) {
+					iter.remove();
+					lp.futureIndex.remove(ev);
+				}
+			}
+		}
+		return previousSize > lp.future.size();
+	}
+
+	/**
+	 * Creates an event, reusing a processed event when event pooling is enabled.
+	 *
+	 * @param evtype the internal type of the event
+	 * @param time the time of the event
+	 * @param src the id of the source entity
+	 * @param dest the id of the destination entity
+	 * @param tag the user defined type of the event
+	 * @param data the data of the event
+	 * @return the event
+	 */
+	private SimEvent newEvent(int evtype, double time, int src, int dest, int tag, Object data) {
+		if (eventPooling) {
+			return lp().newEvent(evtype, time, src, dest, tag, data);
+		}
+		return new SimEvent(evtype, time, src, dest, tag, data);
+	}
+
+	/**
+	 * Gives back an event processed by an entity, to be reused when event pooling is enabled.
+	 *
+	 * @param e the event
+	 */
+	void recycle(SimEvent e) {
+		if (eventPooling) {
+			lp().recycle(e);
+		}
+	}
+
+	/**
+	 * Gets the logical process of the calling thread.
+	 *
+	 * @return the logical process of the partition run by the thread during a parallel run, the
+	 *         logical process of the sequential mode otherwise
+	 */
+	private LogicalProcess lp() {
+		if (processes == null) {
+			return process;
+		}
+		LogicalProcess lp = currentProcess.get();
+		return lp == null ? process : lp;
+	}
+
+	/**
+	 * Puts an event in the future event queue. During a parallel run, the events sent to another
+	 * partition are kept until the end of the time window.
+	 *
+	 * @param e the event
+	 * @param first whether the event has to be put ahead of the events with the same time
+	 */
+	private void schedule(SimEvent e, boolean first) {
+		if (processes == null) {
+			process.schedule(e, first);
+			return;
+		}
+		LogicalProcess owner = getOwner(e);
+		LogicalProcess current = currentProcess.get();
+		if (current == null || owner == current) {
+			owner.schedule(e, first);
+		} else if (e.eventTime() < windowEnd) {
+			throw new IllegalStateException("Event sent to another partition " + (e.eventTime() - current.clock)
+					+ " after the current time, which is less than the lookahead.");
+		} else {
+			current.outbox.add(e);
+			current.outboxFirst.add(first);
+		}
+	}
+
+	/**
+	 * Gets the logical process that processes an event during a parallel run.
+	 *
+	 * @param e the event
+	 * @return the logical process of its destination, or of its source for the end of a pause
+	 */
+	private LogicalProcess getOwner(SimEvent e) {
+		int id = e.getType() == SimEvent.HOLD_DONE ? e.getSource() : e.getDestination();
+		if (id < 0 || id >= entityProcesses.length) {
+			LogicalProcess current = currentProcess.get();
+			return current == null ? process : current;
+		}
+		return processes[entityProcesses[id]];
+	}
+
+	/**
+	 * Processes an event.
+	 *
+	 * @param lp the logical process of the event
+	 * @param e the e
+	 */
+	private void processEvent(LogicalProcess lp, SimEvent e) {
+		int dest, src;
+		SimEntity dest_ent;
+		// Update the system's clock
+		if (e.eventTime() < lp.clock) {
+			throw new IllegalArgumentException("Past event detected.");
+		}
+		lp.clock = e.eventTime();
+
+		// Ok now process it
+		switch (e.getType()) {
+			case SimEvent.ENULL:
+				throw new IllegalArgumentException("Event has a null type.");
+
+			case SimEvent.CREATE:
+				SimEntity newe = (SimEntity) e.getData();
+				addEntityDynamically(newe);
+				break;
+
+			case SimEvent.SEND:
+				// Check for matching wait
+				dest = e.getDestination();
+				if (dest < 0) {
+					throw new IllegalArgumentException("Attempt to send to a null entity detected.");
+				} else {
+					int tag = e.getTag();
+					dest_ent = entities.get(dest);
+					if (dest_ent.getState() == SimEntity.WAITING) {
+						Integer destObj = Integer.valueOf(dest);
+						Predicate p = lp.waitPredicates.get(destObj);
+						if ((p == null) || (tag == 9999) || (p.match(e))) {
+							// the event has left the queues, so it is given to the entity rather than copied
+							dest_ent.setEventBuffer(e);
+							dest_ent.setState(SimEntity.RUNNABLE);
+							lp.waitPredicates.remove(destObj);
+						} else {
+							lp.deferred.addEvent(e);
+						}
+					} else {
+						lp.deferred.addEvent(e);
+					}
+				}
+				break;
+
+			case SimEvent.HOLD_DONE:
+				src = e.getSource();
+				if (src < 0) {
+					throw new IllegalArgumentException("Null entity holding.");
+				} else {
+					entities.get(src).setState(SimEntity.RUNNABLE);
+					recycle(e);
+				}
+				break;
+
+			default:
+				break;
+		}
+	}
+
+	/**
+	 * Internal method used to start the simulation.
+	 */
+	public void runStart() {
+		running = true;
+		// Start all the entities
+		for (SimEntity ent : entities) {
+			ent.startEntity();
+		}
+
+		printMessage("Entities started.");
+	}
+
+	/**
+	 * Check if the simulation is still running.
+	 *
+	 * @return if the simulation is still running, otherwise
+	 */
+	public boolean running() {
+		return running;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation.
+	 *
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation() {
+		paused = true;
+		return paused;
+	}
+
+	/**
+	 * This method is called if one wants to pause the simulation at a given time.
+	 *
+	 * @param time the time at which the simulation has to be paused
+	 * @return true, if successful otherwise.
+	 */
+	public boolean pauseSimulation(long time) {
+		if (time <= clock()) {
+			return false;
+		} else {
+			pauseAt = time;
+		}
+		return true;
+	}
+
+	/**
+	 * This method is called if one wants to resume the simulation that has previously been paused.
+	 *
+	 * @return if the simulation has been restarted or or otherwise.
+	 */
+	public boolean resumeSimulation() {
+		paused = false;
+
+		if (pauseAt <= clock()) {
+			pauseAt = -1;
+		}
+
+		return !paused;
+	}
+
+	/**
+	 * Start the simulation running. This should be called after all the entities have been setup
+	 * and added, and their ports linked. The partitions of the simulation are run in parallel if
+	 * it has several workers, several partitions and a positive lookahead.
+	 *
+	 * @return the last clock value
+	 */
+	public double run() {
+		if (!running) {
+			runStart();
+		}
+		if (workers > 1 && startParallelRun()) {
+			runParallel();
+		} else {
+			runSequential();
+		}
+
+		double clock = clock();
+
+		finishSimulation();
+		runStop();
+
+		return clock;
+	}
+
+	/**
+	 * Runs the simulation in the current thread.
+	 */
+	private void runSequential() {
+		while (true) {
+			if (runClockTick() || abruptTerminate) {
+				break;
+			}
+
+			// this block allows termination of simulation at a specific time
+			if (terminateAt > 0.0 && process.clock >= terminateAt) {
+				terminateSimulation();
+				process.clock = terminateAt;
+				break;
+			}
+
+			if (pauseAt != -1
+					&& ((process.future.size() > 0 && process.clock <= pauseAt && pauseAt <= process.future.peek()
+							.eventTime()) || process.future.size() == 0 && pauseAt <= process.clock)) {
+				pauseSimulation();
+				process.clock = pauseAt;
+			}
+
+			waitWhilePaused();
+		}
+	}
+
+	/**
+	 * Waits for the simulation to be resumed if it is paused.
+	 */
+	private void waitWhilePaused() {
+		while (paused) {
+			try {
+				Thread.sleep(100);
+			} catch (InterruptedException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	/**
+	 * Creates the logical processes of the partitions and gives them the events scheduled so far.
+	 *
+	 * @return true if the simulation can run in parallel, false if it has to run sequentially
+	 */
+	private boolean startParallelRun() {
+		TreeSet<Integer> partitionNumbers = new TreeSet<Integer>();
+		partitionNumbers.add(0);
+		for (SimEntity ent : entities) {
+			partitionNumbers.add(getPartition(ent.getId()));
+		}
+		if (partitionNumbers.size() < 2) {
+			printMessage("Simulation: Running sequentially, as all the entities are in the same partition.");
+			return false;
+		}
+		double runLookahead = lookahead > 0 ? lookahead : getNetworkLookahead();
+		if (runLookahead <= 0) {
+			printMessage("Simulation: Running sequentially, as the partitions have no lookahead.");
+			return false;
+		}
+
+		// the entities register with the CIS and query it when they start, without delay
+		while (true) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() == SimEntity.RUNNABLE) {
+					ent.run();
+				}
+			}
+			if (process.future.size() == 0 || process.future.peek().eventTime() > process.clock) {
+				break;
+			}
+			processBatch(process);
+		}
+
+		Map<Integer, Integer> processIndexes = new HashMap<Integer, Integer>();
+		processes = new LogicalProcess[partitionNumbers.size()];
+		for (int partition : partitionNumbers) {
+			int index = processIndexes.size();
+			processIndexes.put(partition, index);
+			processes[index] = index == 0 ? process : new LogicalProcess(new CalendarQueue());
+			processes[index].clock = process.clock;
+		}
+		entityProcesses = new int[entities.size()];
+		for (SimEntity ent : entities) {
+			int index = processIndexes.get(getPartition(ent.getId()));
+			entityProcesses[ent.getId()] = index;
+			processes[index].entities.add(ent);
+		}
+
+		// moves the events of the other partitions in their temporal order
+		List<SimEvent> moved = new ArrayList<SimEvent>();
+		for (SimEvent e : process.future) {
+			if (getOwner(e) != process) {
+				moved.add(e);
+			}
+		}
+		Collections.sort(moved);
+		for (SimEvent e : moved) {
+			process.future.remove(e);
+			process.futureIndex.remove(e);
+			getOwner(e).schedule(e, false);
+		}
+
+		windowLookahead = runLookahead;
+		printMessage("Simulation: Running " + processes.length + " partitions in parallel with a lookahead of "
+				+ runLookahead + ".");
+		return true;
+	}
+
+	/**
+	 * Gets the minimum network delay between the entities of different partitions.
+	 *
+	 * @return the delay, 0 if some entities of different partitions have no delay between them
+	 */
+	private double getNetworkLookahead() {
+		double delay = Double.MAX_VALUE;
+		for (SimEntity src : entities) {
+			for (SimEntity dest : entities) {
+				if (getPartition(src.getId()) != getPartition(dest.getId())) {
+					delay = Math.min(delay, NetworkTopology.getDelay(src.getId(), dest.getId()));
+				}
+			}
+		}
+		return delay;
+	}
+
+	/**
+	 * Runs the partitions of the simulation in parallel, one time window after another. Each time
+	 * window starts at the time of the first future event and lasts for the lookahead, so the
+	 * events a partition processes during the window can't be affected by the other partitions.
+	 */
+	private void runParallel() {
+		ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, processes.length));
+		try {
+			while (!abruptTerminate) {
+				double start = Double.MAX_VALUE;
+				double clock = 0;
+				for (LogicalProcess lp : processes) {
+					start = Math.min(start, lp.nextEventTime());
+					clock = Math.max(clock, lp.clock);
+				}
+				if (start == Double.MAX_VALUE) {
+					running = false;
+					setParallelClock(clock);
+					printMessage(clock + ": Simulation: No more future events");
+					break;
+				}
+
+				// this block allows termination of simulation at a specific time
+				if (terminateAt > 0.0 && clock >= terminateAt) {
+					terminateSimulation();
+					setParallelClock(terminateAt);
+					break;
+				}
+
+				if (pauseAt != -1 && clock <= pauseAt && pauseAt <= start) {
+					pauseSimulation();
+					setParallelClock(pauseAt);
+				}
+				waitWhilePaused();
+
+				// as the sequential mode, processes the first events after the termination or pause time
+				windowEnd = start + windowLookahead;
+				if (terminateAt > 0.0) {
+					windowEnd = Math.min(windowEnd, Math.nextUp(Math.max(terminateAt, start)));
+				}
+				if (pauseAt != -1 && pauseAt >= start) {
+					windowEnd = Math.min(windowEnd, Math.nextUp(pauseAt));
+				}
+
+				runWindow(executor);
+			}
+		} finally {
+			executor.shutdownNow();
+			stopParallelRun();
+		}
+	}
+
+	/**
+	 * Runs the logical processes having events in the current time window, then delivers the
+	 * events they sent to each other.
+	 *
+	 * @param executor the executor running the logical processes
+	 */
+	private void runWindow(ExecutorService executor) {
+		List<Callable<Void>> tasks = new ArrayList<Callable<Void>>();
+		for (final LogicalProcess lp : processes) {
+			if (lp.nextEventTime() < windowEnd) {
+				tasks.add(new Callable<Void>() {
+
+					@Override
+					public Void call() {
+						runWindow(lp);
+						return null;
+					}
+				});
+			}
+		}
+		try {
+			for (Future<Void> result : executor.invokeAll(tasks)) {
+				result.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted parallel run.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			if (e.getCause() instanceof Error) {
+				throw (Error) e.getCause();
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+
+		// delivers the events in the order of the partitions, so the result doesn't depend on the threads
+		for (LogicalProcess lp : processes) {
+			for (int i = 0; i < lp.outbox.size(); i++) {
+				SimEvent e = lp.outbox.get(i);
+				getOwner(e).schedule(e, lp.outboxFirst.get(i));
+			}
+			lp.outbox.clear();
+			lp.outboxFirst.clear();
+		}
+	}
+
+	/**
+	 * Processes the events of a logical process that happen before the end of the current time
+	 * window, in the current thread.
+	 *
+	 * @param lp the logical process
+	 */
+	private void runWindow(LogicalProcess lp) {
+		CloudSim.setSimulation(this);
+		currentProcess.set(lp);
+		try {
+			while (true) {
+				for (SimEntity ent : lp.entities) {
+					if (ent.getState() == SimEntity.RUNNABLE) {
+						ent.run();
+					}
+				}
+				if (lp.nextEventTime() >= windowEnd) {
+					break;
+				}
+				processBatch(lp);
+			}
+		} finally {
+			currentProcess.remove();
+		}
+	}
+
+	/**
+	 * Sets the clock of all the logical processes.
+	 *
+	 * @param clock the clock
+	 */
+	private void setParallelClock(double clock) {
+		for (LogicalProcess lp : processes) {
+			lp.clock = clock;
+		}
+	}
+
+	/**
+	 * Gives the state of the logical processes of the partitions back to the logical process of
+	 * the sequential mode.
+	 */
+	private void stopParallelRun() {
+		for (int i = 1; i < processes.length; i++) {
+			LogicalProcess lp = processes[i];
+			Iterator<SimEvent> iter = lp.deferred.iterator();
+			while (iter.hasNext()) {
+				process.deferred.addEvent(iter.next());
+			}
+			process.waitPredicates.putAll(lp.waitPredicates);
+			process.addEventBatchSizes(lp);
+			process.clock = Math.max(process.clock, lp.clock);
+		}
+		processes = null;
+		entityProcesses = null;
+	}
+
+	/**
+	 * Internal method that allows the entities to terminate.
+	 */
+	public void finishSimulation() {
+		// Allow all entities to exit their body method
+		if (!abruptTerminate) {
+			for (SimEntity ent : entities) {
+				if (ent.getState() != SimEntity.FINISHED) {
+					ent.run();
+				}
+			}
+		}
+
+		for (SimEntity ent : entities) {
+			ent.shutdownEntity();
+		}
+
+		// reset the state of the simulation
+		entities = null;
+		entitiesByName = null;
+		process = null;
+		running = false;
+
+		paused = false;
+		pauseAt = -1;
+		abruptTerminate = false;
+	}
+
+	/**
+	 * Abruptally terminate.
+	 */
+	public void abruptallyTerminate() {
+		abruptTerminate = true;
+	}
+
+	/**
+	 * Prints a message about the progress of the simulation.
+	 *
+	 * @param message the message
+	 */
+	private void printMessage(String message) {
+		Log.printLine(message);
+	}
+
+	/**
+	 * Checks if is paused.
+	 *
+	 * @return true, if is paused
+	 */
+	public boolean isPaused() {
+		return paused;
+	}
+
+}
@@ -41,6 +41,35 @@ public class PredicateType extends Predicate {
 		this.tags = tags.clone();
 	}
 
+	/**
+	 * Gets the tags of the events selected by the predicate.
+	 * 
+	 * @return a copy of the tags
+	 */
+	public int[] getTags() {
+		return tags.clone();
+	}
+
+	/**
+	 * Gets the number of tags of the events selected by the predicate. With {@link #getTag(int)},
+	 * it gives the tags without copying them, for the event queues that look events up by tag.
+	 * 
+	 * @return the number of tags
+	 */
+	public int getTagCount() {
+		return tags.length;
+	}
+
+	/**
+	 * Gets a tag of the events selected by the predicate.
+	 * 
+	 * @param index the index of the tag, from 0 to {@link #getTagCount()} - 1
+	 * @return the tag
+	 */
+	public int getTag(int index) {
+		return tags[index];
+	}
+
 	/**
 	 * Matches any event that has one of the specified {@link #tags}.
 	 * 
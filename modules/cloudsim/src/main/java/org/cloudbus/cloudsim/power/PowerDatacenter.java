@@ -261,6 +261,17 @@ public class PowerDatacenter extends Datacenter {
 		setCloudletSubmitted(CloudSim.clock());
 	}
 
+	/**
+	 * Stops the workers scoring the hosts of the VM allocation policy, if any.
+	 */
+	@Override
+	public void shutdownEntity() {
+		super.shutdownEntity();
+		if (getVmAllocationPolicy() instanceof PowerVmAllocationPolicyMigrationAbstract) {
+			((PowerVmAllocationPolicyMigrationAbstract) getVmAllocationPolicy()).shutdownHostScoring();
+		}
+	}
+
 	/**
 	 * Gets the power.
 	 * 
@@ -0,0 +1,107 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import org.cloudbus.cloudsim.Vm;
+
+/**
+ * A candidate placement of a VM on a power host. It gives the capacity and utilization the host
+ * would have with the VM, computed from the host and the VM as they are, so that a VM allocation
+ * policy can evaluate many candidate hosts without creating the VM on each of them and
+ * destroying it again.
+ *
+ * @see PowerVmAllocationPolicyMigrationAbstract#isHostOverUtilized(PowerHostPlacement)
+ */
+public class PowerHostPlacement {
+
+	/** The host. */
+	private final PowerHost host;
+
+	/** The VM placed on the host. */
+	private final Vm vm;
+
+	/**
+	 * Instantiates a new placement.
+	 *
+	 * @param host the host
+	 * @param vm the VM placed on the host
+	 */
+	public PowerHostPlacement(PowerHost host, Vm vm) {
+		this.host = host;
+		this.vm = vm;
+	}
+
+	/**
+	 * Gets the host.
+	 *
+	 * @return the host
+	 */
+	public PowerHost getHost() {
+		return host;
+	}
+
+	/**
+	 * Gets the VM placed on the host.
+	 *
+	 * @return the VM
+	 */
+	public Vm getVm() {
+		return vm;
+	}
+
+	/**
+	 * Checks if the host has the storage, RAM, bandwidth and MIPS the VM requests, that is, if
+	 * creating the VM on the host would succeed.
+	 *
+	 * @return true if the VM fits on the host
+	 * @see PowerHost#vmCreate(Vm)
+	 */
+	public boolean isFeasible() {
+		return host.getStorage() >= vm.getSize() && host.isSuitableForVm(vm);
+	}
+
+	/**
+	 * Gets the total MIPS requested by the VMs of the host, the placed VM included.
+	 *
+	 * @return the total requested MIPS
+	 */
+	public double getRequestedTotalMips() {
+		double totalRequestedMips = 0;
+		for (Vm hostVm : host.getVmList()) {
+			totalRequestedMips += hostVm.getCurrentRequestedTotalMips();
+		}
+		return totalRequestedMips + vm.getCurrentRequestedTotalMips();
+	}
+
+	/**
+	 * Gets the maximum RAM of the VMs of the host, the placed VM included.
+	 *
+	 * @return the maximum RAM
+	 */
+	public int getMaxRam() {
+		int maxRam = vm.getRam();
+		for (Vm hostVm : host.getVmList()) {
+			maxRam = Math.max(maxRam, hostVm.getRam());
+		}
+		return maxRam;
+	}
+
+	/**
+	 * Gets the CPU utilization percentage history of the host, the history of the placed VM
+	 * included.
+	 *
+	 * @return the host CPU utilization percentage history
+	 * @throws ClassCastException if the host does not keep a history or the VM is not a
+	 *             {@link PowerVm}
+	 */
+	public double[] getUtilizationHistory() {
+		return ((PowerHostUtilizationHistory) host).getUtilizationHistory((PowerVm) vm);
+	}
+
+}
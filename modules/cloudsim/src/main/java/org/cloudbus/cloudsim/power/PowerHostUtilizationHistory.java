@@ -8,6 +8,7 @@
 
 package org.cloudbus.cloudsim.power;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.cloudbus.cloudsim.Pe;
@@ -58,20 +59,100 @@ public class PowerHostUtilizationHistory extends PowerHost {
 		super(id, ramProvisioner, bwProvisioner, storage, peList, vmScheduler, powerModel);
 	}
 
+	/** The last computed host CPU utilization percentage history. */
+	private double[] utilizationHistory;
+
+	/** The VMs whose histories {@link #utilizationHistory} was computed from. */
+	private PowerVm[] historyVms = new PowerVm[0];
+
+	/** The versions of the VM histories {@link #utilizationHistory} was computed from. */
+	private long[] historyVersions = new long[0];
+
+	/** The MIPS of the VMs {@link #utilizationHistory} was computed from. */
+	private double[] historyMips = new double[0];
+
+	/** The MIPS of the host when {@link #utilizationHistory} was computed. */
+	private double historyHostMips;
+
 	/**
-	 * Gets the host CPU utilization percentage history.
+	 * Gets the host CPU utilization percentage history. It is computed again only if the VMs of
+	 * the host or their histories changed since the last call, as the policies ask for it many
+	 * times per scheduling interval.
 	 * 
 	 * @return the host CPU utilization percentage history
 	 */
 	protected double[] getUtilizationHistory() {
-		double[] utilizationHistory = new double[PowerVm.HISTORY_LENGTH];
+		if (utilizationHistory == null || !isUtilizationHistoryValid()) {
+			computeUtilizationHistory();
+		}
+		// the callers may sort the array
+		return utilizationHistory.clone();
+	}
+
+	/**
+	 * Gets the host CPU utilization percentage history as if a VM were also placed on the host,
+	 * without placing it. The VM is added last, as the host would add it to its VM list, so the
+	 * values are the ones {@link #getUtilizationHistory()} would give after the placement.
+	 *
+	 * @param vm the VM
+	 * @return the host CPU utilization percentage history with the VM
+	 */
+	protected double[] getUtilizationHistory(PowerVm vm) {
+		if (utilizationHistory == null || !isUtilizationHistoryValid()) {
+			computeUtilizationHistory();
+		}
+		double[] history = Arrays.copyOf(utilizationHistory, PowerVm.HISTORY_LENGTH);
+		UtilizationHistory vmHistory = vm.getUtilizationHistoryBuffer();
+		double hostMips = getTotalMips();
+		for (int i = 0; i < vmHistory.size(); i++) {
+			history[i] += vmHistory.getDouble(i) * vm.getMips() / hostMips;
+		}
+		return MathUtil.trimZeroTail(history);
+	}
+
+	/**
+	 * Checks if the VMs of the host and their histories are the ones the cached history was
+	 * computed from.
+	 * 
+	 * @return true if the cached history is up to date
+	 */
+	private boolean isUtilizationHistoryValid() {
+		List<PowerVm> vmList = getVmList();
+		if (vmList.size() != historyVms.length || getTotalMips() != historyHostMips) {
+			return false;
+		}
+		for (int i = 0; i < historyVms.length; i++) {
+			PowerVm vm = vmList.get(i);
+			if (vm != historyVms[i] || vm.getUtilizationHistoryBuffer().getVersion() != historyVersions[i]
+					|| vm.getMips() != historyMips[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Computes the host CPU utilization percentage history from the histories of its VMs.
+	 */
+	private void computeUtilizationHistory() {
+		List<PowerVm> vmList = getVmList();
+		historyVms = new PowerVm[vmList.size()];
+		historyVersions = new long[vmList.size()];
+		historyMips = new double[vmList.size()];
+		double[] history = new double[PowerVm.HISTORY_LENGTH];
 		double hostMips = getTotalMips();
-		for (PowerVm vm : this.<PowerVm> getVmList()) {
-			for (int i = 0; i < vm.getUtilizationHistory().size(); i++) {
-				utilizationHistory[i] += vm.getUtilizationHistory().get(i) * vm.getMips() / hostMips;
+		historyHostMips = hostMips;
+		for (int v = 0; v < vmList.size(); v++) {
+			PowerVm vm = vmList.get(v);
+			UtilizationHistory vmHistory = vm.getUtilizationHistoryBuffer();
+			historyVms[v] = vm;
+			historyVersions[v] = vmHistory.getVersion();
+			historyMips[v] = vm.getMips();
+			for (int i = 0; i < vmHistory.size(); i++) {
+				history[i] += vmHistory.getDouble(i) * vm.getMips() / hostMips;
 			}
 		}
-		return MathUtil.trimZeroTail(utilizationHistory);
+		utilizationHistory = MathUtil.trimZeroTail(history);
 	}
 
 }
@@ -8,7 +8,6 @@
 
 package org.cloudbus.cloudsim.power;
 
-import java.util.LinkedList;
 import java.util.List;
 
 import org.cloudbus.cloudsim.CloudletScheduler;
@@ -39,7 +38,7 @@ public class PowerVm extends Vm {
 	public static final int HISTORY_LENGTH = 30;
 
 	/** The CPU utilization percentage history. */
-	private final List<Double> utilizationHistory = new LinkedList<Double>();
+	private final UtilizationHistory utilizationHistory = new UtilizationHistory(HISTORY_LENGTH);
 
 	/** The previous time that cloudlets were processed. */
 	private double previousTime;
@@ -99,15 +98,15 @@ public class PowerVm extends Vm {
 	 */
 	public double getUtilizationMad() {
 		double mad = 0;
-		if (!getUtilizationHistory().isEmpty()) {
+		if (!getUtilizationHistoryBuffer().isEmpty()) {
 			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
+			if (HISTORY_LENGTH > getUtilizationHistoryBuffer().size()) {
+				n = getUtilizationHistoryBuffer().size();
 			}
-			double median = MathUtil.median(getUtilizationHistory());
+			double median = MathUtil.median(getUtilizationHistoryBuffer().toDoubleArray());
 			double[] deviationSum = new double[n];
 			for (int i = 0; i < n; i++) {
-				deviationSum[i] = Math.abs(median - getUtilizationHistory().get(i));
+				deviationSum[i] = Math.abs(median - getUtilizationHistoryBuffer().getDouble(i));
 			}
 			mad = MathUtil.median(deviationSum);
 		}
@@ -121,13 +120,13 @@ public class PowerVm extends Vm {
 	 */
 	public double getUtilizationMean() {
 		double mean = 0;
-		if (!getUtilizationHistory().isEmpty()) {
+		if (!getUtilizationHistoryBuffer().isEmpty()) {
 			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
+			if (HISTORY_LENGTH > getUtilizationHistoryBuffer().size()) {
+				n = getUtilizationHistoryBuffer().size();
 			}
 			for (int i = 0; i < n; i++) {
-				mean += getUtilizationHistory().get(i);
+				mean += getUtilizationHistoryBuffer().getDouble(i);
 			}
 			mean /= n;
 		}
@@ -142,13 +141,13 @@ public class PowerVm extends Vm {
 	public double getUtilizationVariance() {
 		double mean = getUtilizationMean();
 		double variance = 0;
-		if (!getUtilizationHistory().isEmpty()) {
+		if (!getUtilizationHistoryBuffer().isEmpty()) {
 			int n = HISTORY_LENGTH;
-			if (HISTORY_LENGTH > getUtilizationHistory().size()) {
-				n = getUtilizationHistory().size();
+			if (HISTORY_LENGTH > getUtilizationHistoryBuffer().size()) {
+				n = getUtilizationHistoryBuffer().size();
 			}
 			for (int i = 0; i < n; i++) {
-				double tmp = getUtilizationHistory().get(i) * getMips() - mean;
+				double tmp = getUtilizationHistoryBuffer().getDouble(i) * getMips() - mean;
 				variance += tmp * tmp;
 			}
 			variance /= n;
@@ -162,21 +161,28 @@ public class PowerVm extends Vm {
 	 * @param utilization the CPU utilization percentage to add
 	 */
 	public void addUtilizationHistoryValue(final double utilization) {
-		getUtilizationHistory().add(0, utilization);
-		if (getUtilizationHistory().size() > HISTORY_LENGTH) {
-			getUtilizationHistory().remove(HISTORY_LENGTH);
-		}
+		getUtilizationHistoryBuffer().addFirst(utilization);
 	}
 
 	/**
-	 * Gets the CPU utilization percentage history.
+	 * Gets the CPU utilization percentage history, the most recent value first.
 	 * 
-	 * @return the CPU utilization percentage history
+	 * @return a read-only view of the CPU utilization percentage history
 	 */
 	protected List<Double> getUtilizationHistory() {
 		return utilizationHistory;
 	}
 
+	/**
+	 * Gets the ring buffer of the CPU utilization percentage history, the most recent value first,
+	 * whose values can be read without boxing.
+	 * 
+	 * @return the CPU utilization percentage history
+	 */
+	protected UtilizationHistory getUtilizationHistoryBuffer() {
+		return utilizationHistory;
+	}
+
 	/**
 	 * Gets the previous time.
 	 * 
@@ -23,6 +23,8 @@ import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.core.CloudSim;
 import org.cloudbus.cloudsim.power.lists.PowerVmList;
 import org.cloudbus.cloudsim.util.ExecutionTimeMeasurer;
+import org.cloudbus.cloudsim.util.ParallelScorer;
+import org.cloudbus.cloudsim.util.SlidingWindowStatistics;
 
 /**
  * An abstract power-aware VM allocation policy that dynamically optimizes the VM
@@ -70,6 +72,13 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
          */
 	private final Map<Integer, List<Double>> timeHistory = new HashMap<Integer, List<Double>>();
 
+	/** The statistics of the recent CPU utilization percentage history of each host,
+         * where each key is a host id. */
+	private final Map<Integer, SlidingWindowStatistics> utilizationStatistics = new HashMap<Integer, SlidingWindowStatistics>();
+
+	/** The scorer of the candidate hosts of a VM, null if they are scored one after the other. */
+	private ParallelScorer hostScorer;
+
 	/** The history of time spent in VM selection 
          * every time the optimization of VM allocation method is called. 
          * @see #optimizeAllocation(java.util.List) 
@@ -239,6 +248,9 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return the host found to host the VM
 	 */
 	public PowerHost findHostForVm(Vm vm, Set<? extends Host> excludedHosts) {
+		if (hostScorer != null) {
+			return findHostForVmInParallel(vm, excludedHosts);
+		}
 		double minPower = Double.MAX_VALUE;
 		PowerHost allocatedHost = null;
 
@@ -267,6 +279,54 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return allocatedHost;
 	}
 
+	/**
+	 * Finds a host for a VM as {@link #findHostForVm(Vm, Set)} does, scoring the candidate
+	 * hosts in parallel. Checking if a host is suitable for the VM changes the VM, so it is done
+	 * first for all the hosts; then the workers evaluate the placements on the suitable hosts,
+	 * which does not change them. The first host with the lowest power increase is selected, as
+	 * when the hosts are scored one after the other.
+	 * 
+	 * @param vm the VM
+	 * @param excludedHosts the excluded hosts
+	 * @return the host found to host the VM
+	 */
+	protected PowerHost findHostForVmInParallel(Vm vm, Set<? extends Host> excludedHosts) {
+		List<PowerHostPlacement> placements = new ArrayList<PowerHostPlacement>();
+		for (PowerHost host : this.<PowerHost> getHostList()) {
+			if (excludedHosts.contains(host) || !host.isSuitableForVm(vm)) {
+				continue;
+			}
+			PowerHostPlacement placement = new PowerHostPlacement(host, vm);
+			if (getUtilizationOfCpuMips(host) != 0 && !placement.isFeasible()) {
+				continue;
+			}
+			placements.add(placement);
+		}
+		int index = hostScorer.findMinimum(placements, this::getPowerDiffAfterAllocation);
+		return index == -1 ? null : placements.get(index).getHost();
+	}
+
+	/**
+	 * Gets the increase of the power consumption of a host after a candidate VM placement.
+	 * 
+	 * @param placement the candidate placement, which is feasible
+	 * @return the power increase, NaN if the host would be over utilized
+	 */
+	protected double getPowerDiffAfterAllocation(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		if (getUtilizationOfCpuMips(host) != 0 && isHostOverUtilized(placement)) {
+			return Double.NaN;
+		}
+		try {
+			double powerAfterAllocation = getPowerAfterAllocation(host, placement.getVm());
+			if (powerAfterAllocation != -1) {
+				return powerAfterAllocation - host.getPower();
+			}
+		} catch (Exception e) {
+		}
+		return Double.NaN;
+	}
+
 	/**
 	 * Checks if a host will be over utilized after placing of a candidate VM.
 	 * 
@@ -275,12 +335,8 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 * @return true, if the host will be over utilized after VM placement; false otherwise
 	 */
 	protected boolean isHostOverUtilizedAfterAllocation(PowerHost host, Vm vm) {
-		boolean isHostOverUtilizedAfterAllocation = true;
-		if (host.vmCreate(vm)) {
-			isHostOverUtilizedAfterAllocation = isHostOverUtilized(host);
-			host.vmDestroy(vm);
-		}
-		return isHostOverUtilizedAfterAllocation;
+		PowerHostPlacement placement = new PowerHostPlacement(host, vm);
+		return !placement.isFeasible() || isHostOverUtilized(placement);
 	}
 
 	@Override
@@ -487,13 +543,33 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 	 */
 	protected abstract boolean isHostOverUtilized(PowerHost host);
 
+	/**
+	 * Checks if a host would be over utilized after a candidate VM placement. This
+	 * implementation places the VM on the host, checks the host and destroys the VM again; the
+	 * policies override it to evaluate the placement without changing the host and its
+	 * schedulers, as it is done for every candidate host of every VM to place.
+	 * 
+	 * @param placement the candidate placement, which is feasible
+	 * @return true, if the host would be over utilized; false otherwise
+	 */
+	protected boolean isHostOverUtilized(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		Vm vm = placement.getVm();
+		boolean isHostOverUtilized = true;
+		if (host.vmCreate(vm)) {
+			isHostOverUtilized = isHostOverUtilized(host);
+			host.vmDestroy(vm);
+		}
+		return isHostOverUtilized;
+	}
+
 	/**
 	 * Adds an entry for each history map of a host.
 	 * 
 	 * @param host the host to add metric history entries
 	 * @param metric the metric to be added to the metric history map
 	 */
-	protected void addHistoryEntry(HostDynamicWorkload host, double metric) {
+	protected synchronized void addHistoryEntry(HostDynamicWorkload host, double metric) {
 		int hostId = host.getId();
 		if (!getTimeHistory().containsKey(hostId)) {
 			getTimeHistory().put(hostId, new LinkedList<Double>());
@@ -511,6 +587,29 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		}
 	}
 
+	/**
+	 * Gets the statistics of the most recent values of a host CPU utilization percentage history.
+	 * The statistics are kept for each host and updated as the history slides, instead of being
+	 * computed again from all the values every time the host is checked.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the host CPU utilization percentage history
+	 * @param length the number of most recent values the statistics are computed from
+	 * @return the statistics
+	 */
+	protected SlidingWindowStatistics getUtilizationStatistics(
+			PowerHostUtilizationHistory host,
+			double[] utilizationHistory,
+			int length) {
+		SlidingWindowStatistics statistics = utilizationStatistics.get(host.getId());
+		if (statistics == null || statistics.getLength() != length) {
+			statistics = new SlidingWindowStatistics(length);
+			utilizationStatistics.put(host.getId(), statistics);
+		}
+		statistics.update(utilizationHistory);
+		return statistics;
+	}
+
 	/**
 	 * Updates the list of maps between a VM and the host where it is place.
          * @see #savedAllocation
@@ -608,6 +707,37 @@ public abstract class PowerVmAllocationPolicyMigrationAbstract extends PowerVmAl
 		return hostUtilizationMips;
 	}
 
+	/**
+	 * Sets the number of workers scoring the candidate hosts of a VM. With more than one worker,
+	 * the evaluation of a placement by {@link #isHostOverUtilized(PowerHostPlacement)} must not
+	 * change the hosts, which the policies of this package ensure.
+	 * 
+	 * @param workers the number of workers, 1 to score the hosts one after the other
+	 */
+	public void setHostScoringWorkers(int workers) {
+		if (hostScorer != null) {
+			hostScorer.shutdown();
+		}
+		hostScorer = workers > 1 ? new ParallelScorer(workers) : null;
+	}
+
+	/**
+	 * Gets the number of workers scoring the candidate hosts of a VM.
+	 * 
+	 * @return the number of workers
+	 */
+	public int getHostScoringWorkers() {
+		return hostScorer == null ? 1 : hostScorer.getWorkers();
+	}
+
+	/**
+	 * Stops the workers scoring the candidate hosts of a VM, if any. The hosts are then scored
+	 * one after the other. The {@link PowerDatacenter} of the policy calls it when it shuts down.
+	 */
+	public void shutdownHostScoring() {
+		setHostScoringWorkers(1);
+	}
+
 	/**
 	 * Gets the saved allocation.
 	 * 
@@ -116,6 +116,19 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 		return utilization > upperThreshold;
 	}
 
+	@Override
+	protected boolean isHostOverUtilized(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		double[] data = placement.getUtilizationHistory();
+		if (MathUtil.countNonZeroBeginning(data) < 12) { // 12 has been suggested as a safe value
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(placement);
+		}
+		double upperThreshold = 1 - getSafetyParameter() * MathUtil.iqr(data);
+		addHistoryEntry(host, upperThreshold);
+		double utilization = placement.getRequestedTotalMips() / host.getTotalMips();
+		return utilization > upperThreshold;
+	}
+
 	/**
 	 * Gets the host CPU utilization percentage IQR.
 	 * 
@@ -125,7 +138,7 @@ public class PowerVmAllocationPolicyMigrationInterQuartileRange extends
 	protected double getHostUtilizationIqr(PowerHostUtilizationHistory host) throws IllegalArgumentException {
 		double[] data = host.getUtilizationHistory();
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.iqr(data);
+			return getUtilizationStatistics(host, data, PowerVm.HISTORY_LENGTH).getIqr();
 		}
 		throw new IllegalArgumentException();
 	}
@@ -33,6 +33,10 @@ import org.cloudbus.cloudsim.util.MathUtil;
  */
 public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllocationPolicyMigrationAbstract {
 
+	/** The number of most recent utilization values the regression is fitted to.
+         * We use 10 to make the regression responsive enough to latest values. */
+	private static final int REGRESSION_LENGTH = 10;
+
 	/** The scheduling interval that defines the periodicity of VM migrations. */
 	private double schedulingInterval;
 
@@ -109,17 +113,13 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 	protected boolean isHostOverUtilized(PowerHost host) {
 		PowerHostUtilizationHistory _host = (PowerHostUtilizationHistory) host;
 		double[] utilizationHistory = _host.getUtilizationHistory();
-		int length = 10; // we use 10 to make the regression responsive enough to latest values
+		int length = REGRESSION_LENGTH;
 		if (utilizationHistory.length < length) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
-		double[] utilizationHistoryReversed = new double[length];
-		for (int i = 0; i < length; i++) {
-			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
-		}
 		double[] estimates = null;
 		try {
-			estimates = getParameterEstimates(utilizationHistoryReversed);
+			estimates = getParameterEstimates(_host, utilizationHistory, length);
 		} catch (IllegalArgumentException e) {
 			return getFallbackVmAllocationPolicy().isHostOverUtilized(host);
 		}
@@ -132,6 +132,61 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		return predictedUtilization >= 1;
 	}
 
+	@Override
+	protected boolean isHostOverUtilized(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		double[] utilizationHistory = placement.getUtilizationHistory();
+		int length = REGRESSION_LENGTH;
+		if (utilizationHistory.length < length) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(placement);
+		}
+		double[] estimates = null;
+		try {
+			estimates = getParameterEstimates(getUtilizationHistoryReversed(utilizationHistory, length));
+		} catch (IllegalArgumentException e) {
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(placement);
+		}
+		double migrationIntervals = Math.ceil(getMaximumVmMigrationTime(placement) / getSchedulingInterval());
+		double predictedUtilization = estimates[0] + estimates[1] * (length + migrationIntervals);
+		predictedUtilization *= getSafetyParameter();
+
+		addHistoryEntry(host, predictedUtilization);
+
+		return predictedUtilization >= 1;
+	}
+
+	/**
+	 * Gets utilization estimates from the most recent values of a host utilization history.
+	 * The regression is updated as the history slides, instead of being fitted again.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the host utilization history
+	 * @param length the number of most recent values the regression is fitted to
+	 * @return the utilization estimates
+	 * @see #getParameterEstimates(double[])
+	 */
+	protected double[] getParameterEstimates(
+			PowerHostUtilizationHistory host,
+			double[] utilizationHistory,
+			int length) {
+		return getUtilizationStatistics(host, utilizationHistory, length).getLinearParameterEstimates();
+	}
+
+	/**
+	 * Gets the most recent values of a utilization history, the oldest one first.
+	 * 
+	 * @param utilizationHistory the utilization history, the most recent value first
+	 * @param length the number of values
+	 * @return the utilization history in reverse order
+	 */
+	protected double[] getUtilizationHistoryReversed(double[] utilizationHistory, int length) {
+		double[] utilizationHistoryReversed = new double[length];
+		for (int i = 0; i < length; i++) {
+			utilizationHistoryReversed[i] = utilizationHistory[length - i - 1];
+		}
+		return utilizationHistoryReversed;
+	}
+
 	/**
 	 * Gets utilization estimates.
 	 * 
@@ -159,6 +214,16 @@ public class PowerVmAllocationPolicyMigrationLocalRegression extends PowerVmAllo
 		return maxRam / ((double) host.getBw() / (2 * 8000));
 	}
 
+	/**
+	 * Gets the maximum vm migration time of a host after a candidate VM placement.
+	 * 
+	 * @param placement the candidate placement
+	 * @return the maximum vm migration time
+	 */
+	protected double getMaximumVmMigrationTime(PowerHostPlacement placement) {
+		return placement.getMaxRam() / ((double) placement.getHost().getBw() / (2 * 8000));
+	}
+
 	/**
 	 * Sets the scheduling interval.
 	 * 
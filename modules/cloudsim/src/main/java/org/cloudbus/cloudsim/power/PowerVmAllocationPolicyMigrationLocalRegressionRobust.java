@@ -75,6 +75,23 @@ public class PowerVmAllocationPolicyMigrationLocalRegressionRobust extends
 		super(hostList, vmSelectionPolicy, safetyParameter, schedulingInterval, fallbackVmAllocationPolicy);
 	}
 
+	/**
+	 * Gets utilization estimates from the most recent values of a host utilization history. The
+	 * robust weights depend on the residuals of the whole fit, so the regression is fitted again.
+	 * 
+	 * @param host the host
+	 * @param utilizationHistory the host utilization history
+	 * @param length the number of most recent values the regression is fitted to
+	 * @return the utilization estimates
+	 */
+	@Override
+	protected double[] getParameterEstimates(
+			PowerHostUtilizationHistory host,
+			double[] utilizationHistory,
+			int length) {
+		return getParameterEstimates(getUtilizationHistoryReversed(utilizationHistory, length));
+	}
+
 	/**
 	 * Gets the utilization estimates.
 	 * 
@@ -126,6 +126,19 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 		return utilization > upperThreshold;
 	}
 
+	@Override
+	protected boolean isHostOverUtilized(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		double[] data = placement.getUtilizationHistory();
+		if (MathUtil.countNonZeroBeginning(data) < 12) { // 12 has been suggested as a safe value
+			return getFallbackVmAllocationPolicy().isHostOverUtilized(placement);
+		}
+		double upperThreshold = 1 - getSafetyParameter() * MathUtil.mad(data);
+		addHistoryEntry(host, upperThreshold);
+		double utilization = placement.getRequestedTotalMips() / host.getTotalMips();
+		return utilization > upperThreshold;
+	}
+
 	/**
 	 * Gets the host utilization MAD.
 	 * 
@@ -135,7 +148,7 @@ public class PowerVmAllocationPolicyMigrationMedianAbsoluteDeviation extends
 	protected double getHostUtilizationMad(PowerHostUtilizationHistory host) throws IllegalArgumentException {
 		double[] data = host.getUtilizationHistory();
 		if (MathUtil.countNonZeroBeginning(data) >= 12) { // 12 has been suggested as a safe value
-			return MathUtil.mad(data);
+			return getUtilizationStatistics(host, data, PowerVm.HISTORY_LENGTH).getMad();
 		}
 		throw new IllegalArgumentException();
 	}
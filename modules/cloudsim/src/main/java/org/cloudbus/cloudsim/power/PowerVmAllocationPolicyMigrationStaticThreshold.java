@@ -69,6 +69,14 @@ public class PowerVmAllocationPolicyMigrationStaticThreshold extends PowerVmAllo
 		return utilization > getUtilizationThreshold();
 	}
 
+	@Override
+	protected boolean isHostOverUtilized(PowerHostPlacement placement) {
+		PowerHost host = placement.getHost();
+		addHistoryEntry(host, getUtilizationThreshold());
+		double utilization = placement.getRequestedTotalMips() / host.getTotalMips();
+		return utilization > getUtilizationThreshold();
+	}
+
 	/**
 	 * Sets the utilization threshold.
 	 * 
@@ -0,0 +1,129 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+/**
+ * A CPU utilization percentage history of a bounded length, the most recent value first. The
+ * values are kept in a ring buffer of primitive doubles, so adding a value neither shifts the
+ * previous values nor allocates, and the values are read in constant time.
+ * <p>
+ * The history is also a read-only list of the values, for the code reading it as a list.
+ *
+ * @see PowerVm#getUtilizationHistoryBuffer()
+ */
+public class UtilizationHistory extends AbstractList<Double> implements RandomAccess {
+
+	/** The values, the most recent one at {@link #first}. */
+	private final double[] values;
+
+	/** The index of the most recent value in {@link #values}. */
+	private int first;
+
+	/** The number of values. */
+	private int size;
+
+	/** The version of the values, which changes whenever a value is added or removed. */
+	private long version;
+
+	/**
+	 * Instantiates a new empty history.
+	 *
+	 * @param length the maximum number of values kept, the oldest values being dropped
+	 */
+	public UtilizationHistory(final int length) {
+		if (length <= 0) {
+			throw new IllegalArgumentException("The length of the history has to be positive.");
+		}
+		values = new double[length];
+	}
+
+	/**
+	 * Adds a value as the most recent one, dropping the oldest value if the history is full.
+	 *
+	 * @param utilization the CPU utilization percentage
+	 */
+	public void addFirst(final double utilization) {
+		first = first == 0 ? values.length - 1 : first - 1;
+		values[first] = utilization;
+		if (size < values.length) {
+			size++;
+		}
+		version++;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 for the most recent one
+	 * @return the value
+	 */
+	public double getDouble(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int i = first + index;
+		return values[i < values.length ? i : i - values.length];
+	}
+
+	@Override
+	public Double get(final int index) {
+		return getDouble(index);
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of values kept.
+	 *
+	 * @return the length
+	 */
+	public int getLength() {
+		return values.length;
+	}
+
+	/**
+	 * Gets the version of the values, which changes whenever a value is added or removed, so
+	 * the results computed from the values can be cached.
+	 *
+	 * @return the version
+	 */
+	public long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Copies the values to an array.
+	 *
+	 * @return the values, the most recent one first
+	 */
+	public double[] toDoubleArray() {
+		double[] array = new double[size];
+		int head = Math.min(size, values.length - first);
+		System.arraycopy(values, first, array, 0, head);
+		System.arraycopy(values, 0, array, head, size - head);
+		return array;
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	@Override
+	public void clear() {
+		first = 0;
+		size = 0;
+		version++;
+	}
+
+}
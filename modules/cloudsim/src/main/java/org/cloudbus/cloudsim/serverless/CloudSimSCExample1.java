@@ -7,8 +7,6 @@ package org.cloudbus.cloudsim.serverless;/*
  */
 
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.text.DecimalFormat;
@@ -85,6 +83,8 @@ public class CloudSimSCExample1 {
 
     private static ServerlessController controller;
 
+    private static ServerlessConfiguration configuration;
+
     /**
      * Creates main() to run this example
      */
@@ -102,15 +102,18 @@ public class CloudSimSCExample1 {
             // Initialize the CloudSim library
             CloudSim.init(num_user, calendar, trace_flag);
 
+            // The parameters of the run, taken from Constants
+            configuration = new ServerlessConfiguration();
+
             controller = createBroker();
             controllerId = controller.getId();
 
             // Second step: Create Datacenters
             //Datacenters are the resource providers in CloudSim. We need at least one of them to run a CloudSim simulation
-            DC = createDatacenter("datacenter");
+            DC = createDatacenter("datacenter", getExperimentName("SimTest1", String.valueOf(80)), configuration);
 
             //Third step: Create the virtual machines
-            vmList = createVmList(controllerId);
+            vmList = createVmList(controllerId, configuration.getNumberVms(), configuration.getSeed());
 
             //Fourth step: submit vm list to the broker
             controller.submitVmList(vmList);
@@ -125,7 +128,7 @@ public class CloudSimSCExample1 {
             createRequests();
 
 //          the time at which the simulation has to be terminated.
-            CloudSim.terminateSimulation(2500.00);
+            CloudSim.terminateSimulation(configuration.getSimulationLimit());
 
 //          Starting the simualtion
             CloudSim.startSimulation();
@@ -139,7 +142,7 @@ public class CloudSimSCExample1 {
             List<ServerlessContainer> destroyedContainers = controller.getContainersDestroyedList();
             printRequestList(finishedRequests);
             printContainerList(destroyedContainers);
-            if (Constants.MONITORING){
+            if (configuration.isMonitoring()){
                 printVmUpDownTime();
                 printVmUtilization();
             }
@@ -156,45 +159,16 @@ public class CloudSimSCExample1 {
     }
 
     private static void createRequests() throws IOException {
-        long fileSize = 300L;
-        long outputSize = 300L;
-        int createdRequests = 0;
-        BufferedReader br = new BufferedReader(new FileReader(Constants.FUNCTION_REQUESTS_FILENAME));
-        String line = null;
-        String cvsSplitBy = ",";
         controller.noOfTasks++;
 
-//        Serverless requests could utilize part of a vCPU core in case container concurrency is enabled
-        UtilizationModelPartial utilizationModelPar = new UtilizationModelPartial();
-        UtilizationModelFull utilizationModel = new UtilizationModelFull();
-
-        while ((line = br.readLine()) != null) {
-            String[] data = line.split(cvsSplitBy);
-            ServerlessRequest request = null;
-
-            try {
-                request = new ServerlessRequest(IDs.pollId(ServerlessRequest.class), Double.parseDouble(String.valueOf(data[0])), String.valueOf(data[1]), Long.parseLong(data[2]), Integer.parseInt(data[3]), Integer.parseInt(data[4]), Long.parseLong(data[5]), Double.parseDouble(data[6]), Double.parseDouble(data[7]),
-                        fileSize, outputSize, utilizationModelPar, utilizationModelPar, utilizationModel,  0, true);
-                System.out.println("request No " + request.getCloudletId());
-            } catch (Exception e) {
-                e.printStackTrace();
-                System.exit(0);
-            }
-
-            request.setUserId(controller.getId());
-            System.out.println(CloudSim.clock() + " request created. This request arrival time is :" + Double.parseDouble(data[0]));
-            controller.requestArrivalTime.add(Double.parseDouble(data[0]) + Constants.FUNCTION_SCHEDULING_DELAY);
-//            requestList.add(request);
-            controller.requestQueue.add(request);
-            createdRequests += 1;
-
-        }
+//        The requests are read from the trace as the simulation goes, keeping only a window of them in memory
+        controller.setRequestStream(new ServerlessRequestStream(configuration.getFunctionRequestsFileName(), controller.getId(), Constants.REQUEST_STREAM_WINDOW_SIZE));
     }
-    private static ArrayList<ServerlessInvoker> createVmList(int brokerId) {
+    static ArrayList<ServerlessInvoker> createVmList(int brokerId, int vmsNumber, long seed) {
         ArrayList<ServerlessInvoker> containerVms = new ArrayList<ServerlessInvoker>();
-        for (int i = 0; i < Constants.NUMBER_VMS; ++i) {
+        Random rand = new Random(seed);
+        for (int i = 0; i < vmsNumber; ++i) {
             ArrayList<ContainerPe> peList = new ArrayList<ContainerPe>();
-            Random rand = new Random();
             int vmType = rand.nextInt(4);
             for (int j = 0; j < Constants.VM_PES[vmType]; ++j) {
                 peList.add(new ContainerPe(j,
@@ -220,7 +194,7 @@ public class CloudSimSCExample1 {
         int overBookingFactor = 80;
 
         try {
-            controller = new ServerlessController("Broker", overBookingFactor);
+            controller = new ServerlessController("Broker", overBookingFactor, configuration);
         } catch (Exception var2) {
             var2.printStackTrace();
             System.exit(0);
@@ -230,6 +204,10 @@ public class CloudSimSCExample1 {
     }
 
     public static ServerlessDatacenter createDatacenter(String name) throws Exception {
+        return createDatacenter(name, getExperimentName("SimTest1", String.valueOf(80)), new ServerlessConfiguration());
+    }
+
+    public static ServerlessDatacenter createDatacenter(String name, String experimentName, ServerlessConfiguration configuration) throws Exception {
         String arch = "x86";
         String os = "Linux";
         String vmm = "Xen";
@@ -240,7 +218,7 @@ public class CloudSimSCExample1 {
         double costPerStorage = 0.001D;
         double costPerBw = 0.0D;
 
-        List<ContainerHost> hostList = createHostList(Constants.NUMBER_HOSTS);
+        List<ContainerHost> hostList = createHostList(configuration.getNumberHosts());
         //        Select hosts to migrate
         HostSelectionPolicy hostSelectionPolicy = new HostSelectionPolicyFirstFit();
         //        Select vms to migrate
@@ -257,8 +235,8 @@ public class CloudSimSCExample1 {
                 costPerBw);
         /** Set datacenter monitoring to true if metrics monitoring is required **/
         ServerlessDatacenter datacenter = new ServerlessDatacenter(name, characteristics, vmAllocationPolicy,
-                containerAllocationPolicy, new LinkedList<Storage>(), Constants.SCHEDULING_INTERVAL, getExperimentName("SimTest1", String.valueOf(80)), logAddress,
-                Constants.VM_STARTTUP_DELAY, Constants.CONTAINER_STARTTUP_DELAY, Constants.MONITORING);
+                containerAllocationPolicy, new LinkedList<Storage>(), Constants.SCHEDULING_INTERVAL, experimentName, logAddress,
+                Constants.VM_STARTTUP_DELAY, configuration.getContainerStartupDelay(), configuration.isMonitoring(), configuration);
 
         return datacenter;
     }
@@ -456,7 +434,7 @@ public class CloudSimSCExample1 {
                 }
             }
 
-            if (Constants.MONITORING){
+            if (configuration.isMonitoring()){
                 for(int x=0; x<controller.getVmsCreatedList().size(); x++){
                     String[] data = {"Vm # ", String.valueOf(controller.getVmsCreatedList().get(x).getId()),"On time  ", String.valueOf(((ServerlessInvoker)controller.getVmsCreatedList().get(x)).onTime),"Off time  ", String.valueOf(((ServerlessInvoker)controller.getVmsCreatedList().get(x)).offTime)};
                     writer.writeNext(data);
@@ -30,6 +30,11 @@ public class CloudSimSCTags extends CloudSimTags {
     public static final int AUTO_SCALE = 57 ;
     public static final int VERTICAL_SCALE = 58 ;
 
+    /**
+     * Denotes the arrival of a request taken from a request stream
+     */
+    public static final int REQUEST_ARRIVAL = 59;
+
 
 
     private CloudSimSCTags() {
@@ -52,6 +52,17 @@ public class Constants {
 
     public static final int NUM_TASKS = 50;
     public static final double CPU_USAGE_MONITORING_INTERVAL = 0.01;
+    /**
+     * Monitor the VM utilization by integrating it between allocation changes instead of sampling it every
+     * CPU_USAGE_MONITORING_INTERVAL
+     */
+    public static final boolean EVENT_FREE_CPU_USAGE_MONITORING = true;
+    /**
+     * Update the request processing of only the VMs whose requests changed or are expected to finish, instead of
+     * all the VMs of the datacenter. A request finishes once less than one MI is left, so the full processing,
+     * which updates the VMs more often, can finish it up to one MI of processing earlier
+     */
+    public static final boolean INCREMENTAL_CLOUDLET_PROCESSING = true;
 
     public static final double AUTO_SCALING_INTERVAL = 2;
     public static final double FUNCTION_PLACEMENT_TIME = 0.002;
@@ -63,6 +74,10 @@ public class Constants {
      */
 
     public static final int VM_TYPES = 4;
+    /**
+     * The seed of the random types of the VMs
+     */
+    public static final long SEED = 0;
     public static final double[] VM_MIPS = new double[]{ 11600, 11600, 11600,11600};
     public static final int[] VM_PES = new int[]{4, 4, 4, 4};
     public static final float[] VM_RAM = new float[] {(float)3072, (float) 3072, (float) 3072, (float) 3072};//**MB*
@@ -128,6 +143,12 @@ public class Constants {
 
     public static final String FUNCTION_REQUESTS_FILENAME = "modules/cloudsim/src/main/java/org/cloudbus/cloudsim/serverless/Real_trace_test2_small.csv";
 
+    /**
+     * Number of requests read ahead from the requests file.
+     */
+
+    public static final int REQUEST_STREAM_WINDOW_SIZE = 1000;
+
     /**
      * Algorithm specific parameters
      */
@@ -143,6 +164,15 @@ public class Constants {
     public static final String HOR_SCALING_LOGIC = "cpuThreshold";
     public static final String SCALING_TRIGGER_LOGIC = "cpuThreshold";
     public static final String CONTAINER_SELECTION_ALGO = "FF";
+    /**
+     * Order in which the requests waiting in a container are promoted to execution: FIFO or EDF (earliest deadline first)
+     */
+    public static final String REQUEST_PROMOTION_POLICY = "FIFO";
+    /**
+     * Whether a request waits in its container while the running requests leave too few free PEs for it, instead of
+     * sharing the PEs with them
+     */
+    public static final boolean REQUEST_PE_ADMISSION = false;
     public static final int MAX_RESCHEDULE_TRIES = 8;
     public static final boolean MONITORING = true;
     public static final int MAX_REPLICAS = 50;
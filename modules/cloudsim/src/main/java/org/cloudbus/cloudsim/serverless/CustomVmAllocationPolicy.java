@@ -1,6 +1,7 @@
 package org.cloudbus.cloudsim.serverless;
 
 import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicySimple;
 import java.util.List;
@@ -17,17 +18,17 @@ public class CustomVmAllocationPolicy extends VmAllocationPolicySimple {
     @Override
     public boolean allocateHostForVm(Vm vm) {
         // Add debug logging
-        System.out.println("Allocating host for VM " + vm.getId() + " with " + 
+        Log.printLine(Log.Level.DEBUG, () -> "Allocating host for VM " + vm.getId() + " with " + 
                          vm.getMips() + " MIPS, " + vm.getRam() + " MB RAM");
         
         boolean result = super.allocateHostForVm(vm);
         
         if (result) {
             Host host = getHost(vm);
-            System.out.println("VM " + vm.getId() + " allocated to Host " + 
+            Log.printLine(Log.Level.DEBUG, () -> "VM " + vm.getId() + " allocated to Host " + 
                              (host != null ? host.getId() : "NULL"));
         } else {
-            System.err.println("Failed to allocate host for VM " + vm.getId());
+            Log.printLine(Log.Level.WARN, "Failed to allocate host for VM " + vm.getId());
         }
         
         return result;
@@ -37,7 +38,7 @@ public class CustomVmAllocationPolicy extends VmAllocationPolicySimple {
     public Host getHost(Vm vm) {
         Host host = super.getHost(vm);
         if (host == null) {
-            System.err.println("Warning: No host found for VM " + vm.getId());
+            Log.printLine(Log.Level.WARN, "Warning: No host found for VM " + vm.getId());
         }
         return host;
     }
@@ -46,19 +47,19 @@ public class CustomVmAllocationPolicy extends VmAllocationPolicySimple {
     public Host getHost(int vmId, int userId) {
         Host host = super.getHost(vmId, userId);
         if (host == null) {
-            System.err.println("Warning: No host found for VM " + vmId + ", user " + userId);
+            Log.printLine(Log.Level.WARN, "Warning: No host found for VM " + vmId + ", user " + userId);
         }
         return host;
     }
     
     // Additional helper methods for your custom policy
     public void printAllocationStatus() {
-        System.out.println("=== Current VM Allocation Status ===");
+        Log.printLine(Log.Level.INFO, "=== Current VM Allocation Status ===");
         for (Host host : getHostList()) {
-            System.out.println("Host " + host.getId() + " has " + 
+            Log.printLine(Log.Level.INFO, "Host " + host.getId() + " has " + 
                              host.getVmList().size() + " VMs");
             for (Vm vm : host.getVmList()) {
-                System.out.println("  - VM " + vm.getId() + " (User: " + vm.getUserId() + ")");
+                Log.printLine(Log.Level.INFO, "  - VM " + vm.getId() + " (User: " + vm.getUserId() + ")");
             }
         }
     }
@@ -0,0 +1,232 @@
+package org.cloudbus.cloudsim.serverless;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Running aggregates of the containers of a function in a datacenter, used by {@link FunctionAutoScaler} to take
+ * its scaling decisions without going through all the hosts, VMs and containers on every autoscaling interval.
+ *
+ * The replica set follows the function container maps of the {@link ServerlessInvoker}s: containers are added as
+ * pending when they are placed on a VM, become warm when their creation is acknowledged and leave the set when
+ * they are destroyed. The summed CPU share allocated to requests is updated by the
+ * {@link ServerlessRequestScheduler} of each warm container, and the containers without running requests are kept
+ * apart, so that the containers to remove when scaling down are found without visiting the busy ones.
+ *
+ * The created containers are kept in placement order: by host, then by VM and then in the order they were created
+ * in, which is the order the autoscaler used to find them in by going through the hosts and their VMs.
+ */
+
+public class FunctionReplicaSet {
+
+    /**
+     * The CPU share below which a container is considered to have no share allocated, as the share is only ever
+     * added to and subtracted from, so it may not come back to exactly zero
+     */
+    static final double IDLE_MIPS_SHARE = 1e-9;
+
+    private static final Comparator<Entry> PLACEMENT_ORDER = Comparator.<Entry>comparingInt(entry -> entry.hostId)
+            .thenComparingInt(entry -> entry.vmId).thenComparingLong(entry -> entry.sequence);
+
+    private final String functionId;
+    /**
+     * The created containers of the function, in creation order
+     */
+    private final Set<ServerlessContainer> containers = new LinkedHashSet<>();
+    /**
+     * The created containers of the function, in placement order
+     */
+    private final TreeSet<Entry> placedContainers = new TreeSet<>(PLACEMENT_ORDER);
+    /**
+     * The created containers of the function without running requests, in placement order
+     */
+    private final TreeSet<Entry> idleContainers = new TreeSet<>(PLACEMENT_ORDER);
+    /**
+     * The containers of the function that are placed on a VM and not created yet
+     */
+    private final Set<ServerlessContainer> pendingContainers = new LinkedHashSet<>();
+    /**
+     * The sum of the CPU shares allocated to requests in the created containers
+     */
+    private double allocatedMipsShare = 0;
+    /**
+     * The number of created containers with a CPU share allocated to requests
+     */
+    private int busyContainers = 0;
+    private long sequence = 0;
+
+    public FunctionReplicaSet(String functionId) {
+        this.functionId = functionId;
+    }
+
+    public String getFunctionId() {
+        return functionId;
+    }
+
+    public int getContainerCount() {
+        return containers.size();
+    }
+
+    public int getPendingContainerCount() {
+        return pendingContainers.size();
+    }
+
+    public int getIdleContainerCount() {
+        return idleContainers.size();
+    }
+
+    public double getAllocatedMipsShare() {
+        return allocatedMipsShare;
+    }
+
+    public Set<ServerlessContainer> getContainers() {
+        return Collections.unmodifiableSet(containers);
+    }
+
+    /**
+     * Gets the created containers of the function, in placement order.
+     */
+    public List<ServerlessContainer> getPlacedContainers() {
+        List<ServerlessContainer> placed = new ArrayList<>(placedContainers.size());
+        for (Entry entry : placedContainers) {
+            placed.add(entry.container);
+        }
+        return placed;
+    }
+
+    /**
+     * Gets the created containers of the function grouped by the VM they run on, the VMs and the containers of
+     * each VM being in placement order.
+     */
+    public List<List<ServerlessContainer>> getPlacedContainersByVm() {
+        List<List<ServerlessContainer>> vms = new ArrayList<>();
+        List<ServerlessContainer> vmContainers = null;
+        Entry previous = null;
+        for (Entry entry : placedContainers) {
+            if (previous == null || previous.hostId != entry.hostId || previous.vmId != entry.vmId) {
+                vmContainers = new ArrayList<>();
+                vms.add(vmContainers);
+            }
+            vmContainers.add(entry.container);
+            previous = entry;
+        }
+        return vms;
+    }
+
+    /**
+     * Gets the first created containers of the function without running requests, in placement order.
+     *
+     * @param count the maximum number of containers
+     */
+    public List<ServerlessContainer> getIdleContainers(int count) {
+        List<ServerlessContainer> idle = new ArrayList<>(Math.min(count, idleContainers.size()));
+        for (Entry entry : idleContainers) {
+            if (idle.size() == count) {
+                break;
+            }
+            idle.add(entry.container);
+        }
+        return idle;
+    }
+
+    /**
+     * Gets a container whose resources are representative of the containers of the function, the created
+     * containers being preferred over the pending ones.
+     *
+     * @return the container or null if the function has no containers
+     */
+    public ServerlessContainer getRepresentativeContainer() {
+        if (!containers.isEmpty()) {
+            return containers.iterator().next();
+        }
+        if (!pendingContainers.isEmpty()) {
+            return pendingContainers.iterator().next();
+        }
+        return null;
+    }
+
+    void addPendingContainer(ServerlessContainer container) {
+        pendingContainers.add(container);
+    }
+
+    void addContainer(ServerlessContainer container, int hostId, int vmId) {
+        pendingContainers.remove(container);
+        if (!containers.add(container)) {
+            return;
+        }
+        Entry entry = new Entry(container, hostId, vmId, sequence++);
+        placedContainers.add(entry);
+        ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+        scheduler.setReplicaSetEntry(entry);
+        entry.updateIdle();
+        updateAllocatedMipsShare(0, scheduler.getTotalCurrentAllocatedMipsShareForRequests());
+    }
+
+    void removeContainer(ServerlessContainer container) {
+        if (!containers.remove(container)) {
+            return;
+        }
+        ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+        Entry entry = scheduler.getReplicaSetEntry();
+        scheduler.setReplicaSetEntry(null);
+        placedContainers.remove(entry);
+        idleContainers.remove(entry);
+        updateAllocatedMipsShare(scheduler.getTotalCurrentAllocatedMipsShareForRequests(), 0);
+    }
+
+    /**
+     * Updates the sum of the allocated CPU shares after the share of a container changed.
+     */
+    void updateAllocatedMipsShare(double previousShare, double share) {
+        allocatedMipsShare += share - previousShare;
+        boolean wasBusy = Math.abs(previousShare) > IDLE_MIPS_SHARE;
+        boolean busy = Math.abs(share) > IDLE_MIPS_SHARE;
+        if (!wasBusy && busy) {
+            busyContainers++;
+        } else if (wasBusy && !busy) {
+            busyContainers--;
+        }
+        // no rounding error is kept once all the containers are idle
+        if (busyContainers == 0) {
+            allocatedMipsShare = 0;
+        }
+    }
+
+    /**
+     * The position of a created container in the replica set of its function.
+     */
+    final class Entry {
+
+        private final ServerlessContainer container;
+        private final int hostId;
+        private final int vmId;
+        private final long sequence;
+
+        private Entry(ServerlessContainer container, int hostId, int vmId, long sequence) {
+            this.container = container;
+            this.hostId = hostId;
+            this.vmId = vmId;
+            this.sequence = sequence;
+        }
+
+        FunctionReplicaSet getReplicaSet() {
+            return FunctionReplicaSet.this;
+        }
+
+        /**
+         * Moves the container in or out of the idle containers after its running requests changed.
+         */
+        void updateIdle() {
+            if (container.getRunningTasks().isEmpty()) {
+                idleContainers.add(this);
+            } else {
+                idleContainers.remove(this);
+            }
+        }
+    }
+}
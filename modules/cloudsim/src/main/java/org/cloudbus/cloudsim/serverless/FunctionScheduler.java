@@ -21,10 +21,26 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
 
     /** Vm index for selecting Vm in round robin fashion **/
     private int selectedVmIndex = 1;
+    /** Index of the free capacity of the VMs for the BPFF and BPBF methods **/
+    private final VmCapacityIndex vmCapacityIndex = new VmCapacityIndex();
+    /** The configuration of the run, set by the datacenter **/
+    private ServerlessConfiguration configuration = new ServerlessConfiguration();
     public FunctionScheduler() {
         super();
     }
 
+    public VmCapacityIndex getVmCapacityIndex() {
+        return vmCapacityIndex;
+    }
+
+    public ServerlessConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public void setConfiguration(ServerlessConfiguration configuration) {
+        this.configuration = configuration;
+    }
+
     public List<Map<String, Object>> optimizeAllocation(List<? extends Container> containerList) {
         return null;
     }
@@ -33,19 +49,17 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
         setContainerVmList(containerVmList);
 
         if (containerVm == null) {
-            Log.formatLine("%.2f: No suitable VM found for Container#" + container.getId() + "\n", CloudSim.clock());
+            Log.formatLine("%.2f: No suitable VM found for Container#%s\n", CloudSim.clock(), container.getId());
             return false;
         }
         if (containerVm.containerCreate(container)) { // if vm has been succesfully created in the host
             getContainerTable().put(container.getUid(), containerVm);
-            Log.formatLine(
-                    "%.2f: Container #" + container.getId() + " has been allocated to the VM #" + containerVm.getId(),
-                    CloudSim.clock());
+            Log.formatLine("%.2f: Container #%s has been allocated to the VM #%s", CloudSim.clock(), container.getId(),
+                    containerVm.getId());
             return true;
         }
-        Log.formatLine(
-                "%.2f: Creation of Container #" + container.getId() + " on the Vm #" + containerVm.getId() + " failed\n",
-                CloudSim.clock());
+        Log.formatLine("%.2f: Creation of Container #%s on the Vm #%s failed\n", CloudSim.clock(), container.getId(),
+                containerVm.getId());
         return false;
     }
 
@@ -56,7 +70,7 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
     public ContainerVm findVmForContainer(Container container) {
         ServerlessInvoker selectedVm = null;
         boolean vmSelected = false;
-        switch (Constants.VM_SELECTION_ALGO) {
+        switch (configuration.getVmSelectionAlgo()) {
             /** Selecting Vm using RR method **/
             case "RR": {
                 for (int x = selectedVmIndex; x <= getContainerVmList().size(); x++) {
@@ -80,7 +94,9 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
 
                     }
                 }
-                System.out.println(CloudSim.clock() + " >>>>>>>>>>>>>>Debug:Broker: Selected VM is # " + selectedVmIndex + " for container # " + container.getId() + " under RR method");
+                if (Log.isLoggable(Log.Level.DEBUG)) {
+                    Log.printConcatLine(Log.Level.DEBUG, CloudSim.clock(), " >>>>>>>>>>>>>>Debug:Broker: Selected VM is # ", selectedVmIndex, " for container # ", container.getId(), " under RR method");
+                }
 
 
                 if (selectedVmIndex == getContainerVmList().size()) {
@@ -106,40 +122,21 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
             }
 
             case "BPFF": {
-                for (int x = 1; x <= getContainerVmList().size(); x++) {
-                    ServerlessInvoker tempSelectedVm = (ServerlessInvoker) (ContainerVmList.getById(getContainerVmList(), x));
-                    if (tempSelectedVm.isSuitableForContainer(container, tempSelectedVm)) {
-                        selectedVm = tempSelectedVm;
-//                        vmSelected = true;
-                        break;
-                    }
-                }
+                selectedVm = vmCapacityIndex.findFirstFit(container);
                 break;
             }
 
 
 
             case "BPBF": {
-                double minRemainingCap = Double.MAX_VALUE;
-                for (int x = 1; x <= getContainerVmList().size(); x++) {
-                    ServerlessInvoker tempSelectedVm = (ServerlessInvoker) (ContainerVmList.getById(getContainerVmList(), x));
-//                    System.out.println(CloudSim.clock() + " >>>>>>>>>>>>>>Debug:Broker: Vm # " + tempSelectedVm.getId() + " has available ram of " + tempSelectedVm.getContainerRamProvisioner().getAvailableVmRam() + " needed ram "+ container.getRam());
-
-                    double vmCpuAvailability = tempSelectedVm.getAvailableMips() / tempSelectedVm.getTotalMips();
-                    if (tempSelectedVm.isSuitableForContainer(container, tempSelectedVm)) {
-                        if (vmCpuAvailability < minRemainingCap) {
-                            selectedVm = tempSelectedVm;
-                            minRemainingCap = vmCpuAvailability;
-                        }
-
-
-                    }
-                }
+                selectedVm = vmCapacityIndex.findBestFit(container);
 
             }
 
 
-            System.out.println(CloudSim.clock() + " >>>>>>>>>>>>>>Debug:Broker: Selected VM is # " + selectedVm.getId() + " for container # " + container.getId() + " under "+Constants.VM_SELECTION_ALGO+" method");
+            if (Log.isLoggable(Log.Level.DEBUG)) {
+                Log.printConcatLine(Log.Level.DEBUG, CloudSim.clock(), " >>>>>>>>>>>>>>Debug:Broker: Selected VM is # ", selectedVm == null ? "none" : selectedVm.getId(), " for container # ", container.getId(), " under ", configuration.getVmSelectionAlgo(), " method");
+            }
 
         }
 
@@ -157,6 +154,7 @@ public class FunctionScheduler extends PowerContainerAllocationPolicy {
 
     public boolean reallocateVmResourcesForContainer(Container container, ServerlessInvoker vm, int cpuChange, int memChange) {
         boolean result = vm.reallocateResourcesForContainer(container, cpuChange, memChange);
+        vm.capacityChanged();
 
         return result;
 
@@ -1,11 +1,9 @@
 package org.cloudbus.cloudsim.serverless;
 
 import org.cloudbus.cloudsim.Log;
-import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.container.lists.ContainerVmList;
 import org.cloudbus.cloudsim.core.CloudSim;
 
-import java.util.List;
 
 
 /**
@@ -47,12 +45,12 @@ public class RequestLoadBalancer {
     }
 
     public void routeRequest(ServerlessRequest request){
-        if (request.retry > Constants.MAX_RESCHEDULE_TRIES){
+        if (request.retry > DC.getConfiguration().getMaxRescheduleTries()){
             broker.getCloudletList().remove(request);
             request.setSuccess(false);
             broker.getCloudletReceivedList().add(request);
         }
-        else if (Constants.SCALE_PER_REQUEST){
+        else if (DC.getConfiguration().isScalePerRequest()){
             broker.toSubmitOnContainerCreation.add(request);
             broker.createContainer(request, request.getRequestFunctionId(), request.getUserId());
             broker.requestSubmitClock = CloudSim.clock();
@@ -70,52 +68,38 @@ public class RequestLoadBalancer {
     protected boolean selectContainer(ServerlessRequest task){
 //        boolean containerSelected = false ;
         boolean contTypeExists = false;
-        switch (Constants.CONTAINER_SELECTION_ALGO) {
-            /** Selecting container using FF method **/
-            case "FF": {
-                for (int x = 1; x <= broker.getVmsCreatedList().size(); x++) {
-                    ServerlessInvoker vm = (ServerlessInvoker) (ContainerVmList.getById(broker.getVmsCreatedList(), x));
-                    assert vm != null;
-                    if (vm.getFunctionContainerMap().containsKey(task.getRequestFunctionId())) {
-                        contTypeExists = true;
-                        List<Container> contList = vm.getFunctionContainerMap().get(task.getRequestFunctionId());
-                        int y = 0;
-                        for (Container container : contList) {
-                            ServerlessContainer cont = (ServerlessContainer) (container);
-                            ServerlessRequestScheduler clScheduler = (ServerlessRequestScheduler) (container.getContainerCloudletScheduler());
-                            if (clScheduler.isSuitableForRequest(task, cont)) {
-                                clScheduler.setTotalCurrentAllocatedRamForRequests(task);
-                                clScheduler.setTotalCurrentAllocatedMipsShareForRequests(task);
-                                Log.printLine(String.format("Using idling container: container #%s", cont.getId()));
-
-                                task.setContainerId(cont.getId());
-                                broker.addToVmTaskMap(task, vm);
-                                cont.setRunningTask(task);
-                                cont.setIdling(false);
-                                cont.setIdleStartTime(0);
-//                                if(DC.getContainersToDestroy().contains(cont)){
-//                                    ((ServerlessContainer)DC.getContainersToDestroy().get(y)).setIdleStartTime(0);
-//                                }
-                                broker.setFunctionVmMap(vm, task.getRequestFunctionId());
-                                broker.requestSubmitClock = CloudSim.clock();
-                                broker.submitRequestToDC(task, vm.getId(), 0, cont.getId());
-                                return true;
-
-                            }
-                            y++;
-
-                        }
-
-                    }
-
+        switch (DC.getConfiguration().getContainerSelectionAlgo()) {
+            /** Selecting container using FF, BF or LL method, in the order kept by the warm container index **/
+            case "FF":
+            case "BF":
+            case "LL": {
+                WarmContainerIndex warmContainers = broker.getWarmContainerIndex();
+                contTypeExists = warmContainers.hasContainers(task.getRequestFunctionId());
+                ServerlessContainer cont = warmContainers.select(task);
+                if (cont != null) {
+                    ServerlessInvoker vm = (ServerlessInvoker) cont.getVm();
+                    ServerlessRequestScheduler clScheduler = (ServerlessRequestScheduler) (cont.getContainerCloudletScheduler());
+                    clScheduler.setTotalCurrentAllocatedRamForRequests(task);
+                    clScheduler.setTotalCurrentAllocatedMipsShareForRequests(task);
+                    Log.formatLine(Log.Level.DEBUG, "Using idling container: container #%s", cont.getId());
+
+                    task.setContainerId(cont.getId());
+                    broker.addToVmTaskMap(task, vm);
+                    cont.setRunningTask(task);
+                    cont.setIdling(false);
+                    cont.setIdleStartTime(0);
+                    broker.setFunctionVmMap(vm, task.getRequestFunctionId());
+                    broker.requestSubmitClock = CloudSim.clock();
+                    broker.submitRequestToDC(task, vm.getId(), 0, cont.getId());
+                    return true;
                 }
                 break;
             }
         }
-        if(Constants.CONTAINER_CONCURRENCY && Constants.FUNCTION_HORIZONTAL_AUTOSCALING){
+        if(DC.getConfiguration().isContainerConcurrency() && DC.getConfiguration().isFunctionHorizontalAutoscaling()){
             if (contTypeExists){
                 broker.sendFunctionRetryRequest(task);
-                Log.printLine(String.format("clock %s Container type exists so rescheduling", CloudSim.clock()));
+                Log.formatLine(Log.Level.DEBUG, "clock %s Container type exists so rescheduling", CloudSim.clock());
 
                 task.retry++;
                 return false;
@@ -124,7 +108,7 @@ public class RequestLoadBalancer {
                 ServerlessInvoker vm = (ServerlessInvoker) (ContainerVmList.getById(broker.getVmsCreatedList(), x));
                 assert vm != null;
                 if (vm.getFunctionContainerMapPending().containsKey(task.getRequestFunctionId())) {
-                    Log.printLine(String.format("clock %s Pending Container of type exists so rescheduling", CloudSim.clock()));
+                    Log.formatLine(Log.Level.DEBUG, "clock %s Pending Container of type exists so rescheduling", CloudSim.clock());
 
                     broker.sendFunctionRetryRequest(task);
                     task.retry++;
@@ -132,7 +116,7 @@ public class RequestLoadBalancer {
                 }
 
             }
-            Log.printLine(String.format("clock %s Container type does not exist so creating new", CloudSim.clock()));
+            Log.formatLine(Log.Level.DEBUG, "clock %s Container type does not exist so creating new", CloudSim.clock());
 
             broker.createContainer(task, task.getRequestFunctionId(), task.getUserId());
             broker.sendFunctionRetryRequest(task);
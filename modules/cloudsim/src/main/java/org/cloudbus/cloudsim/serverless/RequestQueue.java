@@ -0,0 +1,193 @@
+package org.cloudbus.cloudsim.serverless;
+
+import org.cloudbus.cloudsim.ResCloudlet;
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Queue of the requests waiting for a free PE in a container, kept as a binary heap so that requests are admitted,
+ * promoted and removed in logarithmic time. The order of promotion depends on the policy:
+ * <ul>
+ *     <li>FIFO: in the order the requests were admitted</li>
+ *     <li>EDF: earliest deadline first, the deadline of a request being its arrival time plus its maximum
+ *     execution time. Requests with the same deadline are promoted in the order they were admitted.</li>
+ * </ul>
+ *
+ * Iterating over the queue goes through the requests in no particular order, and requests are only removed
+ * through {@link #poll()} and {@link #remove(Object)}.
+ */
+
+public class RequestQueue extends AbstractCollection<ResCloudlet> {
+
+    private final String policy;
+    private final List<Node> heap = new ArrayList<>();
+    /**
+     * The node of each request in the queue, to find its position in the heap
+     */
+    private final Map<ResCloudlet, Node> nodes = new HashMap<>();
+    private long sequence = 0;
+
+    public RequestQueue(String policy) {
+        this.policy = policy;
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    @Override
+    public boolean add(ResCloudlet rcl) {
+        if (nodes.containsKey(rcl)) {
+            return false;
+        }
+        ServerlessRequest request = (ServerlessRequest) rcl.getCloudlet();
+        double key = "EDF".equals(policy) ? request.getArrivalTime() + request.getMaxExecTime() : 0;
+        Node node = new Node(rcl, key, sequence++, heap.size());
+        heap.add(node);
+        nodes.put(rcl, node);
+        siftUp(node.position);
+        return true;
+    }
+
+    /**
+     * Gets the next request to promote, without removing it.
+     *
+     * @return the request or null if the queue is empty
+     */
+    public ResCloudlet peek() {
+        return heap.isEmpty() ? null : heap.get(0).rcl;
+    }
+
+    /**
+     * Removes the next request to promote.
+     *
+     * @return the request or null if the queue is empty
+     */
+    public ResCloudlet poll() {
+        if (heap.isEmpty()) {
+            return null;
+        }
+        ResCloudlet rcl = heap.get(0).rcl;
+        removeAt(0);
+        return rcl;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        Node node = nodes.get(o);
+        if (node == null) {
+            return false;
+        }
+        removeAt(node.position);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return nodes.containsKey(o);
+    }
+
+    @Override
+    public int size() {
+        return heap.size();
+    }
+
+    @Override
+    public void clear() {
+        heap.clear();
+        nodes.clear();
+    }
+
+    @Override
+    public Iterator<ResCloudlet> iterator() {
+        return new Iterator<ResCloudlet>() {
+            private int cursor = 0;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < heap.size();
+            }
+
+            @Override
+            public ResCloudlet next() {
+                if (cursor >= heap.size()) {
+                    throw new NoSuchElementException();
+                }
+                return heap.get(cursor++).rcl;
+            }
+        };
+    }
+
+    private void removeAt(int position) {
+        Node removed = heap.get(position);
+        nodes.remove(removed.rcl);
+        Node moved = heap.remove(heap.size() - 1);
+        if (moved != removed) {
+            set(position, moved);
+            siftDown(position);
+            siftUp(moved.position);
+        }
+    }
+
+    private void siftUp(int position) {
+        Node node = heap.get(position);
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (heap.get(parent).compareTo(node) <= 0) {
+                break;
+            }
+            set(position, heap.get(parent));
+            position = parent;
+        }
+        set(position, node);
+    }
+
+    private void siftDown(int position) {
+        Node node = heap.get(position);
+        int size = heap.size();
+        while (2 * position + 1 < size) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && heap.get(child + 1).compareTo(heap.get(child)) < 0) {
+                child++;
+            }
+            if (node.compareTo(heap.get(child)) <= 0) {
+                break;
+            }
+            set(position, heap.get(child));
+            position = child;
+        }
+        set(position, node);
+    }
+
+    private void set(int position, Node node) {
+        heap.set(position, node);
+        node.position = position;
+    }
+
+    private static final class Node implements Comparable<Node> {
+
+        private final ResCloudlet rcl;
+        private final double key;
+        private final long sequence;
+        private int position;
+
+        private Node(ResCloudlet rcl, double key, long sequence, int position) {
+            this.rcl = rcl;
+            this.key = key;
+            this.sequence = sequence;
+            this.position = position;
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int result = Double.compare(key, other.key);
+            return result != 0 ? result : Long.compare(sequence, other.sequence);
+        }
+    }
+}
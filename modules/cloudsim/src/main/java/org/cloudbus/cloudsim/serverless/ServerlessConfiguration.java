@@ -0,0 +1,484 @@
+package org.cloudbus.cloudsim.serverless;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The configuration of a serverless simulation run: the scenario size, the workload and the algorithm specific
+ * parameters. It starts with the values of {@link Constants}, so each run can change some of them without a
+ * recompile, e.g. the runs of a {@link ServerlessSweepRunner}.
+ *
+ * The configuration is consumed by {@link ServerlessDatacenter}, which shares it with its {@link FunctionScheduler},
+ * {@link FunctionAutoScaler}, {@link RequestLoadBalancer} and {@link ServerlessInvoker}s, and by
+ * {@link ServerlessController}, which shares it with the {@link ServerlessRequestScheduler} of its containers.
+ * The datacenter and the controller of a run have to be given the same configuration.
+ */
+
+public class ServerlessConfiguration {
+
+    /**
+     * The names of the parameters that can be set with {@link #set(String, String)}, the names of the matching
+     * {@link Constants}. The values of the increment arrays are separated by semicolons, e.g. -466;0;466
+     */
+    public static final List<String> PARAMETER_NAMES = Collections.unmodifiableList(Arrays.asList(
+            "NUMBER_HOSTS", "NUMBER_VMS", "FUNCTION_REQUESTS_FILENAME", "SIMULATION_LIMIT",
+            "CONTAINER_CONCURRENCY", "FUNCTION_AUTOSCALING", "FUNCTION_HORIZONTAL_AUTOSCALING",
+            "FUNCTION_VERTICAL_AUTOSCALING", "SCALE_PER_REQUEST", "VM_SELECTION_ALGO", "HOR_SCALING_LOGIC",
+            "SCALING_TRIGGER_LOGIC", "CONTAINER_SELECTION_ALGO", "REQUEST_PROMOTION_POLICY", "MAX_RESCHEDULE_TRIES",
+            "MAX_REPLICAS", "CONTAINER_SCALE_CPU_THRESHOLD", "AUTO_SCALING_INTERVAL", "CONTAINER_IDLING_ENABLED",
+            "CONTAINER_IDLING_TIME", "INCREMENTAL_CLOUDLET_PROCESSING", "CONTAINER_STARTTUP_DELAY",
+            "FUNCTION_SCHEDULING_DELAY", "FUNCTION_SCHEDULING_RETRY_DELAY", "MONITORING", "EVENT_FREE_CPU_USAGE_MONITORING", "CONTAINER_MIPS_INCREMENT",
+            "CONTAINER_RAM_INCREMENT", "MIN_CONTAINER_MIPS", "MIN_CONTAINER_RAM", "MAX_CONTAINER_MIPS",
+            "MAX_CONTAINER_RAM", "REQUEST_PE_ADMISSION", "SEED"));
+
+    private int numberHosts = Constants.NUMBER_HOSTS;
+    private int numberVms = Constants.NUMBER_VMS;
+    private String functionRequestsFileName = Constants.FUNCTION_REQUESTS_FILENAME;
+    /**
+     * The time at which the simulation is terminated
+     */
+    private double simulationLimit = 2500.00;
+    private boolean containerConcurrency = Constants.CONTAINER_CONCURRENCY;
+    private boolean functionAutoscaling = Constants.FUNCTION_AUTOSCALING;
+    private boolean functionHorizontalAutoscaling = Constants.FUNCTION_HORIZONTAL_AUTOSCALING;
+    private boolean functionVerticalAutoscaling = Constants.FUNCTION_VERTICAL_AUTOSCALING;
+    private boolean scalePerRequest = Constants.SCALE_PER_REQUEST;
+    private String vmSelectionAlgo = Constants.VM_SELECTION_ALGO;
+    private String horScalingLogic = Constants.HOR_SCALING_LOGIC;
+    private String scalingTriggerLogic = Constants.SCALING_TRIGGER_LOGIC;
+    private String containerSelectionAlgo = Constants.CONTAINER_SELECTION_ALGO;
+    private String requestPromotionPolicy = Constants.REQUEST_PROMOTION_POLICY;
+    private int maxRescheduleTries = Constants.MAX_RESCHEDULE_TRIES;
+    private int maxReplicas = Constants.MAX_REPLICAS;
+    private double containerScaleCpuThreshold = Constants.CONTAINER_SCALE_CPU_THRESHOLD;
+    private double autoScalingInterval = Constants.AUTO_SCALING_INTERVAL;
+    private boolean containerIdlingEnabled = Constants.CONTAINER_IDLING_ENABLED;
+    private int containerIdlingTime = Constants.CONTAINER_IDLING_TIME;
+    private boolean incrementalCloudletProcessing = Constants.INCREMENTAL_CLOUDLET_PROCESSING;
+    private double containerStartupDelay = Constants.CONTAINER_STARTTUP_DELAY;
+    private double functionSchedulingDelay = Constants.FUNCTION_SCHEDULING_DELAY;
+    private double functionSchedulingRetryDelay = Constants.FUNCTION_SCHEDULING_RETRY_DELAY;
+    private boolean monitoring = Constants.MONITORING;
+    private boolean eventFreeCpuUsageMonitoring = Constants.EVENT_FREE_CPU_USAGE_MONITORING;
+    private int[] containerMipsIncrement = Constants.CONTAINER_MIPS_INCREMENT.clone();
+    private int[] containerRamIncrement = Constants.CONTAINER_RAM_INCREMENT.clone();
+    private int minContainerMips = Constants.MIN_CONTAINER_MIPS;
+    private int minContainerRam = Constants.MIN_CONTAINER_RAM;
+    private int maxContainerMips = Constants.MAX_CONTAINER_MIPS;
+    private int maxContainerRam = Constants.MAX_CONTAINER_RAM;
+    private boolean requestPeAdmission = Constants.REQUEST_PE_ADMISSION;
+    private long seed = Constants.SEED;
+
+    public ServerlessConfiguration() {
+    }
+
+    public ServerlessConfiguration(ServerlessConfiguration other) {
+        for (String name : PARAMETER_NAMES) {
+            set(name, other.get(name));
+        }
+    }
+
+    /**
+     * Sets a parameter from its value as a string.
+     *
+     * @param name the name of the parameter, one of {@link #PARAMETER_NAMES}
+     * @throws IllegalArgumentException if the parameter is unknown or the value cannot be parsed
+     */
+    public void set(String name, String value) {
+        switch (name) {
+            case "NUMBER_HOSTS": numberHosts = Integer.parseInt(value); break;
+            case "NUMBER_VMS": numberVms = Integer.parseInt(value); break;
+            case "FUNCTION_REQUESTS_FILENAME": functionRequestsFileName = value; break;
+            case "SIMULATION_LIMIT": simulationLimit = Double.parseDouble(value); break;
+            case "CONTAINER_CONCURRENCY": containerConcurrency = parseBoolean(name, value); break;
+            case "FUNCTION_AUTOSCALING": functionAutoscaling = parseBoolean(name, value); break;
+            case "FUNCTION_HORIZONTAL_AUTOSCALING": functionHorizontalAutoscaling = parseBoolean(name, value); break;
+            case "FUNCTION_VERTICAL_AUTOSCALING": functionVerticalAutoscaling = parseBoolean(name, value); break;
+            case "SCALE_PER_REQUEST": scalePerRequest = parseBoolean(name, value); break;
+            case "VM_SELECTION_ALGO": vmSelectionAlgo = value; break;
+            case "HOR_SCALING_LOGIC": horScalingLogic = value; break;
+            case "SCALING_TRIGGER_LOGIC": scalingTriggerLogic = value; break;
+            case "CONTAINER_SELECTION_ALGO": containerSelectionAlgo = value; break;
+            case "REQUEST_PROMOTION_POLICY": requestPromotionPolicy = value; break;
+            case "MAX_RESCHEDULE_TRIES": maxRescheduleTries = Integer.parseInt(value); break;
+            case "MAX_REPLICAS": maxReplicas = Integer.parseInt(value); break;
+            case "CONTAINER_SCALE_CPU_THRESHOLD": containerScaleCpuThreshold = Double.parseDouble(value); break;
+            case "AUTO_SCALING_INTERVAL": autoScalingInterval = Double.parseDouble(value); break;
+            case "CONTAINER_IDLING_ENABLED": containerIdlingEnabled = parseBoolean(name, value); break;
+            case "CONTAINER_IDLING_TIME": containerIdlingTime = Integer.parseInt(value); break;
+            case "INCREMENTAL_CLOUDLET_PROCESSING": incrementalCloudletProcessing = parseBoolean(name, value); break;
+            case "CONTAINER_STARTTUP_DELAY": containerStartupDelay = Double.parseDouble(value); break;
+            case "FUNCTION_SCHEDULING_DELAY": functionSchedulingDelay = Double.parseDouble(value); break;
+            case "FUNCTION_SCHEDULING_RETRY_DELAY": functionSchedulingRetryDelay = Double.parseDouble(value); break;
+            case "MONITORING": monitoring = parseBoolean(name, value); break;
+            case "EVENT_FREE_CPU_USAGE_MONITORING": eventFreeCpuUsageMonitoring = parseBoolean(name, value); break;
+            case "CONTAINER_MIPS_INCREMENT": containerMipsIncrement = parseIntArray(value); break;
+            case "CONTAINER_RAM_INCREMENT": containerRamIncrement = parseIntArray(value); break;
+            case "MIN_CONTAINER_MIPS": minContainerMips = Integer.parseInt(value); break;
+            case "MIN_CONTAINER_RAM": minContainerRam = Integer.parseInt(value); break;
+            case "MAX_CONTAINER_MIPS": maxContainerMips = Integer.parseInt(value); break;
+            case "MAX_CONTAINER_RAM": maxContainerRam = Integer.parseInt(value); break;
+            case "REQUEST_PE_ADMISSION": requestPeAdmission = parseBoolean(name, value); break;
+            case "SEED": seed = Long.parseLong(value); break;
+            default:
+                throw new IllegalArgumentException("Unknown configuration parameter: " + name);
+        }
+    }
+
+    /**
+     * Gets the value of a parameter as a string.
+     *
+     * @param name the name of the parameter, one of {@link #PARAMETER_NAMES}
+     * @throws IllegalArgumentException if the parameter is unknown
+     */
+    public String get(String name) {
+        switch (name) {
+            case "NUMBER_HOSTS": return String.valueOf(numberHosts);
+            case "NUMBER_VMS": return String.valueOf(numberVms);
+            case "FUNCTION_REQUESTS_FILENAME": return functionRequestsFileName;
+            case "SIMULATION_LIMIT": return String.valueOf(simulationLimit);
+            case "CONTAINER_CONCURRENCY": return String.valueOf(containerConcurrency);
+            case "FUNCTION_AUTOSCALING": return String.valueOf(functionAutoscaling);
+            case "FUNCTION_HORIZONTAL_AUTOSCALING": return String.valueOf(functionHorizontalAutoscaling);
+            case "FUNCTION_VERTICAL_AUTOSCALING": return String.valueOf(functionVerticalAutoscaling);
+            case "SCALE_PER_REQUEST": return String.valueOf(scalePerRequest);
+            case "VM_SELECTION_ALGO": return vmSelectionAlgo;
+            case "HOR_SCALING_LOGIC": return horScalingLogic;
+            case "SCALING_TRIGGER_LOGIC": return scalingTriggerLogic;
+            case "CONTAINER_SELECTION_ALGO": return containerSelectionAlgo;
+            case "REQUEST_PROMOTION_POLICY": return requestPromotionPolicy;
+            case "MAX_RESCHEDULE_TRIES": return String.valueOf(maxRescheduleTries);
+            case "MAX_REPLICAS": return String.valueOf(maxReplicas);
+            case "CONTAINER_SCALE_CPU_THRESHOLD": return String.valueOf(containerScaleCpuThreshold);
+            case "AUTO_SCALING_INTERVAL": return String.valueOf(autoScalingInterval);
+            case "CONTAINER_IDLING_ENABLED": return String.valueOf(containerIdlingEnabled);
+            case "CONTAINER_IDLING_TIME": return String.valueOf(containerIdlingTime);
+            case "INCREMENTAL_CLOUDLET_PROCESSING": return String.valueOf(incrementalCloudletProcessing);
+            case "CONTAINER_STARTTUP_DELAY": return String.valueOf(containerStartupDelay);
+            case "FUNCTION_SCHEDULING_DELAY": return String.valueOf(functionSchedulingDelay);
+            case "FUNCTION_SCHEDULING_RETRY_DELAY": return String.valueOf(functionSchedulingRetryDelay);
+            case "MONITORING": return String.valueOf(monitoring);
+            case "EVENT_FREE_CPU_USAGE_MONITORING": return String.valueOf(eventFreeCpuUsageMonitoring);
+            case "CONTAINER_MIPS_INCREMENT": return formatIntArray(containerMipsIncrement);
+            case "CONTAINER_RAM_INCREMENT": return formatIntArray(containerRamIncrement);
+            case "MIN_CONTAINER_MIPS": return String.valueOf(minContainerMips);
+            case "MIN_CONTAINER_RAM": return String.valueOf(minContainerRam);
+            case "MAX_CONTAINER_MIPS": return String.valueOf(maxContainerMips);
+            case "MAX_CONTAINER_RAM": return String.valueOf(maxContainerRam);
+            case "REQUEST_PE_ADMISSION": return String.valueOf(requestPeAdmission);
+            case "SEED": return String.valueOf(seed);
+            default:
+                throw new IllegalArgumentException("Unknown configuration parameter: " + name);
+        }
+    }
+
+    private static boolean parseBoolean(String name, String value) {
+        if (!"true".equalsIgnoreCase(value) && !"false".equalsIgnoreCase(value)) {
+            throw new IllegalArgumentException("Invalid value of " + name + ": " + value);
+        }
+        return Boolean.parseBoolean(value);
+    }
+
+    private static int[] parseIntArray(String value) {
+        String[] values = value.split(";");
+        int[] parsed = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            parsed[i] = Integer.parseInt(values[i].trim());
+        }
+        return parsed;
+    }
+
+    private static String formatIntArray(int[] values) {
+        StringBuilder formatted = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                formatted.append(';');
+            }
+            formatted.append(values[i]);
+        }
+        return formatted.toString();
+    }
+
+    public int getNumberHosts() {
+        return numberHosts;
+    }
+
+    public void setNumberHosts(int numberHosts) {
+        this.numberHosts = numberHosts;
+    }
+
+    public int getNumberVms() {
+        return numberVms;
+    }
+
+    public void setNumberVms(int numberVms) {
+        this.numberVms = numberVms;
+    }
+
+    public String getFunctionRequestsFileName() {
+        return functionRequestsFileName;
+    }
+
+    public void setFunctionRequestsFileName(String functionRequestsFileName) {
+        this.functionRequestsFileName = functionRequestsFileName;
+    }
+
+    public double getSimulationLimit() {
+        return simulationLimit;
+    }
+
+    public void setSimulationLimit(double simulationLimit) {
+        this.simulationLimit = simulationLimit;
+    }
+
+    public boolean isContainerConcurrency() {
+        return containerConcurrency;
+    }
+
+    public void setContainerConcurrency(boolean containerConcurrency) {
+        this.containerConcurrency = containerConcurrency;
+    }
+
+    public boolean isFunctionAutoscaling() {
+        return functionAutoscaling;
+    }
+
+    public void setFunctionAutoscaling(boolean functionAutoscaling) {
+        this.functionAutoscaling = functionAutoscaling;
+    }
+
+    public boolean isFunctionHorizontalAutoscaling() {
+        return functionHorizontalAutoscaling;
+    }
+
+    public void setFunctionHorizontalAutoscaling(boolean functionHorizontalAutoscaling) {
+        this.functionHorizontalAutoscaling = functionHorizontalAutoscaling;
+    }
+
+    public boolean isFunctionVerticalAutoscaling() {
+        return functionVerticalAutoscaling;
+    }
+
+    public void setFunctionVerticalAutoscaling(boolean functionVerticalAutoscaling) {
+        this.functionVerticalAutoscaling = functionVerticalAutoscaling;
+    }
+
+    public boolean isScalePerRequest() {
+        return scalePerRequest;
+    }
+
+    public void setScalePerRequest(boolean scalePerRequest) {
+        this.scalePerRequest = scalePerRequest;
+    }
+
+    public String getVmSelectionAlgo() {
+        return vmSelectionAlgo;
+    }
+
+    public void setVmSelectionAlgo(String vmSelectionAlgo) {
+        this.vmSelectionAlgo = vmSelectionAlgo;
+    }
+
+    public String getHorScalingLogic() {
+        return horScalingLogic;
+    }
+
+    public void setHorScalingLogic(String horScalingLogic) {
+        this.horScalingLogic = horScalingLogic;
+    }
+
+    public String getScalingTriggerLogic() {
+        return scalingTriggerLogic;
+    }
+
+    public void setScalingTriggerLogic(String scalingTriggerLogic) {
+        this.scalingTriggerLogic = scalingTriggerLogic;
+    }
+
+    public String getContainerSelectionAlgo() {
+        return containerSelectionAlgo;
+    }
+
+    public void setContainerSelectionAlgo(String containerSelectionAlgo) {
+        this.containerSelectionAlgo = containerSelectionAlgo;
+    }
+
+    public String getRequestPromotionPolicy() {
+        return requestPromotionPolicy;
+    }
+
+    public void setRequestPromotionPolicy(String requestPromotionPolicy) {
+        this.requestPromotionPolicy = requestPromotionPolicy;
+    }
+
+    public int getMaxRescheduleTries() {
+        return maxRescheduleTries;
+    }
+
+    public void setMaxRescheduleTries(int maxRescheduleTries) {
+        this.maxRescheduleTries = maxRescheduleTries;
+    }
+
+    public int getMaxReplicas() {
+        return maxReplicas;
+    }
+
+    public void setMaxReplicas(int maxReplicas) {
+        this.maxReplicas = maxReplicas;
+    }
+
+    public double getContainerScaleCpuThreshold() {
+        return containerScaleCpuThreshold;
+    }
+
+    public void setContainerScaleCpuThreshold(double containerScaleCpuThreshold) {
+        this.containerScaleCpuThreshold = containerScaleCpuThreshold;
+    }
+
+    public double getAutoScalingInterval() {
+        return autoScalingInterval;
+    }
+
+    public void setAutoScalingInterval(double autoScalingInterval) {
+        this.autoScalingInterval = autoScalingInterval;
+    }
+
+    public boolean isContainerIdlingEnabled() {
+        return containerIdlingEnabled;
+    }
+
+    public void setContainerIdlingEnabled(boolean containerIdlingEnabled) {
+        this.containerIdlingEnabled = containerIdlingEnabled;
+    }
+
+    public int getContainerIdlingTime() {
+        return containerIdlingTime;
+    }
+
+    public void setContainerIdlingTime(int containerIdlingTime) {
+        this.containerIdlingTime = containerIdlingTime;
+    }
+
+    public boolean isIncrementalCloudletProcessing() {
+        return incrementalCloudletProcessing;
+    }
+
+    public void setIncrementalCloudletProcessing(boolean incrementalCloudletProcessing) {
+        this.incrementalCloudletProcessing = incrementalCloudletProcessing;
+    }
+
+    public double getContainerStartupDelay() {
+        return containerStartupDelay;
+    }
+
+    public void setContainerStartupDelay(double containerStartupDelay) {
+        this.containerStartupDelay = containerStartupDelay;
+    }
+
+    public double getFunctionSchedulingDelay() {
+        return functionSchedulingDelay;
+    }
+
+    public void setFunctionSchedulingDelay(double functionSchedulingDelay) {
+        this.functionSchedulingDelay = functionSchedulingDelay;
+    }
+
+    public double getFunctionSchedulingRetryDelay() {
+        return functionSchedulingRetryDelay;
+    }
+
+    public void setFunctionSchedulingRetryDelay(double functionSchedulingRetryDelay) {
+        this.functionSchedulingRetryDelay = functionSchedulingRetryDelay;
+    }
+
+    public boolean isMonitoring() {
+        return monitoring;
+    }
+
+    public void setMonitoring(boolean monitoring) {
+        this.monitoring = monitoring;
+    }
+
+    public boolean isEventFreeCpuUsageMonitoring() {
+        return eventFreeCpuUsageMonitoring;
+    }
+
+    public void setEventFreeCpuUsageMonitoring(boolean eventFreeCpuUsageMonitoring) {
+        this.eventFreeCpuUsageMonitoring = eventFreeCpuUsageMonitoring;
+    }
+
+    /**
+     * Gets the CPU increments the vertical autoscaler tries, in order of preference.
+     */
+    public int[] getContainerMipsIncrement() {
+        return containerMipsIncrement;
+    }
+
+    public void setContainerMipsIncrement(int[] containerMipsIncrement) {
+        this.containerMipsIncrement = containerMipsIncrement;
+    }
+
+    /**
+     * Gets the memory increments the vertical autoscaler tries, in order of preference.
+     */
+    public int[] getContainerRamIncrement() {
+        return containerRamIncrement;
+    }
+
+    public void setContainerRamIncrement(int[] containerRamIncrement) {
+        this.containerRamIncrement = containerRamIncrement;
+    }
+
+    public int getMinContainerMips() {
+        return minContainerMips;
+    }
+
+    public void setMinContainerMips(int minContainerMips) {
+        this.minContainerMips = minContainerMips;
+    }
+
+    public int getMinContainerRam() {
+        return minContainerRam;
+    }
+
+    public void setMinContainerRam(int minContainerRam) {
+        this.minContainerRam = minContainerRam;
+    }
+
+    public int getMaxContainerMips() {
+        return maxContainerMips;
+    }
+
+    public void setMaxContainerMips(int maxContainerMips) {
+        this.maxContainerMips = maxContainerMips;
+    }
+
+    public int getMaxContainerRam() {
+        return maxContainerRam;
+    }
+
+    public void setMaxContainerRam(int maxContainerRam) {
+        this.maxContainerRam = maxContainerRam;
+    }
+
+    /**
+     * Checks if the requests wait in their container for free PEs, instead of sharing the PEs with the running
+     * requests.
+     */
+    public boolean isRequestPeAdmission() {
+        return requestPeAdmission;
+    }
+
+    public void setRequestPeAdmission(boolean requestPeAdmission) {
+        this.requestPeAdmission = requestPeAdmission;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -4,6 +4,7 @@ import org.cloudbus.cloudsim.container.core.Container;
 import org.cloudbus.cloudsim.container.schedulers.ContainerCloudletScheduler;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 /**
@@ -71,7 +72,28 @@ public class ServerlessContainer extends Container {
     public void setPendingTask(ServerlessRequest task){
         pendingTasks.add(task);
     }
-    public void setRunningTask(ServerlessRequest task){runningTasks.add(task); }
+    public void setRunningTask(ServerlessRequest task){
+        runningTasks.add(task);
+        updateReplicaSetIdle();
+    }
+
+    /**
+     * Removes a request from the running requests of the container.
+     *
+     * @return true if the request was running in the container
+     */
+    public boolean removeRunningTask(ServerlessRequest task){
+        boolean removed = runningTasks.remove(task);
+        updateReplicaSetIdle();
+        return removed;
+    }
+
+    private void updateReplicaSetIdle() {
+        FunctionReplicaSet.Entry entry = ((ServerlessRequestScheduler) getContainerCloudletScheduler()).getReplicaSetEntry();
+        if (entry != null) {
+            entry.updateIdle();
+        }
+    }
 
     public void setfinishedTask(ServerlessRequest task){finishedTasks.add(task); }
     public boolean getReschedule() {return reschedule;}
@@ -88,8 +110,13 @@ public class ServerlessContainer extends Container {
     public ArrayList<ServerlessRequest> getfinishedTasks(){
         return finishedTasks;
     }
-    public ArrayList<ServerlessRequest> getRunningTasks(){
-        return runningTasks;
+    /**
+     * Gets the running requests of the container. The list is not to be modified, as the replica set of the
+     * function follows the containers without running requests: use {@link #setRunningTask} and
+     * {@link #removeRunningTask} instead.
+     */
+    public List<ServerlessRequest> getRunningTasks(){
+        return Collections.unmodifiableList(runningTasks);
     }
     public String getType() {return functionType;}
 
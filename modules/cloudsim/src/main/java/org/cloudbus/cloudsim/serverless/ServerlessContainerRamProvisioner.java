@@ -1,5 +1,6 @@
 package org.cloudbus.cloudsim.serverless;
 
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.container.containerProvisioners.ContainerRamProvisionerSimple;
 import org.cloudbus.cloudsim.container.core.Container;
 
@@ -16,7 +17,7 @@ public class ServerlessContainerRamProvisioner extends ContainerRamProvisionerSi
         deallocateRamForContainer(container);
 
         if (getAvailableVmRam() >= ram) {
-            System.out.println("New available ram: "+(getAvailableVmRam() - ram));
+            Log.printLine(Log.Level.DEBUG, () -> "New available ram: "+(getAvailableVmRam() - ram));
             setAvailableVmRam(getAvailableVmRam() - ram);
             getContainerRamTable().put(container.getUid(), ram);
             container.setCurrentAllocatedRam(ram);
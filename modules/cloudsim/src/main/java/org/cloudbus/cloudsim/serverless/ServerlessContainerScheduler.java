@@ -18,6 +18,11 @@ import java.util.List;
 
 
 public class ServerlessContainerScheduler extends ContainerSchedulerTimeSharedOverSubscription {
+    /**
+     * The monitor told about the changes of the allocated MIPS, if the VM utilization is monitored without events
+     */
+    private VmUtilizationMonitor utilizationMonitor;
+
     /**
      * Instantiates a new container scheduler time shared.
      *
@@ -27,31 +32,61 @@ public class ServerlessContainerScheduler extends ContainerSchedulerTimeSharedOv
         super(pelist);
     }
 
-    public boolean reAllocatePesForContainer(Container container, double newMIPS) {
+    void setUtilizationMonitor(VmUtilizationMonitor utilizationMonitor) {
+        this.utilizationMonitor = utilizationMonitor;
+    }
 
-        boolean result = reAllocatePesForContainer(container.getUid(), newMIPS, container);
-        updatePeProvisioning();
-        return result;
+    @Override
+    protected void setAvailableMips(double availableMips) {
+        if (utilizationMonitor != null && availableMips != getAvailableMips()) {
+            utilizationMonitor.utilizationChanging();
+        }
+        super.setAvailableMips(availableMips);
     }
 
-    public boolean isSuitableForContainer(Container container, ServerlessInvoker vm) {
-        int assignedPes = 0;
+    /**
+     * Gets the largest MIPS available on a single PE.
+     */
+    public double getMaxAvailablePeMips() {
+        double maxMips = 0;
         for (ContainerPe pe : getPeList()) {
-            System.out.println(CloudSim.clock() + " >>>>>>>>>>>>>>Available pe mips in vm # "+vm.getId() +" is " +pe.getContainerPeProvisioner().getAvailableMips() + " Needed mips for container # "+container.getId() + " is " + container.getMips());
+            maxMips = Math.max(maxMips, pe.getContainerPeProvisioner().getAvailableMips());
+        }
+        return maxMips;
+    }
 
-            double tmp = (pe.getContainerPeProvisioner().getAvailableMips());
-            if (tmp > container.getMips()) {
-                assignedPes++ ;
-                if(assignedPes == container.getNumberOfPes()){
+    /**
+     * Checks if enough PEs have more available MIPS than requested by a container, without logging.
+     */
+    public boolean fitsContainer(Container container) {
+        int assignedPes = 0;
+        for (ContainerPe pe : getPeList()) {
+            if (pe.getContainerPeProvisioner().getAvailableMips() > container.getMips()) {
+                assignedPes++;
+                if (assignedPes == container.getNumberOfPes()) {
                     break;
                 }
-
             }
         }
-
         return assignedPes == container.getNumberOfPes();
     }
 
+    public boolean reAllocatePesForContainer(Container container, double newMIPS) {
+
+        boolean result = reAllocatePesForContainer(container.getUid(), newMIPS, container);
+        updatePeProvisioning();
+        return result;
+    }
+
+    public boolean isSuitableForContainer(Container container, ServerlessInvoker vm) {
+        if (Log.isLoggable(Log.Level.DEBUG)) {
+            for (ContainerPe pe : getPeList()) {
+                Log.printConcatLine(Log.Level.DEBUG, CloudSim.clock(), " >>>>>>>>>>>>>>Available pe mips in vm # ", vm.getId(), " is ", pe.getContainerPeProvisioner().getAvailableMips(), " Needed mips for container # ", container.getId(), " is ", container.getMips());
+            }
+        }
+        return fitsContainer(container);
+    }
+
     public boolean reAllocatePesForContainer(String containerUid, double newMips, Container container) {
         double totalRequestedMips = 0;
         double oldMips = container.getMips()* container.getNumberOfPes();
@@ -93,7 +128,7 @@ public class ServerlessContainerScheduler extends ContainerSchedulerTimeSharedOv
             getMipsMap().put(containerUid, mipsShareAllocated);
             setAvailableMips(getAvailableMips()+oldMips - totalRequestedMips);
             /**Debugging */
-            System.out.println("Debugging: Now total remaining MIPS of all vm pes is "+getAvailableMips());
+            Log.printLine(Log.Level.DEBUG, () -> "Debugging: Now total remaining MIPS of all vm pes is "+getAvailableMips());
         } else {
             redistributeMipsDueToOverSubscription();
         }
@@ -28,7 +28,6 @@ public class ServerlessController extends ContainerDatacenterBroker {
      * The containers destroyed list.
      */
     protected List<? extends ServerlessContainer> containerDestroyedList;
-    private static int overBookingfactor = 0;
     /**
      * The arrival time of each serverless request
      */
@@ -37,10 +36,22 @@ public class ServerlessController extends ContainerDatacenterBroker {
      * The serverless function requests queue
      */
     public Queue<ServerlessRequest> requestQueue = new LinkedList<ServerlessRequest>();
+    /**
+     * The stream the serverless requests are taken from as the simulation goes, if any
+     */
+    protected ServerlessRequestStream requestStream;
     /**
      * The task type and vm map of controller - contains the list of vms running each function type
      */
     protected Map<String, ArrayList<ServerlessInvoker>> functionVmMap = new HashMap<String, ArrayList<ServerlessInvoker>>();
+    /**
+     * The warm containers of each function, ordered for the container selection of the load balancer
+     */
+    protected WarmContainerIndex warmContainerIndex;
+    /**
+     * The configuration of the run, which has to be the one of the datacenter
+     */
+    private final ServerlessConfiguration configuration;
     protected List<ServerlessRequest> toSubmitOnContainerCreation = new ArrayList<ServerlessRequest>();
     protected List<Double> averageVmUsageRecords = new ArrayList<Double>();
     protected List<Double> meanAverageVmUsageRecords = new ArrayList<Double>();
@@ -49,6 +60,10 @@ public class ServerlessController extends ContainerDatacenterBroker {
     protected double timeInterval = 50.0;
     protected double requestSubmitClock = 0;
     protected Map<ServerlessInvoker, ArrayList<ServerlessRequest>> vmTempTimeMap = new HashMap<ServerlessInvoker,ArrayList<ServerlessRequest>>();
+    /**
+     * The monitor of the VM utilization, when it is monitored without sampling events
+     */
+    protected VmUtilizationMonitor utilizationMonitor = new VmUtilizationMonitor();
     ServerlessDatacenter e ;
 
     /**
@@ -73,6 +88,9 @@ public class ServerlessController extends ContainerDatacenterBroker {
             case CloudSimTags.CLOUDLET_SUBMIT:
                 submitRequest(ev);
                 break;
+            case CloudSimSCTags.REQUEST_ARRIVAL:
+                processRequestArrival(ev);
+                break;
             case CloudSimTags.CLOUDLET_SUBMIT_ACK:
                 processRequestSubmitAck(ev);
                 break;
@@ -93,8 +111,13 @@ public class ServerlessController extends ContainerDatacenterBroker {
     }
 
     public ServerlessController(String name, int overBookingfactor) throws Exception {
+        this(name, overBookingfactor, new ServerlessConfiguration());
+    }
+
+    public ServerlessController(String name, int overBookingfactor, ServerlessConfiguration configuration) throws Exception {
         super(name, overBookingfactor);
-        ServerlessController.overBookingfactor = overBookingfactor;
+        this.configuration = configuration;
+        warmContainerIndex = new WarmContainerIndex(configuration.getContainerSelectionAlgo());
         setContainersDestroyedList(new ArrayList<ServerlessContainer>());
 //        createRequests();
     }
@@ -106,6 +129,45 @@ public class ServerlessController extends ContainerDatacenterBroker {
             send(getId(), requestArrivalTime.remove(), CloudSimTags.CLOUDLET_SUBMIT,requestQueue.remove());
 
         }
+        scheduleNextArrival();
+    }
+
+    /**
+     * Sets the stream of requests submitted by the controller. Only the arrival of the next request of the
+     * stream is scheduled at a time, and the following one is taken from the stream when it arrives.
+     */
+    public void setRequestStream(ServerlessRequestStream requestStream) {
+        this.requestStream = requestStream;
+    }
+
+    public ServerlessRequestStream getRequestStream() {
+        return requestStream;
+    }
+
+    protected void processRequestArrival(SimEvent ev) {
+        scheduleNextArrival();
+        submitRequest(ev);
+    }
+
+    /**
+     * Takes the next request from the request stream and schedules its arrival.
+     */
+    protected void scheduleNextArrival() {
+        if (requestStream == null) {
+            return;
+        }
+        ServerlessRequest request = requestStream.next();
+        if (request == null) {
+            return;
+        }
+        double arrivalTime = request.getArrivalTime() + configuration.getFunctionSchedulingDelay();
+        double delay = arrivalTime - CloudSim.clock();
+        // the clock may differ from the arrival time of the previous request by a rounding error
+        if (delay < -CloudSim.getMinTimeBetweenEvents()) {
+            throw new IllegalStateException("Request " + request.getCloudletId() + " arrives at " + arrivalTime
+                    + ", before the clock (" + CloudSim.clock() + "): the requests have to be sorted by arrival time");
+        }
+        send(getId(), Math.max(0, delay), CloudSimSCTags.REQUEST_ARRIVAL, request);
     }
 
     public <T extends ServerlessContainer> List<T> getContainersDestroyedList() {
@@ -133,9 +195,17 @@ public class ServerlessController extends ContainerDatacenterBroker {
         return loadBalancer;
     }
 
+    public ServerlessConfiguration getConfiguration() {
+        return configuration;
+    }
+
+    public WarmContainerIndex getWarmContainerIndex() {
+        return warmContainerIndex;
+    }
+
     public void submitRequest(SimEvent ev) {
         ServerlessRequest cl = (ServerlessRequest) ev.getData();
-        System.out.println(CloudSim.clock() + " request arrived: " + cl.getCloudletId());
+        Log.printLine(Log.Level.DEBUG, () -> CloudSim.clock() + " request arrived: " + cl.getCloudletId());
         if (CloudSim.clock() == requestSubmitClock) {
             send(getId(), Constants.MINIMUM_INTERVAL_BETWEEN_TWO_CLOUDLET_SUBMISSIONS, CloudSimTags.CLOUDLET_SUBMIT, cl);
         }
@@ -148,13 +218,13 @@ public class ServerlessController extends ContainerDatacenterBroker {
     }
 
     protected void sendFunctionRetryRequest(ServerlessRequest req){
-        send(getId(), Constants.FUNCTION_SCHEDULING_RETRY_DELAY, CloudSimTags.CLOUDLET_SUBMIT, req);
+        send(getId(), configuration.getFunctionSchedulingRetryDelay(), CloudSimTags.CLOUDLET_SUBMIT, req);
     }
 
 
 
     protected void createContainer(ServerlessRequest cl, String requestId, int brokerId) {
-        ServerlessContainer container = new ServerlessContainer(containerId, brokerId, requestId, cl.getContainerMIPS(), cl.getNumberOfPes(), cl.getContainerMemory(), Constants.CONTAINER_BW, Constants.CONTAINER_SIZE,"Xen", new ServerlessRequestScheduler(cl.getContainerMIPS(), cl.getNumberOfPes()), Constants.SCHEDULING_INTERVAL, true, false, false, 0, 0, 0);
+        ServerlessContainer container = new ServerlessContainer(containerId, brokerId, requestId, cl.getContainerMIPS(), cl.getNumberOfPes(), cl.getContainerMemory(), Constants.CONTAINER_BW, Constants.CONTAINER_SIZE,"Xen", new ServerlessRequestScheduler(cl.getContainerMIPS(), cl.getNumberOfPes(), configuration), Constants.SCHEDULING_INTERVAL, true, false, false, 0, 0, 0);
         getContainerList().add(container);
         if (!(cl ==null)){
             cl.setContainerId(containerId);
@@ -172,11 +242,11 @@ public class ServerlessController extends ContainerDatacenterBroker {
         double containerMips = Double.parseDouble(data[2]);
         int containerRAM = (int)Double.parseDouble(data[3]);
         int containerPES = (int)Double.parseDouble(data[4]);
-        ServerlessContainer container = new ServerlessContainer(containerId, brokerId, requestId, containerMips, containerPES, containerRAM, Constants.CONTAINER_BW, Constants.CONTAINER_SIZE,"Xen", new ServerlessRequestScheduler(containerMips, containerPES), Constants.SCHEDULING_INTERVAL, true, false, false, 0, 0, 0);
+        ServerlessContainer container = new ServerlessContainer(containerId, brokerId, requestId, containerMips, containerPES, containerRAM, Constants.CONTAINER_BW, Constants.CONTAINER_SIZE,"Xen", new ServerlessRequestScheduler(containerMips, containerPES, configuration), Constants.SCHEDULING_INTERVAL, true, false, false, 0, 0, 0);
         getContainerList().add(container);
         container.setWorkloadMips(container.getMips());
         sendNow(getDatacenterIdsList().get(0), containerCloudSimTags.CONTAINER_SUBMIT, container);
-        Log.printLine(String.format("clock %s Creating scaled container: container #%s",CloudSim.clock(), container.getId()));
+        Log.formatLine(Log.Level.DEBUG, "clock %s Creating scaled container: container #%s",CloudSim.clock(), container.getId());
 
         containerId++;
 
@@ -239,6 +309,7 @@ public class ServerlessController extends ContainerDatacenterBroker {
                 ServerlessInvoker vm = (ServerlessInvoker)(ContainerVmList.getById(getVmsCreatedList(),vmId));
                 vm.getFunctionContainerMapPending().get(cont.getType()).remove(cont);
                 vm.setFunctionContainerMap(cont, cont.getType());
+                warmContainerIndex.add(cont, vm);
 
                 int hostId = ContainerVmList.getById(getVmsCreatedList(), vmId).getHost().getId();
                 Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": The Container #", containerId,
@@ -295,6 +366,9 @@ public class ServerlessController extends ContainerDatacenterBroker {
             vmIdleList.add(ContainerVmList.getById(getVmList(), vmId));
             ArrayList<ServerlessRequest> taskList = new ArrayList<>();
             vmTempTimeMap.put(ContainerVmList.getById(getVmList(), vmId),taskList);
+            if (configuration.isMonitoring() && configuration.isEventFreeCpuUsageMonitoring()) {
+                utilizationMonitor.addVm(ContainerVmList.getById(getVmList(), vmId));
+            }
             Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": VM #", vmId,
                     " has been created in Datacenter #", datacenterId, ", Host #",
                     ContainerVmList.getById(getVmsCreatedList(), vmId).getHost().getId());
@@ -317,7 +391,7 @@ public class ServerlessController extends ContainerDatacenterBroker {
         //System.out.println("Time " + request.getMaxExecTime());
 
 
-        Log.print(String.format("%f: request %d has been submitted to VM %d and container %d", CloudSim.clock(), request.getCloudletId(), vmId, containerId));
+        Log.formatLine(Log.Level.DEBUG, "%f: request %d has been submitted to VM %d and container %d", CloudSim.clock(), request.getCloudletId(), vmId, containerId);
         if (delay > 0) {
             send(getVmsToDatacentersMap().get(request.getVmId()), delay, CloudSimTags.CLOUDLET_SUBMIT_ACK, request);
         } else
@@ -358,7 +432,7 @@ public class ServerlessController extends ContainerDatacenterBroker {
         int result = data[2];
         int oldVmId = data[3];
 
-        System.out.println(CloudSim.clock()+" Broker: Debug: Container "+ containerId+" is destroyed");
+        Log.printLine(Log.Level.DEBUG, () -> CloudSim.clock()+" Broker: Debug: Container "+ containerId+" is destroyed");
 
         if (result == CloudSimTags.TRUE) {
 
@@ -396,7 +470,7 @@ public class ServerlessController extends ContainerDatacenterBroker {
         clScheduler.deAllocateResources((ServerlessRequest) request);
 
         getCloudletReceivedList().add(request);
-        (((ServerlessContainer)(ContainerList.getById(getContainerList(), request.getContainerId()))).getRunningTasks()).remove(request);
+        ((ServerlessContainer)(ContainerList.getById(getContainerList(), request.getContainerId()))).removeRunningTask((ServerlessRequest) request);
         ((ServerlessContainer)(ContainerList.getById(getContainerList(), request.getContainerId()))).setfinishedTask((ServerlessRequest)request);
         Log.printConcatLine(CloudSim.clock(), ": ", getName(), ": request ", request.getCloudletId(),
                 " returned");
@@ -449,7 +523,14 @@ public class ServerlessController extends ContainerDatacenterBroker {
 
     }
 
+    public VmUtilizationMonitor getUtilizationMonitor() {
+        return utilizationMonitor;
+    }
+
     public double getAverageResourceUtilization(){
+        if (configuration.isEventFreeCpuUsageMonitoring()) {
+            return utilizationMonitor.getAverageResourceUtilization();
+        }
         double averageUtilization = 0;
         double sumAverage=0;
 
@@ -461,6 +542,9 @@ public class ServerlessController extends ContainerDatacenterBroker {
     }
 
     public double getAverageVmCount (){
+        if (configuration.isEventFreeCpuUsageMonitoring()) {
+            return utilizationMonitor.getAverageVmCount();
+        }
         double sumCount = 0;
         for(int x=0; x<meanSumOfVmCount.size(); x++){
             sumCount += meanSumOfVmCount.get(x);
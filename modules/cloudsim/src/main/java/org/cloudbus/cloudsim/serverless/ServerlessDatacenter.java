@@ -29,7 +29,7 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
     /**
      * Idle Vm list
      */
-    private static List<ServerlessInvoker> vmIdleList = new ArrayList<>();
+    private final List<ServerlessInvoker> vmIdleList = new ArrayList<>();
     /**
      * request reschedule event
      */
@@ -38,16 +38,16 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
      * The longest reaming run time of the requests running on each vm
      */
 
-    private static Map<Integer, Double> runTimeVm = new HashMap<Integer, Double>();
+    private final Map<Integer, Double> runTimeVm = new HashMap<Integer, Double>();
 
     /**
      * The bin of vms against their longest run time
      */
-    private static Map<Integer, ArrayList<Integer>> onlineBinOfVms = new HashMap<Integer, ArrayList<Integer>>();
+    private final Map<Integer, ArrayList<Integer>> onlineBinOfVms = new HashMap<Integer, ArrayList<Integer>>();
     /**
      * The bin of vms against their longest run time
      */
-    private static ArrayList<Integer> binNos = new ArrayList<>();
+    private final ArrayList<Integer> binNos = new ArrayList<>();
     /**
      * Perform Datacenter monitoring
      */
@@ -56,6 +56,22 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
      * Idle containers that need to be destroyed
      */
     private List<Container> containersToDestroy = new ArrayList<>();
+    /**
+     * The replica set of each function, with the running aggregates used by the autoscaler
+     */
+    private Map<String, FunctionReplicaSet> functionReplicaSets = new HashMap<>();
+    /**
+     * The VMs to update on the next request processing update, in incremental mode
+     */
+    private final VmProcessingTracker vmProcessingTracker = new VmProcessingTracker();
+    /**
+     * The time of the latest processing update event scheduled in incremental mode
+     */
+    private double scheduledProcessingTime = -1;
+    /**
+     * The requests that finished since the last completion check, with their VM
+     */
+    private final Queue<Map.Entry<Cloudlet, ContainerVm>> finishedRequests = new ArrayDeque<>();
     /**
      * request submit event of DC event
      */
@@ -68,6 +84,10 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
     private FunctionAutoScaler autoScaler;
 
     private FunctionScheduler fnsched;
+    /**
+     * The configuration of the run, shared with the function scheduler, the autoscaler, the load balancer and the VMs
+     */
+    private final ServerlessConfiguration configuration;
 
 
     /**
@@ -86,13 +106,23 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
 
     public ServerlessDatacenter(String name, ContainerDatacenterCharacteristics characteristics, ContainerVmAllocationPolicy vmAllocationPolicy, FunctionScheduler containerAllocationPolicy, List<Storage> storageList, double schedulingInterval, String experimentName, String logAddress, double vmStartupDelay, double containerStartupDelay, boolean monitor) throws Exception {
+        this(name, characteristics, vmAllocationPolicy, containerAllocationPolicy, storageList, schedulingInterval, experimentName, logAddress, vmStartupDelay, containerStartupDelay, monitor, new ServerlessConfiguration());
+    }
+
+    public ServerlessDatacenter(String name, ContainerDatacenterCharacteristics characteristics, ContainerVmAllocationPolicy vmAllocationPolicy, FunctionScheduler containerAllocationPolicy, List<Storage> storageList, double schedulingInterval, String experimentName, String logAddress, double vmStartupDelay, double containerStartupDelay, boolean monitor, ServerlessConfiguration configuration) throws Exception {
         super(name, characteristics, vmAllocationPolicy, containerAllocationPolicy, storageList, schedulingInterval, experimentName, logAddress, vmStartupDelay, containerStartupDelay);
+        this.configuration = configuration;
+        containerAllocationPolicy.setConfiguration(configuration);
         tasksWaitingToReschedule = new HashMap<Integer, ServerlessRequest>();
         setMonitoring(monitor);
         autoScaler = new FunctionAutoScaler(this);
 
     }
 
+    public ServerlessConfiguration getConfiguration() {
+        return configuration;
+    }
+
     /**
      * Get the idle containers that need to be destroyed
      */
@@ -100,6 +130,22 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
         return containersToDestroy;
     }
 
+    public Map<String, FunctionReplicaSet> getFunctionReplicaSets() {
+        return functionReplicaSets;
+    }
+
+    /**
+     * Gets the replica set of a function, creating it if the function has none yet.
+     */
+    public FunctionReplicaSet getFunctionReplicaSet(String functionId) {
+        FunctionReplicaSet replicaSet = functionReplicaSets.get(functionId);
+        if (replicaSet == null) {
+            replicaSet = new FunctionReplicaSet(functionId);
+            functionReplicaSets.put(functionId, replicaSet);
+        }
+        return replicaSet;
+    }
+
     public RequestLoadBalancer getRequestLoadBalancer() {
         return requestLoadBalancer;
     }
@@ -152,23 +198,26 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
     public void containerVerticalScale(Container container, ServerlessInvoker vm, int cpuChange, int memChange){
         boolean result = ((FunctionScheduler) getContainerAllocationPolicy()).reallocateVmResourcesForContainer(container, vm, cpuChange, memChange);
+        if (result) {
+            markVmProcessingDirty(vm);
+        }
 
     }
 
 
     public void processAutoScaling(SimEvent ev){
-        Log.printLine(String.format("%s: Autoscaling", CloudSim.clock()));
+        Log.formatLine(Log.Level.DEBUG, "%s: Autoscaling", CloudSim.clock());
         autoScaler.scaleFunctions();
         destroyIdleContainers();
-        send(this.getId(), Constants.AUTO_SCALING_INTERVAL, CloudSimSCTags.AUTO_SCALE);
+        send(this.getId(), configuration.getAutoScalingInterval(), CloudSimSCTags.AUTO_SCALE);
     }
 
     /** Process event to destroy a container */
     public void processContainerDestroy(SimEvent ev, boolean ack){
         Container container = (Container) ev.getData();
-        if (Constants.CONTAINER_IDLING_ENABLED){
+        if (configuration.isContainerIdlingEnabled()){
 //            Log.printConcatLine(CloudSim.clock(), " checking to destroy container ", container.getId());
-            if (Math.round(CloudSim.clock()*100000)/100000 - Math.round(((ServerlessContainer)container).getIdleStartTime()*100000)/100000 == Constants.CONTAINER_IDLING_TIME){
+            if (Math.round(CloudSim.clock()*100000)/100000 - Math.round(((ServerlessContainer)container).getIdleStartTime()*100000)/100000 == configuration.getContainerIdlingTime()){
                 ServerlessInvoker vm = (ServerlessInvoker)container.getVm();
                 if(vm!=null) {
                     getContainerAllocationPolicy().deallocateVmForContainer(container);
@@ -239,7 +288,7 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
     protected void processVmCreate(SimEvent ev, boolean ack) {
 
         ContainerVm containerVm = (ContainerVm) ev.getData();
-        Log.printLine(String.format("In processVmcreate in serverlessDC to create vm #%s", containerVm.getId()));
+        Log.formatLine(Log.Level.DEBUG, "In processVmcreate in serverlessDC to create vm #%s", containerVm.getId());
 
         boolean result = getVmAllocationPolicy().allocateHostForVm(containerVm);
 
@@ -265,6 +314,7 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
         if (result) {
             getContainerVmList().add((PowerContainerVm) containerVm);
+            ((FunctionScheduler) getContainerAllocationPolicy()).getVmCapacityIndex().addVm((ServerlessInvoker) containerVm);
 
             if (containerVm.isBeingInstantiated()) {
                 containerVm.setBeingInstantiated(false);
@@ -274,7 +324,7 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
             containerVm.updateVmProcessing(CloudSim.clock(), getVmAllocationPolicy().getHost(containerVm).getContainerVmScheduler()
                     .getAllocatedMipsForContainerVm(containerVm));
 
-            if(Constants.MONITORING) {
+            if(configuration.isMonitoring() && !configuration.isEventFreeCpuUsageMonitoring()) {
 
                 send(containerVm.getUserId(), Constants.CPU_USAGE_MONITORING_INTERVAL, CloudSimSCTags.RECORD_CPU_USAGE, containerVm);
             }
@@ -329,13 +379,13 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
                 ((ServerlessContainer) container).updateContainerProcessing(CloudSim.clock(), getContainerAllocationPolicy().getContainerVm(container).getContainerScheduler().getAllocatedMipsForContainer(container), vm);
                 vm.setFunctionContainerMapPending(container, ((ServerlessContainer) container).getType());
-                send(ev.getSource(), Constants.CONTAINER_STARTTUP_DELAY, containerCloudSimTags.CONTAINER_CREATE_ACK, data);
+                send(ev.getSource(), configuration.getContainerStartupDelay(), containerCloudSimTags.CONTAINER_CREATE_ACK, data);
 
             }
             else {
                 data[0] = -1;
                 //notAssigned.add(container);
-                Log.printLine(String.format("Couldn't find a vm to host the container #%s", container.getUid()));
+                Log.formatLine(Log.Level.WARN, "Couldn't find a vm to host the container #%s", container.getUid());
 
             }
 
@@ -344,6 +394,10 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
         @Override
         public void updateCloudletProcessing(){
+            if (configuration.isIncrementalCloudletProcessing()) {
+                updateCloudletProcessingIncrementally();
+                return;
+            }
 
             // if some time passed since last processing
             // R: for term is to allow loop at simulation start. Otherwise, one initial
@@ -367,7 +421,7 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
                 /**Destroy idling containers if this is a DC_EVENT       */
 
-                if(!Constants.FUNCTION_AUTOSCALING){
+                if(!configuration.isFunctionAutoscaling()){
                     destroyIdleContainers();
                 }
 
@@ -380,6 +434,57 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
 
         }
 
+    /**
+     * Updates the request processing of the VMs whose requests changed or are expected to finish by now, the
+     * other VMs catching up on their next update.
+     */
+    protected void updateCloudletProcessingIncrementally() {
+        double clock = CloudSim.clock();
+        for (ServerlessInvoker vm : vmProcessingTracker.pollVmsToUpdate(clock)) {
+            updateVmProcessing(vm);
+        }
+
+        scheduleNextProcessingUpdate();
+        setLastProcessTime(clock);
+
+        if(!configuration.isFunctionAutoscaling()){
+            destroyIdleContainers();
+        }
+    }
+
+    /**
+     * Schedules the processing update of the earliest expected request completion, unless an update is already
+     * scheduled by then.
+     */
+    protected void scheduleNextProcessingUpdate() {
+        double clock = CloudSim.clock();
+        double smallerTime = vmProcessingTracker.getNextCompletionTime();
+        if (smallerTime != Double.MAX_VALUE && (smallerTime < scheduledProcessingTime || scheduledProcessingTime <= clock)) {
+            schedule(getId(), (smallerTime - clock), CloudSimTags.VM_DATACENTER_EVENT);
+            scheduledProcessingTime = smallerTime;
+        }
+    }
+
+    /**
+     * Updates the request processing of a single VM up to the current time.
+     */
+    protected void updateVmProcessing(ServerlessInvoker vm) {
+        if (vm.getHost() == null) {
+            return;
+        }
+        double time = vm.updateVmProcessing(CloudSim.clock(), vm.getHost().getContainerVmScheduler().getAllocatedMipsForContainerVm(vm));
+        vmProcessingTracker.vmUpdated(vm, time);
+    }
+
+    /**
+     * Marks a VM whose requests changed, so that its processing is updated on the next update in incremental mode.
+     */
+    public void markVmProcessingDirty(ServerlessInvoker vm) {
+        if (configuration.isIncrementalCloudletProcessing()) {
+            vmProcessingTracker.markDirty(vm);
+        }
+    }
+
     @Override
     protected void processCloudletSubmit(SimEvent ev, boolean ack) {
         updateCloudletProcessing();
@@ -433,17 +538,30 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
             vm = (ServerlessInvoker)host.getContainerVm(vmId, userId);
             container = vm.getContainer(containerId, userId);
 
+            /** The VM may not be up to date in incremental mode, and the request progress starts from its last update */
+            if (configuration.isIncrementalCloudletProcessing()) {
+                updateVmProcessing(vm);
+            }
 
             estimatedFinishTime =((ServerlessRequestScheduler) container.getContainerCloudletScheduler()).requestSubmit(cl, vm, (ServerlessContainer)(container));
-            System.out.println("Est finish time of function# "+ cl.getCloudletId()+" at the beginning is "+ estimatedFinishTime);
+            if (Log.isLoggable(Log.Level.DEBUG)) {
+                Log.printConcatLine(Log.Level.DEBUG, "Est finish time of function# ", cl.getCloudletId(), " at the beginning is ", estimatedFinishTime);
+            }
 
 
             /**Remove the new request's container from removal list*/
             getContainersToDestroy().remove(container);
+            markVmProcessingDirty(vm);
             if (estimatedFinishTime > 0.0 && !Double.isInfinite(estimatedFinishTime)) {
                 estimatedFinishTime += fileTransferTime;
 
-                send(getId(), (estimatedFinishTime-CloudSim.clock()), CloudSimTags.VM_DATACENTER_EVENT);
+                if (configuration.isIncrementalCloudletProcessing()) {
+                    /** The update is only scheduled if the request is expected to finish before the next one */
+                    vmProcessingTracker.expectCompletion(vm, estimatedFinishTime);
+                    scheduleNextProcessingUpdate();
+                } else {
+                    send(getId(), (estimatedFinishTime-CloudSim.clock()), CloudSimTags.VM_DATACENTER_EVENT);
+                }
 
 
             }
@@ -452,19 +570,19 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
             sendNow(cl.getUserId(), tag, cl);
 
         } catch (ClassCastException c) {
-            Log.printLine(String.format("%s.processCloudletSubmit(): ClassCastException error.", getName()));
+            Log.formatLine(Log.Level.ERROR, "%s.processCloudletSubmit(): ClassCastException error.", getName());
             c.printStackTrace();
         } catch (Exception e) {
-            Log.printLine(String.format("%s.processCloudletSubmit(): Exception error.", getName()));
+            Log.formatLine(Log.Level.ERROR, "%s.processCloudletSubmit(): Exception error.", getName());
             e.printStackTrace();
         }
 
         checkCloudletCompletion();
-        if (Constants.FUNCTION_AUTOSCALING && !autoScalingInitialized){
+        if (configuration.isFunctionAutoscaling() && !autoScalingInitialized){
             autoScalingInitialized = true;
             autoScaler.scaleFunctions();
             destroyIdleContainers();
-            send(this.getId(), Constants.AUTO_SCALING_INTERVAL, CloudSimSCTags.AUTO_SCALE);
+            send(this.getId(), configuration.getAutoScalingInterval(), CloudSimSCTags.AUTO_SCALE);
         }
 
 
@@ -481,31 +599,20 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
     @Override
 
     protected void checkCloudletCompletion() {
-        List<? extends ContainerHost> list = getVmAllocationPolicy().getContainerHostList();
-        for (int i = 0; i < list.size(); i++) {
-            ContainerHost host = list.get(i);
-            for (ContainerVm vm : host.getVmList()) {
-                for (Container container : vm.getContainerList()) {
-                    while (container.getContainerCloudletScheduler().isFinishedCloudlets()) {
-                        Cloudlet cl = container.getContainerCloudletScheduler().getNextFinishedCloudlet();
-                        if (cl != null) {
-                            Map.Entry<Cloudlet, ContainerVm> data =  new AbstractMap.SimpleEntry<>(cl, vm);
-//                            Pair data = new Pair<>(cl, vm);
-                            for(int x=0; x<((ServerlessInvoker)vm).getRunningRequestList().size();x++){
-                                if(((ServerlessInvoker)vm).getRunningRequestList().get(x)==(ServerlessRequest)cl){
-                                    ((ServerlessInvoker)vm).getRunningRequestList().remove(x);
-                                }
-                            }
-
-                            sendNow(cl.getUserId(), CloudSimTags.CLOUDLET_RETURN, data);
-//                            removeFromVmTaskMap((ServerlessRequest)cl,(ServerlessInvoker)vm);
-                        }
-                    }
-                }
-            }
+        while (!finishedRequests.isEmpty()) {
+            Map.Entry<Cloudlet, ContainerVm> data = finishedRequests.poll();
+            ((ServerlessInvoker) data.getValue()).getRunningRequests().remove(data.getKey());
+            sendNow(data.getKey().getUserId(), CloudSimTags.CLOUDLET_RETURN, data);
         }
     }
 
+    /**
+     * Adds a request that finished on a VM to the completion queue, to be returned on the next completion check.
+     */
+    public void addFinishedRequest(ServerlessRequest request, ServerlessInvoker vm) {
+        finishedRequests.add(new AbstractMap.SimpleEntry<>(request, vm));
+    }
+
     /** Destroy idling containers*/
     protected void destroyIdleContainers() {
         while (!getContainersToDestroy().isEmpty()) {
@@ -514,11 +621,11 @@ public class ServerlessDatacenter extends PowerContainerDatacenterCM {
                     ((ServerlessContainer)getContainersToDestroy().get(x)).setIdleStartTime(0);
                     continue;
                 }
-                if(!Constants.CONTAINER_IDLING_ENABLED){
+                if(!configuration.isContainerIdlingEnabled()){
                     sendNow(getId(), CloudSimTags.CONTAINER_DESTROY_ACK, getContainersToDestroy().get(x));
                 }
                 else {
-                    send(getId(), Constants.CONTAINER_IDLING_TIME, CloudSimTags.CONTAINER_DESTROY_ACK, getContainersToDestroy().get(x));
+                    send(getId(), configuration.getContainerIdlingTime(), CloudSimTags.CONTAINER_DESTROY_ACK, getContainersToDestroy().get(x));
                 }
 
             }
@@ -38,7 +38,10 @@ public class ServerlessInvoker extends PowerContainerVm {
      */
 
     private Stack<ServerlessRequest> runningrequestStack = new Stack<ServerlessRequest>();
-    private  ArrayList<ServerlessRequest> runningrequestList = new ArrayList<>();
+    /**
+     * The requests in execution, removed in constant time when they finish
+     */
+    private  Set<ServerlessRequest> runningRequests = new LinkedHashSet<>();
 
     /**
      * The task  map of vm - contains the function type and the task
@@ -61,6 +64,10 @@ public class ServerlessInvoker extends PowerContainerVm {
     public double onTime = 0;
     public double offTime  = 0;
     public boolean used = false;
+    /**
+     * The index of the free capacity of the VMs the VM is in, if any
+     */
+    private VmCapacityIndex capacityIndex;
 
 
 
@@ -75,8 +82,8 @@ public class ServerlessInvoker extends PowerContainerVm {
     public String getStatus(){
         return status;
     }
-    public ArrayList<ServerlessRequest> getRunningRequestList() {
-        return runningrequestList;
+    public Set<ServerlessRequest> getRunningRequests() {
+        return runningRequests;
     }
 
     public void setStatus(String vmStatus){
@@ -106,6 +113,7 @@ public class ServerlessInvoker extends PowerContainerVm {
 
 
         }
+        getFunctionReplicaSet(functionId).addContainer((ServerlessContainer) container, getHost().getId(), getId());
     }
     public void setFunctionContainerMapPending(Container container, String functionId){
         //System.out.println("Debug: Before: Set map "+ this.getId()+" "+functionContainerMap);
@@ -122,6 +130,14 @@ public class ServerlessInvoker extends PowerContainerVm {
 
 
         }
+        getFunctionReplicaSet(functionId).addPendingContainer((ServerlessContainer) container);
+    }
+
+    /**
+     * Gets the replica set of a function in the datacenter of the VM.
+     */
+    protected FunctionReplicaSet getFunctionReplicaSet(String functionId) {
+        return ((ServerlessDatacenter) getHost().getDatacenter()).getFunctionReplicaSet(functionId);
     }
 
 //    @Override
@@ -133,6 +149,32 @@ public class ServerlessInvoker extends PowerContainerVm {
                 .isSuitableForContainer(container, container.getCurrentRequestedBw()));
     }
 
+    /**
+     * Checks if the VM has the resources to create a container, without logging.
+     */
+    public boolean fitsContainer(Container container) {
+        return ((ServerlessContainerScheduler) getContainerScheduler()).fitsContainer(container)
+                && getContainerRamProvisioner().isSuitableForContainer(container, container.getCurrentRequestedRam())
+                && getContainerBwProvisioner().isSuitableForContainer(container, container.getCurrentRequestedBw());
+    }
+
+    public VmCapacityIndex getCapacityIndex() {
+        return capacityIndex;
+    }
+
+    void setCapacityIndex(VmCapacityIndex capacityIndex) {
+        this.capacityIndex = capacityIndex;
+    }
+
+    /**
+     * Updates the capacity index of the VM after its resources were allocated or deallocated.
+     */
+    void capacityChanged() {
+        if (capacityIndex != null) {
+            capacityIndex.update(this);
+        }
+    }
+
     public void addToVmTaskExecutionMap(ServerlessRequest task, ServerlessInvoker vm){
 
         /** Adding to full task map **/
@@ -210,12 +252,13 @@ public class ServerlessInvoker extends PowerContainerVm {
             return false;
         }
         /**Debugging */
-        System.out.println("Debugging: Now available MIPS of VM "+ this.getId()+" is "+getAvailableMips());
+        Log.printLine(Log.Level.DEBUG, () -> "Debugging: Now available MIPS of VM "+ this.getId()+" is "+getAvailableMips());
 
         setSize(getSize() - container.getSize());
         //System.out.println("*************************************** "+container.getId());
         getContainerList().add(container);
         container.setVm(this);
+        capacityChanged();
         return true;
     }
 
@@ -225,6 +268,7 @@ public class ServerlessInvoker extends PowerContainerVm {
         //Log.printLine("Vm:  Destroy Container:.... " + container.getId());
         if (container != null) {
             containerDeallocate(container);
+            capacityChanged();
 //            Log.printConcatLine("The Container To remove is :   ", container.getId(), "Size before removing is ", getContainerList().size(), "  vm ID is: ", getId());
             getContainerList().remove(container);
 
@@ -236,6 +280,7 @@ public class ServerlessInvoker extends PowerContainerVm {
                     //System.out.println(entry.getValue().size());
                     if(entry.getValue().get(i)==container){
                         entry.getValue().remove(i);
+                        getFunctionReplicaSet(entry.getKey()).removeContainer((ServerlessContainer) container);
 
                         if(entry.getValue().size()==0){
                             functionsToRemove.add(entry.getKey());
@@ -251,6 +296,10 @@ public class ServerlessInvoker extends PowerContainerVm {
                 getFunctionContainerMap().remove(functionsToRemove.get(x));
             }
             while(getFunctionContainerMap().values().remove(null)){};
+            WarmContainerIndex.Entry warmContainerEntry = ((ServerlessRequestScheduler) container.getContainerCloudletScheduler()).getWarmContainerEntry();
+            if (warmContainerEntry != null) {
+                warmContainerEntry.getIndex().remove((ServerlessContainer) container);
+            }
             //System.out.println("Debug: Invoker:after: Function containermap "+ getFunctionContainerMap());
             Log.printLine("ContainerVm# "+getId()+" containerDestroy:......" + container.getId() + "Is deleted from the list");
 
@@ -260,7 +309,7 @@ public class ServerlessInvoker extends PowerContainerVm {
 //                getContainerList().remove(container);
             }
 //            container.setVm(null);
-            System.out.println("Container# "+container.getId()+" is destroyed. Now redistribute");
+            Log.printLine(Log.Level.DEBUG, () -> "Container# "+container.getId()+" is destroyed. Now redistribute");
             /*** OW ImplementATION ***/
 //            ((ServerlessDatacenter)(this.getHost().getDatacenter())).reprovisionMipsToAllContainers(this);
 //            ((ServerlessDatacenter)(this.getHost().getDatacenter())).reprovisionMipsToAllContainersLinux(this);
@@ -291,6 +340,7 @@ public class ServerlessInvoker extends PowerContainerVm {
 //        Log.printLine("Vm: update Vms Processing at " + currentTime);
         if (mipsShare != null && !getContainerList().isEmpty()) {
             double smallerTime = Double.MAX_VALUE;
+            ServerlessConfiguration configuration = ((ServerlessDatacenter) getHost().getDatacenter()).getConfiguration();
 //            Log.printLine("ContainerVm: update Vms Processing");
 //            Log.printLine("The VM list size is:...." + getContainerList().size());
 
@@ -298,10 +348,10 @@ public class ServerlessInvoker extends PowerContainerVm {
                 double time = ((ServerlessContainer) container).updateContainerProcessing(currentTime, getContainerScheduler().getAllocatedMipsForContainer(container), this);
 
                 /** If no future event, destroy this container if auto-scaling is not enabled*/
-                if((time==0 || time == Double.MAX_VALUE) && !Constants.FUNCTION_AUTOSCALING){
+                if((time==0 || time == Double.MAX_VALUE) && !configuration.isFunctionAutoscaling()){
                     if (!((ServerlessContainer) container).newContainer && !((ServerlessContainer) container).getIdling()) {
                             ((ServerlessDatacenter)(this.getHost().getDatacenter())).getContainersToDestroy().add(container);
-                            if (Constants.CONTAINER_IDLING_ENABLED) {
+                            if (configuration.isContainerIdlingEnabled()) {
                                 ((ServerlessContainer) container).setIdleStartTime(CloudSim.clock());
                                 ((ServerlessContainer) container).setIdling(true);
                             }
@@ -356,12 +406,12 @@ public class ServerlessInvoker extends PowerContainerVm {
     public boolean reallocateResourcesForContainer(Container container, int cpuChange, int memChange){
         /*float newRam = container.getCurrentAllocatedRam()+Constants.RAM_INCREMENT;
         double newMIPS = newRam / this.getRam() * this.getTotalMips();*/
-        System.out.println("Container #"+container.getId()+" originally has "+container.getMips()+" MIPS and "+container.getRam()+" ram");
+        Log.printLine(Log.Level.DEBUG, () -> "Container #"+container.getId()+" originally has "+container.getMips()+" MIPS and "+container.getRam()+" ram");
 
         float newRam = (float)(container.getRam()+ memChange);
         double newMIPS= container.getMips() + cpuChange;
-        System.out.println("Vm Available ram : "+getContainerRamProvisioner().getAvailableVmRam()+" Requested new additional ram for container: "+memChange);
-        System.out.println("Vm Available  MIPS : "+this.getAvailableMips()+" Requested additional MIPS: "+ cpuChange*container.getNumberOfPes());
+        Log.printLine(Log.Level.DEBUG, () -> "Vm Available ram : "+getContainerRamProvisioner().getAvailableVmRam()+" Requested new additional ram for container: "+memChange);
+        Log.printLine(Log.Level.DEBUG, () -> "Vm Available  MIPS : "+this.getAvailableMips()+" Requested additional MIPS: "+ cpuChange*container.getNumberOfPes());
 
         if(container.getMips()+cpuChange>this.getMips()){
             return false;
@@ -375,7 +425,7 @@ public class ServerlessInvoker extends PowerContainerVm {
                 return false;
             }
             if (!(this.getAvailableMips() >= cpuChange*container.getNumberOfPes())) {
-                System.out.println("Vm MIPS not enough to reallocate");
+                Log.printLine(Log.Level.DEBUG, "Vm MIPS not enough to reallocate");
                 return false;
             }
             if (!getContainerRamProvisioner().allocateRamForContainer(container, newRam)) {
@@ -392,7 +442,7 @@ public class ServerlessInvoker extends PowerContainerVm {
                 return false;
             }
 
-            System.out.println("Debugging: Reallocated resources to container. Now available MIPS of VM #" + this.getId() + " is " + getAvailableMips());
+            Log.printLine(Log.Level.DEBUG, () -> "Debugging: Reallocated resources to container. Now available MIPS of VM #" + this.getId() + " is " + getAvailableMips());
             container.setRam(Math.round(newRam));
             ((ServerlessRequestScheduler) container.getContainerCloudletScheduler()).setTotalMips(newMIPS);
             return true;
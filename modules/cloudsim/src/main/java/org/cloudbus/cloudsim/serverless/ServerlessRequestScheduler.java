@@ -17,11 +17,15 @@ import java.util.List;
  */
 
 public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynamicWorkload {
+    /** The rounding error tolerated on the PEs used by the running requests. */
+    private static final double PE_SHARE_TOLERANCE = 1e-9;
     int x=0;
     private double longestRunTimeContainer = 0;
     private double containerQueueTime = 0;
     protected int currentCpus=0;
     protected int usedPes=0;
+    /** The PEs used by the running requests, each request using its CPU share of its PEs. */
+    private double usedPeShare = 0;
     /** The total current mips requested from each pe by all requests allocated to this container. */
     private double totalCurrentRequestedMipsShareForRequests ;
     /** The total current mips allocated to all requests running in this container from each pe. */
@@ -31,10 +35,23 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
     private double totalCurrentRequestedRamForRequests ;
     /** The total current ram allocated to all requests running in this container. */
     private double totalCurrentAllocatedRamForRequests;
+    /** The position of the container in the warm container index of its controller, if it is indexed. */
+    private WarmContainerIndex.Entry warmContainerEntry;
+    /** The position of the container in the replica set of its function, once the container is created. */
+    private FunctionReplicaSet.Entry replicaSetEntry;
+    /** The requests waiting for a free PE, in promotion order. */
+    private final RequestQueue waitingQueue;
+    /** The configuration of the run. */
+    private final ServerlessConfiguration configuration;
 
     public ServerlessRequestScheduler(double mips, int numberOfPes) {
-        super(mips,numberOfPes);
+        this(mips, numberOfPes, new ServerlessConfiguration());
+    }
 
+    public ServerlessRequestScheduler(double mips, int numberOfPes, ServerlessConfiguration configuration) {
+        super(mips,numberOfPes);
+        this.configuration = configuration;
+        waitingQueue = new RequestQueue(configuration.getRequestPromotionPolicy());
     }
     public boolean setTotalCurrentRequestedMipsShareForRequests(ServerlessRequest cl) {
         if ((cl.getNumberOfPes() <= getNumberOfPes()) && (cl.getUtilizationOfCpu() <= 1 - totalCurrentRequestedMipsShareForRequests)){
@@ -46,7 +63,10 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
         }
     }
     public void setTotalCurrentAllocatedMipsShareForRequests(ServerlessRequest cl) {
+     double previousShare = totalCurrentAllocatedMipsShareForRequests;
      totalCurrentAllocatedMipsShareForRequests += cl.getUtilizationOfCpu();
+     updateAllocatedMipsShare(previousShare);
+     updateWarmContainerEntry();
     }
     public boolean setTotalCurrentRequestedRamForRequests(ServerlessRequest cl, ServerlessContainer cont) {
         double currentRequested = totalCurrentRequestedRamForRequests;
@@ -62,16 +82,29 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
 
     public void setTotalCurrentAllocatedRamForRequests(ServerlessRequest cl) {
         totalCurrentAllocatedRamForRequests += cl.getContainerMemory()*cl.getUtilizationOfRam();
+        updateWarmContainerEntry();
     }
     public boolean isSuitableForRequest(ServerlessRequest cl, ServerlessContainer cont) {
-        Log.printLine(String.format("Current allocated ram of cont #%s is #%s and requested ram of cl #%s is %s", cont.getId(), totalCurrentAllocatedRamForRequests, cl.getCloudletId(), cl.getContainerMemory()*cl.getUtilizationOfRam()));
-        Log.printLine(String.format("Current allocated mips of cont #%s is #%s and requested mips of cl #%s is %s", cont.getId(), totalCurrentAllocatedMipsShareForRequests, cl.getCloudletId(), cl.getUtilizationOfCpu()));
+        if (Log.isLoggable(Log.Level.DEBUG)) {
+            Log.formatLine(Log.Level.DEBUG, "Current allocated ram of cont #%s is #%s and requested ram of cl #%s is %s", cont.getId(), totalCurrentAllocatedRamForRequests, cl.getCloudletId(), cl.getContainerMemory()*cl.getUtilizationOfRam());
+            Log.formatLine(Log.Level.DEBUG, "Current allocated mips of cont #%s is #%s and requested mips of cl #%s is %s", cont.getId(), totalCurrentAllocatedMipsShareForRequests, cl.getCloudletId(), cl.getUtilizationOfCpu());
+        }
+        return fitsRequest(cl, cont);
+    }
+
+    /**
+     * Checks if the unallocated resources of the container fit a request, without logging.
+     */
+    public boolean fitsRequest(ServerlessRequest cl, ServerlessContainer cont) {
         return (cl.getContainerMemory() * cl.getUtilizationOfRam() <= (cont.getRam() - totalCurrentAllocatedRamForRequests)) && (cl.getNumberOfPes() <= getNumberOfPes()) && (cl.getUtilizationOfCpu() <= 1 - totalCurrentAllocatedMipsShareForRequests);
     }
 
     public void deAllocateResources(ServerlessRequest cl){
+        double previousShare = totalCurrentAllocatedMipsShareForRequests;
         totalCurrentAllocatedRamForRequests -= cl.getContainerMemory()*cl.getUtilizationOfRam();
         totalCurrentAllocatedMipsShareForRequests -= cl.getUtilizationOfCpu();
+        updateAllocatedMipsShare(previousShare);
+        updateWarmContainerEntry();
 
     }
     public double getTotalCurrentRequestedMipsShareForRequests() {
@@ -91,6 +124,34 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
                 + ((rcl.getRemainingCloudletLength()) / (cl.getNumberOfPes()*this.getMips()*cl.getUtilizationOfCpu()));
     }
 
+    WarmContainerIndex.Entry getWarmContainerEntry() {
+        return warmContainerEntry;
+    }
+
+    void setWarmContainerEntry(WarmContainerIndex.Entry warmContainerEntry) {
+        this.warmContainerEntry = warmContainerEntry;
+    }
+
+    FunctionReplicaSet.Entry getReplicaSetEntry() {
+        return replicaSetEntry;
+    }
+
+    void setReplicaSetEntry(FunctionReplicaSet.Entry replicaSetEntry) {
+        this.replicaSetEntry = replicaSetEntry;
+    }
+
+    private void updateAllocatedMipsShare(double previousShare) {
+        if (replicaSetEntry != null) {
+            replicaSetEntry.getReplicaSet().updateAllocatedMipsShare(previousShare, totalCurrentAllocatedMipsShareForRequests);
+        }
+    }
+
+    private void updateWarmContainerEntry() {
+        if (warmContainerEntry != null) {
+            warmContainerEntry.update();
+        }
+    }
+
     public double getLongestRunTime() {
         return longestRunTimeContainer;
     }
@@ -99,25 +160,57 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
         return containerQueueTime;
     }
 
+    public RequestQueue getWaitingQueue() {
+        return waitingQueue;
+    }
+
 //    Is called each time a request is finally submitted to DC
+    /**
+     * Submits a request to the container. With {@link ServerlessConfiguration#isRequestPeAdmission()}, the request
+     * waits in the waiting queue if the running requests leave too few free PEs for it, and is promoted by
+     * {@link #updateContainerProcessing} once they finish. Otherwise it always starts.
+     *
+     * @return the estimated finish time of the request, or 0 if it waits
+     */
     public double requestSubmit(ServerlessRequest cl, ServerlessInvoker vm, ServerlessContainer cont) {
-        if (!Constants.CONTAINER_CONCURRENCY || Constants.SCALE_PER_REQUEST){
+        if (!configuration.isContainerConcurrency() || configuration.isScalePerRequest()){
         setTotalCurrentAllocatedMipsShareForRequests(cl);
         setTotalCurrentAllocatedRamForRequests(cl);
         }
         ResCloudlet rcl = new ResCloudlet(cl);
+        if (configuration.isRequestPeAdmission() && !hasFreePes(cl)) {
+            rcl.setCloudletStatus(Cloudlet.QUEUED);
+            waitingQueue.add(rcl);
+            return 0.0;
+        }
+        startRequest(rcl, vm);
+        //System.out.println("request "+cl.getrequestId()+" is added to exec list of container "+ ((ServerlessRequest) cl).getContainerId());;
+        return getEstimatedFinishTime(rcl, getPreviousTime());
+    }
+
+    /**
+     * Checks if the PEs left free by the running requests fit a request.
+     */
+    protected boolean hasFreePes(ServerlessRequest cl) {
+        return usedPeShare + getPeShare(cl) <= getNumberOfPes() + PE_SHARE_TOLERANCE;
+    }
+
+    private static double getPeShare(ServerlessRequest cl) {
+        return cl.getNumberOfPes() * cl.getUtilizationOfCpu();
+    }
+
+    private void startRequest(ResCloudlet rcl, ServerlessInvoker vm) {
+        ServerlessRequest cl = (ServerlessRequest) rcl.getCloudlet();
         rcl.setCloudletStatus(Cloudlet.INEXEC);
-        vm.getRunningRequestList(). add((ServerlessRequest) cl);
-        rcl.setCloudletStatus(Cloudlet.INEXEC);
-        vm.getRunningRequestList(). add((ServerlessRequest) cl);
+        vm.getRunningRequests().add(cl);
         for (int i = 0; i < cl.getNumberOfPes(); i++) {
             rcl.setMachineAndPeId(0, i);
         }
         getCloudletExecList().add(rcl);
-        //System.out.println("request "+cl.getrequestId()+" is added to exec list of container "+ ((ServerlessRequest) cl).getContainerId());;
         usedPes += cl.getNumberOfPes();
-        vm.addToVmTaskExecutionMap((ServerlessRequest)cl,vm);
-        return getEstimatedFinishTime(rcl, getPreviousTime());
+        usedPeShare += getPeShare(cl);
+        /** To enable average latency of application */
+        vm.addToVmTaskExecutionMap(cl,vm);
     }
 
     public double updateContainerProcessing(double currentTime, List<Double> mipsShare, ServerlessInvoker vm) {
@@ -143,65 +236,28 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
                     * rcl.getCloudlet().getNumberOfPes()*((ServerlessRequest)(rcl.getCloudlet())).getUtilizationOfCpu()*((ServerlessRequest)(rcl.getCloudlet())).getContainerMIPS()*Consts.MILLION));
 
         }
-        if (getCloudletExecList().size() == 0 && getCloudletWaitingList().size() == 0) {
+        if (getCloudletExecList().size() == 0 && waitingQueue.isEmpty()) {
 
             setPreviousTime(currentTime);
             return 0.0;
         }
 
-        int finished = 0;
-        int pesFreed = 0;
         for (ResCloudlet rcl : getCloudletExecList()) {
             // finished anyway, rounding issue...
             if (rcl.getRemainingCloudletLength() == 0) { // finished: remove from the list
                 requestsToFinish.add(rcl);
-                finished++;
-                pesFreed+=rcl.getNumberOfPes();
             }
         }
-        usedPes -=pesFreed;
 
         for (ResCloudlet rgl : requestsToFinish) {
             getCloudletExecList().remove(rgl);
-            cloudletFinish(rgl);
+            releasePes(rgl);
+            requestFinish(rgl, vm);
         }
 
-        List<ResCloudlet> toRemove = new ArrayList<ResCloudlet>();
-        if (!getCloudletWaitingList().isEmpty()) {
-            for (int i = 0; i < finished; i++) {
-                toRemove.clear();
-                for (ResCloudlet rcl : getCloudletWaitingList()) {
-                    if ((currentCpus - usedPes) >= rcl.getNumberOfPes()) {
-//                        if(rcl.getCloudlet().getCloudletId()==815){
-//                            System.out.println(CloudSim.clock()+" request #815 running: Debug");
-//                        }
-                        rcl.setCloudletStatus(Cloudlet.INEXEC);
-                        //vm.getRunningrequestStack().push((ServerlessRequest) rcl.getrequest());
-                        boolean added = false;
-                        for(int x=0; x< vm.getRunningRequestList().size(); x++){
-                            if((((ServerlessRequest) rcl.getCloudlet()).getArrivalTime()+((ServerlessRequest) rcl.getCloudlet()).getMaxExecTime()<=vm.getRunningRequestList().get(x).getArrivalTime()+vm.getRunningRequestList().get(x).getMaxExecTime())){
-                                vm.getRunningRequestList().add(x,((ServerlessRequest) rcl.getCloudlet()));
-                                added = true;
-                                break;
-                            }
-                        }
-                        if(added == false){
-                            vm.getRunningRequestList(). add((ServerlessRequest) rcl.getCloudlet());
-                        }
-                        for (int k = 0; k < rcl.getNumberOfPes(); k++) {
-                            rcl.setMachineAndPeId(0, i);
-                        }
-                        getCloudletExecList().add(rcl);
-
-                        /** To enable average latency of application */
-                        vm.addToVmTaskExecutionMap((ServerlessRequest)rcl.getCloudlet(),vm);
-                        usedPes += rcl.getNumberOfPes();
-                        toRemove.add(rcl);
-                        break;
-                    }
-                }
-                getCloudletWaitingList().removeAll(toRemove);
-            }
+        /** Promotes the waiting requests to the freed PEs, the next request according to the promotion policy first */
+        while (!waitingQueue.isEmpty() && hasFreePes((ServerlessRequest) waitingQueue.peek().getCloudlet())) {
+            startRequest(waitingQueue.poll(), vm);
         }
 
 
@@ -219,7 +275,7 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
             }
         }
 
-        for (ResCloudlet rcl : getCloudletWaitingList()) {
+        for (ResCloudlet rcl : waitingQueue) {
             ServerlessRequest task = (ServerlessRequest)(rcl.getCloudlet());
             containerQueueTime += task.getMaxExecTime();
             /** Record the longest remaining execution time of the container*/
@@ -240,6 +296,25 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
         return nextEvent;
     }
 
+    private void releasePes(ResCloudlet rcl) {
+        usedPes -= rcl.getNumberOfPes();
+        usedPeShare -= getPeShare((ServerlessRequest) rcl.getCloudlet());
+        if (getCloudletExecList().isEmpty()) {
+            // no rounding error is kept once the container has no running request
+            usedPeShare = 0;
+        }
+    }
+
+    /**
+     * Finishes a request and pushes it onto the completion queue of the datacenter, instead of keeping it in the
+     * finished list of the scheduler until the datacenter goes through all the containers.
+     */
+    protected void requestFinish(ResCloudlet rcl, ServerlessInvoker vm) {
+        rcl.setCloudletStatus(Cloudlet.SUCCESS);
+        rcl.finalizeCloudlet();
+        ((ServerlessDatacenter) vm.getHost().getDatacenter()).addFinishedRequest((ServerlessRequest) rcl.getCloudlet(), vm);
+    }
+
     @Override
     public Cloudlet cloudletCancel(int requestId) {
         boolean found = false;
@@ -271,6 +346,7 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
 
         if (found) {
             ResCloudlet rcl = getCloudletExecList().remove(position);
+            releasePes(rcl);
             if (rcl.getRemainingCloudletLength() == 0) {
                 cloudletFinish(rcl);
             } else {
@@ -280,19 +356,18 @@ public class ServerlessRequestScheduler extends ContainerCloudletSchedulerDynami
         }
 
 
-        // Then searches in the waiting list
-        position = 0;
-        found = false;
-        for (ResCloudlet rcl : getCloudletWaitingList()) {
+        // Then searches in the waiting queue
+        ResCloudlet waiting = null;
+        for (ResCloudlet rcl : waitingQueue) {
             if (rcl.getCloudletId() == requestId) {
-                found = true;
+                waiting = rcl;
                 break;
             }
-            position++;
         }
 
-        if (found) {
-            ResCloudlet rcl = getCloudletWaitingList().remove(position);
+        if (waiting != null) {
+            ResCloudlet rcl = waiting;
+            waitingQueue.remove(rcl);
             if (rcl.getRemainingCloudletLength() == 0) {
                 cloudletFinish(rcl);
             } else {
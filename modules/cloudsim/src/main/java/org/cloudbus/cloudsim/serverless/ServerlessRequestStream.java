@@ -0,0 +1,237 @@
+package org.cloudbus.cloudsim.serverless;
+
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.container.utils.IDs;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+/**
+ * Streaming source of serverless requests read from a trace file. Instead of creating all the requests
+ * of the trace before the simulation starts, the requests are created on demand and at most a window of
+ * them is kept in memory, so the memory needed does not depend on the length of the trace.
+ *
+ * Each line of the trace has the format used by {@link CloudSimSCExample1}:
+ * arrival time, function id, request length, number of PEs, container memory, container MIPS,
+ * CPU share and memory share. As the controller only schedules the arrival of the next request when the
+ * previous one arrives, the requests are taken from the stream in order of arrival time: the requests in the
+ * window are sorted, so that a trace whose requests are at most a window away from their place is reordered
+ * while it is read. Before the first request is taken, the arrival times of the trace are checked and, if the
+ * window is too small to sort them, the whole trace is read into the window instead.
+ * Traces converted to the binary format of {@link ServerlessTraceFile} are also accepted, in which
+ * case they are memory-mapped and the requests are created without parsing any text.
+ */
+
+public class ServerlessRequestStream implements AutoCloseable {
+
+    private final String fileName;
+    private final BufferedReader reader;
+    /**
+     * The binary trace the requests are taken from, if the trace is not a text file
+     */
+    private final ServerlessTraceFile trace;
+    /**
+     * The maximum number of requests read ahead of the simulation
+     */
+    private final int windowSize;
+    /**
+     * The requests read from the trace and not yet taken, sorted by arrival time and then by the order they
+     * were read in
+     */
+    private final PriorityQueue<ServerlessRequest> window;
+    /**
+     * Whether the window is not large enough to sort the trace, so that the whole trace is read into it
+     */
+    private boolean eager = false;
+    private boolean orderChecked = false;
+    private final int userId;
+    private final long fileSize;
+    private final long outputSize;
+    private boolean endOfTrace = false;
+    private int lineNumber = 0;
+
+    public ServerlessRequestStream(String fileName, int userId, int windowSize) throws IOException {
+        this(fileName, userId, windowSize, 300L, 300L);
+    }
+
+    public ServerlessRequestStream(String fileName, int userId, int windowSize, long fileSize, long outputSize) throws IOException {
+        if (windowSize < 1) {
+            throw new IllegalArgumentException("The window size has to be at least 1.");
+        }
+        if (ServerlessTraceFile.isBinaryTrace(fileName)) {
+            this.trace = new ServerlessTraceFile(fileName);
+            this.reader = null;
+        } else {
+            this.trace = null;
+            this.reader = new BufferedReader(new FileReader(fileName));
+        }
+        this.fileName = fileName;
+        this.windowSize = windowSize;
+        this.window = new PriorityQueue<>(windowSize, Comparator.comparingDouble(ServerlessRequest::getArrivalTime)
+                .thenComparingInt(ServerlessRequest::getCloudletId));
+        this.userId = userId;
+        this.fileSize = fileSize;
+        this.outputSize = outputSize;
+    }
+
+    /**
+     * Checks if there are more requests in the trace.
+     */
+    public boolean hasNext() {
+        fillWindow();
+        return !window.isEmpty();
+    }
+
+    /**
+     * Gets the next request without taking it from the stream.
+     *
+     * @return the next request or null if the trace has ended
+     */
+    public ServerlessRequest peek() {
+        fillWindow();
+        return window.peek();
+    }
+
+    /**
+     * Takes the next request from the stream.
+     *
+     * @return the next request or null if the trace has ended
+     */
+    public ServerlessRequest next() {
+        fillWindow();
+        return window.poll();
+    }
+
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Checks if the window is too small to sort the trace, so that the whole trace is read into memory.
+     */
+    public boolean isEager() {
+        fillWindow();
+        return eager;
+    }
+
+    @Override
+    public void close() throws IOException {
+        endOfTrace = true;
+        window.clear();
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    /**
+     * Reads the trace until the window is full, or until its end if the window is too small to sort it.
+     */
+    private void fillWindow() {
+        if (!orderChecked) {
+            orderChecked = true;
+            eager = !fitsWindow();
+            if (eager) {
+                Log.printLine(Log.Level.WARN, "The requests of " + fileName + " are more than " + windowSize
+                        + " requests away from their order of arrival: reading the whole trace");
+            }
+        }
+        int limit = eager ? Integer.MAX_VALUE : windowSize;
+        if (window.size() >= limit || endOfTrace) {
+            return;
+        }
+        if (trace != null) {
+            while (window.size() < limit && lineNumber < trace.size()) {
+                window.add(trace.createRequest(lineNumber++, userId, fileSize, outputSize));
+            }
+            endOfTrace = lineNumber == trace.size();
+            return;
+        }
+        try {
+            String line;
+            while (window.size() < limit && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (!line.trim().isEmpty()) {
+                    window.add(createRequest(line));
+                }
+            }
+            if (window.size() < limit) {
+                endOfTrace = true;
+                reader.close();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the request trace at line " + lineNumber, e);
+        }
+    }
+
+    /**
+     * Checks if taking the requests from a window of {@link #windowSize} requests sorts the trace, by replaying
+     * the arrival times of the trace through such a window. Lines that cannot be parsed are skipped here, and
+     * reported when their request is created.
+     */
+    private boolean fitsWindow() {
+        PriorityQueue<Double> arrivals = new PriorityQueue<>(windowSize);
+        double lastArrivalTime = Double.NEGATIVE_INFINITY;
+        if (trace != null) {
+            for (int i = 0; i < trace.size(); i++) {
+                arrivals.add(trace.getArrivalTime(i));
+                if (arrivals.size() == windowSize && Double.isNaN(lastArrivalTime = takeArrival(arrivals, lastArrivalTime))) {
+                    return false;
+                }
+            }
+        } else {
+            try (BufferedReader arrivalReader = new BufferedReader(new FileReader(fileName))) {
+                String line;
+                while ((line = arrivalReader.readLine()) != null) {
+                    int end = line.indexOf(',');
+                    try {
+                        arrivals.add(Double.parseDouble(end < 0 ? line : line.substring(0, end)));
+                    } catch (NumberFormatException e) {
+                        continue;
+                    }
+                    if (arrivals.size() == windowSize && Double.isNaN(lastArrivalTime = takeArrival(arrivals, lastArrivalTime))) {
+                        return false;
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read the request trace " + fileName, e);
+            }
+        }
+        while (!arrivals.isEmpty()) {
+            if (Double.isNaN(lastArrivalTime = takeArrival(arrivals, lastArrivalTime))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the earliest arrival time of the window.
+     *
+     * @return the arrival time taken, or NaN if it is earlier than the previous one
+     */
+    private static double takeArrival(PriorityQueue<Double> arrivals, double lastArrivalTime) {
+        double arrivalTime = arrivals.poll();
+        return arrivalTime < lastArrivalTime ? Double.NaN : arrivalTime;
+    }
+
+    private ServerlessRequest createRequest(String line) {
+        String[] data = line.split(",");
+        // Serverless requests could utilize part of a vCPU core in case container concurrency is enabled
+        UtilizationModelPartial utilizationModelPar = new UtilizationModelPartial();
+        UtilizationModelFull utilizationModel = new UtilizationModelFull();
+        ServerlessRequest request;
+        try {
+            request = new ServerlessRequest(IDs.pollId(ServerlessRequest.class), Double.parseDouble(data[0]), data[1], Long.parseLong(data[2]), Integer.parseInt(data[3]), Integer.parseInt(data[4]), Long.parseLong(data[5]), Double.parseDouble(data[6]), Double.parseDouble(data[7]),
+                    fileSize, outputSize, utilizationModelPar, utilizationModelPar, utilizationModel, 0, true);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid request at line " + lineNumber + " of the trace: " + line, e);
+        }
+        request.setUserId(userId);
+        return request;
+    }
+}
@@ -3,6 +3,8 @@
  */
 package org.cloudbus.cloudsim.serverless;
 
+import java.util.HashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.ArrayList;
@@ -12,8 +14,17 @@ import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
 import org.cloudbus.cloudsim.Datacenter;
 import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
 import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
 import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
 
 public class ServerlessSimulation {
     
@@ -27,7 +38,7 @@ public class ServerlessSimulation {
             CloudSim.init(num_user, calendar, trace_flag);
             
             // Create datacenter
-            ServerlessDatacenter datacenter = createDatacenter();
+            Datacenter datacenter = createDatacenter("ServerlessDatacenter");
             
             // Create broker
             DatacenterBroker broker = createBroker();
@@ -42,19 +53,25 @@ public class ServerlessSimulation {
             );
             
             // Generate cloudlets from workload
-            List<Cloudlet> cloudlets = workloadReader.generateCloudletsFromWorkload();
+            List<Cloudlet> cloudlets = workloadReader.generateWorkload();
             
             // Create serverless scheduler
             ServerlessScheduler scheduler = new ServerlessScheduler(vms);
             
-            // Get serverless functions for scheduling decisions
-            List<ServerlessFunction> functions = workloadReader.generateServerlessWorkload();
+            // The reader stores the function of each cloudlet as its user id
+            Map<Integer, ServerlessFunction> functions = new HashMap<>();
             
             // Schedule cloudlets using custom scheduler
-            for (int i = 0; i < cloudlets.size(); i++) {
-                Cloudlet cloudlet = cloudlets.get(i);
-                ServerlessFunction function = functions.get(i / 1440); // Approximate mapping
+            for (Cloudlet cloudlet : cloudlets) {
+                int functionId = cloudlet.getUserId();
+                ServerlessFunction function = functions.get(functionId);
+                if (function == null) {
+                    String hash = String.valueOf(functionId);
+                    function = new ServerlessFunction(functionId, hash, hash, hash, "unknown", new int[0]);
+                    functions.put(functionId, function);
+                }
                 scheduler.scheduleFunction(cloudlet, function);
+                cloudlet.setUserId(broker.getId());
             }
             
             // Submit cloudlets to broker
@@ -75,10 +92,20 @@ public class ServerlessSimulation {
         }
     }
     
-    private static ServerlessDatacenter createDatacenter() {
-        // Implement datacenter creation logic
-        // This should create a datacenter with serverless-specific configurations
-        return new ServerlessDatacenter();
+    private static Datacenter createDatacenter(String name) throws Exception {
+        // One host for each of the VMs
+        List<Host> hostList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            List<Pe> peList = new ArrayList<>();
+            peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+            hostList.add(new Host(i, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000,
+                    peList, new VmSchedulerTimeShared(peList)));
+        }
+        
+        DatacenterCharacteristics characteristics = new DatacenterCharacteristics(
+                "x86", "Linux", "Xen", hostList, 10.0, 3.0, 0.05, 0.001, 0.0);
+        return new Datacenter(name, characteristics, new VmAllocationPolicySimple(hostList),
+                new LinkedList<Storage>(), 0);
     }
     
     private static DatacenterBroker createBroker() {
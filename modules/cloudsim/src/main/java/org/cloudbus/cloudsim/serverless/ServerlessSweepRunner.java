@@ -0,0 +1,299 @@
+package org.cloudbus.cloudsim.serverless;
+
+import com.opencsv.CSVWriter;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.container.core.ContainerCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Parameter sweep of the CloudSimSCExample1 scenario: runs every combination of a grid of configuration values
+ * on a bounded pool of worker threads and aggregates the results of the runs into one table.
+ *
+ * Each run has its own {@link ServerlessConfiguration} and its own CloudSim {@link Simulation}, so the runs are
+ * independent of each other and of the order they are executed in.
+ *
+ * Usage: ServerlessSweepRunner [workers=N] [output=results.csv] NAME=value1,value2 ...
+ * where NAME is one of {@link ServerlessConfiguration#PARAMETER_NAMES}, e.g. VM_SELECTION_ALGO=BPFF,BPBF,RR
+ */
+
+public class ServerlessSweepRunner {
+
+    /**
+     * The values of each swept parameter, in the order the parameters were added
+     */
+    private final Map<String, List<String>> grid = new LinkedHashMap<>();
+    private final ServerlessConfiguration baseConfiguration;
+    private final int workers;
+
+    public ServerlessSweepRunner(int workers) {
+        this(workers, new ServerlessConfiguration());
+    }
+
+    /**
+     * @param workers the maximum number of runs executed at the same time
+     * @param baseConfiguration the values of the parameters that are not swept
+     */
+    public ServerlessSweepRunner(int workers, ServerlessConfiguration baseConfiguration) {
+        if (workers < 1) {
+            throw new IllegalArgumentException("The number of workers has to be positive, but is: " + workers);
+        }
+        this.workers = workers;
+        this.baseConfiguration = baseConfiguration;
+    }
+
+    public static void main(String[] args) {
+        int workers = Runtime.getRuntime().availableProcessors();
+        String output = "SweepResults.csv";
+        Map<String, List<String>> parameters = new LinkedHashMap<>();
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid argument, expected NAME=value1,value2: " + arg);
+            }
+            String name = arg.substring(0, separator);
+            String value = arg.substring(separator + 1);
+            if (name.equals("workers")) {
+                workers = Integer.parseInt(value);
+            } else if (name.equals("output")) {
+                output = value;
+            } else {
+                parameters.put(name, Arrays.asList(value.split(",")));
+            }
+        }
+
+        ServerlessSweepRunner runner = new ServerlessSweepRunner(workers);
+        for (Map.Entry<String, List<String>> parameter : parameters.entrySet()) {
+            runner.addParameter(parameter.getKey(), parameter.getValue());
+        }
+
+        try {
+            // the runs print to the same output, so only the table of results is printed
+            Log.disable();
+            List<Result> results = runner.run();
+            Log.enable();
+            runner.printResults(results);
+            runner.writeResults(results, output);
+        } catch (Exception e) {
+            Log.enable();
+            e.printStackTrace();
+            Log.printLine("Unwanted errors happen");
+        }
+    }
+
+    /**
+     * Adds a parameter to sweep.
+     *
+     * @param name one of {@link ServerlessConfiguration#PARAMETER_NAMES}
+     * @param values the values of the parameter, as strings
+     */
+    public void addParameter(String name, List<String> values) {
+        if (!ServerlessConfiguration.PARAMETER_NAMES.contains(name)) {
+            throw new IllegalArgumentException("Unknown configuration parameter: " + name);
+        }
+        if (values.isEmpty()) {
+            throw new IllegalArgumentException("No value for the parameter " + name);
+        }
+        // parses the values now rather than in the middle of the sweep
+        ServerlessConfiguration configuration = new ServerlessConfiguration(baseConfiguration);
+        for (String value : values) {
+            configuration.set(name, value);
+        }
+        grid.put(name, new ArrayList<>(values));
+    }
+
+    public List<String> getParameterNames() {
+        return new ArrayList<>(grid.keySet());
+    }
+
+    /**
+     * Gets the configurations of all the combinations of the parameter values, the values of the last added
+     * parameter changing first.
+     */
+    public List<ServerlessConfiguration> getConfigurations() {
+        List<ServerlessConfiguration> configurations = new ArrayList<>();
+        configurations.add(new ServerlessConfiguration(baseConfiguration));
+        for (Map.Entry<String, List<String>> parameter : grid.entrySet()) {
+            List<ServerlessConfiguration> combinations = new ArrayList<>();
+            for (ServerlessConfiguration configuration : configurations) {
+                for (String value : parameter.getValue()) {
+                    ServerlessConfiguration combination = new ServerlessConfiguration(configuration);
+                    combination.set(parameter.getKey(), value);
+                    combinations.add(combination);
+                }
+            }
+            configurations = combinations;
+        }
+        return configurations;
+    }
+
+    /**
+     * Executes all the runs of the sweep.
+     *
+     * @return the results of the runs, in the order of {@link #getConfigurations()}
+     */
+    public List<Result> run() throws InterruptedException, ExecutionException {
+        List<ServerlessConfiguration> configurations = getConfigurations();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(workers, configurations.size()));
+        try {
+            List<Future<Result>> futures = new ArrayList<>();
+            for (int x = 0; x < configurations.size(); x++) {
+                final int run = x;
+                futures.add(executor.submit(() -> runScenario(run, configurations.get(run))));
+            }
+            List<Result> results = new ArrayList<>();
+            for (Future<Result> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes one run in the current thread, with the same setup as {@link CloudSimSCExample1}.
+     */
+    protected Result runScenario(int run, ServerlessConfiguration configuration) throws Exception {
+        // a new simulation for each run, as the worker threads are reused
+        CloudSim.setSimulation(new Simulation());
+        CloudSim.init(1, Calendar.getInstance(), false);
+
+        ServerlessController controller = new ServerlessController("Broker", 80, configuration);
+        ServerlessDatacenter datacenter = CloudSimSCExample1.createDatacenter("datacenter", "Sweep_" + run, configuration);
+        controller.submitVmList(CloudSimSCExample1.createVmList(controller.getId(), configuration.getNumberVms(), configuration.getSeed()));
+        controller.setLoadBalancer(new RequestLoadBalancer(controller, datacenter));
+        controller.setServerlessDatacenter(datacenter);
+        controller.noOfTasks++;
+        controller.setRequestStream(new ServerlessRequestStream(configuration.getFunctionRequestsFileName(), controller.getId(), Constants.REQUEST_STREAM_WINDOW_SIZE));
+
+        CloudSim.terminateSimulation(configuration.getSimulationLimit());
+        CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+
+        return new Result(run, configuration, controller);
+    }
+
+    public void printResults(List<Result> results) {
+        Log.printLine();
+        Log.printLine("========== SWEEP RESULTS ==========");
+        for (String[] line : toTable(results)) {
+            Log.printLine(String.join("    ", line));
+        }
+    }
+
+    public void writeResults(List<Result> results, String fileName) throws IOException {
+        try (CSVWriter writer = new CSVWriter(new FileWriter(fileName))) {
+            for (String[] line : toTable(results)) {
+                writer.writeNext(line);
+            }
+        }
+    }
+
+    private List<String[]> toTable(List<Result> results) {
+        List<String[]> table = new ArrayList<>();
+        List<String> header = new ArrayList<>();
+        header.add("Run");
+        header.addAll(grid.keySet());
+        header.addAll(Arrays.asList("Successful Request Count", "Dropped Request Count", "Dropped Request Ratio",
+                "Average Request Response Time", "Deadline Met Count", "Average VM Utilization", "Average VM Count"));
+        table.add(header.toArray(new String[0]));
+        for (Result result : results) {
+            List<String> line = new ArrayList<>();
+            line.add(String.valueOf(result.getRun()));
+            for (String name : grid.keySet()) {
+                line.add(result.getConfiguration().get(name));
+            }
+            line.addAll(Arrays.asList(String.valueOf(result.getSuccessfulRequests()), String.valueOf(result.getDroppedRequests()),
+                    String.valueOf(result.getDroppedRequestRatio()), String.valueOf(result.getAverageResponseTime()),
+                    String.valueOf(result.getDeadlineMetRequests()), String.valueOf(result.getAverageVmUtilization()),
+                    String.valueOf(result.getAverageVmCount())));
+            table.add(line.toArray(new String[0]));
+        }
+        return table;
+    }
+
+    /**
+     * The metrics of a run, computed as in {@link CloudSimSCExample1}
+     */
+    public static class Result {
+
+        private final int run;
+        private final ServerlessConfiguration configuration;
+        private int successfulRequests = 0;
+        private int droppedRequests = 0;
+        private int deadlineMetRequests = 0;
+        private double totalResponseTime = 0;
+        private final double averageVmUtilization;
+        private final double averageVmCount;
+
+        public Result(int run, ServerlessConfiguration configuration, ServerlessController controller) {
+            this.run = run;
+            this.configuration = configuration;
+            for (ContainerCloudlet cloudlet : controller.getCloudletReceivedList()) {
+                ServerlessRequest request = (ServerlessRequest) cloudlet;
+                if (request.getCloudletStatusString().equals("Success")) {
+                    double responseTime = request.getFinishTime() - request.getArrivalTime();
+                    successfulRequests++;
+                    totalResponseTime += responseTime;
+                    if (Math.ceil(responseTime) <= Math.ceil(request.getMaxExecTime()) || Math.floor(responseTime) <= Math.ceil(request.getMaxExecTime())) {
+                        deadlineMetRequests++;
+                    }
+                } else {
+                    droppedRequests++;
+                }
+            }
+            averageVmUtilization = controller.getAverageResourceUtilization();
+            averageVmCount = controller.getAverageVmCount();
+        }
+
+        public int getRun() {
+            return run;
+        }
+
+        public ServerlessConfiguration getConfiguration() {
+            return configuration;
+        }
+
+        public int getSuccessfulRequests() {
+            return successfulRequests;
+        }
+
+        public int getDroppedRequests() {
+            return droppedRequests;
+        }
+
+        public double getDroppedRequestRatio() {
+            return (double) droppedRequests / (successfulRequests + droppedRequests);
+        }
+
+        public double getAverageResponseTime() {
+            return totalResponseTime / successfulRequests;
+        }
+
+        public int getDeadlineMetRequests() {
+            return deadlineMetRequests;
+        }
+
+        public double getAverageVmUtilization() {
+            return averageVmUtilization;
+        }
+
+        public double getAverageVmCount() {
+            return averageVmCount;
+        }
+    }
+}
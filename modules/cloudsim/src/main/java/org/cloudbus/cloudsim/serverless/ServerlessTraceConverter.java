@@ -0,0 +1,245 @@
+package org.cloudbus.cloudsim.serverless;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts the text serverless traces to the binary format read by {@link ServerlessTraceFile}. Two layouts
+ * are supported: the request traces used by {@link CloudSimSCExample1}, with one request per line, and the
+ * Azure Functions per-minute invocation traces read by {@link ServerlessWorkloadReader}, where each line holds
+ * the invocations of a function on each minute of the day.
+ *
+ * The trace is read twice, first to count the requests and collect the function ids and then to write the
+ * columns, so the memory needed does not depend on the size of the trace. The columns are written through
+ * mappings of the output file, so the requests may be written in any order.
+ *
+ * Usage: {@code ServerlessTraceConverter requests <input.csv> <output>} or
+ * {@code ServerlessTraceConverter azure <input.csv> <output> [rating] [maxInvocationsPerMinute] [maxRecordsToProcess]}
+ */
+
+public class ServerlessTraceConverter {
+
+    private static final int MINUTES_PER_DAY = 1440;
+    private static final int MINUTE_COLUMNS_OFFSET = 4;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 3 && args[0].equals("requests")) {
+            convertRequestTrace(args[1], args[2]);
+        } else if (args.length >= 3 && args[0].equals("azure")) {
+            int rating = args.length > 3 ? Integer.parseInt(args[3]) : 1000;
+            int maxInvocationsPerMinute = args.length > 4 ? Integer.parseInt(args[4]) : 1000;
+            int maxRecordsToProcess = args.length > 5 ? Integer.parseInt(args[5]) : Integer.MAX_VALUE;
+            convertAzureTrace(args[1], args[2], rating, maxInvocationsPerMinute, maxRecordsToProcess);
+        } else {
+            System.err.println("Usage: ServerlessTraceConverter requests <input.csv> <output>");
+            System.err.println("       ServerlessTraceConverter azure <input.csv> <output> [rating] [maxInvocationsPerMinute] [maxRecordsToProcess]");
+        }
+    }
+
+    /**
+     * Converts a request trace with the layout of {@link ServerlessRequestStream}, whose lines hold the arrival
+     * time, function id, length, PEs, container memory, container MIPS, CPU share and memory share of a request.
+     *
+     * @return the number of requests written
+     */
+    public static int convertRequestTrace(String inputFileName, String outputFileName) throws IOException {
+        Map<String, Integer> functionIds = new LinkedHashMap<>();
+        int size = 0;
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    indexOf(functionIds, line.split(",")[1]);
+                    size++;
+                }
+            }
+        }
+
+        try (TraceWriter writer = new TraceWriter(outputFileName, size, functionIds);
+             BufferedReader reader = new BufferedReader(new FileReader(inputFileName))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.trim().isEmpty()) {
+                    String[] data = line.split(",");
+                    writer.write(writer.getWritten(), Double.parseDouble(data[0]), functionIds.get(data[1]), Long.parseLong(data[2]), Integer.parseInt(data[3]),
+                            Integer.parseInt(data[4]), Long.parseLong(data[5]), Double.parseDouble(data[6]), Double.parseDouble(data[7]));
+                }
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Converts an Azure Functions invocation trace, creating one request for each invocation with the same
+     * arrival time (the start of its minute) and resources as the cloudlets created by
+     * {@link ServerlessWorkloadReader}. The container MIPS of each request is the given rating and the requests
+     * ask for the whole CPU and memory of their containers. The requests are sorted by arrival time, as
+     * {@link ServerlessRequestStream} expects: minute by minute and, within a minute, function by function in
+     * the order of the trace. The first reading counts the invocations of each minute, so that the second one
+     * writes the invocations of each function to the range of their minute.
+     *
+     * @return the number of requests written
+     */
+    public static int convertAzureTrace(String inputFileName, String outputFileName, int rating, int maxInvocationsPerMinute,
+                                        int maxRecordsToProcess) throws IOException {
+        Map<String, Integer> functionIds = new LinkedHashMap<>();
+        // the index of the first request of each minute, and the number of requests after the last minute
+        long[] minuteStarts = new long[MINUTES_PER_DAY + 1];
+        try (BufferedReader reader = new BufferedReader(new FileReader(inputFileName))) {
+            String line;
+            reader.readLine(); // Skip header
+            int lineCount = 0;
+            while ((line = reader.readLine()) != null && lineCount++ < maxRecordsToProcess) {
+                String[] parts = line.split(",");
+                if (parts.length < MINUTE_COLUMNS_OFFSET + MINUTES_PER_DAY) {
+                    continue;
+                }
+                indexOf(functionIds, parts[2].trim());
+                for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                    minuteStarts[minute + 1] += invocations(parts, minute, maxInvocationsPerMinute);
+                }
+            }
+        }
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            minuteStarts[minute + 1] += minuteStarts[minute];
+        }
+        long size = minuteStarts[MINUTES_PER_DAY];
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Too many invocations in " + inputFileName + ": " + size);
+        }
+        long[] nextIndexes = Arrays.copyOf(minuteStarts, MINUTES_PER_DAY);
+
+        try (TraceWriter writer = new TraceWriter(outputFileName, (int) size, functionIds);
+             BufferedReader reader = new BufferedReader(new FileReader(inputFileName))) {
+            String line;
+            reader.readLine(); // Skip header
+            int lineCount = 0;
+            while ((line = reader.readLine()) != null && lineCount++ < maxRecordsToProcess) {
+                String[] parts = line.split(",");
+                if (parts.length < MINUTE_COLUMNS_OFFSET + MINUTES_PER_DAY) {
+                    continue;
+                }
+                String hashFunction = parts[2].trim();
+                int function = functionIds.get(hashFunction);
+                int functionId = Math.abs(hashFunction.hashCode());
+                long length = (long) ServerlessWorkloadReader.runTimeOf(functionId) * rating;
+                int memory = ServerlessWorkloadReader.memoryOf(functionId);
+                for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                    int invocations = invocations(parts, minute, maxInvocationsPerMinute);
+                    if (nextIndexes[minute] + invocations > minuteStarts[minute + 1]) {
+                        throw new IOException("The trace changed while it was converted");
+                    }
+                    for (int i = 0; i < invocations; i++) {
+                        writer.write(nextIndexes[minute]++, minute * 60, function, length, 1, memory, rating, 1.0, 1.0);
+                    }
+                }
+            }
+        }
+        return (int) size;
+    }
+
+    private static int invocations(String[] parts, int minute, int maxInvocationsPerMinute) {
+        try {
+            return Math.max(0, Math.min(Integer.parseInt(parts[MINUTE_COLUMNS_OFFSET + minute].trim()), maxInvocationsPerMinute));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static int indexOf(Map<String, Integer> functionIds, String functionId) {
+        Integer index = functionIds.get(functionId);
+        if (index == null) {
+            index = functionIds.size();
+            functionIds.put(functionId, index);
+        }
+        return index;
+    }
+
+    /**
+     * Writes the requests of a binary trace. The columns are mapped for writing, so each request is written at
+     * its index in the trace, whatever the order the requests are written in.
+     */
+    private static final class TraceWriter implements AutoCloseable {
+
+        private final FileChannel channel;
+        private final ServerlessTraceFile.Column[] columns = new ServerlessTraceFile.Column[ServerlessTraceFile.COLUMN_SIZES.length];
+        private final int size;
+        private int written;
+
+        private TraceWriter(String fileName, int size, Map<String, Integer> functionIds) throws IOException {
+            this.size = size;
+            channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+
+            List<byte[]> ids = new ArrayList<>();
+            int headerSize = 16;
+            for (String functionId : functionIds.keySet()) {
+                byte[] bytes = functionId.getBytes(StandardCharsets.UTF_8);
+                ids.add(bytes);
+                headerSize += 4 + bytes.length;
+            }
+            ByteBuffer header = ByteBuffer.allocate(headerSize);
+            header.putInt(ServerlessTraceFile.MAGIC).putInt(ServerlessTraceFile.VERSION).putInt(size).putInt(ids.size());
+            for (byte[] bytes : ids) {
+                header.putInt(bytes.length).put(bytes);
+            }
+            header.flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+
+            long position = headerSize;
+            for (int i = 0; i < columns.length; i++) {
+                long columnSize = (long) size * ServerlessTraceFile.COLUMN_SIZES[i];
+                columns[i] = new ServerlessTraceFile.Column(channel, FileChannel.MapMode.READ_WRITE, position, columnSize,
+                        ServerlessTraceFile.CHUNK_SHIFT);
+                position += columnSize;
+            }
+        }
+
+        private int getWritten() {
+            return written;
+        }
+
+        private void write(long index, double arrivalTime, int function, long length, int pes, int memory, long mips,
+                           double cpuShare, double memShare) throws IOException {
+            if (index >= size) {
+                throw new IOException("The trace changed while it was converted");
+            }
+            written++;
+            columns[0].putDouble(index << 3, arrivalTime);
+            columns[1].putInt(index << 2, function);
+            columns[2].putLong(index << 3, length);
+            columns[3].putInt(index << 2, pes);
+            columns[4].putInt(index << 2, memory);
+            columns[5].putLong(index << 3, mips);
+            columns[6].putDouble(index << 3, cpuShare);
+            columns[7].putDouble(index << 3, memShare);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                if (written != size) {
+                    throw new IOException("The trace changed while it was converted");
+                }
+                for (ServerlessTraceFile.Column column : columns) {
+                    column.force();
+                }
+            } finally {
+                channel.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package org.cloudbus.cloudsim.serverless;
+
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.container.utils.IDs;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a serverless trace in the compact binary format written by {@link ServerlessTraceConverter}.
+ * The requests are stored column by column, each column being an array of primitive values, so the file is
+ * memory-mapped and the requests are read from it without any parsing.
+ *
+ * The file starts with a header holding the {@link #MAGIC} number, the format {@link #VERSION}, the number of
+ * requests and the dictionary of function ids, each written as its length followed by its UTF-8 bytes. The
+ * header is followed by the columns, in this order: arrival time (double), function id index in the
+ * dictionary (int), length (long), PEs (int), container memory (int), container MIPS (long), CPU share (double)
+ * and memory share (double).
+ */
+
+public class ServerlessTraceFile {
+
+    /** The first bytes of every binary trace ("SCTR"). */
+    public static final int MAGIC = 0x53435452;
+    public static final int VERSION = 1;
+
+    /** The size in bytes of the values of each column, in the order they are stored. */
+    static final int[] COLUMN_SIZES = new int[]{8, 4, 8, 4, 4, 8, 8, 8};
+
+    /** The columns are mapped in chunks of 1 GB, so that a column may be larger than a single mapping. */
+    static final int CHUNK_SHIFT = 30;
+
+    private final int size;
+    private final String[] functionIds;
+    private final Column arrivalTimes;
+    private final Column functions;
+    private final Column lengths;
+    private final Column pes;
+    private final Column memories;
+    private final Column mips;
+    private final Column cpuShares;
+    private final Column memShares;
+
+    public ServerlessTraceFile(String fileName) throws IOException {
+        this(Paths.get(fileName));
+    }
+
+    public ServerlessTraceFile(Path path) throws IOException {
+        this(path, CHUNK_SHIFT);
+    }
+
+    ServerlessTraceFile(Path path, int chunkShift) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // the size of the dictionary is only known while reading it, so the header is read rather than mapped
+            DataInputStream header = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+            long position;
+            try {
+                if (header.readInt() != MAGIC) {
+                    throw new IOException(path + " is not a binary serverless trace");
+                }
+                int version = header.readInt();
+                if (version != VERSION) {
+                    throw new IOException("Unsupported binary serverless trace version " + version + " in " + path);
+                }
+                size = header.readInt();
+                functionIds = new String[header.readInt()];
+                position = 16;
+                for (int i = 0; i < functionIds.length; i++) {
+                    byte[] bytes = new byte[header.readInt()];
+                    header.readFully(bytes);
+                    functionIds[i] = new String(bytes, StandardCharsets.UTF_8);
+                    position += 4 + bytes.length;
+                }
+            } catch (EOFException e) {
+                throw new IOException("Truncated binary serverless trace " + path, e);
+            }
+
+            Column[] columns = new Column[COLUMN_SIZES.length];
+            for (int i = 0; i < columns.length; i++) {
+                long columnSize = (long) size * COLUMN_SIZES[i];
+                if (position + columnSize > channel.size()) {
+                    throw new IOException("Truncated binary serverless trace " + path);
+                }
+                columns[i] = new Column(channel, FileChannel.MapMode.READ_ONLY, position, columnSize, chunkShift);
+                position += columnSize;
+            }
+            arrivalTimes = columns[0];
+            functions = columns[1];
+            lengths = columns[2];
+            pes = columns[3];
+            memories = columns[4];
+            mips = columns[5];
+            cpuShares = columns[6];
+            memShares = columns[7];
+        }
+    }
+
+    /**
+     * Checks if a file starts with the magic number of the binary traces.
+     */
+    public static boolean isBinaryTrace(String fileName) {
+        try (FileChannel channel = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            return channel.read(magic) == 4 && magic.getInt(0) == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Gets the number of requests in the trace.
+     */
+    public int size() {
+        return size;
+    }
+
+    public double getArrivalTime(int index) {
+        return arrivalTimes.getDouble((long) index << 3);
+    }
+
+    public String getFunctionId(int index) {
+        return functionIds[functions.getInt((long) index << 2)];
+    }
+
+    public long getLength(int index) {
+        return lengths.getLong((long) index << 3);
+    }
+
+    public int getNumberOfPes(int index) {
+        return pes.getInt((long) index << 2);
+    }
+
+    public int getContainerMemory(int index) {
+        return memories.getInt((long) index << 2);
+    }
+
+    public long getContainerMIPS(int index) {
+        return mips.getLong((long) index << 3);
+    }
+
+    public double getCpuShareRequest(int index) {
+        return cpuShares.getDouble((long) index << 3);
+    }
+
+    public double getMemShareRequest(int index) {
+        return memShares.getDouble((long) index << 3);
+    }
+
+    /**
+     * Creates the request at a position of the trace, as it would have been created from the text trace.
+     *
+     * @param index      the position of the request
+     * @param userId     the id of the user (controller) submitting the request
+     * @param fileSize   the file size of the request
+     * @param outputSize the output size of the request
+     */
+    public ServerlessRequest createRequest(int index, int userId, long fileSize, long outputSize) {
+        // Serverless requests could utilize part of a vCPU core in case container concurrency is enabled
+        UtilizationModelPartial utilizationModelPar = new UtilizationModelPartial();
+        ServerlessRequest request = new ServerlessRequest(IDs.pollId(ServerlessRequest.class), getArrivalTime(index), getFunctionId(index),
+                getLength(index), getNumberOfPes(index), getContainerMemory(index), getContainerMIPS(index), getCpuShareRequest(index), getMemShareRequest(index),
+                fileSize, outputSize, utilizationModelPar, utilizationModelPar, new UtilizationModelFull(), 0, true);
+        request.setUserId(userId);
+        return request;
+    }
+
+    /**
+     * A column of the trace, mapped in chunks whose size is a power of two. The chunks are a multiple of the size
+     * of every value, so no value is split between two chunks.
+     */
+    static final class Column {
+
+        private final ByteBuffer[] chunks;
+        private final int shift;
+        private final long mask;
+
+        Column(FileChannel channel, FileChannel.MapMode mode, long position, long size, int shift) throws IOException {
+            if (shift < 3 || shift > 30) {
+                throw new IllegalArgumentException("The chunks have to hold whole values and fit in a mapping.");
+            }
+            long chunkSize = 1L << shift;
+            this.chunks = new ByteBuffer[(int) ((size + chunkSize - 1) >>> shift)];
+            this.shift = shift;
+            this.mask = chunkSize - 1;
+            for (int i = 0; i < chunks.length; i++) {
+                long offset = (long) i << shift;
+                chunks[i] = channel.map(mode, position + offset, Math.min(chunkSize, size - offset));
+            }
+        }
+
+        double getDouble(long offset) {
+            return chunks[(int) (offset >>> shift)].getDouble((int) (offset & mask));
+        }
+
+        int getInt(long offset) {
+            return chunks[(int) (offset >>> shift)].getInt((int) (offset & mask));
+        }
+
+        long getLong(long offset) {
+            return chunks[(int) (offset >>> shift)].getLong((int) (offset & mask));
+        }
+
+        void putDouble(long offset, double value) {
+            chunks[(int) (offset >>> shift)].putDouble((int) (offset & mask), value);
+        }
+
+        void putInt(long offset, int value) {
+            chunks[(int) (offset >>> shift)].putInt((int) (offset & mask), value);
+        }
+
+        void putLong(long offset, long value) {
+            chunks[(int) (offset >>> shift)].putLong((int) (offset & mask), value);
+        }
+
+        /**
+         * Writes the changes of a column mapped for writing to the file.
+         */
+        void force() {
+            for (ByteBuffer chunk : chunks) {
+                ((MappedByteBuffer) chunk).force();
+            }
+        }
+    }
+}
@@ -1,20 +1,42 @@
 package org.cloudbus.cloudsim.serverless;
 
 import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.UtilizationModel;
 import org.cloudbus.cloudsim.UtilizationModelFull;
 import org.cloudbus.cloudsim.util.WorkloadModel;
 
 import java.io.*;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
 public class ServerlessWorkloadReader implements WorkloadModel {
+    private static final int MINUTES_PER_DAY = 1440;
+    /**
+     * Number of columns before the per minute invocation counts (owner, app, function and trigger)
+     */
+    private static final int MINUTE_COLUMNS_OFFSET = 4;
+    /**
+     * Maximum size of each region of the file mapped at a time
+     */
+    private static final long MAX_MAPPED_REGION = 1L << 30;
+
     private final File file;
     private final int rating;
     private final int maxInvocationsPerMinute;
     private final int maxRecordsToProcess;
     private ArrayList<Cloudlet> cloudlets;
     private boolean traceProcessed = false;
+    /**
+     * Whether the trace is memory-mapped and parsed directly from its bytes
+     */
+    private final boolean memoryMapped;
+    private final int[] minuteInvocations = new int[MINUTES_PER_DAY];
+    private final int[] invalidMinuteStart = new int[MINUTES_PER_DAY];
+    private final int[] invalidMinuteEnd = new int[MINUTES_PER_DAY];
 
     public ServerlessWorkloadReader(String fileName, int rating) throws FileNotFoundException {
         this(fileName, rating, 1000, 10000); // Default cap of 1000 invocations per minute, 10k records
@@ -22,6 +44,16 @@ public class ServerlessWorkloadReader implements WorkloadModel {
 
     public ServerlessWorkloadReader(String fileName, int rating, int maxInvocationsPerMinute, int maxRecordsToProcess) 
             throws FileNotFoundException {
+        this(fileName, rating, maxInvocationsPerMinute, maxRecordsToProcess, false);
+    }
+
+    /**
+     * @param memoryMapped if true, the trace is memory-mapped and the invocation counts are parsed
+     *                     directly from its bytes, without creating a String for each line and column,
+     *                     which is much faster for the multi-GB daily traces
+     */
+    public ServerlessWorkloadReader(String fileName, int rating, int maxInvocationsPerMinute, int maxRecordsToProcess,
+            boolean memoryMapped) throws FileNotFoundException {
         this.file = new File(fileName);
         if (!file.exists()) {
             throw new FileNotFoundException("File not found: " + fileName);
@@ -29,6 +61,7 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         this.rating = rating;
         this.maxInvocationsPerMinute = maxInvocationsPerMinute;
         this.maxRecordsToProcess = maxRecordsToProcess;
+        this.memoryMapped = memoryMapped;
     }
 
     @Override
@@ -38,20 +71,8 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         }
         
         if (!traceProcessed) {
-            try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                String line;
-                reader.readLine(); // Skip header
-                
-                int lineCount = 0;
-                while ((line = reader.readLine()) != null && lineCount < maxRecordsToProcess) {
-                    processLine(line, ++lineCount);
-                    
-                    // Process in batches to avoid memory overload
-                    if (lineCount % 1000 == 0) {
-                        System.gc(); // Suggest garbage collection
-                        logMemoryUsage("Processed " + lineCount + " records");
-                    }
-                }
+            try {
+                int lineCount = memoryMapped ? readMappedTrace() : readTrace();
                 traceProcessed = true;
                 logMemoryUsage("Finished processing " + lineCount + " records");
             } catch (IOException e) {
@@ -62,40 +83,217 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         return cloudlets;
     }
 
+    private int readTrace() throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            reader.readLine(); // Skip header
+
+            int lineCount = 0;
+            while ((line = reader.readLine()) != null && lineCount < maxRecordsToProcess) {
+                processLine(line, ++lineCount);
+
+                if (lineCount % 1000 == 0) {
+                    logMemoryUsage("Processed " + lineCount + " records");
+                }
+            }
+            return lineCount;
+        }
+    }
+
     private void processLine(String line, int lineNumber) {
         String[] parts = line.split(",");
-        if (parts.length < 1444) {
-            System.err.println("Skipping line " + lineNumber + ": insufficient columns");
+        if (parts.length < MINUTE_COLUMNS_OFFSET + MINUTES_PER_DAY) {
+            Log.printLine(Log.Level.WARN, "Skipping line " + lineNumber + ": insufficient columns");
             return;
         }
 
-        String hashFunction = parts[2].trim();
-        for (int minute = 0; minute < 1440; minute++) {
+        int functionId = Math.abs(parts[2].trim().hashCode());
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
             try {
-                int invocations = Integer.parseInt(parts[4 + minute].trim());
-                
-                // Apply cap to prevent memory overload
-                if (invocations > maxInvocationsPerMinute) {
-                    invocations = maxInvocationsPerMinute;
+                int invocations = Integer.parseInt(parts[MINUTE_COLUMNS_OFFSET + minute].trim());
+                createCloudlets(functionId, minute, invocations);
+            } catch (NumberFormatException e) {
+                Log.printLine(Log.Level.WARN, "Invalid number format in line " + lineNumber + 
+                                 ", minute " + minute + ": " + parts[MINUTE_COLUMNS_OFFSET + minute]);
+            }
+        }
+    }
+
+    /**
+     * Reads the trace mapping it into memory, a region of at most {@link #MAX_MAPPED_REGION} bytes at a time.
+     * Each region ends at the last complete line it contains, and the next region starts right after it.
+     */
+    private int readMappedTrace() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            long position = 0;
+            boolean header = true;
+            int lineCount = 0;
+            while (position < fileSize && lineCount < maxRecordsToProcess) {
+                int length = (int) Math.min(MAX_MAPPED_REGION, fileSize - position);
+                boolean lastRegion = position + length == fileSize;
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+                int start = 0;
+                while (start < length && lineCount < maxRecordsToProcess) {
+                    int end = start;
+                    while (end < length && buffer.get(end) != '\n') {
+                        end++;
+                    }
+                    if (end == length && !lastRegion) {
+                        break; // the line goes on in the next region
+                    }
+                    if (header) {
+                        header = false; // Skip header
+                    } else {
+                        // the line terminator of CRLF rows is removed, as by BufferedReader.readLine
+                        int lineEnd = end > start && buffer.get(end - 1) == '\r' ? end - 1 : end;
+                        processMappedLine(buffer, start, lineEnd, ++lineCount);
+                        if (lineCount % 1000 == 0) {
+                            logMemoryUsage("Processed " + lineCount + " records");
+                        }
+                    }
+                    start = end + 1;
                 }
-                
-                for (int i = 0; i < invocations; i++) {
-                    createCloudlet(hashFunction, minute, lineNumber, minute);
+                if (start == 0) {
+                    throw new IOException("Line at offset " + position + " is longer than " + MAX_MAPPED_REGION + " bytes");
                 }
-            } catch (NumberFormatException e) {
-                System.err.println("Invalid number format in line " + lineNumber + 
-                                 ", minute " + minute + ": " + parts[4 + minute]);
+                position += Math.min(start, length);
             }
+            return lineCount;
         }
     }
 
-    private void createCloudlet(String hashFunction, int minute, int lineNumber, int minuteIndex) {
+    /**
+     * Parses a line of the trace in the range [start, end) of the buffer, with the same results as
+     * {@link #processLine(String, int)}. As {@link String#split(String)} there, the trailing empty
+     * columns are not counted.
+     */
+    private void processMappedLine(MappedByteBuffer buffer, int start, int end, int lineNumber) {
+        int column = 0;
+        int columns = 0;
+        int fieldStart = start;
+        int functionHash = 0;
+        int lastColumn = MINUTE_COLUMNS_OFFSET + MINUTES_PER_DAY;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buffer.get(i) != ',') {
+                continue;
+            }
+            if (column == 2) {
+                functionHash = hashCodeOfTrimmed(buffer, fieldStart, i);
+            } else if (column >= MINUTE_COLUMNS_OFFSET && column < lastColumn) {
+                int minute = column - MINUTE_COLUMNS_OFFSET;
+                minuteInvocations[minute] = parseTrimmedInt(buffer, fieldStart, i);
+                invalidMinuteStart[minute] = fieldStart;
+                invalidMinuteEnd[minute] = i;
+            }
+            column++;
+            if (i > fieldStart) {
+                columns = column;
+            }
+            fieldStart = i + 1;
+        }
+        if (columns < lastColumn) {
+            Log.printLine(Log.Level.WARN, "Skipping line " + lineNumber + ": insufficient columns");
+            return;
+        }
+
+        int functionId = Math.abs(functionHash);
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            if (minuteInvocations[minute] == Integer.MIN_VALUE) {
+                Log.printLine(Log.Level.WARN, "Invalid number format in line " + lineNumber +
+                                 ", minute " + minute + ": " + decode(buffer, invalidMinuteStart[minute], invalidMinuteEnd[minute]));
+            } else {
+                createCloudlets(functionId, minute, minuteInvocations[minute]);
+            }
+        }
+    }
+
+    /**
+     * Computes the {@link String#hashCode()} of the trimmed text in the range [start, end) of the buffer,
+     * without creating the String when the text is ASCII.
+     */
+    private static int hashCodeOfTrimmed(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && isBlank(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isBlank(buffer.get(end - 1))) {
+            end--;
+        }
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            byte b = buffer.get(i);
+            if (b < 0) {
+                return decode(buffer, start, end).trim().hashCode();
+            }
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+
+    /**
+     * Parses the trimmed integer in the range [start, end) of the buffer, as {@link Integer#parseInt(String)}.
+     *
+     * @return the integer or {@link Integer#MIN_VALUE} if the text is not a valid integer
+     */
+    private static int parseTrimmedInt(MappedByteBuffer buffer, int start, int end) {
+        while (start < end && isBlank(buffer.get(start))) {
+            start++;
+        }
+        while (end > start && isBlank(buffer.get(end - 1))) {
+            end--;
+        }
+        boolean negative = false;
+        if (start < end && (buffer.get(start) == '+' || buffer.get(start) == '-')) {
+            negative = buffer.get(start) == '-';
+            start++;
+        }
+        if (start == end) {
+            return Integer.MIN_VALUE;
+        }
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return Integer.MIN_VALUE;
+            }
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) {
+                return Integer.MIN_VALUE;
+            }
+        }
+        return (int) (negative ? -value : value);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b >= 0 && b <= ' ';
+    }
+
+    private static String decode(MappedByteBuffer buffer, int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = start; i < end; i++) {
+            bytes[i - start] = buffer.get(i);
+        }
+        return new String(bytes, Charset.defaultCharset());
+    }
+
+    private void createCloudlets(int functionId, int minute, int invocations) {
+        // Apply cap to prevent memory overload
+        if (invocations > maxInvocationsPerMinute) {
+            invocations = maxInvocationsPerMinute;
+        }
+
+        for (int i = 0; i < invocations; i++) {
+            createCloudlet(functionId, minute);
+        }
+    }
+
+    private void createCloudlet(int functionId, int minute) {
         long submitTime = minute * 60; // Convert minute to seconds
         
         // Use function hash to determine resource requirements consistently
-        int functionId = Math.abs(hashFunction.hashCode());
-        int runTime = 10 + (functionId % 91); // 10-100 seconds runtime
-        int memory = 128 + (functionId % 385); // 128-512 MB memory
+        int runTime = runTimeOf(functionId);
+        int memory = memoryOf(functionId);
         int numProc = 1; // Single-threaded function
 
         long length = runTime * rating;
@@ -119,6 +317,24 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         cloudlets.add(cloudlet);
     }
 
+    /**
+     * Gets the runtime of the invocations of a function, between 10 and 100 seconds.
+     *
+     * @param functionId the non-negative hash of the function
+     */
+    static int runTimeOf(int functionId) {
+        return 10 + (functionId % 91);
+    }
+
+    /**
+     * Gets the memory of the invocations of a function, between 128 and 512 MB.
+     *
+     * @param functionId the non-negative hash of the function
+     */
+    static int memoryOf(int functionId) {
+        return 128 + (functionId % 385);
+    }
+
     // Helper method to log memory usage
     private void logMemoryUsage(String context) {
         Runtime runtime = Runtime.getRuntime();
@@ -126,7 +342,7 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         long maxMemory = runtime.maxMemory() / (1024 * 1024);
         long freeMemory = runtime.freeMemory() / (1024 * 1024);
         
-        System.out.println(context + " - Memory usage: " + 
+        Log.printLine(Log.Level.INFO, context + " - Memory usage: " + 
                           "Used=" + usedMemory + "MB, " +
                           "Free=" + freeMemory + "MB, " +
                           "Max=" + maxMemory + "MB");
@@ -136,6 +352,10 @@ public class ServerlessWorkloadReader implements WorkloadModel {
         return maxInvocationsPerMinute;
     }
     
+    public boolean isMemoryMapped() {
+        return memoryMapped;
+    }
+
     public int getMaxRecordsToProcess() {
         return maxRecordsToProcess;
     }
@@ -147,7 +367,6 @@ public class ServerlessWorkloadReader implements WorkloadModel {
     public void clearCloudlets() {
         if (cloudlets != null) {
             cloudlets.clear();
-            System.gc();
         }
         traceProcessed = false;
     }
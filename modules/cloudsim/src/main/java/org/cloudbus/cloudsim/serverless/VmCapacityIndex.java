@@ -0,0 +1,178 @@
+package org.cloudbus.cloudsim.serverless;
+
+import org.cloudbus.cloudsim.container.core.Container;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Index of the free capacity of the VMs of a datacenter, used by {@link FunctionScheduler} to place containers
+ * without checking every VM:
+ * <ul>
+ *     <li>first fit (BPFF): a segment tree over the VMs in the order of their ids keeps the largest free MIPS of a
+ *     PE and the largest free RAM of each range of VMs, so the ranges without any VM that may fit are skipped</li>
+ *     <li>best fit (BPBF): the VMs are kept ordered by the share of their MIPS that is free, and the VMs with too
+ *     few free MIPS for the container are skipped</li>
+ * </ul>
+ *
+ * The capacity of a VM is updated by its {@link ServerlessInvoker} whenever a container is created on it,
+ * destroyed or vertically scaled. The candidates are checked with {@link ServerlessInvoker#fitsContainer(Container)},
+ * so the selected VM is the same as with a linear search.
+ */
+
+public class VmCapacityIndex {
+
+    private static final Comparator<Entry> AVAILABILITY_ORDER = Comparator.<Entry>comparingDouble(entry -> entry.availability)
+            .thenComparingInt(entry -> entry.vmId);
+
+    /**
+     * The VMs in the order of their ids, which are the leaves of the segment tree
+     */
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<ServerlessInvoker, Entry> vmEntries = new HashMap<>();
+    /**
+     * The VMs in the order of their free MIPS share
+     */
+    private final TreeSet<Entry> availabilityOrder = new TreeSet<>(AVAILABILITY_ORDER);
+    /**
+     * The segment tree, the node n having the children 2n and 2n + 1 and the leaves starting at {@link #leafCount}
+     */
+    private double[] maxPeMips = new double[0];
+    private double[] maxRam = new double[0];
+    private int leafCount = 0;
+    private double maxTotalMips = 0;
+
+    /**
+     * Starts indexing a VM.
+     */
+    public void addVm(ServerlessInvoker vm) {
+        if (vmEntries.containsKey(vm)) {
+            return;
+        }
+        Entry entry = new Entry(vm, vm.getId());
+        vmEntries.put(vm, entry);
+        maxTotalMips = Math.max(maxTotalMips, vm.getTotalMips());
+        if (entries.isEmpty() || entries.get(entries.size() - 1).vmId < vm.getId()) {
+            entries.add(entry);
+            entry.position = entries.size() - 1;
+        } else {
+            int position = 0;
+            while (entries.get(position).vmId < vm.getId()) {
+                position++;
+            }
+            entries.add(position, entry);
+            for (int x = position; x < entries.size(); x++) {
+                entries.get(x).position = x;
+            }
+        }
+        vm.setCapacityIndex(this);
+        if (entries.size() > leafCount || entry.position < entries.size() - 1) {
+            rebuild();
+        } else {
+            update(vm);
+        }
+    }
+
+    /**
+     * Updates the free capacity of a VM after its resources were allocated or deallocated.
+     */
+    void update(ServerlessInvoker vm) {
+        Entry entry = vmEntries.get(vm);
+        if (entry == null) {
+            return;
+        }
+        availabilityOrder.remove(entry);
+        entry.availability = vm.getAvailableMips() / vm.getTotalMips();
+        availabilityOrder.add(entry);
+
+        int node = leafCount + entry.position;
+        maxPeMips[node] = ((ServerlessContainerScheduler) vm.getContainerScheduler()).getMaxAvailablePeMips();
+        maxRam[node] = vm.getContainerRamProvisioner().getAvailableVmRam();
+        for (node /= 2; node > 0; node /= 2) {
+            maxPeMips[node] = Math.max(maxPeMips[2 * node], maxPeMips[2 * node + 1]);
+            maxRam[node] = Math.max(maxRam[2 * node], maxRam[2 * node + 1]);
+        }
+    }
+
+    /**
+     * Finds the VM with the lowest id that fits a container.
+     *
+     * @return the VM or null if no VM fits the container
+     */
+    public ServerlessInvoker findFirstFit(Container container) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        return findFirstFit(1, container.getMips(), getRequestedRam(container), container);
+    }
+
+    /**
+     * Finds the VM with the lowest share of free MIPS that fits a container, the VM with the lowest id among
+     * the VMs with the same share.
+     *
+     * @return the VM or null if no VM fits the container
+     */
+    public ServerlessInvoker findBestFit(Container container) {
+        if (entries.isEmpty()) {
+            return null;
+        }
+        // a VM fits only if it has more free MIPS than requested by the container on all its PEs
+        Entry probe = new Entry(null, Integer.MIN_VALUE);
+        probe.availability = container.getMips() * container.getNumberOfPes() / maxTotalMips;
+        for (Entry entry : availabilityOrder.tailSet(probe, true)) {
+            if (entry.vm.fitsContainer(container)) {
+                return entry.vm;
+            }
+        }
+        return null;
+    }
+
+    private ServerlessInvoker findFirstFit(int node, double mips, double ram, Container container) {
+        if (maxPeMips[node] <= mips || maxRam[node] < ram) {
+            return null;
+        }
+        if (node >= leafCount) {
+            ServerlessInvoker vm = entries.get(node - leafCount).vm;
+            return vm.fitsContainer(container) ? vm : null;
+        }
+        ServerlessInvoker vm = findFirstFit(2 * node, mips, ram, container);
+        return vm != null ? vm : findFirstFit(2 * node + 1, mips, ram, container);
+    }
+
+    private double getRequestedRam(Container container) {
+        return Math.min(container.getCurrentRequestedRam(), container.getRam());
+    }
+
+    private void rebuild() {
+        leafCount = Math.max(leafCount, 1);
+        while (leafCount < entries.size()) {
+            leafCount *= 2;
+        }
+        // the leaves without a VM can never fit a container
+        maxPeMips = new double[2 * leafCount];
+        maxRam = new double[2 * leafCount];
+        Arrays.fill(maxPeMips, Double.NEGATIVE_INFINITY);
+        Arrays.fill(maxRam, Double.NEGATIVE_INFINITY);
+        for (Entry entry : entries) {
+            update(entry.vm);
+        }
+    }
+
+    private static final class Entry {
+
+        private final ServerlessInvoker vm;
+        private final int vmId;
+        private int position;
+        private double availability;
+
+        private Entry(ServerlessInvoker vm, int vmId) {
+            this.vm = vm;
+            this.vmId = vmId;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package org.cloudbus.cloudsim.serverless;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Tracks the VMs whose request processing has to be updated, so that {@link ServerlessDatacenter} updates only
+ * these VMs instead of all the VMs of all the hosts whenever the processing is updated. A VM has to be updated
+ * when the requests of its containers changed (it is marked as dirty) or when one of its requests is expected to
+ * finish. The expected completion times are kept in a priority queue, which also gives the time of the next
+ * processing update.
+ *
+ * The request progress only depends on the time elapsed since the last update of a container, so the VMs that are
+ * not updated catch up with their progress on their next update.
+ */
+
+public class VmProcessingTracker {
+
+    private static final Comparator<ServerlessInvoker> VM_ORDER = Comparator.comparingInt(ServerlessInvoker::getId);
+
+    /**
+     * The VMs whose containers changed since their last update
+     */
+    private final Set<ServerlessInvoker> dirtyVms = new TreeSet<>(VM_ORDER);
+    /**
+     * The next expected request completion time of each VM
+     */
+    private final Map<ServerlessInvoker, Double> completionTimes = new HashMap<>();
+    /**
+     * The expected completion times, earliest first. The completions that no longer match the time of their VM
+     * in {@link #completionTimes} are outdated and skipped.
+     */
+    private final PriorityQueue<Completion> completions = new PriorityQueue<>();
+
+    /**
+     * Marks a VM as dirty, to be updated on the next processing update.
+     */
+    public void markDirty(ServerlessInvoker vm) {
+        dirtyVms.add(vm);
+    }
+
+    /**
+     * Removes the VMs to update at a given time: the dirty VMs and the VMs with a request expected to finish
+     * by that time.
+     *
+     * @return the VMs in the order of their ids
+     */
+    public List<ServerlessInvoker> pollVmsToUpdate(double time) {
+        while (!completions.isEmpty() && completions.peek().time <= time) {
+            Completion completion = completions.poll();
+            if (isCurrent(completion)) {
+                completionTimes.remove(completion.vm);
+                dirtyVms.add(completion.vm);
+            }
+        }
+        List<ServerlessInvoker> vms = new ArrayList<>(dirtyVms);
+        dirtyVms.clear();
+        return vms;
+    }
+
+    /**
+     * Records the update of a VM.
+     *
+     * @param time the next expected request completion time returned by the update of the VM, 0 or
+     *             {@link Double#MAX_VALUE} if no request is running on the VM
+     */
+    public void vmUpdated(ServerlessInvoker vm, double time) {
+        dirtyVms.remove(vm);
+        if (time > 0 && time < Double.MAX_VALUE) {
+            completionTimes.put(vm, time);
+            completions.add(new Completion(vm, time));
+        } else {
+            completionTimes.remove(vm);
+        }
+    }
+
+    /**
+     * Records a request expected to finish on a VM, e.g. a request just submitted to it, unless the VM already has
+     * an earlier expected completion. The VM is to be marked as dirty as well, so that its next update gives its
+     * actual completion time.
+     */
+    public void expectCompletion(ServerlessInvoker vm, double time) {
+        Double current = completionTimes.get(vm);
+        if (time > 0 && time < Double.MAX_VALUE && (current == null || time < current)) {
+            completionTimes.put(vm, time);
+            completions.add(new Completion(vm, time));
+        }
+    }
+
+    /**
+     * Gets the earliest expected request completion time.
+     *
+     * @return the time or {@link Double#MAX_VALUE} if no request is running
+     */
+    public double getNextCompletionTime() {
+        while (!completions.isEmpty() && !isCurrent(completions.peek())) {
+            completions.poll();
+        }
+        return completions.isEmpty() ? Double.MAX_VALUE : completions.peek().time;
+    }
+
+    private boolean isCurrent(Completion completion) {
+        Double time = completionTimes.get(completion.vm);
+        return time != null && time == completion.time;
+    }
+
+    private static final class Completion implements Comparable<Completion> {
+
+        private final ServerlessInvoker vm;
+        private final double time;
+
+        private Completion(ServerlessInvoker vm, double time) {
+            this.vm = vm;
+            this.time = time;
+        }
+
+        @Override
+        public int compareTo(Completion other) {
+            return Double.compare(time, other.time);
+        }
+    }
+}
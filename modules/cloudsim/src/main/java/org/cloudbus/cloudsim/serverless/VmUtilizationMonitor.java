@@ -0,0 +1,112 @@
+package org.cloudbus.cloudsim.serverless;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Event-free monitor of the CPU utilization of the VMs of a controller. Instead of sampling the VMs on every
+ * {@link Constants#CPU_USAGE_MONITORING_INTERVAL}, the monitor is told by the {@link ServerlessContainerScheduler}
+ * of each VM whenever the MIPS allocated to containers are about to change. The utilization is constant between
+ * these changes, so the averages are obtained by integrating it over time, without any simulation event.
+ *
+ * Like the sampled monitoring of {@link ServerlessController}, only the time during which at least one VM is in
+ * use is taken into account, and the utilization at a given time is the average over the VMs in use.
+ */
+
+public class VmUtilizationMonitor {
+
+    private final List<ServerlessInvoker> vms = new ArrayList<>();
+    /**
+     * The time up to which the utilization has been integrated
+     */
+    private double lastUpdateTime = 0;
+    /**
+     * Whether the allocations changed at the last update time, so the current utilization has to be computed again
+     */
+    private boolean changed = false;
+    private double averageUtilization = 0;
+    private int usedVmCount = 0;
+    private double usedTime = 0;
+    private double utilizationIntegral = 0;
+    private double vmCountIntegral = 0;
+
+    /**
+     * Starts monitoring a VM.
+     */
+    public void addVm(ServerlessInvoker vm) {
+        update();
+        vms.add(vm);
+        ((ServerlessContainerScheduler) vm.getContainerScheduler()).setUtilizationMonitor(this);
+        changed = true;
+    }
+
+    /**
+     * Called before the MIPS allocated on a VM change.
+     */
+    void utilizationChanging() {
+        update();
+        changed = true;
+    }
+
+    /**
+     * Integrates the utilization up to the current simulation time.
+     */
+    private void update() {
+        double time = CloudSim.clock();
+        if (time <= lastUpdateTime) {
+            return;
+        }
+        if (changed) {
+            computeUtilization();
+            changed = false;
+        }
+        if (usedVmCount > 0) {
+            double duration = time - lastUpdateTime;
+            usedTime += duration;
+            utilizationIntegral += averageUtilization * duration;
+            vmCountIntegral += usedVmCount * duration;
+        }
+        lastUpdateTime = time;
+    }
+
+    private void computeUtilization() {
+        double sum = 0;
+        int vmCount = 0;
+        for (ServerlessInvoker vm : vms) {
+            double utilization = 1 - vm.getAvailableMips() / vm.getTotalMips();
+            if (utilization > 0) {
+                vm.used = true;
+                vmCount++;
+                sum += utilization;
+            }
+        }
+        usedVmCount = vmCount;
+        averageUtilization = vmCount > 0 ? sum / vmCount : 0;
+    }
+
+    /**
+     * Gets the time during which at least one VM was in use.
+     */
+    public double getUsedTime() {
+        update();
+        return usedTime;
+    }
+
+    /**
+     * Gets the time-weighted average utilization of the VMs in use, or 0 if no VM has been in use yet.
+     */
+    public double getAverageResourceUtilization() {
+        update();
+        return usedTime > 0 ? utilizationIntegral / usedTime : 0;
+    }
+
+    /**
+     * Gets the time-weighted average number of VMs in use, or 0 if no VM has been in use yet.
+     */
+    public double getAverageVmCount() {
+        update();
+        return usedTime > 0 ? vmCountIntegral / usedTime : 0;
+    }
+}
@@ -0,0 +1,178 @@
+package org.cloudbus.cloudsim.serverless;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Index of the warm (created) containers of each function, used by {@link RequestLoadBalancer} to select the
+ * container of a request without going through all the VMs and their containers. The containers of a function
+ * are kept ordered according to the container selection policy:
+ * <ul>
+ *     <li>FF: first fit, in the order of the VM ids and then of the container creation</li>
+ *     <li>BF: best fit, the container with the least free CPU share (then memory) that fits the request</li>
+ *     <li>LL: least loaded, the container with the most free CPU share (then memory)</li>
+ * </ul>
+ *
+ * The free CPU and memory shares of a container are updated by its {@link ServerlessRequestScheduler} whenever
+ * resources are allocated to or deallocated from requests, and the container leaves the index when it is
+ * destroyed on its {@link ServerlessInvoker}.
+ */
+
+public class WarmContainerIndex {
+
+    private static final Comparator<Entry> FIRST_FIT = Comparator.<Entry>comparingInt(entry -> entry.vmId)
+            .thenComparingLong(entry -> entry.sequence);
+    private static final Comparator<Entry> BEST_FIT = Comparator.<Entry>comparingDouble(entry -> entry.freeMipsShare)
+            .thenComparingDouble(entry -> entry.freeRam).thenComparing(FIRST_FIT);
+    private static final Comparator<Entry> LEAST_LOADED = Comparator.<Entry>comparingDouble(entry -> -entry.freeMipsShare)
+            .thenComparingDouble(entry -> -entry.freeRam).thenComparing(FIRST_FIT);
+
+    private final String selectionAlgo;
+    private final Comparator<Entry> order;
+    /**
+     * The warm containers of each function, in selection order
+     */
+    private final Map<String, TreeSet<Entry>> functionContainers = new HashMap<>();
+    private long sequence = 0;
+
+    public WarmContainerIndex(String selectionAlgo) {
+        this.selectionAlgo = selectionAlgo;
+        switch (selectionAlgo) {
+            case "BF":
+                order = BEST_FIT;
+                break;
+            case "LL":
+                order = LEAST_LOADED;
+                break;
+            default:
+                order = FIRST_FIT;
+                break;
+        }
+    }
+
+    public String getSelectionAlgo() {
+        return selectionAlgo;
+    }
+
+    /**
+     * Adds a container created on a VM. Containers already in the index are ignored.
+     */
+    public void add(ServerlessContainer container, ServerlessInvoker vm) {
+        ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+        if (scheduler.getWarmContainerEntry() != null) {
+            return;
+        }
+        Entry entry = new Entry(container, vm.getId(), sequence++);
+        entry.refresh();
+        TreeSet<Entry> containers = functionContainers.get(container.getType());
+        if (containers == null) {
+            containers = new TreeSet<>(order);
+            functionContainers.put(container.getType(), containers);
+        }
+        containers.add(entry);
+        scheduler.setWarmContainerEntry(entry);
+    }
+
+    /**
+     * Removes a container from the index, if it is in it.
+     */
+    public void remove(ServerlessContainer container) {
+        ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+        Entry entry = scheduler.getWarmContainerEntry();
+        if (entry == null || entry.getIndex() != this) {
+            return;
+        }
+        TreeSet<Entry> containers = functionContainers.get(container.getType());
+        containers.remove(entry);
+        if (containers.isEmpty()) {
+            functionContainers.remove(container.getType());
+        }
+        scheduler.setWarmContainerEntry(null);
+    }
+
+    /**
+     * Checks if there is any warm container of a function.
+     */
+    public boolean hasContainers(String functionId) {
+        return functionContainers.containsKey(functionId);
+    }
+
+    public int getContainerCount(String functionId) {
+        TreeSet<Entry> containers = functionContainers.get(functionId);
+        return containers == null ? 0 : containers.size();
+    }
+
+    /**
+     * Selects the warm container a request is sent to, according to the selection policy.
+     *
+     * @return the container or null if no warm container of the function of the request fits it
+     */
+    public ServerlessContainer select(ServerlessRequest request) {
+        TreeSet<Entry> containers = functionContainers.get(request.getRequestFunctionId());
+        if (containers == null) {
+            return null;
+        }
+        Iterable<Entry> candidates = containers;
+        if (order == BEST_FIT) {
+            // the containers with less free CPU share than requested are skipped
+            Entry probe = new Entry(null, Integer.MIN_VALUE, Long.MIN_VALUE);
+            probe.freeMipsShare = request.getUtilizationOfCpu();
+            probe.freeRam = Double.NEGATIVE_INFINITY;
+            candidates = containers.tailSet(probe, true);
+        }
+        for (Entry entry : candidates) {
+            if (order == LEAST_LOADED && entry.freeMipsShare < request.getUtilizationOfCpu()) {
+                break;
+            }
+            ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) entry.container.getContainerCloudletScheduler();
+            if (scheduler.fitsRequest(request, entry.container)) {
+                return entry.container;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The position of a container in the index
+     */
+    final class Entry {
+
+        private final ServerlessContainer container;
+        private final int vmId;
+        private final long sequence;
+        private double freeMipsShare;
+        private double freeRam;
+
+        private Entry(ServerlessContainer container, int vmId, long sequence) {
+            this.container = container;
+            this.vmId = vmId;
+            this.sequence = sequence;
+        }
+
+        WarmContainerIndex getIndex() {
+            return WarmContainerIndex.this;
+        }
+
+        private void refresh() {
+            ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+            freeMipsShare = 1 - scheduler.getTotalCurrentAllocatedMipsShareForRequests();
+            freeRam = container.getRam() - scheduler.getTotalCurrentAllocatedRamForRequests();
+        }
+
+        /**
+         * Moves the container to its new position after its allocated resources changed.
+         */
+        void update() {
+            if (order == FIRST_FIT) {
+                refresh();
+                return;
+            }
+            TreeSet<Entry> containers = functionContainers.get(container.getType());
+            containers.remove(this);
+            refresh();
+            containers.add(this);
+        }
+    }
+}
@@ -3,6 +3,7 @@ package org.cloudbus.cloudsim.serverless;
 import org.cloudbus.cloudsim.Cloudlet;
 import org.cloudbus.cloudsim.DatacenterBroker;
 import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
 import org.cloudbus.cloudsim.Vm;
 import org.cloudbus.cloudsim.VmAllocationPolicy;
 import org.cloudbus.cloudsim.core.CloudSim;
@@ -112,15 +113,15 @@ public class WorkflowBroker extends DatacenterBroker {
                 
             // Check if all VMs have been created and allocated
             if (getVmsCreatedList().size() == getVmList().size()) {
-                System.out.println("All VMs created and allocated, starting cloudlet scheduling");
+                Log.printLine(Log.Level.INFO, "All VMs created and allocated, starting cloudlet scheduling");
                 
                 // Verify all VMs are properly allocated to hosts
                 for (Vm vm : getVmsCreatedList()) {
                     Host host = getVmAllocationPolicy().getHost(vm.getId(), getId());
                     if (host == null) {
-                        System.err.println("Error: VM " + vm.getId() + " not allocated to any host!");
+                        Log.printLine(Log.Level.ERROR, "Error: VM " + vm.getId() + " not allocated to any host!");
                     } else {
-                        System.out.println("VM " + vm.getId() + " is on Host " + host.getId());
+                        Log.printLine(Log.Level.DEBUG, () -> "VM " + vm.getId() + " is on Host " + host.getId());
                     }
                 }
                 
@@ -138,7 +139,7 @@ public class WorkflowBroker extends DatacenterBroker {
     }
     
     private void scheduleAllReadyFunctions() {
-        System.out.println("Scheduling " + readyQueue.size() + " ready functions");
+        Log.printLine(Log.Level.INFO, "Scheduling " + readyQueue.size() + " ready functions");
         while (!readyQueue.isEmpty()) {
             scheduleNextFunction();
         }
@@ -170,18 +171,18 @@ public class WorkflowBroker extends DatacenterBroker {
         getCloudletList().add(cloudlet);
         
         // Get the first datacenter ID using CloudSim's entity system
-        int datacenterId = CloudSim.getCloudResourceList().get(0);
+        int datacenterId = CloudSim.getCloudResourceList(getId()).get(0);
         sendNow(datacenterId, CloudSimTags.CLOUDLET_SUBMIT, cloudlet);
     }
     
     // Alternative method to get datacenter IDs
     private List<Integer> getDatacenterIds() {
-        return CloudSim.getCloudResourceList();
+        return CloudSim.getCloudResourceList(getId());
     }
 
      public VmAllocationPolicy getVmAllocationPolicy() {
         if (getDatacenterIds() == null || getDatacenterIds().isEmpty()) {
-            System.err.println("No datacenters available");
+            Log.printLine(Log.Level.WARN, "No datacenters available");
             return null;
         }
         
@@ -191,7 +192,7 @@ public class WorkflowBroker extends DatacenterBroker {
         if (datacenter != null) {
             return datacenter.getVmAllocationPolicy();
         } else {
-            System.err.println("Datacenter not found with ID: " + datacenterId);
+            Log.printLine(Log.Level.WARN, "Datacenter not found with ID: " + datacenterId);
             return null;
         }
     }
@@ -201,9 +202,9 @@ public class WorkflowBroker extends DatacenterBroker {
     if (policy != null) {
         Host host = policy.getHost(vmId, getId());
         if (host != null) {
-            System.out.println("VM " + vmId + " is allocated to Host " + host.getId());
+            Log.printLine(Log.Level.DEBUG, () -> "VM " + vmId + " is allocated to Host " + host.getId());
         } else {
-            System.err.println("VM " + vmId + " is not allocated to any host");
+            Log.printLine(Log.Level.WARN, "VM " + vmId + " is not allocated to any host");
         }
     }
 }
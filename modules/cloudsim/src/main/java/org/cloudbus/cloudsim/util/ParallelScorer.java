@@ -0,0 +1,153 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.ToDoubleFunction;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+
+/**
+ * Scores candidates in parallel and selects the one with the lowest score, as VM allocation
+ * policies do to select a host. The candidates are split into partitions scored by the workers of
+ * a fork/join pool, then the scores are compared in the order of the candidates, so the selected
+ * candidate is the first one with the lowest score, whatever the number of workers.
+ * <p>
+ * The scoring function is called from the workers, which run in the simulation of the calling
+ * thread, so it must not change anything another candidate is scored from.
+ */
+public class ParallelScorer {
+
+	/** The default number of candidates scored by a task, below which they are not split. */
+	public static final int DEFAULT_PARTITION_SIZE = 32;
+
+	/** The workers. */
+	private final ForkJoinPool pool;
+
+	/** The number of candidates scored by a task, below which they are not split. */
+	private final int partitionSize;
+
+	/**
+	 * Creates a scorer.
+	 *
+	 * @param workers the number of workers
+	 */
+	public ParallelScorer(int workers) {
+		this(workers, DEFAULT_PARTITION_SIZE);
+	}
+
+	/**
+	 * Creates a scorer.
+	 *
+	 * @param workers the number of workers
+	 * @param partitionSize the number of candidates scored by a task, below which they are not
+	 *            split
+	 */
+	public ParallelScorer(int workers, int partitionSize) {
+		if (workers < 1 || partitionSize < 1) {
+			throw new IllegalArgumentException("The workers and the partition size have to be positive.");
+		}
+		pool = new ForkJoinPool(workers);
+		this.partitionSize = partitionSize;
+	}
+
+	/**
+	 * Gets the number of workers.
+	 *
+	 * @return the number of workers
+	 */
+	public int getWorkers() {
+		return pool.getParallelism();
+	}
+
+	/**
+	 * Scores candidates and selects the one with the lowest score. A candidate is only selected
+	 * if its score is below {@link Double#MAX_VALUE}, so NaN rejects a candidate.
+	 *
+	 * @param candidates the candidates
+	 * @param score the scoring function
+	 * @return the index of the first candidate with the lowest score, -1 if none is selected
+	 */
+	public <T> int findMinimum(List<T> candidates, ToDoubleFunction<? super T> score) {
+		double[] scores = new double[candidates.size()];
+		if (candidates.size() <= partitionSize || getWorkers() == 1) {
+			for (int i = 0; i < scores.length; i++) {
+				scores[i] = score.applyAsDouble(candidates.get(i));
+			}
+		} else {
+			pool.invoke(new ScoreTask<T>(CloudSim.getSimulation(), candidates, score, scores, 0, scores.length));
+		}
+
+		double minScore = Double.MAX_VALUE;
+		int minIndex = -1;
+		for (int i = 0; i < scores.length; i++) {
+			if (scores[i] < minScore) {
+				minScore = scores[i];
+				minIndex = i;
+			}
+		}
+		return minIndex;
+	}
+
+	/**
+	 * Stops the workers.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Scores a range of candidates, splitting it in two while it is larger than a partition.
+	 */
+	private class ScoreTask<T> extends RecursiveAction {
+
+		private static final long serialVersionUID = 1L;
+
+		private final Simulation simulation;
+
+		private final List<T> candidates;
+
+		private final ToDoubleFunction<? super T> score;
+
+		private final double[] scores;
+
+		private final int from;
+
+		private final int to;
+
+		public ScoreTask(Simulation simulation, List<T> candidates, ToDoubleFunction<? super T> score,
+				double[] scores, int from, int to) {
+			this.simulation = simulation;
+			this.candidates = candidates;
+			this.score = score;
+			this.scores = scores;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > partitionSize) {
+				int middle = (from + to) >>> 1;
+				invokeAll(new ScoreTask<T>(simulation, candidates, score, scores, from, middle),
+						new ScoreTask<T>(simulation, candidates, score, scores, middle, to));
+				return;
+			}
+			CloudSim.setSimulation(simulation);
+			for (int i = from; i < to; i++) {
+				scores[i] = score.applyAsDouble(candidates.get(i));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,322 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.util;
+
+import java.util.Arrays;
+
+/**
+ * Statistics of the most recent values of a series, updated as the series slides instead of being
+ * computed again from all the values. The values are kept both in arrival order and sorted, so
+ * adding a value costs a binary search and the shift of the sorted array, the median, MAD and IQR
+ * are read from the sorted array, and the least-squares line is kept as running sums.
+ * <p>
+ * The statistics are the ones {@link MathUtil#median(double[])}, {@link MathUtil#mad(double[])},
+ * {@link MathUtil#iqr(double[])} and {@link MathUtil#getLoessParameterEstimates(double[])} compute
+ * for the same values, so a policy can use either.
+ */
+public class SlidingWindowStatistics {
+
+	/** The values in arrival order, the most recent one at {@link #first}. */
+	private final double[] values;
+
+	/** The index of the most recent value in {@link #values}. */
+	private int first;
+
+	/** The number of values. */
+	private int size;
+
+	/** The values in ascending order. */
+	private final double[] sorted;
+
+	/** The sum of the values. */
+	private double sumY;
+
+	/**
+	 * The sum of the values weighted by their position, the oldest value being at position 1 and
+	 * the most recent one at position {@link #size}.
+	 */
+	private double sumXY;
+
+	/** The number of values dropped since the running sums were last computed from the values. */
+	private int drops;
+
+	/**
+	 * Instantiates new empty statistics.
+	 *
+	 * @param length the maximum number of values kept, the oldest values being dropped
+	 */
+	public SlidingWindowStatistics(final int length) {
+		if (length <= 0) {
+			throw new IllegalArgumentException("The length of the window has to be positive.");
+		}
+		values = new double[length];
+		sorted = new double[length];
+	}
+
+	/**
+	 * Adds a value as the most recent one, dropping the oldest value if the window is full.
+	 *
+	 * @param value the value
+	 */
+	public void add(final double value) {
+		if (size == values.length) {
+			removeOldest();
+		}
+		int index = Arrays.binarySearch(sorted, 0, size, value);
+		if (index < 0) {
+			index = -index - 1;
+		}
+		System.arraycopy(sorted, index, sorted, index + 1, size - index);
+		sorted[index] = value;
+
+		first = first == 0 ? values.length - 1 : first - 1;
+		values[first] = value;
+		size++;
+		sumY += value;
+		sumXY += size * value;
+	}
+
+	/**
+	 * Drops the oldest value.
+	 */
+	private void removeOldest() {
+		double oldest = getValue(size - 1);
+		int index = Arrays.binarySearch(sorted, 0, size, oldest);
+		System.arraycopy(sorted, index + 1, sorted, index, size - index - 1);
+		size--;
+		// every value moves one position down, the oldest one to position 0
+		sumXY -= sumY;
+		sumY -= oldest;
+		if (++drops >= values.length) {
+			computeSums();
+		}
+	}
+
+	/**
+	 * Computes the running sums again from the values, so that their rounding errors do not
+	 * accumulate.
+	 */
+	private void computeSums() {
+		sumY = 0;
+		sumXY = 0;
+		for (int i = size - 1; i >= 0; i--) {
+			double value = getValue(i);
+			sumY += value;
+			sumXY += (size - i) * value;
+		}
+		drops = 0;
+	}
+
+	/**
+	 * Brings the window to the most recent values of a series. If the series only slid by one
+	 * value since the last update, the new value is just added, otherwise the window is filled
+	 * again.
+	 *
+	 * @param series the values of the series, the most recent one first; only the first
+	 *            {@link #getLength()} values are used
+	 */
+	public void update(final double[] series) {
+		int length = Math.min(series.length, values.length);
+		if (length == size && matches(series, 0, length)) {
+			return;
+		}
+		if (length > 0 && (length == size || length == size + 1) && matches(series, 1, length - 1)) {
+			add(series[0]);
+			return;
+		}
+		clear();
+		for (int i = length - 1; i >= 0; i--) {
+			add(series[i]);
+		}
+	}
+
+	/**
+	 * Checks if values of a series are the most recent values of the window.
+	 *
+	 * @param series the values of the series, the most recent one first
+	 * @param offset the index in the series of the most recent value of the window
+	 * @param count the number of values to compare
+	 * @return true if the values are the same
+	 */
+	private boolean matches(final double[] series, final int offset, final int count) {
+		for (int i = 0; i < count; i++) {
+			if (Double.doubleToLongBits(series[offset + i]) != Double.doubleToLongBits(getValue(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Gets a value.
+	 *
+	 * @param index the index of the value, 0 for the most recent one
+	 * @return the value
+	 */
+	public double getValue(final int index) {
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+		}
+		int i = first + index;
+		return values[i < values.length ? i : i - values.length];
+	}
+
+	/**
+	 * Gets the number of values.
+	 *
+	 * @return the number of values
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gets the maximum number of values kept.
+	 *
+	 * @return the length
+	 */
+	public int getLength() {
+		return values.length;
+	}
+
+	/**
+	 * Removes all the values.
+	 */
+	public void clear() {
+		first = 0;
+		size = 0;
+		sumY = 0;
+		sumXY = 0;
+		drops = 0;
+	}
+
+	/**
+	 * Gets the median of the values.
+	 *
+	 * @return the median, NaN if there are no values
+	 * @see MathUtil#median(double[])
+	 */
+	public double getMedian() {
+		if (size == 0) {
+			return Double.NaN;
+		}
+		double pos = 0.5 * (size + 1);
+		int index = (int) Math.floor(pos);
+		if (index >= size) {
+			return sorted[size - 1];
+		}
+		double lower = sorted[index - 1];
+		return lower + (pos - index) * (sorted[index] - lower);
+	}
+
+	/**
+	 * Gets the Median absolute deviation (MAD) of the values. The deviations below and above the
+	 * median are two sorted sequences, so their median is found by binary search, without sorting
+	 * them.
+	 *
+	 * @return the MAD, 0 if there are no values
+	 * @see MathUtil#mad(double[])
+	 */
+	public double getMad() {
+		if (size == 0) {
+			return 0;
+		}
+		double median = getMedian();
+		// the values at and after split are above the median
+		int split = 0;
+		int end = size;
+		while (split < end) {
+			int i = (split + end) >>> 1;
+			if (sorted[i] > median) {
+				end = i;
+			} else {
+				split = i + 1;
+			}
+		}
+		double pos = 0.5 * (size + 1);
+		int index = (int) Math.floor(pos);
+		if (index >= size) {
+			return getDeviation(median, split, size - 1);
+		}
+		double lower = getDeviation(median, split, index - 1);
+		return lower + (pos - index) * (getDeviation(median, split, index) - lower);
+	}
+
+	/**
+	 * Gets a deviation from the median in ascending order, merging the deviations of the values
+	 * below the median, in descending order of the values, with the ones of the values above it.
+	 *
+	 * @param median the median
+	 * @param split the index of the first value above the median
+	 * @param k the index of the deviation
+	 * @return the deviation
+	 */
+	private double getDeviation(final double median, final int split, final int k) {
+		int below = split;
+		int above = size - split;
+		int lo = Math.max(0, k + 1 - above);
+		int hi = Math.min(k + 1, below);
+		while (lo < hi) {
+			int i = (lo + hi) >>> 1;
+			int j = k + 1 - i;
+			if (j > 0 && Math.abs(median - sorted[split - 1 - i]) < Math.abs(median - sorted[split + j - 1])) {
+				lo = i + 1;
+			} else {
+				hi = i;
+			}
+		}
+		int j = k + 1 - lo;
+		double deviation = Double.NEGATIVE_INFINITY;
+		if (lo > 0) {
+			deviation = Math.abs(median - sorted[split - lo]);
+		}
+		if (j > 0) {
+			deviation = Math.max(deviation, Math.abs(median - sorted[split + j - 1]));
+		}
+		return deviation;
+	}
+
+	/**
+	 * Gets the Interquartile Range (IQR) of the values.
+	 *
+	 * @return the IQR
+	 * @throws IllegalArgumentException if there are less than 2 values
+	 * @see MathUtil#iqr(double[])
+	 */
+	public double getIqr() {
+		if (size < 2) {
+			throw new IllegalArgumentException("Not enough values to compute the IQR.");
+		}
+		int q1 = (int) Math.round(0.25 * (size + 1)) - 1;
+		int q3 = (int) Math.round(0.75 * (size + 1)) - 1;
+		return sorted[q3] - sorted[q1];
+	}
+
+	/**
+	 * Gets the parameters of the least-squares line fitting the values, the oldest value being at
+	 * x = 1 and the most recent one at x = {@link #size()}. The tricube weights of
+	 * {@link MathUtil#getLoessParameterEstimates(double[])} are all positive, so it fits the same
+	 * line to the values in that order.
+	 *
+	 * @return the intercept and the slope
+	 * @throws IllegalArgumentException if there are less than 3 values
+	 */
+	public double[] getLinearParameterEstimates() {
+		if (size < 3) {
+			throw new IllegalArgumentException("Not enough values to fit a line.");
+		}
+		double n = size;
+		double sumX = n * (n + 1) / 2;
+		double sumXX = n * (n + 1) * (2 * n + 1) / 6;
+		double slope = (n * sumXY - sumX * sumY) / (n * sumXX - sumX * sumX);
+		double intercept = (sumY - slope * sumX) / n;
+		return new double[] { intercept, slope };
+	}
+
+}
@@ -11,11 +11,13 @@ package org.cloudbus.cloudsim;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.text.DecimalFormatSymbols;
 import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -175,4 +177,73 @@ public class LogTest {
 		OUTPUT.reset();
 	}
 
+	@Test
+	public void testLevel() throws IOException {
+		OUTPUT.reset();
+		assertEquals(Log.Level.INFO, Log.getLevel());
+		final AtomicInteger built = new AtomicInteger();
+		try {
+			Log.printLine(Log.Level.DEBUG, () -> "debug " + built.incrementAndGet());
+			Log.formatLine(Log.Level.DEBUG, "test %s test", "test");
+			Log.printConcatLine(Log.Level.DEBUG, "test", 1);
+			assertEquals("", OUTPUT.toString());
+			assertEquals(0, built.get());
+
+			Log.printLine(Log.Level.WARN, "warn");
+			Log.printConcatLine(Log.Level.INFO, "test", 1);
+			assertEquals("warn" + LINE_SEPARATOR + "test1" + LINE_SEPARATOR, OUTPUT.toString());
+			OUTPUT.reset();
+
+			Log.setLevel(Log.Level.DEBUG);
+			Log.printLine(Log.Level.DEBUG, () -> "debug " + built.incrementAndGet());
+			assertEquals("debug 1" + LINE_SEPARATOR, OUTPUT.toString());
+			OUTPUT.reset();
+
+			Log.setLevel(Log.Level.ERROR);
+			assertFalse(Log.isLoggable(Log.Level.WARN));
+			Log.printLine("test test");
+			Log.printLine(Log.Level.ERROR, "error");
+			assertEquals("error" + LINE_SEPARATOR, OUTPUT.toString());
+			OUTPUT.reset();
+
+			Log.disable();
+			assertFalse(Log.isLoggable(Log.Level.ERROR));
+			Log.printLine(Log.Level.ERROR, "error");
+			assertEquals("", OUTPUT.toString());
+		} finally {
+			Log.enable();
+			Log.setLevel(Log.Level.INFO);
+		}
+	}
+
+	@Test
+	public void testAsyncLogOutput() throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		AsyncLogOutput output = new AsyncLogOutput(target, 4);
+		Log.setOutput(output);
+		StringBuilder expected = new StringBuilder();
+		for (int i = 0; i < 100; i++) {
+			Log.printLine(i);
+			expected.append(i).append(LINE_SEPARATOR);
+		}
+		output.close();
+		Log.setOutput(OUTPUT);
+		assertEquals(expected.toString(), target.toString());
+	}
+
+	@Test
+	public void testAsyncLogOutputRejectsWritesAfterClose() throws IOException {
+		ByteArrayOutputStream target = new ByteArrayOutputStream();
+		AsyncLogOutput output = new AsyncLogOutput(target, 1);
+		output.write('a');
+		output.close();
+		try {
+			output.write('b');
+			fail("A write after close is accepted.");
+		} catch (IOException e) {
+			// expected
+		}
+		assertEquals("a", target.toString());
+	}
+
 }
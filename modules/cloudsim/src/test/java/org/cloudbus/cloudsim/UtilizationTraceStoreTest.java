@@ -0,0 +1,97 @@
+package org.cloudbus.cloudsim;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class UtilizationTraceStoreTest {
+
+	public static final double SCHEDULING_INTERVAL = 300;
+
+	public static final String FILE = UtilizationModelPlanetLabInMemoryTest.FILE;
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private File inputFolder;
+
+	private File storeFile;
+
+	@Before
+	public void setUp() throws Exception {
+		inputFolder = folder.newFolder("traces");
+		Files.copy(new File(getClass().getClassLoader().getResource(FILE).getPath()).toPath(), new File(
+				inputFolder,
+				FILE).toPath());
+		FileWriter writer = new FileWriter(new File(inputFolder, "constant"));
+		for (int i = 0; i < 300; i++) {
+			writer.write("100\n");
+		}
+		writer.close();
+		storeFile = new File(folder.getRoot(), "traces.store");
+	}
+
+	@Test
+	public void testMatchesInMemoryModel() throws IOException {
+		UtilizationTraceStore store = UtilizationTraceStore.open(inputFolder, storeFile);
+		assertEquals(Arrays.asList(FILE, "constant"), store.getTraceNames());
+
+		UtilizationModelPlanetLabInMemory expected = new UtilizationModelPlanetLabInMemory(new File(
+				inputFolder,
+				FILE).getPath(), SCHEDULING_INTERVAL);
+		UtilizationModelPlanetLabMapped model = store.getUtilizationModel(FILE, SCHEDULING_INTERVAL);
+		assertArrayEquals(expected.getData(), model.getData(), 0);
+		for (double time = 0; time <= 288 * SCHEDULING_INTERVAL; time += 7.5) {
+			assertEquals(expected.getUtilization(time), model.getUtilization(time), 0);
+		}
+		assertEquals(1.0, store.getUtilizationModel("constant", SCHEDULING_INTERVAL).getUtilization(1000), 0);
+	}
+
+	@Test
+	public void testReopenWithoutConverting() throws IOException {
+		UtilizationTraceStore.open(inputFolder, storeFile);
+		long lastModified = storeFile.lastModified();
+		UtilizationTraceStore store = UtilizationTraceStore.open(inputFolder, storeFile);
+		assertEquals(lastModified, storeFile.lastModified());
+		assertEquals(UtilizationTraceStore.DEFAULT_DATA_SAMPLES, store.getDataSamples());
+
+		store = UtilizationTraceStore.open(inputFolder, storeFile, 100);
+		assertEquals(100, store.getDataSamples());
+		assertEquals(0.3, store.getUtilizationModel(FILE, SCHEDULING_INTERVAL).getData()[99], 0);
+	}
+
+	@Test
+	public void testConvertAgainAfterTraceChange() throws IOException {
+		UtilizationTraceStore.open(inputFolder, storeFile);
+		long folderLastModified = inputFolder.lastModified();
+
+		// the trace is edited in place, keeping its size and getting a time older than the store
+		File constant = new File(inputFolder, "constant");
+		FileWriter writer = new FileWriter(constant);
+		for (int i = 0; i < 300; i++) {
+			writer.write("050\n");
+		}
+		writer.close();
+		constant.setLastModified(folderLastModified - 60000);
+		inputFolder.setLastModified(folderLastModified);
+
+		UtilizationTraceStore store = UtilizationTraceStore.open(inputFolder, storeFile);
+		assertEquals(0.5, store.getUtilizationModel("constant", SCHEDULING_INTERVAL).getUtilization(1000), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownTrace() throws IOException {
+		UtilizationTraceStore.open(inputFolder, storeFile).getUtilizationModel("unknown", SCHEDULING_INTERVAL);
+	}
+
+}
@@ -0,0 +1,85 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.container.lists;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.Iterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class IdIndexedListTest {
+
+	/** The elements are pairs of an id and a value. */
+	private IdIndexedList<int[]> list;
+
+	@Before
+	public void setUp() throws Exception {
+		list = new IdIndexedList<int[]>(element -> element[0]);
+		for (int i = 0; i < 5; i++) {
+			list.add(new int[] { i, 0 });
+		}
+	}
+
+	@Test
+	public void testGetById() {
+		for (int i = 0; i < 5; i++) {
+			assertSame(list.get(i), list.getById(i));
+		}
+		assertNull(list.getById(5));
+
+		int[] element = list.remove(2);
+		assertNull(list.getById(2));
+		list.add(0, element);
+		assertSame(element, list.getById(2));
+
+		int[] replacement = new int[] { 7, 0 };
+		list.set(0, replacement);
+		assertNull(list.getById(2));
+		assertSame(replacement, list.getById(7));
+
+		list.clear();
+		assertNull(list.getById(7));
+		assertEquals(0, list.size());
+	}
+
+	@Test
+	public void testGetByDuplicateId() {
+		int[] first = list.get(3);
+		int[] second = new int[] { 3, 1 };
+		int[] third = new int[] { 3, 2 };
+		list.add(second);
+		list.add(1, third);
+		assertSame(third, list.getById(3));
+
+		list.remove(third);
+		assertSame(first, list.getById(3));
+		list.remove(first);
+		assertSame(second, list.getById(3));
+		list.remove(second);
+		assertNull(list.getById(3));
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		for (Iterator<int[]> iterator = list.iterator(); iterator.hasNext();) {
+			if (iterator.next()[0] % 2 == 0) {
+				iterator.remove();
+			}
+		}
+		assertEquals(2, list.size());
+		assertNull(list.getById(0));
+		assertSame(list.get(0), list.getById(1));
+		assertSame(list.get(1), list.getById(3));
+	}
+
+}
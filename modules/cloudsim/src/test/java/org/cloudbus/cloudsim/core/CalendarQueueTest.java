@@ -0,0 +1,232 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class CalendarQueueTest {
+
+	private CalendarQueue queue;
+
+	@Before
+	public void setUp() throws Exception {
+		queue = new CalendarQueue();
+	}
+
+	@Test
+	public void testEmptyQueue() {
+		assertEquals(0, queue.size());
+		assertNull(queue.peek());
+		assertNull(queue.poll());
+		assertFalse(queue.iterator().hasNext());
+	}
+
+	@Test
+	public void testSameOrderAsFutureQueue() {
+		FutureQueue reference = new FutureQueue();
+		Random random = new Random(1);
+		double now = 0;
+
+		for (int round = 0; round < 200; round++) {
+			int toAdd = random.nextInt(100);
+			for (int i = 0; i < toAdd; i++) {
+				// many events at the same time, a few far in the future
+				double time = now + (random.nextInt(4) == 0 ? 0 : random.nextInt(10) * 0.1);
+				if (random.nextInt(50) == 0) {
+					time += 10000;
+				}
+				SimEvent event = newEvent(time, i);
+				SimEvent copy = newEvent(time, i);
+				if (random.nextInt(20) == 0) {
+					queue.addEventFirst(event);
+					reference.addEventFirst(copy);
+				} else {
+					queue.addEvent(event);
+					reference.addEvent(copy);
+				}
+			}
+
+			int toPoll = random.nextInt(100);
+			for (int i = 0; i < toPoll && reference.size() > 0; i++) {
+				SimEvent expected = reference.poll();
+				SimEvent actual = queue.poll();
+				assertEvent(expected, actual);
+				now = actual.eventTime();
+			}
+			assertEquals(reference.size(), queue.size());
+		}
+
+		while (reference.size() > 0) {
+			assertEvent(reference.poll(), queue.poll());
+		}
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testPeek() {
+		SimEvent later = newEvent(5, 0);
+		SimEvent earlier = newEvent(2, 1);
+		queue.addEvent(later);
+		queue.addEvent(earlier);
+
+		assertSame(earlier, queue.peek());
+		assertSame(earlier, queue.peek());
+		assertEquals(2, queue.size());
+		assertSame(earlier, queue.poll());
+		assertSame(later, queue.peek());
+	}
+
+	@Test
+	public void testAddEventFirst() {
+		SimEvent first = newEvent(1, 0);
+		SimEvent second = newEvent(1, 1);
+		SimEvent priority1 = newEvent(1, 2);
+		SimEvent priority2 = newEvent(1, 3);
+		// the first added event takes the serial 0 as well
+		queue.addEvent(newEvent(0, 4));
+		queue.addEvent(first);
+		queue.addEvent(second);
+		queue.addEventFirst(priority1);
+		queue.addEventFirst(priority2);
+
+		assertEquals(4, queue.poll().getTag());
+		assertSame(priority1, queue.poll());
+		assertSame(priority2, queue.poll());
+		assertSame(first, queue.poll());
+		assertSame(second, queue.poll());
+	}
+
+	@Test
+	public void testDrainFirstTime() {
+		FutureQueue reference = new FutureQueue();
+		Random random = new Random(2);
+		for (int i = 0; i < 5000; i++) {
+			double time = random.nextInt(200) * 0.5;
+			queue.addEvent(newEvent(time, i));
+			reference.addEvent(newEvent(time, i));
+		}
+
+		List<SimEvent> batch = new ArrayList<SimEvent>();
+		List<SimEvent> expected = new ArrayList<SimEvent>();
+		while (reference.size() > 0) {
+			batch.clear();
+			expected.clear();
+			assertEquals(reference.drainFirstTime(expected), queue.drainFirstTime(batch));
+			assertEquals(expected.size(), batch.size());
+			for (int i = 0; i < batch.size(); i++) {
+				assertEvent(expected.get(i), batch.get(i));
+				assertEquals(batch.get(0).eventTime(), batch.get(i).eventTime(), 0);
+			}
+			assertEquals(reference.size(), queue.size());
+			if (queue.size() > 0) {
+				assertTrue(queue.peek().eventTime() > batch.get(0).eventTime());
+			}
+		}
+		assertEquals(0, queue.drainFirstTime(batch));
+	}
+
+	@Test
+	public void testRemove() {
+		List<SimEvent> events = new ArrayList<SimEvent>();
+		for (int i = 0; i < 1000; i++) {
+			SimEvent event = newEvent(i % 7, i);
+			events.add(event);
+			queue.addEvent(event);
+		}
+
+		for (int i = 0; i < events.size(); i += 2) {
+			assertTrue(queue.remove(events.get(i)));
+		}
+		assertFalse(queue.remove(events.get(0)));
+		assertEquals(500, queue.size());
+
+		SimEvent previous = null;
+		while (queue.size() > 0) {
+			SimEvent event = queue.poll();
+			assertEquals(1, event.getTag() % 2);
+			if (previous != null) {
+				assertTrue(previous.compareTo(event) < 0);
+			}
+			previous = event;
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		for (int i = 0; i < 300; i++) {
+			queue.addEvent(newEvent(i * 0.5, i));
+		}
+
+		int count = 0;
+		Iterator<SimEvent> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			count++;
+			if (event.getTag() % 3 != 0) {
+				iterator.remove();
+			}
+		}
+		assertEquals(300, count);
+		assertEquals(100, queue.size());
+
+		for (int i = 0; i < 300; i += 3) {
+			assertEquals(i, queue.poll().getTag());
+		}
+		assertNull(queue.poll());
+	}
+
+	@Test
+	public void testResize() {
+		for (int i = 0; i < 10000; i++) {
+			queue.addEvent(newEvent(i * 0.01, i));
+		}
+		assertTrue(queue.getNumberOfBuckets() > 16);
+
+		for (int i = 0; i < 10000; i++) {
+			assertEquals(i, queue.poll().getTag());
+		}
+		assertEquals(16, queue.getNumberOfBuckets());
+	}
+
+	@Test
+	public void testClear() {
+		for (int i = 0; i < 100; i++) {
+			queue.addEvent(newEvent(i, i));
+		}
+		queue.clear();
+		assertEquals(0, queue.size());
+		assertNull(queue.poll());
+
+		SimEvent event = newEvent(3, 0);
+		queue.addEvent(event);
+		assertSame(event, queue.poll());
+	}
+
+	private static SimEvent newEvent(double time, int tag) {
+		return new SimEvent(SimEvent.SEND, time, 0, 0, tag, null);
+	}
+
+	private static void assertEvent(SimEvent expected, SimEvent actual) {
+		assertEquals(expected.eventTime(), actual.eventTime(), 0);
+		assertEquals(expected.getTag(), actual.getTag());
+	}
+
+}
@@ -0,0 +1,95 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Calendar;
+
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CloudSimTest {
+
+	private static final int SOURCE = 3;
+
+	private static final int DESTINATION = 4;
+
+	@Before
+	public void setUp() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+	}
+
+	@Test
+	public void testCancelAllByType() {
+		int initialSize = CloudSim.getSimulation().getFutureQueue().size();
+		for (int i = 0; i < 10; i++) {
+			CloudSim.send(SOURCE, DESTINATION, i, 100 + i % 2, null);
+			CloudSim.send(DESTINATION, SOURCE, i, 100, null);
+		}
+
+		assertTrue(CloudSim.cancelAll(SOURCE, new PredicateType(100)));
+		assertEquals(initialSize + 15, CloudSim.getSimulation().getFutureQueue().size());
+		assertFalse(CloudSim.cancelAll(SOURCE, new PredicateType(100)));
+
+		assertTrue(CloudSim.cancelAll(SOURCE, new PredicateType(new int[] { 100, 101 })));
+		assertEquals(initialSize + 10, CloudSim.getSimulation().getFutureQueue().size());
+		assertNull(CloudSim.cancel(SOURCE, new PredicateType(101)));
+	}
+
+	@Test
+	public void testCancelFirstByType() {
+		CloudSim.send(SOURCE, DESTINATION, 5, 100, null);
+		CloudSim.send(SOURCE, DESTINATION, 2, 101, null);
+		CloudSim.send(SOURCE, DESTINATION, 3, 100, null);
+
+		SimEvent first = CloudSim.cancel(SOURCE, new PredicateType(new int[] { 100, 101 }));
+		assertEquals(2, first.eventTime(), 0);
+		assertEquals(101, first.getTag());
+		assertEquals(3, CloudSim.cancel(SOURCE, new PredicateType(100)).eventTime(), 0);
+
+		// the events are also cancelled with other predicates
+		assertNull(CloudSim.cancel(SOURCE, new PredicateFrom(DESTINATION)));
+		assertEquals(5, CloudSim.cancel(SOURCE, CloudSim.SIM_ANY).eventTime(), 0);
+		assertFalse(CloudSim.cancelAll(SOURCE, new PredicateType(100)));
+	}
+
+	@Test
+	public void testSimulationPerThread() throws Exception {
+		Simulation simulation = CloudSim.getSimulation();
+		int initialSize = simulation.getFutureQueue().size();
+		CloudSim.send(SOURCE, DESTINATION, 1, 100, null);
+
+		final Simulation[] otherSimulation = new Simulation[1];
+		final int[] otherSize = new int[1];
+		Thread thread = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				CloudSim.init(1, Calendar.getInstance(), false);
+				otherSimulation[0] = CloudSim.getSimulation();
+				otherSize[0] = CloudSim.getSimulation().getFutureQueue().size();
+			}
+		});
+		thread.start();
+		thread.join();
+
+		assertNotSame(simulation, otherSimulation[0]);
+		assertEquals(initialSize, otherSize[0]);
+		assertEquals(initialSize + 1, simulation.getFutureQueue().size());
+		assertEquals(simulation.getNumEntities(), otherSimulation[0].getNumEntities());
+	}
+
+}
@@ -0,0 +1,163 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.predicates.Predicate;
+import org.cloudbus.cloudsim.core.predicates.PredicateFrom;
+import org.cloudbus.cloudsim.core.predicates.PredicateType;
+import org.junit.Before;
+import org.junit.Test;
+
+public class DeferredQueueTest {
+
+	private DeferredQueue queue;
+
+	@Before
+	public void setUp() throws Exception {
+		queue = new DeferredQueue();
+	}
+
+	@Test
+	public void testEmptyQueue() {
+		assertEquals(0, queue.size());
+		assertEquals(0, queue.count(0, CloudSim.SIM_ANY));
+		assertNull(queue.findFirst(0, CloudSim.SIM_ANY));
+		assertNull(queue.removeFirst(0, CloudSim.SIM_ANY));
+		assertNull(queue.removeFirst(100, new PredicateType(1)));
+		assertFalse(queue.iterator().hasNext());
+	}
+
+	@Test
+	public void testTemporalOrderByEntity() {
+		SimEvent a = newEvent(2, 0, 1, 1);
+		SimEvent b = newEvent(1, 0, 1, 2);
+		SimEvent c = newEvent(2, 0, 1, 3);
+		SimEvent d = newEvent(1, 0, 2, 4);
+		queue.addEvent(a);
+		queue.addEvent(b);
+		queue.addEvent(c);
+		queue.addEvent(d);
+
+		assertEquals(4, queue.size());
+		assertEquals(3, queue.count(1, CloudSim.SIM_ANY));
+		assertEquals(1, queue.count(2, CloudSim.SIM_ANY));
+		assertSame(b, queue.findFirst(1, CloudSim.SIM_ANY));
+		assertSame(b, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(a, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(c, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertNull(queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(d, queue.removeFirst(2, CloudSim.SIM_ANY));
+		assertEquals(0, queue.size());
+	}
+
+	@Test
+	public void testPredicateType() {
+		SimEvent a = newEvent(3, 0, 1, 10);
+		SimEvent b = newEvent(1, 0, 1, 20);
+		SimEvent c = newEvent(2, 0, 1, 10);
+		SimEvent d = newEvent(1, 0, 1, 30);
+		queue.addEvent(a);
+		queue.addEvent(b);
+		queue.addEvent(c);
+		queue.addEvent(d);
+
+		assertEquals(2, queue.count(1, new PredicateType(10)));
+		assertEquals(3, queue.count(1, new PredicateType(new int[] { 10, 30, 10 })));
+		assertEquals(0, queue.count(1, CloudSim.SIM_NONE));
+		assertSame(c, queue.findFirst(1, new PredicateType(10)));
+		assertSame(d, queue.removeFirst(1, new PredicateType(new int[] { 10, 30 })));
+		assertSame(c, queue.removeFirst(1, new PredicateType(new int[] { 10, 30 })));
+		assertSame(b, queue.removeFirst(1, CloudSim.SIM_ANY));
+		assertSame(a, queue.removeFirst(1, new PredicateType(10)));
+		assertNull(queue.removeFirst(1, new PredicateType(10)));
+	}
+
+	@Test
+	public void testSameResultsAsLinearScan() {
+		Random random = new Random(3);
+		List<SimEvent> reference = new ArrayList<SimEvent>();
+		for (int i = 0; i < 20000; i++) {
+			if (random.nextInt(3) > 0 || reference.isEmpty()) {
+				SimEvent event = newEvent(random.nextInt(50), random.nextInt(4), random.nextInt(5), random.nextInt(6));
+				queue.addEvent(event);
+				int position = reference.size();
+				while (position > 0 && reference.get(position - 1).eventTime() > event.eventTime()) {
+					position--;
+				}
+				reference.add(position, event);
+			} else {
+				int destination = random.nextInt(5);
+				Predicate p;
+				switch (random.nextInt(3)) {
+					case 0:
+						p = CloudSim.SIM_ANY;
+						break;
+					case 1:
+						p = new PredicateType(new int[] { random.nextInt(6), random.nextInt(6) });
+						break;
+					default:
+						p = new PredicateFrom(random.nextInt(4));
+						break;
+				}
+
+				SimEvent expected = null;
+				int count = 0;
+				for (SimEvent event : reference) {
+					if (event.getDestination() == destination && p.match(event)) {
+						if (expected == null) {
+							expected = event;
+						}
+						count++;
+					}
+				}
+				assertEquals(count, queue.count(destination, p));
+				assertSame(expected, queue.removeFirst(destination, p));
+				reference.remove(expected);
+			}
+			assertEquals(reference.size(), queue.size());
+		}
+	}
+
+	@Test
+	public void testIteratorRemove() {
+		for (int i = 0; i < 100; i++) {
+			queue.addEvent(newEvent(i, 0, i % 4, i % 2));
+		}
+
+		int count = 0;
+		Iterator<SimEvent> iterator = queue.iterator();
+		while (iterator.hasNext()) {
+			SimEvent event = iterator.next();
+			count++;
+			if (event.getTag() == 1) {
+				iterator.remove();
+			}
+		}
+		assertEquals(100, count);
+		assertEquals(50, queue.size());
+		assertEquals(0, queue.count(1, CloudSim.SIM_ANY));
+		assertEquals(25, queue.count(2, new PredicateType(0)));
+		assertEquals(0, queue.count(2, new PredicateType(1)));
+	}
+
+	private static SimEvent newEvent(double time, int source, int destination, int tag) {
+		return new SimEvent(SimEvent.SEND, time, source, destination, tag, null);
+	}
+
+}
@@ -0,0 +1,287 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.CloudletSchedulerTimeShared;
+import org.cloudbus.cloudsim.Datacenter;
+import org.cloudbus.cloudsim.DatacenterBroker;
+import org.cloudbus.cloudsim.DatacenterCharacteristics;
+import org.cloudbus.cloudsim.Host;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.Storage;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.Vm;
+import org.cloudbus.cloudsim.VmAllocationPolicySimple;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SimulationTest {
+
+	private static final int ENTITIES = 6;
+
+	private static final int PARTITIONS = 3;
+
+	private static final int HOPS = 30;
+
+	private static final double LOOKAHEAD = 1.0;
+
+	@Before
+	public void setUp() {
+		CloudSim.setSimulation(new Simulation());
+	}
+
+	@Test
+	public void testParallelRunIsDeterministic() throws Exception {
+		List<List<String>> twoWorkers = runPing(2, LOOKAHEAD);
+		assertEquals(twoWorkers, runPing(PARTITIONS, LOOKAHEAD));
+		assertEquals(twoWorkers, runPing(PARTITIONS, LOOKAHEAD));
+	}
+
+	@Test
+	public void testParallelRunProcessesTheSequentialEvents() throws Exception {
+		List<List<String>> sequential = runPing(1, LOOKAHEAD);
+		List<List<String>> parallel = runPing(PARTITIONS, LOOKAHEAD);
+		assertEquals(ENTITIES, sequential.size());
+		for (int i = 0; i < ENTITIES; i++) {
+			// the events happening at the same time may be received in another order
+			Collections.sort(sequential.get(i));
+			Collections.sort(parallel.get(i));
+			assertEquals(sequential.get(i), parallel.get(i));
+		}
+	}
+
+	@Test
+	public void testLookaheadViolation() throws Exception {
+		try {
+			runPing(PARTITIONS, LOOKAHEAD * 2);
+			fail("The events sent to other partitions before the end of the window have to be rejected");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testParallelRunOfDatacentersAndBrokers() throws Exception {
+		Log.disable();
+		try {
+			List<String> sequential = runDatacenters(1);
+			CloudSim.setSimulation(new Simulation());
+			assertEquals(sequential, runDatacenters(PARTITIONS));
+		} finally {
+			Log.enable();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testCisStaysInTheFirstPartition() throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Simulation simulation = CloudSim.getSimulation();
+		simulation.setPartition(simulation.getEntity(simulation.getCloudInfoServiceEntityId()), 1);
+	}
+
+	@Test
+	public void testEventPooling() throws Exception {
+		List<List<String>> logs = runPing(1, LOOKAHEAD);
+		Set<SimEvent> events = Collections.newSetFromMap(new IdentityHashMap<SimEvent, Boolean>());
+		CloudSim.setSimulation(new Simulation());
+		assertEquals(logs, runPing(1, LOOKAHEAD, true, events));
+		// the pinged entities only receive one event at a time, so a few events are enough
+		assertTrue(events.size() < 2 * ENTITIES);
+
+		CloudSim.setSimulation(new Simulation());
+		assertEquals(runPing(PARTITIONS, LOOKAHEAD), runPing(PARTITIONS, LOOKAHEAD, true, null));
+	}
+
+	@Test
+	public void testEventBatchSizeCounts() {
+		LogicalProcess process = new LogicalProcess(new CalendarQueue());
+		LogicalProcess other = new LogicalProcess(new CalendarQueue());
+		process.countEventBatch(1);
+		process.countEventBatch(1);
+		process.countEventBatch(Integer.MAX_VALUE - 1);
+		other.countEventBatch(1);
+		other.countEventBatch(Integer.MAX_VALUE - 1);
+		other.countEventBatch(LogicalProcess.DENSE_EVENT_BATCH_SIZES);
+		process.addEventBatchSizes(other);
+
+		// a huge batch does not grow the dense counts
+		assertEquals(LogicalProcess.DENSE_EVENT_BATCH_SIZES, process.eventBatchSizeCounts.length);
+		SortedMap<Integer, Long> histogram = new TreeMap<Integer, Long>();
+		process.addEventBatchSizes(histogram);
+		assertEquals(3, histogram.size());
+		assertEquals(Long.valueOf(3), histogram.get(1));
+		assertEquals(Long.valueOf(1), histogram.get(LogicalProcess.DENSE_EVENT_BATCH_SIZES));
+		assertEquals(Long.valueOf(2), histogram.get(Integer.MAX_VALUE - 1));
+	}
+
+	private List<List<String>> runPing(int workers, double lookahead) throws Exception {
+		return runPing(workers, lookahead, false, null);
+	}
+
+	private List<List<String>> runPing(int workers, double lookahead, boolean eventPooling, Set<SimEvent> events)
+			throws Exception {
+		CloudSim.init(1, Calendar.getInstance(), false);
+		Simulation simulation = CloudSim.getSimulation();
+		simulation.setWorkers(workers);
+		simulation.setLookahead(lookahead);
+		simulation.setEventPooling(eventPooling);
+
+		List<PingEntity> pings = new ArrayList<PingEntity>();
+		for (int i = 0; i < ENTITIES; i++) {
+			PingEntity ping = new PingEntity("Ping" + i, i, pings, events);
+			simulation.setPartition(ping, i % PARTITIONS);
+			pings.add(ping);
+		}
+		CloudSim.startSimulation();
+
+		List<List<String>> logs = new ArrayList<List<String>>();
+		for (PingEntity ping : pings) {
+			logs.add(ping.log);
+		}
+		return logs;
+	}
+
+	/**
+	 * Runs a datacenter and a broker in each partition, and gives the datacenter and the finish
+	 * time of each cloudlet.
+	 */
+	private List<String> runDatacenters(int workers) throws Exception {
+		CloudSim.init(PARTITIONS, Calendar.getInstance(), false);
+		Simulation simulation = CloudSim.getSimulation();
+		simulation.setWorkers(workers);
+		simulation.setLookahead(LOOKAHEAD);
+
+		List<Datacenter> datacenters = new ArrayList<Datacenter>();
+		List<DatacenterBroker> brokers = new ArrayList<DatacenterBroker>();
+		for (int i = 0; i < PARTITIONS; i++) {
+			Datacenter datacenter = createDatacenter("Datacenter" + i);
+			simulation.setPartition(datacenter, i);
+			datacenters.add(datacenter);
+		}
+		for (int i = 0; i < PARTITIONS; i++) {
+			DatacenterBroker broker = new DatacenterBroker("Broker" + i);
+			simulation.setPartition(broker, i);
+			List<Vm> vms = new ArrayList<Vm>();
+			List<Cloudlet> cloudlets = new ArrayList<Cloudlet>();
+			for (int j = 0; j < 2; j++) {
+				vms.add(new Vm(j, broker.getId(), 1000, 1, 512, 1000, 10000, "Xen",
+						new CloudletSchedulerTimeShared()));
+			}
+			for (int j = 0; j < 5; j++) {
+				Cloudlet cloudlet = new Cloudlet(j, 10000 * (i + 1) * (j + 1), 1, 300, 300,
+						new UtilizationModelFull(), new UtilizationModelFull(), new UtilizationModelFull());
+				cloudlet.setUserId(broker.getId());
+				cloudlet.setVmId(j % vms.size());
+				cloudlets.add(cloudlet);
+			}
+			broker.submitVmList(vms);
+			broker.submitCloudletList(cloudlets);
+			brokers.add(broker);
+		}
+		CloudSim.startSimulation();
+		CloudSim.stopSimulation();
+
+		List<String> results = new ArrayList<String>();
+		for (int i = 0; i < PARTITIONS; i++) {
+			List<Cloudlet> received = brokers.get(i).getCloudletReceivedList();
+			assertEquals(5, received.size());
+			for (Cloudlet cloudlet : received) {
+				// the broker only uses the datacenter of its partition
+				assertEquals(datacenters.get(i).getId(), cloudlet.getResourceId());
+				results.add(i + " " + cloudlet.getCloudletId() + " " + cloudlet.getFinishTime());
+			}
+		}
+		return results;
+	}
+
+	private static Datacenter createDatacenter(String name) throws Exception {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		peList.add(new Pe(1, new PeProvisionerSimple(1000)));
+		List<Host> hostList = new ArrayList<Host>();
+		hostList.add(new Host(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000), 1000000, peList,
+				new VmSchedulerTimeShared(peList)));
+		DatacenterCharacteristics characteristics = new DatacenterCharacteristics("x86", "Linux", "Xen", hostList,
+				10.0, 3.0, 0.05, 0.001, 0.0);
+		return new Datacenter(name, characteristics, new VmAllocationPolicySimple(hostList),
+				new ArrayList<Storage>(), 0);
+	}
+
+	/**
+	 * Sends an event to another entity every time it receives one, with a delay of at least the
+	 * lookahead when the other entity is in another partition.
+	 */
+	private static class PingEntity extends SimEntity {
+
+		private final int index;
+
+		private final List<PingEntity> pings;
+
+		private final List<String> log = new ArrayList<String>();
+
+		private final Set<SimEvent> events;
+
+		public PingEntity(String name, int index, List<PingEntity> pings, Set<SimEvent> events) {
+			super(name);
+			this.index = index;
+			this.pings = pings;
+			this.events = events;
+		}
+
+		@Override
+		public void startEntity() {
+			ping(0);
+		}
+
+		@Override
+		public void processEvent(SimEvent ev) {
+			log.add(CloudSim.clock() + " " + ev.getSource() + " " + ev.getTag());
+			if (events != null) {
+				events.add(ev);
+			}
+			if (ev.getTag() < HOPS) {
+				ping(ev.getTag() + 1);
+			}
+		}
+
+		private void ping(int hop) {
+			int target = (index + hop + 1) % ENTITIES;
+			double delay = 0.25 * (hop % 3);
+			if (target % PARTITIONS != index % PARTITIONS) {
+				delay += LOOKAHEAD + 0.5 * (index % 2);
+			}
+			schedule(pings.get(target).getId(), delay, hop);
+		}
+
+		@Override
+		public void shutdownEntity() {
+		}
+
+	}
+
+}
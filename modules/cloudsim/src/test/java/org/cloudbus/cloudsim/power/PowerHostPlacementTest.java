@@ -0,0 +1,90 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.CloudletSchedulerDynamicWorkload;
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.VmSchedulerTimeShared;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.BwProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.cloudbus.cloudsim.provisioners.RamProvisionerSimple;
+import org.junit.Before;
+import org.junit.Test;
+
+public class PowerHostPlacementTest {
+
+	private static final double MIPS = 1000;
+
+	private PowerHostUtilizationHistory host;
+
+	private PowerVm hostVm;
+
+	private PowerVm vm;
+
+	@Before
+	public void setUp() {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(MIPS)));
+		peList.add(new Pe(1, new PeProvisionerSimple(MIPS)));
+		host = new PowerHostUtilizationHistory(0, new RamProvisionerSimple(2048), new BwProvisionerSimple(10000),
+				100000, peList, new VmSchedulerTimeShared(peList), new PowerModelLinear(200, 0.3));
+		hostVm = createVm(0, 500, 1024);
+		vm = createVm(1, 250, 512);
+		assertTrue(host.vmCreate(hostVm));
+
+		for (int i = 0; i < 20; i++) {
+			hostVm.addUtilizationHistoryValue(0.5 + i * 0.02);
+			if (i % 2 == 0) {
+				vm.addUtilizationHistoryValue(0.1 * (i % 7));
+			}
+		}
+	}
+
+	private static PowerVm createVm(int id, double mips, int ram) {
+		return new PowerVm(id, 0, mips, 1, ram, 1000, 1000, 0, "Xen", new CloudletSchedulerDynamicWorkload(mips,
+				1), 300);
+	}
+
+	@Test
+	public void testPlacementMatchesCreatedVm() {
+		PowerHostPlacement placement = new PowerHostPlacement(host, vm);
+		assertTrue(placement.isFeasible());
+		double[] history = placement.getUtilizationHistory();
+		double requestedTotalMips = placement.getRequestedTotalMips();
+		assertEquals(1024, placement.getMaxRam());
+		// the host is not changed
+		assertEquals(1, host.getVmList().size());
+		assertEquals(null, vm.getHost());
+
+		assertTrue(host.vmCreate(vm));
+		assertArrayEquals(host.getUtilizationHistory(), history, 0);
+		double totalRequestedMips = 0;
+		for (PowerVm createdVm : host.<PowerVm> getVmList()) {
+			totalRequestedMips += createdVm.getCurrentRequestedTotalMips();
+		}
+		assertEquals(totalRequestedMips, requestedTotalMips, 0);
+	}
+
+	@Test
+	public void testPlacementNotFeasible() {
+		PowerVm largeVm = createVm(2, 250, 1536);
+		assertFalse(new PowerHostPlacement(host, largeVm).isFeasible());
+		assertFalse(host.vmCreate(largeVm));
+	}
+
+}
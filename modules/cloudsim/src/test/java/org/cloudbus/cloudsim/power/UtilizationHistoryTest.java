@@ -0,0 +1,84 @@
+/*
+ * Title:        CloudSim Toolkit
+ * Description:  CloudSim (Cloud Simulation) Toolkit for Modeling and Simulation of Clouds
+ * Licence:      GPL - http://www.gnu.org/copyleft/gpl.html
+ *
+ * Copyright (c) 2009-2012, The University of Melbourne, Australia
+ */
+
+package org.cloudbus.cloudsim.power;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Pe;
+import org.cloudbus.cloudsim.power.models.PowerModelLinear;
+import org.cloudbus.cloudsim.provisioners.PeProvisionerSimple;
+import org.junit.Test;
+
+public class UtilizationHistoryTest {
+
+	@Test
+	public void testAddFirst() {
+		UtilizationHistory history = new UtilizationHistory(3);
+		assertEquals(0, history.size());
+		assertArrayEquals(new double[0], history.toDoubleArray(), 0);
+
+		history.addFirst(0.1);
+		history.addFirst(0.2);
+		assertEquals(Arrays.asList(0.2, 0.1), history);
+
+		history.addFirst(0.3);
+		history.addFirst(0.4);
+		history.addFirst(0.5);
+		assertEquals(3, history.size());
+		assertEquals(0.5, history.getDouble(0), 0);
+		assertEquals(0.3, history.getDouble(2), 0);
+		assertArrayEquals(new double[] { 0.5, 0.4, 0.3 }, history.toDoubleArray(), 0);
+
+		long version = history.getVersion();
+		history.clear();
+		assertEquals(0, history.size());
+		assertNotEquals(version, history.getVersion());
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testGetOutOfBounds() {
+		UtilizationHistory history = new UtilizationHistory(3);
+		history.addFirst(0.1);
+		history.getDouble(1);
+	}
+
+	@Test
+	public void testHostUtilizationHistory() {
+		List<Pe> peList = new ArrayList<Pe>();
+		peList.add(new Pe(0, new PeProvisionerSimple(1000)));
+		PowerHostUtilizationHistory host = new PowerHostUtilizationHistory(0, null, null, 0, peList, null,
+				new PowerModelLinear(200, 0.3));
+		PowerVm vm1 = new PowerVm(0, 0, 500, 1, 0, 0, 0, 0, "", null, 300);
+		PowerVm vm2 = new PowerVm(1, 0, 250, 1, 0, 0, 0, 0, "", null, 300);
+		host.<PowerVm> getVmList().add(vm1);
+		host.<PowerVm> getVmList().add(vm2);
+
+		vm1.addUtilizationHistoryValue(0.2);
+		vm1.addUtilizationHistoryValue(0.4);
+		vm2.addUtilizationHistoryValue(0.8);
+		assertArrayEquals(new double[] { 0.4, 0.1 }, host.getUtilizationHistory(), 1e-12);
+
+		// the callers may change the array
+		host.getUtilizationHistory()[0] = 1;
+		assertArrayEquals(new double[] { 0.4, 0.1 }, host.getUtilizationHistory(), 1e-12);
+
+		vm2.addUtilizationHistoryValue(0.4);
+		assertArrayEquals(new double[] { 0.3, 0.3 }, host.getUtilizationHistory(), 1e-12);
+
+		host.getVmList().remove(vm1);
+		assertArrayEquals(new double[] { 0.1, 0.2 }, host.getUtilizationHistory(), 1e-12);
+	}
+
+}
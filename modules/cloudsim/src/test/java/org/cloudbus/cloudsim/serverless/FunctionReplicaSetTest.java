@@ -0,0 +1,75 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.Test;
+
+public class FunctionReplicaSetTest {
+
+    @Test
+    public void testContainersAreKeptInPlacementOrder() {
+        FunctionReplicaSet replicaSet = new FunctionReplicaSet("0");
+        ServerlessContainer first = newContainer(0);
+        ServerlessContainer second = newContainer(1);
+        ServerlessContainer third = newContainer(2);
+        ServerlessContainer fourth = newContainer(3);
+        replicaSet.addContainer(first, 1, 2);
+        replicaSet.addContainer(second, 0, 1);
+        replicaSet.addContainer(third, 1, 2);
+        replicaSet.addContainer(fourth, 0, 0);
+
+        assertEquals(Arrays.asList(fourth, second, first, third), replicaSet.getPlacedContainers());
+        assertEquals(Arrays.asList(Collections.singletonList(fourth), Collections.singletonList(second),
+                Arrays.asList(first, third)), replicaSet.getPlacedContainersByVm());
+
+        replicaSet.removeContainer(second);
+        assertEquals(Arrays.asList(fourth, first, third), replicaSet.getPlacedContainers());
+        assertEquals(Arrays.asList(fourth, first), replicaSet.getIdleContainers(2));
+    }
+
+    @Test
+    public void testIdleContainers() {
+        FunctionReplicaSet replicaSet = new FunctionReplicaSet("0");
+        ServerlessContainer first = newContainer(0);
+        ServerlessContainer second = newContainer(1);
+        ServerlessRequest request = newRequest(0);
+        first.setRunningTask(request);
+        replicaSet.addContainer(first, 0, 0);
+        replicaSet.addContainer(second, 0, 1);
+        assertEquals(Collections.singletonList(second), replicaSet.getIdleContainers(2));
+
+        second.setRunningTask(newRequest(1));
+        assertEquals(0, replicaSet.getIdleContainerCount());
+        first.removeRunningTask(request);
+        assertEquals(Collections.singletonList(first), replicaSet.getIdleContainers(2));
+    }
+
+    @Test
+    public void testAllocatedMipsShareComesBackToZero() {
+        FunctionReplicaSet replicaSet = new FunctionReplicaSet("0");
+        replicaSet.addContainer(newContainer(0), 0, 0);
+        replicaSet.updateAllocatedMipsShare(0, 0.1);
+        replicaSet.updateAllocatedMipsShare(0.1, 0.1 + 0.2);
+        // the share of the container is not exactly zero once both requests are deallocated
+        double share = 0.1 + 0.2 - 0.1 - 0.2;
+        replicaSet.updateAllocatedMipsShare(0.1 + 0.2, share);
+        assertEquals(0, replicaSet.getAllocatedMipsShare(), 0);
+
+        replicaSet.updateAllocatedMipsShare(share, 0.5);
+        assertEquals(0.5, replicaSet.getAllocatedMipsShare(), 1e-12);
+    }
+
+    private static ServerlessContainer newContainer(int id) {
+        return new ServerlessContainer(id, 0, "0", 1000, 1, 512, 0, 0, "Xen", new ServerlessRequestScheduler(1000, 1),
+                1, true, false, false, 0, 0, 0);
+    }
+
+    private static ServerlessRequest newRequest(int id) {
+        return new ServerlessRequest(id, 0, "0", 1000, 1, 512, 1000, 0.5, 0.5, 0, 0, new UtilizationModelPartial(),
+                new UtilizationModelPartial(), new UtilizationModelFull(), 0, false);
+    }
+}
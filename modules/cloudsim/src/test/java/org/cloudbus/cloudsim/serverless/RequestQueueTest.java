@@ -0,0 +1,94 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.junit.Test;
+
+public class RequestQueueTest {
+
+    @Test
+    public void testFifoOrder() {
+        RequestQueue queue = new RequestQueue("FIFO");
+        List<ResCloudlet> requests = newRequests(new double[][] {{3, 1}, {1, 1}, {2, 5}, {0, 9}});
+        queue.addAll(requests);
+        assertEquals(requests, pollAll(queue));
+        assertNull(queue.poll());
+    }
+
+    @Test
+    public void testEdfOrder() {
+        RequestQueue queue = new RequestQueue("EDF");
+        // deadlines 4, 2, 7, 9, 2
+        List<ResCloudlet> requests = newRequests(new double[][] {{3, 1}, {1, 1}, {2, 5}, {0, 9}, {0, 2}});
+        queue.addAll(requests);
+        assertEquals(requests.get(1), queue.peek());
+        // the requests with the same deadline are promoted in the order they were admitted
+        assertEquals(Arrays.asList(requests.get(1), requests.get(4), requests.get(0), requests.get(2), requests.get(3)),
+                pollAll(queue));
+    }
+
+    @Test
+    public void testRemoveByPosition() {
+        RequestQueue queue = new RequestQueue("EDF");
+        double[][] times = new double[20][];
+        for (int i = 0; i < times.length; i++) {
+            times[i] = new double[] {(i * 7) % 20, 1};
+        }
+        List<ResCloudlet> requests = newRequests(times);
+        queue.addAll(requests);
+        assertFalse(queue.add(requests.get(0)));
+
+        // removes requests from the root, the middle and the last leaf of the heap
+        List<ResCloudlet> removed = new ArrayList<>();
+        for (int i = 0; i < times.length; i += 3) {
+            removed.add(requests.get(i));
+        }
+        for (ResCloudlet rcl : removed) {
+            assertTrue(queue.remove(rcl));
+            assertFalse(queue.contains(rcl));
+        }
+        assertFalse(queue.remove(removed.get(0)));
+        assertEquals(times.length - removed.size(), queue.size());
+
+        double previousDeadline = Double.NEGATIVE_INFINITY;
+        for (ResCloudlet rcl : pollAll(queue)) {
+            assertFalse(removed.contains(rcl));
+            ServerlessRequest request = (ServerlessRequest) rcl.getCloudlet();
+            double deadline = request.getArrivalTime() + request.getMaxExecTime();
+            assertTrue(deadline >= previousDeadline);
+            previousDeadline = deadline;
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    private static List<ResCloudlet> pollAll(RequestQueue queue) {
+        List<ResCloudlet> polled = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            polled.add(queue.poll());
+        }
+        return polled;
+    }
+
+    /**
+     * Creates a request for each pair of arrival time and maximum execution time.
+     */
+    private static List<ResCloudlet> newRequests(double[][] times) {
+        List<ResCloudlet> requests = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            ServerlessRequest request = new ServerlessRequest(i, times[i][0], "0", 1000, 1, 512, 1000, 0.5, 0.5, 0, 0,
+                    new UtilizationModelPartial(), new UtilizationModelPartial(), new UtilizationModelFull(), 0, false);
+            request.setMaxExecTime(times[i][1]);
+            requests.add(new ResCloudlet(request));
+        }
+        return requests;
+    }
+}
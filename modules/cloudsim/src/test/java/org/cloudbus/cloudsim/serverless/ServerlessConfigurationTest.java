@@ -0,0 +1,62 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import org.junit.Test;
+
+public class ServerlessConfigurationTest {
+
+    @Test
+    public void testDefaultsRoundTrip() {
+        ServerlessConfiguration configuration = new ServerlessConfiguration();
+        ServerlessConfiguration copy = new ServerlessConfiguration();
+        for (String name : ServerlessConfiguration.PARAMETER_NAMES) {
+            copy.set(name, configuration.get(name));
+            assertEquals(name, configuration.get(name), copy.get(name));
+        }
+    }
+
+    @Test
+    public void testSetRoundTrip() {
+        ServerlessConfiguration configuration = new ServerlessConfiguration();
+        configuration.set("NUMBER_VMS", "7");
+        configuration.set("SIMULATION_LIMIT", "120.5");
+        configuration.set("FUNCTION_AUTOSCALING", "FALSE");
+        configuration.set("VM_SELECTION_ALGO", "RR");
+        configuration.set("FUNCTION_SCHEDULING_RETRY_DELAY", "0.5");
+        configuration.set("CONTAINER_MIPS_INCREMENT", "-100; 0;100");
+        configuration.set("SEED", "42");
+
+        assertEquals("7", configuration.get("NUMBER_VMS"));
+        assertEquals(7, configuration.getNumberVms());
+        assertEquals("120.5", configuration.get("SIMULATION_LIMIT"));
+        assertEquals("false", configuration.get("FUNCTION_AUTOSCALING"));
+        assertEquals("RR", configuration.getVmSelectionAlgo());
+        assertEquals(0.5, configuration.getFunctionSchedulingRetryDelay(), 0);
+        assertEquals("-100;0;100", configuration.get("CONTAINER_MIPS_INCREMENT"));
+        assertEquals(42, configuration.getSeed());
+
+        ServerlessConfiguration copy = new ServerlessConfiguration(configuration);
+        for (String name : ServerlessConfiguration.PARAMETER_NAMES) {
+            assertEquals(name, configuration.get(name), copy.get(name));
+        }
+        copy.setSeed(43);
+        assertNotEquals(configuration.getSeed(), copy.getSeed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownParameter() {
+        new ServerlessConfiguration().set("NUMBER_CONTAINERS", "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidBoolean() {
+        new ServerlessConfiguration().set("MONITORING", "yes");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidNumber() {
+        new ServerlessConfiguration().set("SEED", "0.5");
+    }
+}
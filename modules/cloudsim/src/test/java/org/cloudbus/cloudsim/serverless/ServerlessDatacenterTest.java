@@ -0,0 +1,121 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Consts;
+import org.cloudbus.cloudsim.Log;
+import org.cloudbus.cloudsim.container.core.ContainerCloudlet;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ServerlessDatacenterTest {
+
+    private static final int REQUESTS = 150;
+
+    /**
+     * The length, container memory and container MIPS of the functions, as in the sample traces
+     */
+    private static final String[] FUNCTIONS = {
+            "653,1,256,968", "2275,1,512,1936", "3842,1,768,2900", "7446,1,1024,3868"};
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testIncrementalProcessingMatchesFullProcessing() throws Exception {
+        File trace = writeTrace(new Random(7));
+        Log.disable();
+        Map<Integer, ServerlessRequest> full;
+        ServerlessController fullController;
+        Map<Integer, ServerlessRequest> incremental;
+        ServerlessController incrementalController;
+        try {
+            fullController = run(trace, false);
+            full = getFinishedRequests(fullController);
+            incrementalController = run(trace, true);
+            incremental = getFinishedRequests(incrementalController);
+        } finally {
+            Log.enable();
+        }
+
+        assertTrue(full.size() > REQUESTS / 2);
+        assertEquals(full.keySet(), incremental.keySet());
+        for (Map.Entry<Integer, ServerlessRequest> entry : full.entrySet()) {
+            ServerlessRequest request = entry.getValue();
+            // a request finishes once less than one MI is left, which full processing can notice earlier, on the
+            // update of another VM
+            double granularity = Consts.MILLION / (request.getNumberOfPes() * request.getUtilizationOfCpu()
+                    * request.getContainerMIPS() * Consts.MILLION);
+            double difference = incremental.get(entry.getKey()).getFinishTime() - request.getFinishTime();
+            assertTrue("Request " + entry.getKey() + " finishes " + difference + " apart",
+                    Math.abs(difference) <= granularity);
+        }
+        assertEquals(fullController.getAverageResourceUtilization(),
+                incrementalController.getAverageResourceUtilization(), 1e-3);
+        assertEquals(fullController.getAverageVmCount(), incrementalController.getAverageVmCount(), 1e-3);
+    }
+
+    private static ServerlessController run(File trace, boolean incremental) throws Exception {
+        ServerlessConfiguration configuration = new ServerlessConfiguration();
+        configuration.setFunctionRequestsFileName(trace.getPath());
+        configuration.setIncrementalCloudletProcessing(incremental);
+        configuration.setSimulationLimit(500);
+
+        CloudSim.setSimulation(new Simulation());
+        CloudSim.init(1, Calendar.getInstance(), false);
+        ServerlessController controller = new ServerlessController("Broker", 80, configuration);
+        ServerlessDatacenter datacenter = CloudSimSCExample1.createDatacenter("datacenter", "Test_" + incremental, configuration);
+        controller.submitVmList(CloudSimSCExample1.createVmList(controller.getId(), configuration.getNumberVms(), configuration.getSeed()));
+        controller.setLoadBalancer(new RequestLoadBalancer(controller, datacenter));
+        controller.setServerlessDatacenter(datacenter);
+        controller.noOfTasks++;
+        controller.setRequestStream(new ServerlessRequestStream(trace.getPath(), controller.getId(), Constants.REQUEST_STREAM_WINDOW_SIZE));
+        CloudSim.terminateSimulation(configuration.getSimulationLimit());
+        CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+        return controller;
+    }
+
+    /**
+     * Gets the successful requests, by their order in the trace.
+     */
+    private static Map<Integer, ServerlessRequest> getFinishedRequests(ServerlessController controller) {
+        int firstId = Integer.MAX_VALUE;
+        for (ContainerCloudlet cloudlet : controller.getCloudletReceivedList()) {
+            firstId = Math.min(firstId, cloudlet.getCloudletId());
+        }
+        Map<Integer, ServerlessRequest> requests = new HashMap<>();
+        for (ContainerCloudlet cloudlet : controller.getCloudletReceivedList()) {
+            ServerlessRequest request = (ServerlessRequest) cloudlet;
+            if (request.getCloudletStatusString().equals("Success")) {
+                requests.put(request.getCloudletId() - firstId, request);
+            }
+        }
+        return requests;
+    }
+
+    private File writeTrace(Random random) throws IOException {
+        File trace = folder.newFile("requests.csv");
+        try (FileWriter writer = new FileWriter(trace)) {
+            double arrivalTime = 1;
+            for (int i = 0; i < REQUESTS; i++) {
+                arrivalTime += Math.round(random.nextDouble() * 60) / 100.0;
+                int function = random.nextInt(FUNCTIONS.length);
+                writer.write(String.format("%.2f,%d,%s,0.25,0.25%n", arrivalTime, function + 1, FUNCTIONS[function]));
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,68 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.ResCloudlet;
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.junit.Test;
+
+public class ServerlessRequestSchedulerTest {
+
+    private static final int REQUESTS = 3;
+
+    @Test
+    public void testRequestsShareThePesByDefault() {
+        ServerlessConfiguration configuration = new ServerlessConfiguration();
+        ServerlessRequestScheduler scheduler = new ServerlessRequestScheduler(1000, 1, configuration);
+        ServerlessInvoker vm = newVm();
+        // the requests ask for 1.5 PEs of a 1 PE container, and all start as in the previous versions
+        for (int i = 0; i < REQUESTS; i++) {
+            double finishTime = scheduler.requestSubmit(newRequest(i), vm, null);
+            assertEquals(2.0, finishTime, 1e-9);
+        }
+        assertEquals(REQUESTS, scheduler.getCloudletExecList().size());
+        for (ResCloudlet rcl : scheduler.getCloudletExecList()) {
+            assertEquals(Cloudlet.INEXEC, rcl.getCloudletStatus());
+        }
+        assertTrue(scheduler.getWaitingQueue().isEmpty());
+        assertEquals(REQUESTS, vm.getRunningRequests().size());
+    }
+
+    @Test
+    public void testRequestsWaitForFreePesWithAdmission() {
+        ServerlessConfiguration configuration = new ServerlessConfiguration();
+        configuration.setRequestPeAdmission(true);
+        ServerlessRequestScheduler scheduler = new ServerlessRequestScheduler(1000, 1, configuration);
+        ServerlessInvoker vm = newVm();
+        assertEquals(2.0, scheduler.requestSubmit(newRequest(0), vm, null), 1e-9);
+        assertEquals(2.0, scheduler.requestSubmit(newRequest(1), vm, null), 1e-9);
+        assertEquals(0.0, scheduler.requestSubmit(newRequest(2), vm, null), 0);
+
+        assertEquals(2, scheduler.getCloudletExecList().size());
+        assertEquals(1, scheduler.getWaitingQueue().size());
+        assertEquals(Cloudlet.QUEUED, scheduler.getWaitingQueue().peek().getCloudletStatus());
+    }
+
+    private static ServerlessRequest newRequest(int id) {
+        ServerlessRequest request = new ServerlessRequest(id, 0, "0", 1000, 1, 512, 1000, 0.5, 0.5, 0, 0,
+                new UtilizationModelPartial(), new UtilizationModelPartial(), new UtilizationModelFull(), 0, false);
+        // as the datacenter does before submitting a request
+        request.setResourceParameter(0, 0);
+        return request;
+    }
+
+    private static ServerlessInvoker newVm() {
+        List<ContainerPe> peList = new ArrayList<>();
+        peList.add(new ContainerPe(0, new CotainerPeProvisionerSimple(1000)));
+        return new ServerlessInvoker(1, 0, 1000, 1024, 1000, 100000, "Xen", new ServerlessContainerScheduler(peList),
+                new ServerlessContainerRamProvisioner(1024), new ContainerBwProvisionerSimple(1000), peList, 1);
+    }
+}
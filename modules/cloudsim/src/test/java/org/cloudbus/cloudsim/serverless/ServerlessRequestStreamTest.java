@@ -0,0 +1,134 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ServerlessRequestStreamTest {
+
+    private static final int REQUESTS = 40;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSortedTrace() throws IOException {
+        double[] arrivals = new double[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            arrivals[i] = i * 0.5;
+        }
+        File input = writeTrace("sorted.csv", arrivals);
+        try (ServerlessRequestStream stream = new ServerlessRequestStream(input.getPath(), 0, 3)) {
+            assertFalse(stream.isEager());
+            assertArrivals(arrivals, stream);
+        }
+    }
+
+    @Test
+    public void testRequestsWithinTheWindowAreSorted() throws IOException {
+        // each request is at most 2 places away from its place in the sorted trace
+        double[] arrivals = new double[]{1, 0, 2, 4, 3, 5, 7, 6, 8, 8, 9};
+        File input = writeTrace("unsorted.csv", arrivals);
+        try (ServerlessRequestStream stream = new ServerlessRequestStream(input.getPath(), 0, 3)) {
+            assertFalse(stream.isEager());
+            assertArrivals(arrivals, stream);
+        }
+    }
+
+    @Test
+    public void testTraceUnsortedBeyondTheWindowIsReadEagerly() throws IOException {
+        double[] arrivals = new double[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            arrivals[i] = REQUESTS - i;
+        }
+        File input = writeTrace("reversed.csv", arrivals);
+        Log.disable();
+        try (ServerlessRequestStream stream = new ServerlessRequestStream(input.getPath(), 0, 3)) {
+            assertTrue(stream.isEager());
+            assertArrivals(arrivals, stream);
+        } finally {
+            Log.enable();
+        }
+    }
+
+    @Test
+    public void testBinaryTraceWithinTheWindowIsSorted() throws IOException {
+        double[] arrivals = new double[]{0, 2, 1, 3, 5, 4};
+        File input = writeTrace("unsorted.csv", arrivals);
+        File output = new File(folder.getRoot(), "unsorted.bin");
+        ServerlessTraceConverter.convertRequestTrace(input.getPath(), output.getPath());
+        try (ServerlessRequestStream stream = new ServerlessRequestStream(output.getPath(), 0, 2)) {
+            assertFalse(stream.isEager());
+            assertArrivals(arrivals, stream);
+        }
+    }
+
+    @Test
+    public void testControllerRunsUnsortedTrace() throws Exception {
+        double[] sorted = new double[REQUESTS];
+        double[] unsorted = new double[REQUESTS];
+        for (int i = 0; i < REQUESTS; i++) {
+            sorted[i] = 1 + i * 3.7;
+            // swaps each pair of requests
+            unsorted[i ^ 1] = sorted[i];
+        }
+        File sortedInput = writeTrace("sorted.csv", sorted);
+        File unsortedInput = writeTrace("unsorted.csv", unsorted);
+
+        ServerlessSweepRunner runner = new ServerlessSweepRunner(1);
+        runner.addParameter("FUNCTION_REQUESTS_FILENAME", Arrays.asList(sortedInput.getPath(), unsortedInput.getPath()));
+        runner.addParameter("SIMULATION_LIMIT", Arrays.asList("500"));
+        Log.disable();
+        List<ServerlessSweepRunner.Result> results;
+        try {
+            results = runner.run();
+        } finally {
+            Log.enable();
+        }
+        assertEquals(2, results.size());
+        ServerlessSweepRunner.Result expected = results.get(0);
+        ServerlessSweepRunner.Result actual = results.get(1);
+        assertTrue(expected.getSuccessfulRequests() > 0);
+        assertEquals(expected.getSuccessfulRequests(), actual.getSuccessfulRequests());
+        assertEquals(expected.getDroppedRequests(), actual.getDroppedRequests());
+        assertEquals(expected.getAverageResponseTime(), actual.getAverageResponseTime(), 1e-9);
+        assertEquals(expected.getAverageVmUtilization(), actual.getAverageVmUtilization(), 1e-9);
+    }
+
+    private static void assertArrivals(double[] arrivals, ServerlessRequestStream stream) {
+        double[] expected = arrivals.clone();
+        Arrays.sort(expected);
+        List<Double> actual = new ArrayList<>();
+        while (stream.hasNext()) {
+            actual.add(stream.next().getArrivalTime());
+        }
+        assertEquals(expected.length, actual.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], actual.get(i), 0);
+        }
+        assertNull(stream.next());
+    }
+
+    private File writeTrace(String name, double[] arrivals) throws IOException {
+        File input = folder.newFile(name);
+        try (FileWriter writer = new FileWriter(input)) {
+            for (int i = 0; i < arrivals.length; i++) {
+                writer.write(arrivals[i] + "," + ((int) arrivals[i] % 3) + ",1000,1,256,500,0.25,0.25\n");
+            }
+        }
+        return input;
+    }
+}
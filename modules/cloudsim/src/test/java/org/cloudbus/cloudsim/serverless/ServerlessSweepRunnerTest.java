@@ -0,0 +1,95 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.Log;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ServerlessSweepRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testGridExpansion() {
+        ServerlessConfiguration base = new ServerlessConfiguration();
+        base.setNumberVms(3);
+        ServerlessSweepRunner runner = new ServerlessSweepRunner(1, base);
+        runner.addParameter("VM_SELECTION_ALGO", Arrays.asList("BPFF", "BPBF", "RR"));
+        runner.addParameter("SEED", Arrays.asList("1", "2"));
+
+        assertEquals(Arrays.asList("VM_SELECTION_ALGO", "SEED"), runner.getParameterNames());
+        List<ServerlessConfiguration> configurations = runner.getConfigurations();
+        assertEquals(6, configurations.size());
+        String[][] expected = {{"BPFF", "1"}, {"BPFF", "2"}, {"BPBF", "1"}, {"BPBF", "2"}, {"RR", "1"}, {"RR", "2"}};
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i][0], configurations.get(i).getVmSelectionAlgo());
+            assertEquals(Long.parseLong(expected[i][1]), configurations.get(i).getSeed());
+            assertEquals(3, configurations.get(i).getNumberVms());
+        }
+    }
+
+    @Test
+    public void testNoParameter() {
+        assertEquals(1, new ServerlessSweepRunner(1).getConfigurations().size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownParameter() {
+        new ServerlessSweepRunner(1).addParameter("NUMBER_CONTAINERS", Arrays.asList("1"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidValue() {
+        new ServerlessSweepRunner(1).addParameter("NUMBER_VMS", Arrays.asList("2", "many"));
+    }
+
+    @Test
+    public void testRunsAreReproducible() throws Exception {
+        ServerlessConfiguration base = new ServerlessConfiguration();
+        base.setFunctionRequestsFileName(writeTrace(new Random(3)).getPath());
+        base.setSimulationLimit(300);
+        File first = folder.newFile("first.csv");
+        File second = folder.newFile("second.csv");
+        Log.disable();
+        try {
+            sweep(base, first);
+            sweep(base, second);
+        } finally {
+            Log.enable();
+        }
+        List<String> rows = Files.readAllLines(first.toPath());
+        assertEquals(3, rows.size());
+        assertEquals(rows, Files.readAllLines(second.toPath()));
+    }
+
+    private static void sweep(ServerlessConfiguration base, File output) throws Exception {
+        ServerlessSweepRunner runner = new ServerlessSweepRunner(2, base);
+        runner.addParameter("VM_SELECTION_ALGO", Arrays.asList("BPFF", "BPBF"));
+        runner.writeResults(runner.run(), output.getPath());
+    }
+
+    private File writeTrace(Random random) throws IOException {
+        File trace = folder.newFile("requests.csv");
+        try (FileWriter writer = new FileWriter(trace)) {
+            double arrivalTime = 1;
+            for (int i = 0; i < 100; i++) {
+                arrivalTime += Math.round(random.nextDouble() * 40) / 100.0;
+                int function = 1 + random.nextInt(2);
+                writer.write(String.format("%.2f,%d,%d,1,%d,%d,0.25,0.25%n", arrivalTime, function,
+                        function == 1 ? 653 : 2275, 256 * function, 968 * function));
+            }
+        }
+        return trace;
+    }
+}
@@ -0,0 +1,86 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ServerlessTraceFileTest {
+
+    private static final int REQUESTS = 50;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testColumnsSpanSeveralChunks() throws IOException {
+        File input = folder.newFile("requests.csv");
+        try (FileWriter writer = new FileWriter(input)) {
+            for (int i = 0; i < REQUESTS; i++) {
+                writer.write((i * 0.5) + "," + (i % 3) + "," + (1000 + i) + ",1," + (256 + i) + "," + (500L + i) + ",0.25,0.5\n");
+            }
+        }
+        File output = new File(folder.getRoot(), "requests.bin");
+        assertEquals(REQUESTS, ServerlessTraceConverter.convertRequestTrace(input.getPath(), output.getPath()));
+
+        // 16 byte chunks, so that every column is split in many chunks
+        ServerlessTraceFile trace = new ServerlessTraceFile(output.toPath(), 4);
+        assertEquals(REQUESTS, trace.size());
+        for (int i = 0; i < REQUESTS; i++) {
+            assertEquals(i * 0.5, trace.getArrivalTime(i), 0);
+            assertEquals(String.valueOf(i % 3), trace.getFunctionId(i));
+            assertEquals(1000 + i, trace.getLength(i));
+            assertEquals(1, trace.getNumberOfPes(i));
+            assertEquals(256 + i, trace.getContainerMemory(i));
+            assertEquals(500L + i, trace.getContainerMIPS(i));
+            assertEquals(0.25, trace.getCpuShareRequest(i), 0);
+            assertEquals(0.5, trace.getMemShareRequest(i), 0);
+        }
+    }
+
+    @Test
+    public void testAzureTraceIsSortedByArrival() throws IOException {
+        File input = folder.newFile("azure.csv");
+        try (FileWriter writer = new FileWriter(input)) {
+            writer.write("HashOwner,HashApp,HashFunction,Trigger\n");
+            // the second function is invoked earlier than the first one
+            writer.write(azureLine("f1", new int[]{5, 7}, new int[]{2, 1}));
+            writer.write(azureLine("f2", new int[]{0, 5}, new int[]{3, 2}));
+        }
+        File output = new File(folder.getRoot(), "azure.bin");
+        assertEquals(8, ServerlessTraceConverter.convertAzureTrace(input.getPath(), output.getPath(), 1000, 1000,
+                Integer.MAX_VALUE));
+
+        ServerlessTraceFile trace = new ServerlessTraceFile(output.toPath(), 4);
+        String[] functions = new String[]{"f2", "f2", "f2", "f1", "f1", "f2", "f2", "f1"};
+        double[] arrivals = new double[]{0, 0, 0, 300, 300, 300, 300, 420};
+        for (int i = 0; i < functions.length; i++) {
+            assertEquals(functions[i], trace.getFunctionId(i));
+            assertEquals(arrivals[i], trace.getArrivalTime(i), 0);
+        }
+
+        ServerlessRequestStream stream = new ServerlessRequestStream(output.getPath(), 0, 3);
+        int count = 0;
+        while (stream.next() != null) {
+            count++;
+        }
+        assertEquals(functions.length, count);
+    }
+
+    private static String azureLine(String function, int[] minutes, int[] invocations) {
+        int[] perMinute = new int[1440];
+        for (int i = 0; i < minutes.length; i++) {
+            perMinute[minutes[i]] = invocations[i];
+        }
+        StringBuilder line = new StringBuilder("owner,app,").append(function).append(",http");
+        for (int count : perMinute) {
+            line.append(',').append(count);
+        }
+        return line.append('\n').toString();
+    }
+}
@@ -0,0 +1,110 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.List;
+
+import org.cloudbus.cloudsim.Cloudlet;
+import org.cloudbus.cloudsim.Log;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ServerlessWorkloadReaderTest {
+
+    private static final String HEADER = "HashOwner,HashApp,HashFunction,Trigger";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() {
+        // the readers warn about every invalid line and count
+        Log.disable();
+    }
+
+    @After
+    public void tearDown() {
+        Log.enable();
+    }
+
+    @Test
+    public void testCrlfRows() throws IOException {
+        String trace = HEADER + "\r\n"
+                + row("f1", 0, "2") + "\r\n"
+                + row("f2", 5, "1") + "\r\n"
+                + row("f3", 1439, "3") + "\r\n";
+        assertSameCloudlets(trace, 6);
+    }
+
+    @Test
+    public void testShortRows() throws IOException {
+        String trace = HEADER + "\n"
+                + row("f1", 3, "1") + "\n"
+                + "owner,app,f2,http,1,2,3\n"
+                + "\n"
+                + "owner,app,f3\n"
+                + row("f4", 7, "2") + "\n";
+        assertSameCloudlets(trace, 3);
+    }
+
+    @Test
+    public void testInvalidCounts() throws IOException {
+        String trace = HEADER + "\n"
+                + row("f1", 0, "x") + "\n"
+                + row("f2", 1, "1.5") + "\n"
+                + row("f3", 2, " 4 ") + "\n"
+                + row("f4", 3, "+2") + "\n"
+                + row("f5", 4, "-1") + "\n"
+                + row("f6", 5, "99999999999") + "\n"
+                + row("f7", 6, "") + "\n"
+                + row("f8", 7, "-") + "\n"
+                + row("f9", 8, "2000") + "\n"
+                + row("f10", 1439, "").replace(",0,", ",1,") + "\n"
+                + row("f11", 1439, "").replace(",0,", ",1,") + "\r\n";
+        // the count over the maximum invocations per minute is capped, and the rows whose last count is
+        // empty have too few columns
+        assertSameCloudlets(trace, 4 + 2 + 1000);
+    }
+
+    @Test
+    public void testNoTrailingNewline() throws IOException {
+        String trace = HEADER + "\n"
+                + row("f1", 10, "2") + "\n"
+                + row("f2", 20, "1");
+        assertSameCloudlets(trace, 3);
+        assertSameCloudlets(trace.replace("\n", "\r\n"), 3);
+    }
+
+    private void assertSameCloudlets(String trace, int expectedCount) throws IOException {
+        File file = folder.newFile();
+        try (FileWriter writer = new FileWriter(file)) {
+            writer.write(trace);
+        }
+        List<Cloudlet> expected = new ServerlessWorkloadReader(file.getPath(), 1000, 1000, 10000, false).generateWorkload();
+        List<Cloudlet> actual = new ServerlessWorkloadReader(file.getPath(), 1000, 1000, 10000, true).generateWorkload();
+        assertEquals(expectedCount, expected.size());
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getCloudletId(), actual.get(i).getCloudletId());
+            assertEquals(expected.get(i).getCloudletLength(), actual.get(i).getCloudletLength());
+            assertEquals(expected.get(i).getUserId(), actual.get(i).getUserId());
+        }
+    }
+
+    /**
+     * Creates a row of the trace whose only invocations are the given count at the given minute.
+     */
+    private static String row(String function, int minute, String count) {
+        StringBuilder line = new StringBuilder("owner,app,").append(function).append(",http");
+        for (int i = 0; i < 1440; i++) {
+            line.append(',').append(i == minute ? count : "0");
+        }
+        return line.toString();
+    }
+}
@@ -0,0 +1,109 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.junit.Test;
+
+public class VmCapacityIndexTest {
+
+    private static final int VMS = 13;
+
+    private static final int OPERATIONS = 2000;
+
+    private static final int[] VM_PES = {1, 2, 4};
+
+    private static final double[] VM_MIPS = {1000, 2000, 3000};
+
+    private static final int[] VM_RAM = {1024, 2048, 4096};
+
+    @Test
+    public void testSameVmsAsLinearSearch() {
+        Random random = new Random(42);
+        List<ServerlessInvoker> vms = new ArrayList<>();
+        for (int i = 0; i < VMS; i++) {
+            vms.add(newVm(i + 1, random));
+        }
+        // the VMs are not always added in the order of their ids
+        List<ServerlessInvoker> addOrder = new ArrayList<>(vms);
+        Collections.shuffle(addOrder, random);
+        VmCapacityIndex index = new VmCapacityIndex();
+        for (ServerlessInvoker vm : addOrder) {
+            index.addVm(vm);
+        }
+
+        List<ServerlessContainer> containers = new ArrayList<>();
+        for (int i = 0; i < OPERATIONS; i++) {
+            ServerlessContainer container = newContainer(i, random);
+            ServerlessInvoker firstFit = findFirstFit(vms, container);
+            assertSame(firstFit, index.findFirstFit(container));
+            assertSame(findBestFit(vms, container), index.findBestFit(container));
+
+            int operation = random.nextInt(3);
+            if (operation == 0 && firstFit != null) {
+                firstFit.containerCreate(container);
+                containers.add(container);
+            } else if (operation == 1 && !containers.isEmpty()) {
+                ServerlessContainer destroyed = containers.remove(random.nextInt(containers.size()));
+                ((ServerlessInvoker) destroyed.getVm()).containerDestroy(destroyed);
+            } else if (operation == 2 && !containers.isEmpty()) {
+                ServerlessContainer scaled = containers.get(random.nextInt(containers.size()));
+                ServerlessInvoker vm = (ServerlessInvoker) scaled.getVm();
+                int cpuChange = (random.nextInt(5) - 2) * 100;
+                int memChange = (random.nextInt(5) - 2) * 128;
+                if (scaled.getMips() + cpuChange > 0 && scaled.getRam() + memChange > 0) {
+                    vm.reallocateResourcesForContainer(scaled, cpuChange, memChange);
+                    vm.capacityChanged();
+                }
+            }
+        }
+    }
+
+    private static ServerlessInvoker findFirstFit(List<ServerlessInvoker> vms, ServerlessContainer container) {
+        for (ServerlessInvoker vm : vms) {
+            if (vm.isSuitableForContainer(container, vm)) {
+                return vm;
+            }
+        }
+        return null;
+    }
+
+    private static ServerlessInvoker findBestFit(List<ServerlessInvoker> vms, ServerlessContainer container) {
+        ServerlessInvoker selectedVm = null;
+        double minRemainingCap = Double.MAX_VALUE;
+        for (ServerlessInvoker vm : vms) {
+            double vmCpuAvailability = vm.getAvailableMips() / vm.getTotalMips();
+            if (vm.isSuitableForContainer(container, vm) && vmCpuAvailability < minRemainingCap) {
+                selectedVm = vm;
+                minRemainingCap = vmCpuAvailability;
+            }
+        }
+        return selectedVm;
+    }
+
+    private static ServerlessInvoker newVm(int id, Random random) {
+        int type = random.nextInt(VM_PES.length);
+        List<ContainerPe> peList = new ArrayList<>();
+        for (int j = 0; j < VM_PES[type]; j++) {
+            peList.add(new ContainerPe(j, new CotainerPeProvisionerSimple(VM_MIPS[type])));
+        }
+        return new ServerlessInvoker(id, 0, VM_MIPS[type], VM_RAM[type], 1000, 100000, "Xen",
+                new ServerlessContainerScheduler(peList), new ServerlessContainerRamProvisioner(VM_RAM[type]),
+                new ContainerBwProvisionerSimple(1000), peList, 1);
+    }
+
+    private static ServerlessContainer newContainer(int id, Random random) {
+        double mips = 100 * (1 + random.nextInt(15));
+        int pes = 1 + random.nextInt(2);
+        int ram = 128 * (1 + random.nextInt(8));
+        return new ServerlessContainer(id, 0, "0", mips, pes, ram, 0, 0, "Xen",
+                new ServerlessRequestScheduler(mips, pes), 1, true, false, false, 0, 0, 0);
+    }
+}
@@ -0,0 +1,126 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.SimEntity;
+import org.cloudbus.cloudsim.core.SimEvent;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.junit.Before;
+import org.junit.Test;
+
+public class VmUtilizationMonitorTest {
+
+    private static final double END_TIME = 60;
+
+    @Before
+    public void setUp() {
+        CloudSim.setSimulation(new Simulation());
+    }
+
+    @Test
+    public void testNoUsedTime() {
+        VmUtilizationMonitor monitor = new VmUtilizationMonitor();
+        assertEquals(0, monitor.getAverageResourceUtilization(), 0);
+        assertEquals(0, monitor.getAverageVmCount(), 0);
+
+        monitor.addVm(newVm(1));
+        assertEquals(0, monitor.getUsedTime(), 0);
+        assertEquals(0, monitor.getAverageResourceUtilization(), 0);
+        assertEquals(0, monitor.getAverageVmCount(), 0);
+    }
+
+    @Test
+    public void testIntegratesUtilizationSteps() throws Exception {
+        CloudSim.init(1, Calendar.getInstance(), false);
+        VmUtilizationMonitor monitor = new VmUtilizationMonitor();
+        List<ServerlessInvoker> vms = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            vms.add(newVm(i + 1));
+            monitor.addVm(vms.get(i));
+        }
+        // the time, VM and available MIPS of each step, on VMs of 1000 MIPS
+        double[][] steps = {
+                {10, 0, 500},
+                {20, 1, 0},
+                {30, 0, 1000},
+                {40, 1, 1000},
+                {50, 0, 750},
+        };
+        StepEntity entity = new StepEntity(monitor, vms, steps);
+        CloudSim.startSimulation();
+        CloudSim.stopSimulation();
+
+        // no VM is in use in [0, 10) and [40, 50)
+        assertEquals(40, entity.usedTime, 1e-9);
+        // 0.5 in [10, 20), 0.75 in [20, 30), 1 in [30, 40) and 0.25 in [50, 60)
+        assertEquals((5 + 7.5 + 10 + 2.5) / 40, entity.averageUtilization, 1e-9);
+        // 1, 2, 1 and 1 VMs in use
+        assertEquals((10 + 20 + 10 + 10) / 40.0, entity.averageVmCount, 1e-9);
+    }
+
+    private static ServerlessInvoker newVm(int id) {
+        List<ContainerPe> peList = new ArrayList<>();
+        peList.add(new ContainerPe(0, new CotainerPeProvisionerSimple(1000)));
+        return new ServerlessInvoker(id, 0, 1000, 1024, 1000, 100000, "Xen",
+                new ServerlessContainerScheduler(peList), new ServerlessContainerRamProvisioner(1024),
+                new ContainerBwProvisionerSimple(1000), peList, 1);
+    }
+
+    /**
+     * Sets the available MIPS of the VMs at the times of the steps, and reads the averages of the monitor at
+     * {@link #END_TIME}.
+     */
+    private static class StepEntity extends SimEntity {
+
+        private final VmUtilizationMonitor monitor;
+
+        private final List<ServerlessInvoker> vms;
+
+        private final double[][] steps;
+
+        private double usedTime;
+
+        private double averageUtilization;
+
+        private double averageVmCount;
+
+        public StepEntity(VmUtilizationMonitor monitor, List<ServerlessInvoker> vms, double[][] steps) {
+            super("Steps");
+            this.monitor = monitor;
+            this.vms = vms;
+            this.steps = steps;
+        }
+
+        @Override
+        public void startEntity() {
+            for (int i = 0; i < steps.length; i++) {
+                schedule(getId(), steps[i][0], 0, steps[i]);
+            }
+            schedule(getId(), END_TIME, 1);
+        }
+
+        @Override
+        public void processEvent(SimEvent ev) {
+            if (ev.getTag() == 0) {
+                double[] step = (double[]) ev.getData();
+                ((ServerlessContainerScheduler) vms.get((int) step[1]).getContainerScheduler()).setAvailableMips(step[2]);
+            } else {
+                usedTime = monitor.getUsedTime();
+                averageUtilization = monitor.getAverageResourceUtilization();
+                averageVmCount = monitor.getAverageVmCount();
+            }
+        }
+
+        @Override
+        public void shutdownEntity() {
+        }
+    }
+}
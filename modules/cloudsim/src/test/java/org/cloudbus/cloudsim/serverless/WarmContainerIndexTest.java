@@ -0,0 +1,185 @@
+package org.cloudbus.cloudsim.serverless;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.UtilizationModelFull;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerBwProvisionerSimple;
+import org.cloudbus.cloudsim.container.containerProvisioners.ContainerPe;
+import org.cloudbus.cloudsim.container.containerProvisioners.CotainerPeProvisionerSimple;
+import org.junit.Test;
+
+public class WarmContainerIndexTest {
+
+    private static final int VMS = 6;
+
+    private static final int OPERATIONS = 3000;
+
+    private static final String[] FUNCTIONS = {"0", "1", "2"};
+
+    private static final double[] CPU_SHARES = {0.1, 0.25, 0.3, 0.5, 0.75, 1};
+
+    private static final double[] MEM_SHARES = {0.25, 0.5, 1};
+
+    @Test
+    public void testFirstFitSameAsLinearSearch() {
+        checkSameAsLinearSearch("FF", new Random(11));
+    }
+
+    @Test
+    public void testBestFitSameAsLinearSearch() {
+        checkSameAsLinearSearch("BF", new Random(12));
+    }
+
+    @Test
+    public void testLeastLoadedSameAsLinearSearch() {
+        checkSameAsLinearSearch("LL", new Random(13));
+    }
+
+    private static void checkSameAsLinearSearch(String selectionAlgo, Random random) {
+        WarmContainerIndex index = new WarmContainerIndex(selectionAlgo);
+        List<ServerlessInvoker> vms = new ArrayList<>();
+        // the containers of each function on each VM, in creation order, as in the function container maps
+        List<Map<String, List<ServerlessContainer>>> vmContainers = new ArrayList<>();
+        for (int i = 0; i < VMS; i++) {
+            vms.add(newVm(i + 1));
+            vmContainers.add(new HashMap<String, List<ServerlessContainer>>());
+        }
+        List<ServerlessContainer> containers = new ArrayList<>();
+        List<ServerlessRequest> running = new ArrayList<>();
+        Map<ServerlessRequest, ServerlessContainer> runningContainers = new HashMap<>();
+
+        for (int i = 0; i < OPERATIONS; i++) {
+            ServerlessRequest request = newRequest(i, random);
+            ServerlessContainer selected = findLinear(selectionAlgo, vmContainers, request);
+            assertSame(selected, index.select(request));
+            for (String function : FUNCTIONS) {
+                int count = 0;
+                for (Map<String, List<ServerlessContainer>> functionContainers : vmContainers) {
+                    List<ServerlessContainer> list = functionContainers.get(function);
+                    count += list == null ? 0 : list.size();
+                }
+                assertEquals(count, index.getContainerCount(function));
+                assertEquals(count > 0, index.hasContainers(function));
+            }
+
+            int operation = random.nextInt(4);
+            if (operation == 0 || containers.isEmpty()) {
+                int vmIndex = random.nextInt(VMS);
+                ServerlessContainer container = newContainer(i, FUNCTIONS[random.nextInt(FUNCTIONS.length)], random);
+                if (vms.get(vmIndex).containerCreate(container)) {
+                    List<ServerlessContainer> list = vmContainers.get(vmIndex).get(container.getType());
+                    if (list == null) {
+                        list = new ArrayList<>();
+                        vmContainers.get(vmIndex).put(container.getType(), list);
+                    }
+                    list.add(container);
+                    containers.add(container);
+                    index.add(container, vms.get(vmIndex));
+                }
+            } else if (operation == 1) {
+                ServerlessContainer destroyed = containers.remove(random.nextInt(containers.size()));
+                ServerlessInvoker vm = (ServerlessInvoker) destroyed.getVm();
+                vmContainers.get(vms.indexOf(vm)).get(destroyed.getType()).remove(destroyed);
+                if (vmContainers.get(vms.indexOf(vm)).get(destroyed.getType()).isEmpty()) {
+                    vmContainers.get(vms.indexOf(vm)).remove(destroyed.getType());
+                }
+                List<ServerlessRequest> finished = new ArrayList<>();
+                for (ServerlessRequest runningRequest : running) {
+                    if (runningContainers.get(runningRequest) == destroyed) {
+                        finished.add(runningRequest);
+                    }
+                }
+                running.removeAll(finished);
+                for (ServerlessRequest finishedRequest : finished) {
+                    runningContainers.remove(finishedRequest);
+                }
+                vm.containerDestroy(destroyed);
+            } else if (operation == 2 && selected != null) {
+                // the request is sent to the selected container, as by the load balancer
+                ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) selected.getContainerCloudletScheduler();
+                scheduler.setTotalCurrentAllocatedRamForRequests(request);
+                scheduler.setTotalCurrentAllocatedMipsShareForRequests(request);
+                running.add(request);
+                runningContainers.put(request, selected);
+            } else if (operation == 3 && !running.isEmpty()) {
+                ServerlessRequest finished = running.remove(random.nextInt(running.size()));
+                ServerlessContainer container = runningContainers.remove(finished);
+                ((ServerlessRequestScheduler) container.getContainerCloudletScheduler()).deAllocateResources(finished);
+            }
+        }
+    }
+
+    /**
+     * Selects the container going through the containers of the function on each VM, in the order of the VM ids.
+     */
+    private static ServerlessContainer findLinear(String selectionAlgo, List<Map<String, List<ServerlessContainer>>> vmContainers,
+                                                  ServerlessRequest request) {
+        ServerlessContainer selected = null;
+        double selectedFreeMipsShare = 0;
+        double selectedFreeRam = 0;
+        for (Map<String, List<ServerlessContainer>> functionContainers : vmContainers) {
+            List<ServerlessContainer> list = functionContainers.get(request.getRequestFunctionId());
+            if (list == null) {
+                continue;
+            }
+            for (ServerlessContainer container : list) {
+                ServerlessRequestScheduler scheduler = (ServerlessRequestScheduler) container.getContainerCloudletScheduler();
+                if (!scheduler.isSuitableForRequest(request, container)) {
+                    continue;
+                }
+                if (selectionAlgo.equals("FF")) {
+                    return container;
+                }
+                double freeMipsShare = 1 - scheduler.getTotalCurrentAllocatedMipsShareForRequests();
+                double freeRam = container.getRam() - scheduler.getTotalCurrentAllocatedRamForRequests();
+                boolean better;
+                if (selected == null) {
+                    better = true;
+                } else if (selectionAlgo.equals("BF")) {
+                    better = freeMipsShare < selectedFreeMipsShare
+                            || (freeMipsShare == selectedFreeMipsShare && freeRam < selectedFreeRam);
+                } else {
+                    better = freeMipsShare > selectedFreeMipsShare
+                            || (freeMipsShare == selectedFreeMipsShare && freeRam > selectedFreeRam);
+                }
+                if (better) {
+                    selected = container;
+                    selectedFreeMipsShare = freeMipsShare;
+                    selectedFreeRam = freeRam;
+                }
+            }
+        }
+        return selected;
+    }
+
+    private static ServerlessInvoker newVm(int id) {
+        List<ContainerPe> peList = new ArrayList<>();
+        for (int j = 0; j < 8; j++) {
+            peList.add(new ContainerPe(j, new CotainerPeProvisionerSimple(4000)));
+        }
+        return new ServerlessInvoker(id, 0, 4000, 65536, 10000, 1000000, "Xen",
+                new ServerlessContainerScheduler(peList), new ServerlessContainerRamProvisioner(65536),
+                new ContainerBwProvisionerSimple(10000), peList, 1);
+    }
+
+    private static ServerlessContainer newContainer(int id, String function, Random random) {
+        int ram = 256 * (1 + random.nextInt(4));
+        return new ServerlessContainer(id, 0, function, 1000, 1, ram, 0, 0, "Xen",
+                new ServerlessRequestScheduler(1000, 1), 1, true, false, false, 0, 0, 0);
+    }
+
+    private static ServerlessRequest newRequest(int id, Random random) {
+        UtilizationModelPartial utilizationModelPar = new UtilizationModelPartial();
+        return new ServerlessRequest(id, 0, FUNCTIONS[random.nextInt(FUNCTIONS.length)], 1000, 1,
+                256 * (1 + random.nextInt(4)), 1000, CPU_SHARES[random.nextInt(CPU_SHARES.length)],
+                MEM_SHARES[random.nextInt(MEM_SHARES.length)], 0, 0, utilizationModelPar, utilizationModelPar,
+                new UtilizationModelFull(), 0, true);
+    }
+}
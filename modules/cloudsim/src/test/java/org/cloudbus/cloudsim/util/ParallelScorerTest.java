@@ -0,0 +1,59 @@
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.cloudbus.cloudsim.core.CloudSim;
+import org.cloudbus.cloudsim.core.Simulation;
+import org.junit.Test;
+
+public class ParallelScorerTest {
+
+	@Test
+	public void testFindMinimum() {
+		ParallelScorer scorer = new ParallelScorer(4, 2);
+		List<Double> scores = Arrays.asList(3.0, Double.NaN, 1.0, 2.0, 1.0, Double.MAX_VALUE);
+		assertEquals(2, scorer.findMinimum(scores, score -> score));
+		assertEquals(-1, scorer.findMinimum(Arrays.asList(Double.NaN, Double.MAX_VALUE), score -> score));
+		assertEquals(-1, scorer.findMinimum(Collections.<Double> emptyList(), score -> score));
+		scorer.shutdown();
+	}
+
+	@Test
+	public void testParallelMatchesSequential() {
+		Random random = new Random(1);
+		List<Double> scores = new ArrayList<Double>();
+		for (int i = 0; i < 1000; i++) {
+			// few distinct scores, so that there are ties
+			scores.add(random.nextInt(4) == 0 ? Double.NaN : random.nextInt(50));
+		}
+		ParallelScorer sequential = new ParallelScorer(1);
+		ParallelScorer parallel = new ParallelScorer(4, 8);
+		assertEquals(sequential.findMinimum(scores, score -> score), parallel.findMinimum(scores, score -> score));
+		sequential.shutdown();
+		parallel.shutdown();
+	}
+
+	@Test
+	public void testWorkersRunInTheSimulation() {
+		Simulation simulation = new Simulation();
+		CloudSim.setSimulation(simulation);
+		List<Integer> candidates = new ArrayList<Integer>();
+		for (int i = 0; i < 100; i++) {
+			candidates.add(i);
+		}
+		ParallelScorer scorer = new ParallelScorer(4, 4);
+		scorer.findMinimum(candidates, candidate -> {
+			assertSame(simulation, CloudSim.getSimulation());
+			return candidate;
+		});
+		scorer.shutdown();
+	}
+
+}
@@ -0,0 +1,92 @@
+package org.cloudbus.cloudsim.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SlidingWindowStatisticsTest {
+
+	private static final int LENGTH = 30;
+
+	@Test
+	public void testStatistics() {
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(20);
+		statistics.update(MathUtilTest.DATA3);
+		assertEquals(MathUtilTest.MAD, statistics.getMad(), 0);
+		statistics.update(MathUtilTest.DATA1);
+		assertEquals(MathUtilTest.IQR1, statistics.getIqr(), 0);
+		statistics.update(MathUtilTest.DATA2);
+		assertEquals(MathUtilTest.IQR2, statistics.getIqr(), 0);
+	}
+
+	@Test
+	public void testSlidingSeries() {
+		Random random = new Random(1);
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(LENGTH);
+		double[] series = new double[0];
+		for (int step = 0; step < 2000; step++) {
+			if (step % 97 == 96) {
+				// a jump, as when a VM is migrated
+				series = Arrays.copyOf(series, 1 + random.nextInt(LENGTH));
+				for (int i = 0; i < series.length; i++) {
+					series[i] = nextValue(random, step);
+				}
+			} else {
+				double[] next = new double[Math.min(series.length + 1, LENGTH)];
+				next[0] = nextValue(random, step);
+				System.arraycopy(series, 0, next, 1, next.length - 1);
+				series = next;
+			}
+			statistics.update(series);
+			assertEquals(series.length, statistics.size());
+			assertEquals(MathUtil.median(series), statistics.getMedian(), 0);
+			assertEquals(MathUtil.mad(series), statistics.getMad(), 0);
+			if (series.length > 1) {
+				assertEquals(MathUtil.iqr(series.clone()), statistics.getIqr(), 0);
+			}
+		}
+	}
+
+	@Test
+	public void testLinearParameterEstimates() {
+		Random random = new Random(2);
+		int length = 10;
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(length);
+		double[] series = new double[LENGTH];
+		for (int step = 0; step < 1000; step++) {
+			System.arraycopy(series, 0, series, 1, series.length - 1);
+			series[0] = nextValue(random, step);
+			statistics.update(series);
+			double[] reversed = new double[length];
+			for (int i = 0; i < length; i++) {
+				reversed[i] = series[length - i - 1];
+			}
+			assertArrayEquals(MathUtil.getLoessParameterEstimates(reversed),
+					statistics.getLinearParameterEstimates(), 1e-12);
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNotEnoughValues() {
+		SlidingWindowStatistics statistics = new SlidingWindowStatistics(10);
+		statistics.add(0.5);
+		statistics.add(0.6);
+		statistics.getLinearParameterEstimates();
+	}
+
+	/**
+	 * Gets a utilization, rounded half of the time so that the series has equal values.
+	 */
+	private static double nextValue(Random random, int step) {
+		double value = random.nextDouble();
+		if (step % 200 < 100) {
+			value = Math.round(value * 10) / 10.0;
+		}
+		return value;
+	}
+
+}